@@ -8,6 +8,7 @@ package dataset;
 public class InputOutput {
 
     private final Double[] input, output;
+    private final double[] inputValues;
 
     /**
      * Constructs an InputOutput object for a particular project by splitting the project data into input and output
@@ -46,12 +47,23 @@ public class InputOutput {
             input[nextInput++] = projectData[i];
         }
 
+        inputValues = new double[input.length];
+
+        for (int i = 0; i < input.length; i++)
+            inputValues[i] = input[i];
     }
 
     public Double[] getInputs() {
         return input;
     }
 
+    /**
+     * @return The inputs as primitive values, suitable for passing straight into a neural network.
+     */
+    public double[] getInputValues() {
+        return inputValues;
+    }
+
     public Double[] getOutputs() {
         return output;
     }
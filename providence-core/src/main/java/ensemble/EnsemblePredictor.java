@@ -0,0 +1,62 @@
+package ensemble;
+
+import neural_network.Predictor;
+
+import java.util.List;
+
+/**
+ * An immutable ensemble of predictors that produces the mean of their estimates. Any number of threads can request
+ * estimates at once without locking.
+ */
+public class EnsemblePredictor implements IEnsemble {
+
+    private final Predictor[] predictors;
+
+    // Unboxed inputs, held per thread so boxed requests do not allocate
+    private final ThreadLocal<double[]> primitiveInputs;
+
+    /**
+     * @param predictors The predictors whose estimates are combined. Must not be empty.
+     */
+    public EnsemblePredictor(List<Predictor> predictors) {
+        // region Argument checks
+        if (predictors.isEmpty())
+            throw new IllegalArgumentException("An ensemble must contain at least one predictor");
+        // endregion
+
+        this.predictors = predictors.toArray(new Predictor[predictors.size()]);
+
+        int numberOfInputs = this.predictors[0].getNumberOfInputs();
+        primitiveInputs = ThreadLocal.withInitial(() -> new double[numberOfInputs]);
+    }
+
+    /**
+     * Gets the mean result of the estimates produced by each predictor in the ensemble.
+     *
+     * @param inputs The data to provide to each predictor.
+     * @return The combined estimate.
+     */
+    public double getResult(double[] inputs) {
+        double sum = 0;
+
+        for (Predictor predictor : predictors)
+            sum += predictor.predict(inputs);
+
+        return sum / predictors.length;
+    }
+
+    @Override
+    public Double getResult(Double[] inputs) {
+        double[] values = primitiveInputs.get();
+
+        // region Argument checks
+        if (inputs.length != values.length)
+            throw new IllegalArgumentException("The number of inputs provided does not match the number of inputs of the ensemble.");
+        // endregion
+
+        for (int i = 0; i < inputs.length; i++)
+            values[i] = inputs[i];
+
+        return getResult(values);
+    }
+}
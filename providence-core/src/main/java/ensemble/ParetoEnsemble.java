@@ -1,6 +1,7 @@
 package ensemble;
 
 import evolve_nn.SEESolution;
+import neural_network.Predictor;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -8,6 +9,9 @@ import java.util.List;
 /**
  * Represents an ensemble consisting of the solutions with the lowest error solutions in each metric.
  * <p>
+ * Estimates can be requested from any number of threads at once as long as the networks of the solutions are not
+ * changed. {@link #createPredictor()} provides a snapshot of the ensemble that cannot be changed.
+ * <p>
  * Created by Joseph Billingsley on 23/12/2015.
  */
 public class ParetoEnsemble implements IEnsemble {
@@ -55,4 +59,18 @@ public class ParetoEnsemble implements IEnsemble {
 
         return sum / winningCandidates.size();
     }
+
+    /**
+     * Takes a snapshot of the networks in the ensemble. Later changes to the networks are not seen by the snapshot.
+     *
+     * @return An ensemble that produces the same estimates and can be shared between any number of threads.
+     */
+    public EnsemblePredictor createPredictor() {
+        List<Predictor> predictors = new ArrayList<>();
+
+        for (SEESolution solution : winningCandidates)
+            predictors.add(solution.getNeuralNetwork().createPredictor());
+
+        return new EnsemblePredictor(predictors);
+    }
 }
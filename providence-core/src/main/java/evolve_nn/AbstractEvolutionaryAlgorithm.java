@@ -2,6 +2,9 @@ package evolve_nn;
 
 import org.uma.jmetal.solution.Solution;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -60,4 +63,44 @@ public abstract class AbstractEvolutionaryAlgorithm<S extends Solution<?>> {
      */
     protected abstract List<S> replacement(List<S> population, List<S> offspringPopulation);
 
+    /**
+     * @return The number of solutions the algorithm has evaluated since it was created, a solution evaluated again
+     * counting again. Used to stop a run once its evaluation budget is spent, see {@link EvaluationBudgetRule}.
+     */
+    protected abstract long getEvaluations();
+
+    /**
+     * Called before the population is reported at the end of a run. Perform any work necessary for the reported
+     * population to be exact, for example re-evaluating solutions whose fitness was approximated during the search.
+     *
+     * @param population The final population.
+     * @return The population to report.
+     */
+    protected List<S> finalisePopulation(List<S> population) {
+        return population;
+    }
+
+    /**
+     * Writes the state the algorithm needs to continue a run, other than its population, such as the state of its
+     * random streams. Together with {@link #readState(DataInput)} lets a run be continued from a checkpoint. Algorithms
+     * that cannot be checkpointed do not need to implement it.
+     *
+     * @param output The output to write to.
+     * @throws IOException If the output could not be written to.
+     */
+    protected void writeState(DataOutput output) throws IOException {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support checkpoints");
+    }
+
+    /**
+     * Restores the state written by {@link #writeState(DataOutput)}, so the algorithm continues the run exactly as the
+     * algorithm that wrote it would have.
+     *
+     * @param input The input to read from.
+     * @throws IOException If the input could not be read.
+     */
+    protected void readState(DataInput input) throws IOException {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support checkpoints");
+    }
+
 }
@@ -2,6 +2,14 @@ package evolve_nn;
 
 import javafx.application.Platform;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
@@ -13,6 +21,13 @@ import java.util.concurrent.atomic.AtomicReference;
  */
 public class AlgorithmRunner<S extends SEESolution> {
 
+    /**
+     * Runs the algorithm until a stopping rule is met.
+     */
+    public static final int RUN_FOREVER = Integer.MAX_VALUE;
+
+    private static final int CHECKPOINT_MAGIC = 0x50434B50, CHECKPOINT_VERSION = 3;
+
     private AtomicReference<PopulationInformation<S>> valueUpdate = new AtomicReference<>();
 
     private int recentGeneration = 0;
@@ -22,6 +37,13 @@ public class AlgorithmRunner<S extends SEESolution> {
 
     private List<IUpdateListener<S>> updateListeners = new ArrayList<>();
 
+    private List<IStoppingRule> stoppingRules = new ArrayList<>();
+    private IStoppingRule metStoppingRule;
+
+    private CheckpointWriter checkpointWriter;
+    private int checkpointGenerations;
+    private long checkpointMillis, lastCheckpointTime;
+
     /**
      * Creates an algorithm runner for the provided evolutionary algorithm.
      *
@@ -49,22 +71,30 @@ public class AlgorithmRunner<S extends SEESolution> {
     }
 
     /**
-     * Runs the {@link AbstractEvolutionaryAlgorithm} provided in the constructor for the provided number of epochs.
-     * Upon completion the last population is returned.
+     * Runs the {@link AbstractEvolutionaryAlgorithm} provided in the constructor for the provided number of epochs, or
+     * until a stopping rule is met. Upon completion the last population is returned.
      *
      * @param generations The number of epochs after which the algorithm should stop running. If
-     *                    the value AlgorithmRunner.RUN_FOREVER is provided the algorithm will run until stop is called.
-     * @return The most recent population.
+     *                    the value AlgorithmRunner.RUN_FOREVER is provided the algorithm will run until a stopping rule
+     *                    is met.
+     * @return The most recent population, and the number of epochs run.
      */
     public PopulationInformation<S> runFor(final int generations) {
 
         List<S> offspringPopulation;
         List<S> matingPopulation;
 
+        long startTime = System.currentTimeMillis(), startEvaluations = algorithm.getEvaluations();
+        metStoppingRule = null;
+        stoppingRules.forEach(IStoppingRule::reset);
+
         population = algorithm.evaluatePopulation(population);
 
-        for (int i = 0; i < generations; i++) {
+        int generationsRun = 0;
+
+        while (generationsRun < generations && metStoppingRule == null) {
             recentGeneration++;
+            generationsRun++;
 
             matingPopulation = algorithm.selection(population);
             offspringPopulation = algorithm.reproduction(matingPopulation);
@@ -72,8 +102,25 @@ public class AlgorithmRunner<S extends SEESolution> {
             population = algorithm.replacement(population, offspringPopulation);
             algorithm.nextGeneration();
 
+            if (isCheckpointDue())
+                checkpoint();
+
             PopulationInformation<S> populationInformation = new PopulationInformation<>(recentGeneration, population);
 
+            long elapsedMillis = System.currentTimeMillis() - startTime;
+            long evaluations = algorithm.getEvaluations() - startEvaluations;
+
+            for (IStoppingRule rule : stoppingRules) {
+                if (rule.isMet(populationInformation, evaluations, elapsedMillis)) {
+                    metStoppingRule = rule;
+                    break;
+                }
+            }
+
+            // Listeners are informed on the JavaFX thread, so a runner without listeners can run where JavaFX is not
+            if (updateListeners.isEmpty())
+                continue;
+
             if (Platform.isFxApplicationThread()) {
                 informListeners(updateListeners, populationInformation);
             } else {
@@ -81,7 +128,148 @@ public class AlgorithmRunner<S extends SEESolution> {
             }
         }
 
-        return new PopulationInformation<>(generations, population);
+        population = algorithm.finalisePopulation(population);
+
+        return new PopulationInformation<>(generationsRun, population);
+    }
+
+    /**
+     * Adds a rule which can stop a run before it has run the number of epochs asked for. The run stops at the end of
+     * the first epoch any rule is met.
+     *
+     * @param rule The rule to add.
+     */
+    public void addStoppingRule(IStoppingRule rule) {
+        stoppingRules.add(rule);
+    }
+
+    /**
+     * @return The stopping rule that stopped the most recent run, or null if it ran every epoch asked for.
+     */
+    public IStoppingRule getMetStoppingRule() {
+        return metStoppingRule;
+    }
+
+    /**
+     * Writes checkpoints of the run to a file as it runs, from which the run can be continued with
+     * {@link #resume(File)}. A checkpoint is taken at the end of a generation when either interval has passed since
+     * the last. Checkpoints are written on a background thread, the file always holding the most recent whole
+     * checkpoint written. The algorithm must support checkpoints, see
+     * {@link AbstractEvolutionaryAlgorithm#writeState(java.io.DataOutput)}.
+     *
+     * @param file               The file to write checkpoints to.
+     * @param generationInterval The number of generations between checkpoints, or 0 to not count generations.
+     * @param timeIntervalMillis The milliseconds between checkpoints, or 0 to not measure time.
+     * @throws IOException If a checkpoint of an earlier call could not be written.
+     */
+    public void enableCheckpoints(File file, int generationInterval, long timeIntervalMillis) throws IOException {
+        // region Argument checks
+        if (generationInterval < 0 || timeIntervalMillis < 0)
+            throw new IllegalArgumentException("The intervals between checkpoints cannot be negative");
+
+        if (generationInterval == 0 && timeIntervalMillis == 0)
+            throw new IllegalArgumentException("At least one interval between checkpoints must be set");
+        // endregion
+
+        disableCheckpoints();
+
+        checkpointWriter = new CheckpointWriter(file);
+        checkpointGenerations = generationInterval;
+        checkpointMillis = timeIntervalMillis;
+        lastCheckpointTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Stops taking checkpoints, waiting for any checkpoint being written to finish.
+     *
+     * @throws IOException If a checkpoint could not be written.
+     */
+    public void disableCheckpoints() throws IOException {
+        if (checkpointWriter == null)
+            return;
+
+        CheckpointWriter writer = checkpointWriter;
+        checkpointWriter = null;
+
+        writer.close();
+    }
+
+    private boolean isCheckpointDue() {
+        if (checkpointWriter == null)
+            return false;
+
+        return (checkpointGenerations > 0 && recentGeneration % checkpointGenerations == 0) ||
+                (checkpointMillis > 0 && System.currentTimeMillis() - lastCheckpointTime >= checkpointMillis);
+    }
+
+    /**
+     * Encodes the run on this thread, which is quick, and leaves writing it to the checkpoint writer.
+     */
+    private void checkpoint() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+
+        try {
+            output.writeInt(CHECKPOINT_MAGIC);
+            output.writeInt(CHECKPOINT_VERSION);
+            output.writeInt(recentGeneration);
+
+            algorithm.writeState(output);
+
+            output.writeInt(population.size());
+
+            for (S solution : population)
+                solution.writeGenome(output);
+
+            output.flush();
+        } catch (IOException e) {
+            // Not thrown when writing to memory
+            throw new UncheckedIOException(e);
+        }
+
+        checkpointWriter.write(bytes.toByteArray());
+        lastCheckpointTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Continues a run from a checkpoint written by {@link #enableCheckpoints(File, int, long)}, replacing the current
+     * population. The algorithm must be set up as the algorithm that wrote the checkpoint was, the run then continuing
+     * exactly as that algorithm's would have.
+     *
+     * @param file The checkpoint file.
+     * @throws IOException If the file could not be read or is not a checkpoint of a matching algorithm.
+     */
+    @SuppressWarnings("unchecked")
+    public void resume(File file) throws IOException {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (input.readInt() != CHECKPOINT_MAGIC)
+                throw new IOException(file + " is not a checkpoint");
+
+            int version = input.readInt();
+
+            if (version != CHECKPOINT_VERSION)
+                throw new IOException("Checkpoints of version " + version + " are not supported");
+
+            int generation = input.readInt();
+
+            // Provides solutions of the right shape to read into, so must be created before the state is restored
+            List<S> solutions = algorithm.createInitialPopulation();
+
+            algorithm.readState(input);
+
+            int size = input.readInt();
+            List<S> restored = new ArrayList<>(size);
+
+            for (int i = 0; i < size; i++) {
+                S solution = i < solutions.size() ? solutions.get(i) : (S) solutions.get(0).copy();
+                solution.readGenome(input);
+
+                restored.add(solution);
+            }
+
+            population = restored;
+            recentGeneration = generation;
+        }
     }
 
     private void informListeners(Iterable<IUpdateListener<S>> updateListeners, PopulationInformation<S> populationInformation) {
@@ -0,0 +1,162 @@
+package evolve_nn;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers the objectives of recently evaluated genomes, so a solution with the same weights and thresholds as a
+ * solution evaluated before is given its objectives without being evaluated again. Such solutions are common, a child
+ * is a copy of its first parent whenever no weight or threshold is crossed over or mutated,
+ * see {@link MLPCrossOver#createChild(SEESolution, SEESolution, SEESolution)}.
+ * <p>
+ * Genomes are looked up by their content, and the least recently used genome is forgotten once the cache is full. The
+ * solutions not found are passed to another evaluator together. Can be called from several threads at once if the
+ * evaluator provided can.
+ */
+public class CachingPopulationEvaluator implements IPopulationEvaluator {
+
+    private final IPopulationEvaluator evaluator;
+
+    // Guarded by itself
+    private final Map<Genome, double[]> cache;
+
+    private final AtomicLong hits = new AtomicLong(), misses = new AtomicLong();
+
+    /**
+     * @param evaluator The evaluator to evaluate solutions not in the cache with.
+     * @param capacity  The most genomes to remember.
+     */
+    public CachingPopulationEvaluator(IPopulationEvaluator evaluator, int capacity) {
+        // region Argument checks
+        if (capacity < 1)
+            throw new IllegalArgumentException("The cache must be able to hold at least one genome");
+        // endregion
+
+        this.evaluator = evaluator;
+        this.cache = new LinkedHashMap<Genome, double[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Genome, double[]> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    @Override
+    public void evaluate(List<SEESolution> population) {
+        List<SEESolution> missed = new ArrayList<>();
+        List<Genome> missedGenomes = new ArrayList<>();
+
+        for (SEESolution solution : population) {
+            Genome genome = new Genome(solution.getGenome());
+            double[] objectives;
+
+            synchronized (cache) {
+                objectives = cache.get(genome);
+            }
+
+            if (objectives == null) {
+                missed.add(solution);
+                missedGenomes.add(genome);
+                continue;
+            }
+
+            for (int i = 0; i < objectives.length; i++)
+                solution.setObjective(i, objectives[i]);
+        }
+
+        hits.addAndGet(population.size() - missed.size());
+        misses.addAndGet(missed.size());
+
+        if (missed.isEmpty())
+            return;
+
+        evaluator.evaluate(missed);
+
+        for (int i = 0; i < missed.size(); i++) {
+            SEESolution solution = missed.get(i);
+            double[] objectives = new double[solution.getNumberOfObjectives()];
+
+            for (int j = 0; j < objectives.length; j++)
+                objectives[j] = solution.getObjective(j);
+
+            synchronized (cache) {
+                cache.put(missedGenomes.get(i), objectives);
+            }
+        }
+    }
+
+    @Override
+    public boolean isApproximate() {
+        return evaluator.isApproximate();
+    }
+
+    /**
+     * Forgets every genome if the evaluator provided is approximate, as its estimates from earlier generations are not
+     * comparable with those of the next.
+     */
+    @Override
+    public void nextGeneration() {
+        evaluator.nextGeneration();
+
+        if (evaluator.isApproximate()) {
+            synchronized (cache) {
+                cache.clear();
+            }
+        }
+    }
+
+    @Override
+    public void writeState(DataOutput output) throws IOException {
+        evaluator.writeState(output);
+    }
+
+    @Override
+    public void readState(DataInput input) throws IOException {
+        evaluator.readState(input);
+    }
+
+    /**
+     * @return The number of solutions given objectives from the cache.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return The number of solutions not found in the cache, and so evaluated.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * The weights and thresholds of a network, compared by value.
+     */
+    private static final class Genome {
+
+        private final double[] values;
+        private final int hash;
+
+        Genome(double[] values) {
+            this.values = values;
+            this.hash = Arrays.hashCode(values);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Genome && hash == ((Genome) other).hash && Arrays.equals(values, ((Genome) other).values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
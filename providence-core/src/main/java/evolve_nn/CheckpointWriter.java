@@ -0,0 +1,97 @@
+package evolve_nn;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Writes checkpoints to a file on a background thread, so the thread running the algorithm only has to encode them.
+ * <p>
+ * Each checkpoint is written to a temporary file next to the checkpoint file, flushed to disk and then moved over the
+ * checkpoint file, so the file always holds a whole checkpoint even if the process stops part way through a write. If
+ * checkpoints are produced faster than they can be written only the most recent is written.
+ */
+class CheckpointWriter {
+
+    private final File file;
+    private final ExecutorService executor;
+
+    private final AtomicReference<byte[]> pending = new AtomicReference<>();
+    private final AtomicReference<IOException> failure = new AtomicReference<>();
+
+    /**
+     * @param file The file to write checkpoints to.
+     */
+    CheckpointWriter(File file) {
+        this.file = file;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Checkpoint writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues a checkpoint to be written, replacing any queued checkpoint that has not started to be written.
+     *
+     * @param checkpoint The encoded checkpoint.
+     */
+    void write(byte[] checkpoint) {
+        // Only schedule a write if one is not already waiting to pick up the newest checkpoint
+        if (pending.getAndSet(checkpoint) == null)
+            executor.execute(this::writePending);
+    }
+
+    private void writePending() {
+        byte[] checkpoint = pending.getAndSet(null);
+
+        if (checkpoint == null)
+            return;
+
+        File temporary = new File(file.getAbsoluteFile().getParentFile(), file.getName() + ".tmp");
+
+        try {
+            try (FileOutputStream output = new FileOutputStream(temporary)) {
+                output.write(checkpoint);
+                output.getFD().sync();
+            }
+
+            try {
+                Files.move(temporary.toPath(), file.toPath(),
+                        StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            failure.set(e);
+        }
+    }
+
+    /**
+     * Waits for every queued checkpoint to be written, then stops the background thread.
+     *
+     * @throws IOException If any checkpoint could not be written.
+     */
+    void close() throws IOException {
+        executor.shutdown();
+
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while writing checkpoints", e);
+        }
+
+        IOException e = failure.get();
+
+        if (e != null)
+            throw e;
+    }
+}
@@ -6,16 +6,19 @@ import org.uma.jmetal.util.solutionattribute.DensityEstimator;
 import java.util.Comparator;
 
 /**
- * Comparator for ordering solutions with by crowding distance.
+ * Comparator for ordering solutions with by crowding distance. The crowding distances calculated by a
+ * {@link HarmonicCrowdingDistance} are read straight from the solutions, without boxing them.
  * <p>
  * Created by Joseph Billingsley on 04/03/2016.
  */
 public class CrowdingDistanceComparator<S extends Solution<?>> implements Comparator<S> {
 
     private final DensityEstimator<S> densityEstimator;
+    private final boolean harmonic;
 
     public CrowdingDistanceComparator(DensityEstimator<S> densityEstimator) {
         this.densityEstimator = densityEstimator;
+        this.harmonic = densityEstimator instanceof HarmonicCrowdingDistance;
     }
 
     @Override
@@ -28,9 +31,19 @@ public class CrowdingDistanceComparator<S extends Solution<?>> implements Compar
         else if (solutionTwo == null)
             return -1;
 
+        if (harmonic) {
+            return compare(
+                    ((SEESolution) solutionOne).getCrowdingDistance(),
+                    ((SEESolution) solutionTwo).getCrowdingDistance());
+        }
+
         Double densityOne = densityEstimator.getAttribute(solutionOne);
         Double densityTwo = densityEstimator.getAttribute(solutionTwo);
 
+        return compare(densityOne, densityTwo);
+    }
+
+    private static int compare(double densityOne, double densityTwo) {
         if (densityOne > densityTwo)
             return -1;
 
@@ -0,0 +1,28 @@
+package evolve_nn;
+
+/**
+ * Stops a run once it has evaluated a number of solutions. The generation during which the budget is used up is
+ * finished first.
+ */
+public class EvaluationBudgetRule implements IStoppingRule {
+
+    private final long maximumEvaluations;
+
+    /**
+     * @param maximumEvaluations The number of evaluations after which no more generations are started.
+     */
+    public EvaluationBudgetRule(long maximumEvaluations) {
+        // region Argument checks
+        if (maximumEvaluations < 0)
+            throw new IllegalArgumentException("The evaluation budget cannot be negative");
+        // endregion
+
+        this.maximumEvaluations = maximumEvaluations;
+    }
+
+    @Override
+    public boolean isMet(PopulationInformation<? extends SEESolution> populationInformation, long evaluations,
+                         long elapsedMillis) {
+        return evaluations >= maximumEvaluations;
+    }
+}
@@ -0,0 +1,225 @@
+package evolve_nn;
+
+import org.uma.jmetal.solution.Solution;
+import org.uma.jmetal.util.solutionattribute.Ranking;
+import org.uma.jmetal.util.solutionattribute.impl.GenericSolutionAttribute;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ranks solutions into Pareto fronts using Efficient Non-dominated Sort with binary search (ENS-BS). Finds the same
+ * fronts as jMetal's {@link org.uma.jmetal.util.solutionattribute.impl.DominanceRanking} without comparing every pair
+ * of solutions and without boxing objectives.
+ * <p>
+ * The solutions are sorted lexicographically by their objectives so no solution can be dominated by a solution after
+ * it. Each solution is then placed in the first front with no member that dominates it, found by a binary search over
+ * the fronts. With two objectives only the last member of a front needs to be checked, making the ranking
+ * O(N log N). With more objectives each front checked is scanned from its newest member.
+ * <p>
+ * The solutions in each front are in the order they appear in the population. The rank of each solution is stored as
+ * an attribute of the solution, as jMetal does, or in the rank field of a {@link SEESolution}, see
+ * {@link SEESolution#getRank()}.
+ * <p>
+ * Algorithm from 'An Efficient Approach to Nondominated Sorting for Evolutionary Multiobjective Optimization'. Xingyi
+ * Zhang, Ye Tian, Ran Cheng and Yaochu Jin. IEEE Transactions on Evolutionary Computation, Vol. 19 April 2015.
+ */
+public class FastDominanceRanking<S extends Solution<?>>
+        extends GenericSolutionAttribute<S, Integer> implements Ranking<S> {
+
+    private List<List<S>> rankedSubpopulations = new ArrayList<>();
+
+    @Override
+    public Ranking<S> computeRanking(List<S> population) {
+        rankedSubpopulations = new ArrayList<>();
+
+        if (population.isEmpty())
+            return this;
+
+        int numberOfObjectives = population.get(0).getNumberOfObjectives();
+        double[] objectives = new double[population.size() * numberOfObjectives];
+
+        for (int i = 0; i < population.size(); i++) {
+            S solution = population.get(i);
+
+            for (int j = 0; j < numberOfObjectives; j++)
+                objectives[i * numberOfObjectives + j] = solution.getObjective(j);
+        }
+
+        int[] ranks = computeRanks(objectives, numberOfObjectives);
+
+        for (int i = 0; i < ranks.length; i++) {
+            while (rankedSubpopulations.size() <= ranks[i])
+                rankedSubpopulations.add(new ArrayList<>());
+
+            S solution = population.get(i);
+
+            rankedSubpopulations.get(ranks[i]).add(solution);
+
+            if (solution instanceof SEESolution)
+                ((SEESolution) solution).setRank(ranks[i]);
+            else
+                setAttribute(solution, ranks[i]);
+        }
+
+        return this;
+    }
+
+    /**
+     * Finds the Pareto front of every point, where front 0 holds the points no other point dominates. A point dominates
+     * another if it is no worse in every objective and better in at least one, all objectives being minimised.
+     *
+     * @param objectives         The objectives of every point, the objectives of each point next to each other.
+     * @param numberOfObjectives The number of objectives of each point.
+     * @return The front of each point.
+     */
+    public static int[] computeRanks(double[] objectives, int numberOfObjectives) {
+        // region Argument checks
+        if (numberOfObjectives < 1)
+            throw new IllegalArgumentException("There must be at least one objective");
+
+        if (objectives.length % numberOfObjectives != 0)
+            throw new IllegalArgumentException("Every point must have the same number of objectives");
+        // endregion
+
+        int numberOfPoints = objectives.length / numberOfObjectives;
+
+        int[] order = lexicographicOrder(objectives, numberOfObjectives, numberOfPoints);
+        int[] ranks = new int[numberOfPoints];
+
+        // The points of each front in the order they were added. There are never more fronts than points
+        int[][] fronts = new int[numberOfPoints][];
+        int[] frontSizes = new int[numberOfPoints];
+        int numberOfFronts = 0;
+
+        for (int point : order) {
+            // The first front that does not dominate the point. Each front dominates every point the next front does.
+            int low = 0, high = numberOfFronts;
+
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+
+                if (frontDominates(objectives, numberOfObjectives, fronts[middle], frontSizes[middle], point))
+                    low = middle + 1;
+                else
+                    high = middle;
+            }
+
+            if (low == numberOfFronts) {
+                fronts[numberOfFronts] = new int[4];
+                numberOfFronts++;
+            }
+
+            if (frontSizes[low] == fronts[low].length) {
+                int[] grown = new int[fronts[low].length * 2];
+                System.arraycopy(fronts[low], 0, grown, 0, frontSizes[low]);
+                fronts[low] = grown;
+            }
+
+            fronts[low][frontSizes[low]++] = point;
+            ranks[point] = low;
+        }
+
+        return ranks;
+    }
+
+    /**
+     * @return True if any member of the front dominates the point, false otherwise. Every member of the front precedes
+     * the point lexicographically.
+     */
+    private static boolean frontDominates(double[] objectives, int numberOfObjectives, int[] front, int frontSize,
+                                          int point) {
+        // The newest member of a front of two objectives has the lowest second objective of the front, so dominates
+        // the point if any member does
+        if (numberOfObjectives == 2)
+            return dominates(objectives, numberOfObjectives, front[frontSize - 1], point);
+
+        for (int i = frontSize - 1; i >= 0; i--) {
+            if (dominates(objectives, numberOfObjectives, front[i], point))
+                return true;
+        }
+
+        return false;
+    }
+
+    private static boolean dominates(double[] objectives, int numberOfObjectives, int x, int y) {
+        int xStart = x * numberOfObjectives, yStart = y * numberOfObjectives;
+        boolean better = false;
+
+        for (int i = 0; i < numberOfObjectives; i++) {
+            double xValue = objectives[xStart + i], yValue = objectives[yStart + i];
+
+            if (xValue > yValue)
+                return false;
+
+            if (xValue < yValue)
+                better = true;
+        }
+
+        return better;
+    }
+
+    /**
+     * Sorts the points lexicographically by their objectives with a merge sort, keeping equal points in their
+     * original order.
+     */
+    private static int[] lexicographicOrder(double[] objectives, int numberOfObjectives, int numberOfPoints) {
+        int[] order = new int[numberOfPoints], buffer = new int[numberOfPoints];
+
+        for (int i = 0; i < numberOfPoints; i++)
+            order[i] = i;
+
+        for (int width = 1; width < numberOfPoints; width *= 2) {
+            for (int start = 0; start < numberOfPoints; start += 2 * width) {
+                int middle = Math.min(start + width, numberOfPoints), end = Math.min(start + 2 * width, numberOfPoints);
+                int left = start, right = middle, target = start;
+
+                while (left < middle && right < end) {
+                    if (compare(objectives, numberOfObjectives, order[right], order[left]) < 0)
+                        buffer[target++] = order[right++];
+                    else
+                        buffer[target++] = order[left++];
+                }
+
+                while (left < middle)
+                    buffer[target++] = order[left++];
+
+                while (right < end)
+                    buffer[target++] = order[right++];
+            }
+
+            int[] swap = order;
+            order = buffer;
+            buffer = swap;
+        }
+
+        return order;
+    }
+
+    private static int compare(double[] objectives, int numberOfObjectives, int x, int y) {
+        int xStart = x * numberOfObjectives, yStart = y * numberOfObjectives;
+
+        // Compared with < and > rather than Double.compare so -0.0 and 0.0 are equal, as they are when testing dominance
+        for (int i = 0; i < numberOfObjectives; i++) {
+            double xValue = objectives[xStart + i], yValue = objectives[yStart + i];
+
+            if (xValue < yValue)
+                return -1;
+
+            if (xValue > yValue)
+                return 1;
+        }
+
+        return 0;
+    }
+
+    @Override
+    public List<S> getSubfront(int rank) {
+        return rankedSubpopulations.get(rank);
+    }
+
+    @Override
+    public int getNumberOfSubfronts() {
+        return rankedSubpopulations.size();
+    }
+}
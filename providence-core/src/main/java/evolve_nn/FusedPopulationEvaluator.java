@@ -0,0 +1,54 @@
+package evolve_nn;
+
+import neural_network.FeedForwardPerceptron;
+import neural_network.INeuralNetwork;
+import neural_network.PackedNetworks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Evaluates a whole population in a single batched computation. The weights of every network in the population are
+ * packed into one contiguous array and the training set is passed through all of them together, see
+ * {@link PackedNetworks}. The objectives assigned are identical to evaluating each solution separately.
+ * <p>
+ * Solutions whose network is not a {@link FeedForwardPerceptron} with the same shape as the first network in the
+ * population are evaluated separately with {@link SEEProblem#evaluate(SEESolution)}.
+ */
+public class FusedPopulationEvaluator implements IPopulationEvaluator {
+
+    private final SEEProblem problem;
+
+    /**
+     * @param problem The problem to evaluate solutions against.
+     */
+    public FusedPopulationEvaluator(SEEProblem problem) {
+        this.problem = problem;
+    }
+
+    @Override
+    public void evaluate(List<SEESolution> population) {
+        List<SEESolution> packedSolutions = new ArrayList<>(population.size());
+        List<FeedForwardPerceptron> networks = new ArrayList<>(population.size());
+
+        for (SEESolution solution : population) {
+            INeuralNetwork network = solution.getNeuralNetwork();
+
+            if (network instanceof FeedForwardPerceptron
+                    && (networks.isEmpty() || networks.get(0).hasSameShape((FeedForwardPerceptron) network))) {
+                packedSolutions.add(solution);
+                networks.add((FeedForwardPerceptron) network);
+            } else {
+                problem.evaluate(solution);
+            }
+        }
+
+        if (networks.isEmpty())
+            return;
+
+        double[][] outputs = new PackedNetworks(networks).executeBatch(problem.getTrainingInputs());
+
+        for (int i = 0; i < packedSolutions.size(); i++)
+            problem.assignObjectives(packedSolutions.get(i), outputs[i]);
+    }
+}
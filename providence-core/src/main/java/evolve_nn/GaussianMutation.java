@@ -1,8 +1,7 @@
 package evolve_nn;
 
 import org.uma.jmetal.operator.MutationOperator;
-import org.uma.jmetal.util.pseudorandom.JMetalRandom;
-import utils.GaussianRandom;
+import utils.RandomStream;
 
 /**
  * A mutation operator for problems represented as multi layer perceptrons. Modifies a weight by a random number
@@ -13,27 +12,58 @@ import utils.GaussianRandom;
 public class GaussianMutation implements MutationOperator<SEESolution> {
 
     private final double mutationProbability;
-    private final JMetalRandom random;
+    private RandomStream random;
 
     /**
      * @param mutationProbability The likelihood to modify a weight.
      */
     public GaussianMutation(double mutationProbability) {
+        this(mutationProbability, RandomStream.forThread().split());
+    }
+
+    /**
+     * @param mutationProbability The likelihood to modify a weight.
+     * @param random              The stream to draw random numbers from. Owned by the operator from then on.
+     */
+    public GaussianMutation(double mutationProbability, RandomStream random) {
         this.mutationProbability = mutationProbability;
-        random = JMetalRandom.getInstance();
+        this.random = random;
     }
 
     @Override
     public SEESolution execute(SEESolution seeSolution) {
 
         for (int i = 0; i < seeSolution.getNumberOfVariables(); i++) {
-            if (random.nextDouble(0, 1) > mutationProbability)
+            if (random.nextDouble() > mutationProbability)
                 continue;
 
-            GaussianRandom random = GaussianRandom.getInstance();
-            seeSolution.setVariableValue(i, seeSolution.getVariableValue(i) + random.nextDouble(0, 0.1));
+            seeSolution.setVariableValue(i, seeSolution.getVariableValue(i) + random.nextGaussian(0, 0.1));
         }
 
         return seeSolution;
     }
+
+    /**
+     * Creates an operator with the same settings which draws random numbers from another stream. Used to give each
+     * thread producing offspring its own operator.
+     *
+     * @param random The stream the new operator draws random numbers from.
+     * @return The new operator.
+     */
+    public GaussianMutation copy(RandomStream random) {
+        return new GaussianMutation(mutationProbability, random);
+    }
+
+    public RandomStream getRandomStream() {
+        return random;
+    }
+
+    /**
+     * Sets the stream the operator draws random numbers from, for example to make a run reproducible.
+     *
+     * @param random The stream to draw random numbers from. Owned by the operator from then on.
+     */
+    public void setRandomStream(RandomStream random) {
+        this.random = random;
+    }
 }
@@ -2,8 +2,7 @@ package evolve_nn;
 
 import org.uma.jmetal.util.solutionattribute.DensityEstimator;
 import org.uma.jmetal.util.solutionattribute.impl.GenericSolutionAttribute;
-import utils.Distance;
-import utils.KNearest;
+import utils.KdTree;
 
 import java.util.List;
 
@@ -18,7 +17,7 @@ import java.util.List;
 public class HarmonicCrowdingDistance extends GenericSolutionAttribute<SEESolution, Double> implements DensityEstimator<SEESolution> {
 
     private final int k;
-    private List<SEESolution> searchPopulation;
+    private KdTree searchPopulation;
 
     /**
      * @param k The number of solutions to find the distance to when calculating the crowding distance of a solution.
@@ -34,16 +33,18 @@ public class HarmonicCrowdingDistance extends GenericSolutionAttribute<SEESoluti
 
     /**
      * Sets the population that should be searched when looking for the nearest solutions to a particular solution.
+     * The population is indexed with a {@link KdTree} so later changes to the objectives of its solutions are not seen.
      *
      * @param searchPopulation The population that will be searched.
      */
     public void setSearchPopulation(List<SEESolution> searchPopulation) {
-        this.searchPopulation = searchPopulation;
+        this.searchPopulation = new KdTree(searchPopulation);
     }
 
     /**
-     * Calculates the Harmonic Crowding Distance for the provided solutions. The solutions are annotated with an
-     * attribute that contains their respective crowding distance which can be accessed using this classes attributeId.
+     * Calculates the Harmonic Crowding Distance for the provided solutions. The crowding distance of each solution is
+     * stored in the solution, see {@link SEESolution#getCrowdingDistance()}, and can also be accessed as an attribute
+     * using this classes attributeId.
      *
      * @param solutionSet The solutions to calculate the harmonic crowding distance over.
      */
@@ -54,20 +55,29 @@ public class HarmonicCrowdingDistance extends GenericSolutionAttribute<SEESoluti
             return;
         // endregion
 
+        int[] nearest = new int[k];
+        double[] squaredDistances = new double[k];
+        double[] point = new double[solutionSet.get(0).getNumberOfObjectives()];
+
         for (SEESolution currSolution : solutionSet) {
-            List<SEESolution> kNearest = KNearest.find(currSolution, searchPopulation, k);
+            for (int i = 0; i < point.length; i++)
+                point[i] = currSolution.getObjective(i);
 
-            double denominator = 0;
-            for (SEESolution nearSolution : kNearest) {
-                Double distance =
-                        Distance.getEuclideanDistance(
-                                currSolution.getObjectives(),
-                                nearSolution.getObjectives());
+            int found = searchPopulation.findNearest(
+                    point, k, searchPopulation.indexOf(currSolution), nearest, squaredDistances);
 
-                denominator += 1 / distance;
-            }
+            double denominator = 0;
+            for (int i = 0; i < found; i++)
+                denominator += 1 / Math.sqrt(squaredDistances[i]);
 
-            setAttribute(currSolution, k / denominator);
+            currSolution.setCrowdingDistance(k / denominator);
         }
     }
+
+    @Override
+    public Double getAttribute(SEESolution solution) {
+        double crowdingDistance = solution.getCrowdingDistance();
+
+        return Double.isNaN(crowdingDistance) ? null : crowdingDistance;
+    }
 }
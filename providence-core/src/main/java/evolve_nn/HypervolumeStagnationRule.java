@@ -0,0 +1,169 @@
+package evolve_nn;
+
+import utils.Hypervolume;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Stops a run once the hypervolume of the non-dominated solutions stops growing. The hypervolume is measured every
+ * generation, and the run stops when it has grown by no more than a fraction of its value over a window of
+ * generations.
+ * <p>
+ * Unless a reference point is provided, the reference point is set from the first generation of a run, beyond the
+ * worst value of each objective by a tenth of the range of the objective. Measuring from a fixed point keeps the
+ * hypervolumes of a run comparable.
+ * <p>
+ * The hypervolume is only calculated again when the non-dominated solutions have changed, so generations that do not
+ * change the front cost a comparison of the front with the last.
+ */
+public class HypervolumeStagnationRule implements IStoppingRule {
+
+    private final int window;
+    private final double minimumImprovement;
+    private final double[] fixedReferencePoint;
+
+    private double[] referencePoint;
+    private final Deque<Double> history = new ArrayDeque<>();
+
+    private List<double[]> lastFront;
+    private double lastHypervolume;
+
+    /**
+     * @param window             The number of generations over which the hypervolume must grow.
+     * @param minimumImprovement The fraction of its value the hypervolume must grow by over the window, for example
+     *                           0.001 for a tenth of a percent.
+     */
+    public HypervolumeStagnationRule(int window, double minimumImprovement) {
+        this(window, minimumImprovement, null);
+    }
+
+    /**
+     * @param window             The number of generations over which the hypervolume must grow.
+     * @param minimumImprovement The fraction of its value the hypervolume must grow by over the window.
+     * @param referencePoint     The point bounding the hypervolume, or null to set it from the first generation.
+     */
+    public HypervolumeStagnationRule(int window, double minimumImprovement, double[] referencePoint) {
+        // region Argument checks
+        if (window < 1)
+            throw new IllegalArgumentException("The window must be at least one generation");
+
+        if (minimumImprovement < 0)
+            throw new IllegalArgumentException("The minimum improvement cannot be negative");
+        // endregion
+
+        this.window = window;
+        this.minimumImprovement = minimumImprovement;
+        this.fixedReferencePoint = referencePoint == null ? null : referencePoint.clone();
+
+        reset();
+    }
+
+    @Override
+    public void reset() {
+        referencePoint = fixedReferencePoint;
+        history.clear();
+        lastFront = null;
+    }
+
+    @Override
+    public boolean isMet(PopulationInformation<? extends SEESolution> populationInformation, long evaluations,
+                         long elapsedMillis) {
+        if (referencePoint == null)
+            referencePoint = findReferencePoint(populationInformation.getPopulation());
+
+        List<double[]> front = toPoints(populationInformation.getNonDominatedPopulation());
+
+        if (!isSameFront(front, lastFront)) {
+            lastHypervolume = Hypervolume.calculate(front, referencePoint);
+            lastFront = front;
+        }
+
+        history.addLast(lastHypervolume);
+
+        if (history.size() <= window)
+            return false;
+
+        double previous = history.removeFirst();
+
+        return lastHypervolume - previous <= minimumImprovement * Math.abs(previous);
+    }
+
+    private static double[] findReferencePoint(List<? extends SEESolution> population) {
+        int numberOfObjectives = population.get(0).getNumberOfObjectives();
+        double[] referencePoint = new double[numberOfObjectives];
+
+        for (int i = 0; i < numberOfObjectives; i++) {
+            double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+
+            for (SEESolution solution : population) {
+                min = Math.min(min, solution.getObjective(i));
+                max = Math.max(max, solution.getObjective(i));
+            }
+
+            // Every solution of the population must be inside the reference point, even with no range
+            referencePoint[i] = max + (max > min ? (max - min) / 10 : 1);
+        }
+
+        return referencePoint;
+    }
+
+    /**
+     * @return The objectives of the solutions, sorted so equal fronts have equal lists.
+     */
+    private static List<double[]> toPoints(List<? extends SEESolution> solutions) {
+        List<double[]> points = new ArrayList<>(solutions.size());
+
+        for (SEESolution solution : solutions) {
+            double[] point = new double[solution.getNumberOfObjectives()];
+
+            for (int i = 0; i < point.length; i++)
+                point[i] = solution.getObjective(i);
+
+            points.add(point);
+        }
+
+        points.sort((x, y) -> {
+            for (int i = 0; i < x.length; i++) {
+                int comparison = Double.compare(x[i], y[i]);
+
+                if (comparison != 0)
+                    return comparison;
+            }
+
+            return 0;
+        });
+
+        return points;
+    }
+
+    private static boolean isSameFront(List<double[]> front, List<double[]> other) {
+        if (other == null || front.size() != other.size())
+            return false;
+
+        for (int i = 0; i < front.size(); i++) {
+            if (!Arrays.equals(front.get(i), other.get(i)))
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * @return The hypervolume measured at the end of the last generation.
+     */
+    public double getLastHypervolume() {
+        return lastHypervolume;
+    }
+
+    /**
+     * @return The reference point the hypervolume is measured from, or null before the first generation of a run if
+     * it is set from the first generation.
+     */
+    public double[] getReferencePoint() {
+        return referencePoint == null ? null : referencePoint.clone();
+    }
+}
@@ -0,0 +1,54 @@
+package evolve_nn;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Interface for strategies that assign objectives to every solution in a population.
+ */
+public interface IPopulationEvaluator {
+
+    /**
+     * Evaluates every solution in the population, setting the objectives of each.
+     *
+     * @param population The solutions to evaluate.
+     */
+    void evaluate(List<SEESolution> population);
+
+    /**
+     * @return True if the objectives assigned are estimates, for example from part of the training set, so the
+     * solutions reported at the end of a run must be evaluated again exactly. False by default.
+     */
+    default boolean isApproximate() {
+        return false;
+    }
+
+    /**
+     * Called once each generation has been replaced. An approximate evaluator keeps its estimates comparable within a
+     * generation, and may estimate differently in the next, so the parents are evaluated again alongside their
+     * offspring. Does nothing by default.
+     */
+    default void nextGeneration() {
+    }
+
+    /**
+     * Writes the state the evaluator needs to continue a run from a checkpoint. Writes nothing by default.
+     *
+     * @param output The output to write to.
+     * @throws IOException If the output could not be written to.
+     */
+    default void writeState(DataOutput output) throws IOException {
+    }
+
+    /**
+     * Restores the state written by {@link #writeState(DataOutput)}. Reads nothing by default.
+     *
+     * @param input The input to read from.
+     * @throws IOException If the input could not be read, or was written by an evaluator of another setup.
+     */
+    default void readState(DataInput input) throws IOException {
+    }
+
+}
@@ -0,0 +1,26 @@
+package evolve_nn;
+
+/**
+ * Decides when an {@link AlgorithmRunner} can stop a run early, before it has run the number of generations it was
+ * asked to.
+ */
+public interface IStoppingRule {
+
+    /**
+     * Called when a run starts, before the first generation.
+     */
+    default void reset() {
+    }
+
+    /**
+     * Called at the end of every generation.
+     *
+     * @param populationInformation The population at the end of the generation.
+     * @param evaluations           The number of solutions evaluated since the run started, a solution evaluated
+     *                              again counting again.
+     * @param elapsedMillis         The milliseconds since the run started.
+     * @return True if the run should stop, false otherwise.
+     */
+    boolean isMet(PopulationInformation<? extends SEESolution> populationInformation, long evaluations,
+                  long elapsedMillis);
+}
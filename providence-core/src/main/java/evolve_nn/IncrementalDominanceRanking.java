@@ -0,0 +1,205 @@
+package evolve_nn;
+
+import org.uma.jmetal.solution.Solution;
+import org.uma.jmetal.util.solutionattribute.Ranking;
+import org.uma.jmetal.util.solutionattribute.impl.GenericSolutionAttribute;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps a population ranked into Pareto fronts as solutions are added and removed one at a time, without ranking the
+ * whole population again. Only the solutions whose front changes are moved, so adding or removing a solution usually
+ * touches a few fronts rather than the whole population.
+ * <p>
+ * A solution is added to the first front with no member that dominates it. Members of that front it dominates move
+ * down a front, in turn moving the members of the next front they dominate, and so on. Removing a solution moves up
+ * the solutions of the next front that were only dominated by it, and so on.
+ * <p>
+ * The fronts are the same as {@link FastDominanceRanking} finds for the population, though the solutions of a front
+ * may be in another order. The rank of each solution is kept by the ranking rather than stored in the solution, so
+ * rankings of the same solutions computed elsewhere, for example by listeners on other threads, cannot change it.
+ * <p>
+ * Algorithm from 'Efficient Nondomination Level Update Approach for Steady-State Evolutionary Multiobjective
+ * Optimization'. Ke Li, Kalyanmoy Deb, Qingfu Zhang and Sam Kwong. COIN Report 2014014.
+ */
+public class IncrementalDominanceRanking<S extends Solution<?>>
+        extends GenericSolutionAttribute<S, Integer> implements Ranking<S> {
+
+    private List<List<S>> fronts = new ArrayList<>();
+    private final Map<S, Integer> ranks = new IdentityHashMap<>();
+
+    /**
+     * Ranks a whole population, replacing any solutions already ranked.
+     */
+    @Override
+    public Ranking<S> computeRanking(List<S> population) {
+        FastDominanceRanking<S> ranking = new FastDominanceRanking<>();
+        ranking.computeRanking(population);
+
+        fronts = new ArrayList<>();
+        ranks.clear();
+
+        for (int i = 0; i < ranking.getNumberOfSubfronts(); i++) {
+            List<S> front = new ArrayList<>(ranking.getSubfront(i));
+            fronts.add(front);
+
+            for (S solution : front)
+                ranks.put(solution, i);
+        }
+
+        return this;
+    }
+
+    /**
+     * Adds an evaluated solution to the ranking.
+     *
+     * @param solution The solution to add.
+     */
+    public void add(S solution) {
+        // The first front that does not dominate the solution. Each front dominates every solution the next front does.
+        int low = 0, high = fronts.size();
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (anyDominates(fronts.get(middle), solution))
+                low = middle + 1;
+            else
+                high = middle;
+        }
+
+        List<S> moving = new ArrayList<>();
+
+        if (low == fronts.size()) {
+            fronts.add(new ArrayList<>());
+        } else {
+            for (S member : fronts.get(low)) {
+                if (dominates(solution, member))
+                    moving.add(member);
+            }
+        }
+
+        place(solution, low);
+
+        // Each solution moving down can only push the solutions it dominates down one more front
+        for (int level = low + 1; !moving.isEmpty(); level++) {
+            List<S> origin = fronts.get(level - 1);
+            origin.removeAll(moving);
+
+            if (level == fronts.size())
+                fronts.add(new ArrayList<>());
+
+            List<S> pushed = new ArrayList<>();
+
+            for (S member : fronts.get(level)) {
+                if (anyDominates(moving, member))
+                    pushed.add(member);
+            }
+
+            for (S member : moving)
+                place(member, level);
+
+            moving = pushed;
+        }
+    }
+
+    /**
+     * Removes a solution from the ranking.
+     *
+     * @param solution The solution to remove. Must have been ranked.
+     */
+    public void remove(S solution) {
+        Integer rank = ranks.get(solution);
+
+        // region Argument checks
+        if (rank == null || rank >= fronts.size() || !fronts.get(rank).remove(solution))
+            throw new IllegalArgumentException("The solution is not ranked");
+        // endregion
+
+        ranks.remove(solution);
+
+        List<S> leaving = new ArrayList<>();
+        leaving.add(solution);
+
+        // A solution can only move up if a solution dominating it left the front above
+        for (int level = rank + 1; level < fronts.size() && !leaving.isEmpty(); level++) {
+            List<S> above = fronts.get(level - 1);
+            List<S> promoted = new ArrayList<>();
+
+            for (S member : fronts.get(level)) {
+                if (anyDominates(leaving, member) && !anyDominates(above, member))
+                    promoted.add(member);
+            }
+
+            fronts.get(level).removeAll(promoted);
+
+            for (S member : promoted)
+                place(member, level - 1);
+
+            leaving = promoted;
+        }
+
+        while (!fronts.isEmpty() && fronts.get(fronts.size() - 1).isEmpty())
+            fronts.remove(fronts.size() - 1);
+    }
+
+    private void place(S solution, int level) {
+        fronts.get(level).add(solution);
+        ranks.put(solution, level);
+    }
+
+    @Override
+    public Integer getAttribute(S solution) {
+        return ranks.get(solution);
+    }
+
+    private boolean anyDominates(List<S> solutions, S solution) {
+        for (S member : solutions) {
+            if (dominates(member, solution))
+                return true;
+        }
+
+        return false;
+    }
+
+    private static boolean dominates(Solution<?> x, Solution<?> y) {
+        boolean better = false;
+
+        for (int i = 0; i < x.getNumberOfObjectives(); i++) {
+            double xValue = x.getObjective(i), yValue = y.getObjective(i);
+
+            if (xValue > yValue)
+                return false;
+
+            if (xValue < yValue)
+                better = true;
+        }
+
+        return better;
+    }
+
+    /**
+     * @return Every ranked solution, in order of rank.
+     */
+    public List<S> getPopulation() {
+        List<S> population = new ArrayList<>();
+
+        for (List<S> front : fronts)
+            population.addAll(front);
+
+        return population;
+    }
+
+    @Override
+    public List<S> getSubfront(int rank) {
+        return fronts.get(rank);
+    }
+
+    @Override
+    public int getNumberOfSubfronts() {
+        return fronts.size();
+    }
+}
@@ -0,0 +1,242 @@
+package evolve_nn;
+
+import neural_network.FeedForwardPerceptron;
+import neural_network.INeuralNetwork;
+import neural_network.IStepFunction;
+import neural_network.InputMatrix;
+import neural_network.Precision;
+
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Evaluates a population by reusing the work done evaluating the solutions each solution was copied from. The values
+ * of the hidden nodes of every solution are kept for every row of the training set. When a solution is a copy of a
+ * solution that has been evaluated, only the hidden nodes whose incoming weights or threshold differ from the original
+ * are recalculated, followed by the output layer. A child whose only changes are to the weights of the output layer
+ * therefore needs a single dot product per row.
+ * <p>
+ * Copying a network resets its thresholds to 1, see {@link FeedForwardPerceptron#copy()}, so a hidden node of a child
+ * is only reused if its threshold is set back to the threshold of the original, as {@link MLPCrossOver} does.
+ * <p>
+ * The objectives assigned are identical to {@link SEEProblem#evaluate(SEESolution)}. Only networks with a single
+ * hidden layer that execute batches in double precision are evaluated incrementally, any other solution is evaluated
+ * with {@link SEEProblem#evaluate(SEESolution)}.
+ * <p>
+ * The stored values are dropped once their solution is no longer used. The evaluator must not be shared between
+ * threads.
+ */
+public class IncrementalPopulationEvaluator implements IPopulationEvaluator {
+
+    private final SEEProblem problem;
+    private final InputMatrix trainingInputs;
+
+    private final Map<SEESolution, HiddenValues> hiddenValues = new WeakHashMap<>();
+
+    private long hiddenNodesCalculated, hiddenNodesReused;
+
+    /**
+     * @param problem The problem to evaluate solutions against.
+     */
+    public IncrementalPopulationEvaluator(SEEProblem problem) {
+        this.problem = problem;
+
+        // Column-major so the values of each input for every row are next to each other
+        InputMatrix inputs = problem.getTrainingInputs();
+
+        if (inputs.getLayout() == InputMatrix.Layout.COLUMN_MAJOR) {
+            trainingInputs = inputs;
+        } else {
+            double[][] rows = new double[inputs.getRows()][inputs.getColumns()];
+
+            for (int i = 0; i < rows.length; i++)
+                for (int j = 0; j < rows[i].length; j++)
+                    rows[i][j] = inputs.get(i, j);
+
+            trainingInputs = InputMatrix.fromRows(rows, InputMatrix.Layout.COLUMN_MAJOR);
+        }
+    }
+
+    @Override
+    public void evaluate(List<SEESolution> population) {
+        for (SEESolution solution : population) {
+            INeuralNetwork network = solution.getNeuralNetwork();
+
+            if (!isSupported(network)) {
+                problem.evaluate(solution);
+                continue;
+            }
+
+            HiddenValues previous = hiddenValues.get(solution);
+
+            if (previous == null && solution.getOrigin() != null)
+                previous = hiddenValues.get(solution.getOrigin());
+
+            HiddenValues current = new HiddenValues((FeedForwardPerceptron) network, trainingInputs.getRows());
+            current.calculate(previous);
+
+            hiddenValues.put(solution, current);
+
+            problem.assignObjectives(solution, current.calculateOutputs());
+        }
+    }
+
+    private static boolean isSupported(INeuralNetwork network) {
+        if (!(network instanceof FeedForwardPerceptron))
+            return false;
+
+        FeedForwardPerceptron ffp = (FeedForwardPerceptron) network;
+
+        return ffp.getNumberOfLayers() == 3 && ffp.getPrecision() == Precision.DOUBLE;
+    }
+
+    /**
+     * @return The number of hidden nodes whose values have been calculated for the whole training set.
+     */
+    public long getHiddenNodesCalculated() {
+        return hiddenNodesCalculated;
+    }
+
+    /**
+     * @return The number of hidden nodes whose values were reused from the solution they were copied from.
+     */
+    public long getHiddenNodesReused() {
+        return hiddenNodesReused;
+    }
+
+    /**
+     * The values of the hidden nodes of a network for every row of the training set, and the weights and thresholds
+     * that produced them.
+     */
+    private class HiddenValues {
+
+        private final FeedForwardPerceptron network;
+        private final int rows, numberOfInputs, numberOfHidden, numberOfOutputs;
+
+        private final double[] weights, thresholds;
+
+        // The values of each hidden node for every row, node by node
+        private double[] values;
+
+        HiddenValues(FeedForwardPerceptron network, int rows) {
+            this.network = network;
+            this.rows = rows;
+
+            numberOfInputs = network.countNodesInLayer(0);
+            numberOfHidden = network.countNodesInLayer(1);
+            numberOfOutputs = network.countNodesInLayer(2);
+
+            weights = new double[network.getNumberOfWeights()];
+            thresholds = new double[network.getNumberOfThresholds()];
+            network.copyParametersTo(weights, 0, thresholds, 0);
+        }
+
+        /**
+         * Calculates the values of the hidden nodes, reusing the values of the previous network for any node whose
+         * incoming weights and threshold are unchanged.
+         *
+         * @param previous The values of the network this network was copied from, or null.
+         */
+        void calculate(HiddenValues previous) {
+            boolean canReuse = previous != null
+                    && previous.numberOfInputs == numberOfInputs
+                    && previous.numberOfHidden == numberOfHidden
+                    && previous.rows == rows
+                    && previous.network.getInternalStepFunction().getClass() == network.getInternalStepFunction().getClass();
+
+            values = canReuse ? previous.values.clone() : new double[numberOfHidden * rows];
+
+            for (int j = 0; j < numberOfHidden; j++) {
+                if (canReuse && !hasChanged(previous, j)) {
+                    hiddenNodesReused++;
+                    continue;
+                }
+
+                calculateHiddenNode(j);
+                hiddenNodesCalculated++;
+            }
+        }
+
+        private boolean hasChanged(HiddenValues previous, int node) {
+            if (thresholds[node] != previous.thresholds[node])
+                return true;
+
+            int start = node * numberOfInputs;
+
+            for (int i = start; i < start + numberOfInputs; i++)
+                if (weights[i] != previous.weights[i])
+                    return true;
+
+            return false;
+        }
+
+        /**
+         * Calculates the value of one hidden node for every row, summing the inputs in the same order as the network.
+         */
+        private void calculateHiddenNode(int node) {
+            double[] inputs = trainingInputs.getValues();
+            int columnStride = trainingInputs.getColumnStride();
+
+            int weightStart = node * numberOfInputs;
+            int valueStart = node * rows;
+
+            for (int row = 0; row < rows; row++)
+                values[valueStart + row] = 0;
+
+            for (int i = 0; i < numberOfInputs; i++) {
+                double weight = weights[weightStart + i];
+                int inputStart = i * columnStride;
+
+                for (int row = 0; row < rows; row++)
+                    values[valueStart + row] += inputs[inputStart + row] * weight;
+            }
+
+            double threshold = thresholds[node];
+
+            for (int row = 0; row < rows; row++)
+                values[valueStart + row] -= threshold;
+
+            network.getInternalStepFunction().response(values, values, valueStart, rows);
+        }
+
+        /**
+         * @return The outputs of the network for every row, the outputs of each row next to each other.
+         */
+        double[] calculateOutputs() {
+            IStepFunction outputStepFunc = network.getOutputStepFunction();
+
+            double[] outputs = new double[rows * numberOfOutputs];
+            double[] totals = new double[rows];
+
+            int weightOffset = numberOfInputs * numberOfHidden;
+
+            for (int o = 0; o < numberOfOutputs; o++) {
+                int weightStart = weightOffset + o * numberOfHidden;
+
+                for (int row = 0; row < rows; row++)
+                    totals[row] = 0;
+
+                for (int j = 0; j < numberOfHidden; j++) {
+                    double weight = weights[weightStart + j];
+                    int valueStart = j * rows;
+
+                    for (int row = 0; row < rows; row++)
+                        totals[row] += values[valueStart + row] * weight;
+                }
+
+                double threshold = thresholds[numberOfHidden + o];
+
+                for (int row = 0; row < rows; row++)
+                    totals[row] -= threshold;
+
+                outputStepFunc.response(totals, totals, 0, rows);
+
+                for (int row = 0; row < rows; row++)
+                    outputs[row * numberOfOutputs + o] = totals[row];
+            }
+
+            return outputs;
+        }
+    }
+}
@@ -0,0 +1,458 @@
+package evolve_nn;
+
+import utils.RandomStream;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static evolve_nn.MigrationProtocol.*;
+
+/**
+ * Runs an island model across several processes, which may be on other machines. Each island is run by an
+ * {@link IslandWorker} which connects to the coordinator over TCP. The coordinator assigns each worker its island and
+ * seed, then passes the migrants each island sends on to the islands chosen by the {@link MigrationTopology}.
+ * <p>
+ * Workers can be started as processes on this machine with {@link #launchWorkers(String...)}, on threads of this
+ * process with {@link #startLoopbackWorker(IslandWorker)}, or by running {@link IslandWorker#main(String[])} on another
+ * machine with the host and port of the coordinator.
+ * <p>
+ * If a worker disconnects or stops responding its island is left out of later migrations, and the last migrants it
+ * sent stand in for its final population. A worker also fails once it stops reading and too many migrants are waiting
+ * to be sent to it. Migrants are written to each worker by a thread of its own, so a worker that stops reading holds
+ * up no other worker. The run only fails if no worker connects.
+ * <p>
+ * Unlike {@link IslandModel} the islands do not wait for each other, so when migrants arrive, and so the results of a
+ * run, depend on the speed of each worker. Each island sends the same migrants to all of its destinations.
+ */
+public class IslandCoordinator implements Closeable {
+
+    // The most messages waiting to be written to a worker before the worker is treated as failed
+    private static final int MAXIMUM_PENDING_MESSAGES = 64;
+
+    private final ServerSocket serverSocket;
+    private final int numberOfWorkers, generations, migrationInterval, numberOfMigrants;
+    private final MigrationTopology topology;
+
+    private final List<Connection> connections = new ArrayList<>();
+    private final List<Process> processes = new ArrayList<>();
+
+    private long seed;
+    private RandomStream random;
+    private int connectTimeout = 60000, workerTimeout = 0;
+    private int migrantsForwarded = 0;
+
+    /**
+     * @param port              The port to listen for workers on, or 0 to listen on any free port.
+     * @param numberOfWorkers   The number of workers, one per island. At least one.
+     * @param topology          The islands each island sends migrants to.
+     * @param generations       The number of generations each island runs for. At least one.
+     * @param migrationInterval The number of generations between each island sending migrants.
+     * @param numberOfMigrants  The most solutions each island sends at each migration.
+     * @throws IOException If the port could not be listened on.
+     */
+    public IslandCoordinator(int port, int numberOfWorkers, MigrationTopology topology, int generations,
+                             int migrationInterval, int numberOfMigrants) throws IOException {
+        // region Argument checks
+        if (numberOfWorkers < 1)
+            throw new IllegalArgumentException("There must be at least one worker");
+
+        if (generations < 1)
+            throw new IllegalArgumentException("The islands must run for at least one generation");
+
+        if (migrationInterval < 1)
+            throw new IllegalArgumentException("There must be at least one generation between migrations");
+
+        if (numberOfMigrants < 0)
+            throw new IllegalArgumentException("The number of migrants cannot be negative");
+        // endregion
+
+        this.numberOfWorkers = numberOfWorkers;
+        this.topology = topology;
+        this.generations = generations;
+        this.migrationInterval = migrationInterval;
+        this.numberOfMigrants = numberOfMigrants;
+
+        this.seed = RandomStream.forThread().nextLong();
+        this.serverSocket = new ServerSocket(port);
+    }
+
+    /**
+     * Starts a worker process on this machine for every island, each running {@link IslandWorker#main(String[])} with
+     * the classpath of this process.
+     *
+     * @param workerArguments The arguments to pass each worker after the host and port of the coordinator.
+     * @return The processes started. They are destroyed when the coordinator is closed.
+     * @throws IOException If a process could not be started.
+     */
+    public List<Process> launchWorkers(String... workerArguments) throws IOException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(IslandWorker.class.getName());
+        command.add(InetAddress.getLoopbackAddress().getHostAddress());
+        command.add(String.valueOf(getPort()));
+
+        for (String argument : workerArguments)
+            command.add(argument);
+
+        List<Process> launched = new ArrayList<>();
+
+        for (int i = 0; i < numberOfWorkers; i++) {
+            Process process = new ProcessBuilder(command).inheritIO().start();
+
+            launched.add(process);
+            processes.add(process);
+        }
+
+        return launched;
+    }
+
+    /**
+     * Runs a worker on a thread of this process, connected to the coordinator over the loopback interface. Behaves
+     * exactly as a worker in another process, so is useful for testing.
+     *
+     * @param worker The worker to run.
+     * @return The final population of the worker's island, once it finishes.
+     */
+    public FutureTask<List<SEESolution>> startLoopbackWorker(IslandWorker worker) {
+        String host = InetAddress.getLoopbackAddress().getHostAddress();
+        FutureTask<List<SEESolution>> task = new FutureTask<>(() -> worker.run(host, getPort()));
+
+        Thread thread = new Thread(task, "Loopback island worker");
+        thread.setDaemon(true);
+        thread.start();
+
+        return task;
+    }
+
+    /**
+     * Waits for the workers to connect, runs the islands and collects their final populations. Waits at most the
+     * connect timeout for each worker, carrying on with the workers that connected.
+     *
+     * @param problem The problem the islands solve, used to create the solutions the results are read into.
+     * @return The final populations of the islands in the order the workers connected.
+     * @throws IOException If no worker connected.
+     */
+    public List<SEESolution> run(SEEProblem problem) throws IOException {
+        SEESolution template = problem.createSolution();
+
+        acceptWorkers();
+
+        RandomStream root = new RandomStream(seed);
+
+        for (Connection connection : connections)
+            connection.assign(root.nextLong());
+
+        random = root.split();
+
+        for (Connection connection : connections)
+            connection.start();
+
+        synchronized (this) {
+            try {
+                while (connections.stream().anyMatch(connection -> !connection.done))
+                    wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the islands", e);
+            }
+        }
+
+        List<SEESolution> population = new ArrayList<>();
+
+        for (Connection connection : connections) {
+            byte[] result = connection.result != null ? connection.result : connection.lastMigrants;
+
+            if (result != null)
+                population.addAll(decodeSolutions(result, template));
+        }
+
+        return population;
+    }
+
+    private void acceptWorkers() throws IOException {
+        serverSocket.setSoTimeout(connectTimeout);
+
+        while (connections.size() < numberOfWorkers) {
+            Socket socket;
+
+            try {
+                socket = serverSocket.accept();
+            } catch (SocketTimeoutException e) {
+                break;
+            }
+
+            Connection connection;
+
+            try {
+                connection = new Connection(socket, connections.size());
+            } catch (IOException e) {
+                // The worker disconnected or does not speak the protocol, the others may still connect
+                socket.close();
+                continue;
+            }
+
+            synchronized (this) {
+                connections.add(connection);
+            }
+        }
+
+        if (connections.isEmpty())
+            throw new IOException("No workers connected");
+    }
+
+    /**
+     * Queues migrants from an island to be sent to the islands still running, chosen by the topology from those
+     * islands. Never waits on the network.
+     *
+     * @param count The number of solutions in the migrants.
+     */
+    private synchronized void forward(Connection source, byte[] migrants, int count) {
+        List<Connection> running = new ArrayList<>();
+
+        for (Connection connection : connections) {
+            if (connection.isRunning())
+                running.add(connection);
+        }
+
+        int island = running.indexOf(source);
+
+        if (island < 0 || running.size() < 2)
+            return;
+
+        for (int destination : topology.getDestinations(island, running.size(), random)) {
+            if (running.get(destination).send(migrants))
+                migrantsForwarded += count;
+        }
+    }
+
+    private synchronized void finish(Connection connection) {
+        connection.done = true;
+        notifyAll();
+    }
+
+    /**
+     * Stops listening for workers, disconnects the workers and destroys any worker processes launched.
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+
+        for (Connection connection : connections)
+            connection.socket.close();
+
+        for (Process process : processes)
+            process.destroy();
+    }
+
+    // region Getters and Setters
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Makes the seed of each island, and the choices of the topology, depend only on the provided seed.
+     *
+     * @param seed The seed of the run.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * @param connectTimeout The most milliseconds to wait for each worker to connect. 60 seconds by default.
+     */
+    public void setConnectTimeout(int connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    /**
+     * Sets how long a worker can go without sending a message before it is treated as failed. Must be longer than the
+     * slowest island takes to run the migration interval.
+     *
+     * @param workerTimeout The timeout in milliseconds, or 0 to wait until the worker disconnects. 0 by default.
+     */
+    public void setWorkerTimeout(int workerTimeout) {
+        this.workerTimeout = workerTimeout;
+    }
+
+    /**
+     * @return The number of workers connected to the coordinator.
+     */
+    public synchronized int getNumberOfConnectedWorkers() {
+        return connections.size();
+    }
+
+    /**
+     * @return The number of workers that disconnected or stopped responding before finishing their run.
+     */
+    public synchronized int getNumberOfFailedWorkers() {
+        return (int) connections.stream().filter(connection -> connection.done && connection.result == null).count();
+    }
+
+    /**
+     * @return The number of migrants passed on to islands, a migrant sent to two islands counting twice. Migrants are
+     * counted as they are queued for an island, so before the island has received them.
+     */
+    public synchronized int getMigrantsForwarded() {
+        return migrantsForwarded;
+    }
+    // endregion
+
+    /**
+     * The connection to a worker, and the threads reading its messages and writing the migrants sent to it.
+     */
+    private class Connection implements Runnable {
+
+        private final Socket socket;
+        private final int island;
+        private final DataInputStream input;
+        private final DataOutputStream output;
+
+        private final BlockingQueue<byte[]> outbound = new LinkedBlockingQueue<>(MAXIMUM_PENDING_MESSAGES);
+        private Thread writer;
+
+        // Written by the threads of the connection and by forward, read once the connection is done or while holding
+        // the coordinator's lock
+        private volatile byte[] result, lastMigrants;
+        private volatile boolean done, failed;
+
+        /**
+         * Accepts a worker, reading its greeting.
+         */
+        Connection(Socket socket, int island) throws IOException {
+            this.socket = socket;
+            this.island = island;
+
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout(connectTimeout);
+
+            input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+            Message hello = readMessage(input);
+
+            if (hello.type != HELLO || hello.read().readInt() != VERSION)
+                throw new IOException("The worker does not speak version " + VERSION + " of the protocol");
+
+            socket.setSoTimeout(workerTimeout);
+        }
+
+        void assign(long islandSeed) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream settings = new DataOutputStream(bytes);
+
+            try {
+                settings.writeInt(island);
+                settings.writeLong(islandSeed);
+                settings.writeInt(generations);
+                settings.writeInt(migrationInterval);
+                settings.writeInt(numberOfMigrants);
+
+                writeMessage(output, ASSIGN, bytes.toByteArray());
+            } catch (IOException e) {
+                // The reading thread finds the socket closed and finishes the connection
+                failed = true;
+                closeSocket();
+            }
+        }
+
+        void start() {
+            writer = new Thread(this::writeMigrants, "Island " + island + " writer");
+            writer.setDaemon(true);
+            writer.start();
+
+            Thread thread = new Thread(this, "Island " + island + " connection");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        /**
+         * Queues migrants to be written to the worker. If the worker has fallen too far behind in reading, it is
+         * treated as failed and disconnected.
+         *
+         * @return True if the migrants were queued.
+         */
+        boolean send(byte[] migrants) {
+            if (outbound.offer(migrants))
+                return true;
+
+            // The reading and writing threads find the socket closed and finish the connection
+            failed = true;
+            closeSocket();
+
+            return false;
+        }
+
+        /**
+         * Writes the queued migrants to the worker until the connection finishes.
+         */
+        private void writeMigrants() {
+            try {
+                while (true) {
+                    writeMessage(output, MIGRANTS, outbound.take());
+                }
+            } catch (InterruptedException e) {
+                // The connection finished
+            } catch (IOException e) {
+                // Left to the reading thread to close, the worker may have sent its result before disconnecting
+                failed = true;
+            }
+        }
+
+        boolean isRunning() {
+            return !done && !failed && result == null;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    Message message = readMessage(input);
+
+                    if (message.type == MIGRANTS) {
+                        lastMigrants = message.payload;
+                        forward(this, message.payload, countSolutions(message.payload));
+                    } else if (message.type == RESULT) {
+                        result = message.payload;
+                        break;
+                    } else {
+                        throw new IOException("Unexpected message " + message.type);
+                    }
+                }
+            } catch (IOException e) {
+                failed = true;
+            } finally {
+                closeSocket();
+                writer.interrupt();
+                finish(this);
+            }
+        }
+
+        private void closeSocket() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // Already disconnected
+            }
+        }
+    }
+}
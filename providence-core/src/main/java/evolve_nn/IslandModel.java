@@ -0,0 +1,281 @@
+package evolve_nn;
+
+import neural_network.INeuralNetwork;
+import utils.RandomStream;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Runs several {@link RHaDMOEA} islands at once, each on its own thread with its own population and random stream.
+ * Every few generations each island sends copies of some of its non-dominated solutions to other islands, chosen by
+ * the {@link MigrationTopology}. Migrants are passed to {@link RHaDMOEA#addImmigrant(SEESolution)} and join the next
+ * replacement of the receiving island.
+ * <p>
+ * The island model can be run by an {@link AlgorithmRunner} like any other algorithm. The populations of the islands
+ * are merged, in island order, into the population the runner reports. A whole generation of every island happens
+ * during replacement, the runner's reproduction producing no offspring.
+ * <p>
+ * The islands finish each generation before migrants are exchanged, and migrants are sent in island order, so the
+ * results of a seeded run do not depend on how the threads are scheduled. Islands may share a problem, their initial
+ * populations are created one island at a time.
+ */
+public class IslandModel extends AbstractEvolutionaryAlgorithm<SEESolution> {
+
+    private final List<Island> islands;
+    private final MigrationTopology topology;
+    private final int migrationInterval, numberOfMigrants;
+    private final ExecutorService executor;
+
+    private RandomStream random;
+    private int generation = 0;
+
+    /**
+     * Runs each island on its own thread of a fork-join pool.
+     *
+     * @param islands           The algorithms to run, one per island. At least two.
+     * @param topology          The islands each island sends migrants to.
+     * @param migrationInterval The number of generations between exchanges of migrants.
+     * @param numberOfMigrants  The most solutions each island sends to each destination at each exchange.
+     */
+    public IslandModel(List<RHaDMOEA> islands, MigrationTopology topology, int migrationInterval, int numberOfMigrants) {
+        this(islands, topology, migrationInterval, numberOfMigrants, new ForkJoinPool(islands.size()));
+    }
+
+    /**
+     * @param islands           The algorithms to run, one per island. At least two.
+     * @param topology          The islands each island sends migrants to.
+     * @param migrationInterval The number of generations between exchanges of migrants.
+     * @param numberOfMigrants  The most solutions each island sends to each destination at each exchange.
+     * @param executor          The executor to run the islands on. It is not shut down by the island model.
+     */
+    public IslandModel(List<RHaDMOEA> islands, MigrationTopology topology, int migrationInterval, int numberOfMigrants,
+                       ExecutorService executor) {
+        // region Argument checks
+        if (islands.size() < 2)
+            throw new IllegalArgumentException("There must be at least two islands");
+
+        if (migrationInterval < 1)
+            throw new IllegalArgumentException("There must be at least one generation between migrations");
+
+        if (numberOfMigrants < 0)
+            throw new IllegalArgumentException("The number of migrants cannot be negative");
+        // endregion
+
+        this.islands = new ArrayList<>();
+
+        for (RHaDMOEA algorithm : islands)
+            this.islands.add(new Island(algorithm));
+
+        this.topology = topology;
+        this.migrationInterval = migrationInterval;
+        this.numberOfMigrants = numberOfMigrants;
+        this.executor = executor;
+        this.random = RandomStream.forThread().split();
+    }
+
+    @Override
+    protected void nextGeneration() {
+        generation++;
+    }
+
+    @Override
+    protected List<SEESolution> createInitialPopulation() {
+        for (Island island : islands)
+            island.population = island.algorithm.createInitialPopulation();
+
+        return mergePopulations();
+    }
+
+    /**
+     * Evaluates the population of every island. The population provided must be the merged population of the
+     * islands, as reported by the model.
+     */
+    @Override
+    protected List<SEESolution> evaluatePopulation(List<SEESolution> population) {
+        if (population.isEmpty())
+            return population;
+
+        runOnIslands(island -> island.population = island.algorithm.evaluatePopulation(island.population));
+
+        return mergePopulations();
+    }
+
+    @Override
+    protected List<SEESolution> selection(List<SEESolution> population) {
+        return population;
+    }
+
+    /**
+     * @return The number of evaluations made by every island.
+     */
+    @Override
+    protected long getEvaluations() {
+        return islands.stream().mapToLong(island -> island.algorithm.getEvaluations()).sum();
+    }
+
+    /**
+     * Produces no offspring, each island produces its own during {@link #replacement(List, List)}.
+     */
+    @Override
+    protected List<SEESolution> reproduction(List<SEESolution> population) {
+        return new ArrayList<>();
+    }
+
+    /**
+     * Runs one generation of every island, then exchanges migrants if it is time to.
+     */
+    @Override
+    protected List<SEESolution> replacement(List<SEESolution> population, List<SEESolution> offspringPopulation) {
+        runOnIslands(Island::runGeneration);
+
+        if ((generation + 1) % migrationInterval == 0)
+            exchangeMigrants();
+
+        return mergePopulations();
+    }
+
+    @Override
+    protected List<SEESolution> finalisePopulation(List<SEESolution> population) {
+        runOnIslands(island -> island.population = island.algorithm.finalisePopulation(island.population));
+
+        return mergePopulations();
+    }
+
+    private void exchangeMigrants() {
+        for (int i = 0; i < islands.size(); i++) {
+            List<SEESolution> nonDominated =
+                    new FastDominanceRanking<SEESolution>().computeRanking(islands.get(i).population).getSubfront(0);
+
+            for (int destination : topology.getDestinations(i, islands.size(), random)) {
+                RHaDMOEA algorithm = islands.get(destination).algorithm;
+
+                for (SEESolution migrant : chooseMigrants(nonDominated, numberOfMigrants, random))
+                    algorithm.addImmigrant(copyWithObjectives(migrant));
+            }
+        }
+    }
+
+    /**
+     * Chooses at most the number of migrants from the non-dominated solutions at random.
+     */
+    static List<SEESolution> chooseMigrants(List<SEESolution> nonDominated, int numberOfMigrants, RandomStream random) {
+        List<SEESolution> candidates = new ArrayList<>(nonDominated);
+        int count = Math.min(numberOfMigrants, candidates.size());
+
+        for (int i = 0; i < count; i++)
+            Collections.swap(candidates, i, random.nextInt(i, candidates.size() - 1));
+
+        return candidates.subList(0, count);
+    }
+
+    /**
+     * Copies a migrant along with its thresholds and objectives. A copy of a solution has its thresholds reset, so the
+     * thresholds the migrant evolved are copied across for its objectives to still belong to its genome.
+     */
+    private static SEESolution copyWithObjectives(SEESolution solution) {
+        SEESolution copy = (SEESolution) solution.copy();
+
+        INeuralNetwork network = solution.getNeuralNetwork(), copyNetwork = copy.getNeuralNetwork();
+
+        for (int i = 0; i < network.getNumberOfThresholds(); i++)
+            copyNetwork.setThreshold(i, network.getThreshold(i));
+
+        for (int i = 0; i < solution.getNumberOfObjectives(); i++)
+            copy.setObjective(i, solution.getObjective(i));
+
+        if (!solution.isDirty())
+            copy.markEvaluated();
+
+        return copy;
+    }
+
+    private void runOnIslands(Consumer<Island> work) {
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (Island island : islands)
+            futures.add(executor.submit(() -> work.accept(island)));
+
+        try {
+            for (Future<?> future : futures)
+                future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running the islands", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+
+            throw new IllegalStateException("An island failed", e.getCause());
+        }
+    }
+
+    private List<SEESolution> mergePopulations() {
+        List<SEESolution> merged = new ArrayList<>();
+
+        for (Island island : islands)
+            merged.addAll(island.population);
+
+        return merged;
+    }
+
+    /**
+     * Sets the aspiration point every island pushes its population towards.
+     *
+     * @param aspirationPoint The aspiration point, or null for no preference.
+     */
+    public void setAspirationPoint(Double[] aspirationPoint) {
+        for (Island island : islands)
+            island.algorithm.setAspirationPoint(aspirationPoint);
+    }
+
+    /**
+     * Makes the run reproducible. Gives every island, and the choice of migrants, a seed drawn from a stream seeded
+     * with the provided seed.
+     *
+     * @param seed The seed of the run.
+     */
+    public void setSeed(long seed) {
+        RandomStream root = new RandomStream(seed);
+
+        for (Island island : islands)
+            island.algorithm.setSeed(root.nextLong());
+
+        random = root.split();
+    }
+
+    public int getNumberOfIslands() {
+        return islands.size();
+    }
+
+    /**
+     * An algorithm with its own population.
+     */
+    private static class Island {
+
+        private final RHaDMOEA algorithm;
+
+        private List<SEESolution> population = new ArrayList<>();
+
+        Island(RHaDMOEA algorithm) {
+            this.algorithm = algorithm;
+        }
+
+        /**
+         * Runs one generation, the migrants received since the last generation joining the replacement.
+         */
+        void runGeneration() {
+            List<SEESolution> matingPopulation = algorithm.selection(population);
+            List<SEESolution> offspringPopulation = algorithm.evaluatePopulation(algorithm.reproduction(matingPopulation));
+
+            population = algorithm.replacement(population, offspringPopulation);
+            algorithm.nextGeneration();
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package evolve_nn;
+
+import dataset.DataSet;
+import dataset.Feature;
+import dataset.TrainingData;
+import dataset.arff_parser.DataSetReader;
+import error_metrics.ErrorMetric;
+import error_metrics.LogarithmicStandardDeviationError;
+import error_metrics.MeanMagnitudeRelativeError;
+import error_metrics.PRED25Error;
+import utils.RandomStream;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static evolve_nn.MigrationProtocol.*;
+
+/**
+ * Runs one island of an {@link IslandCoordinator}, in this process or in a process of its own started with
+ * {@link #main(String[])}, on this machine or another.
+ * <p>
+ * The island's algorithm is run by an {@link AlgorithmRunner} for the migration interval at a time. After each interval
+ * some non-dominated solutions are sent to the coordinator, which passes them on to other islands. Migrants sent to the
+ * island are received on a thread of their own and join the next replacement of the algorithm.
+ * <p>
+ * If the coordinator is lost the island finishes its run alone.
+ */
+public class IslandWorker {
+
+    private final RHaDMOEA algorithm;
+    private final SEEProblem problem;
+
+    private final AtomicInteger immigrantsReceived = new AtomicInteger();
+    private volatile boolean connected;
+
+    /**
+     * @param algorithm The algorithm to run on the island.
+     * @param problem   The problem the algorithm solves, used to create the solutions migrants are read into.
+     */
+    public IslandWorker(RHaDMOEA algorithm, SEEProblem problem) {
+        this.algorithm = algorithm;
+        this.problem = problem;
+    }
+
+    /**
+     * Connects to a coordinator, then runs the island as the coordinator instructs.
+     *
+     * @param host The host of the coordinator.
+     * @param port The port the coordinator is listening on.
+     * @return The final population of the island.
+     * @throws IOException If the coordinator could not be connected to or did not assign an island.
+     */
+    public List<SEESolution> run(String host, int port) throws IOException {
+        try (Socket socket = new Socket(host, port)) {
+            socket.setTcpNoDelay(true);
+
+            DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+            ByteArrayOutputStream hello = new ByteArrayOutputStream();
+            new DataOutputStream(hello).writeInt(VERSION);
+            writeMessage(output, HELLO, hello.toByteArray());
+
+            Message assignment = readMessage(input);
+
+            if (assignment.type != ASSIGN)
+                throw new IOException("Expected an island to be assigned, received message " + assignment.type);
+
+            DataInputStream settings = assignment.read();
+            settings.readInt(); // The island, which the worker does not need
+            long seed = settings.readLong();
+            int generations = settings.readInt(), migrationInterval = settings.readInt(), numberOfMigrants = settings.readInt();
+
+            // Created before seeding so the seeded run is the same as the algorithm being run alone with the seed
+            SEESolution template = problem.createSolution();
+
+            RandomStream root = new RandomStream(seed);
+            algorithm.setSeed(root.nextLong());
+            RandomStream random = root.split();
+
+            connected = true;
+
+            Thread receiver = new Thread(() -> receiveMigrants(input, template), "Island migrant receiver");
+            receiver.setDaemon(true);
+            receiver.start();
+
+            AlgorithmRunner<SEESolution> runner = new AlgorithmRunner<>(algorithm);
+            List<SEESolution> population = null;
+
+            for (int completed = 0; completed < generations; ) {
+                int epoch = Math.min(migrationInterval, generations - completed);
+
+                population = runner.runFor(epoch).getPopulation();
+                completed += epoch;
+
+                if (completed < generations) {
+                    List<SEESolution> nonDominated =
+                            new FastDominanceRanking<SEESolution>().computeRanking(population).getSubfront(0);
+
+                    send(output, MIGRANTS, IslandModel.chooseMigrants(nonDominated, numberOfMigrants, random));
+                }
+            }
+
+            send(output, RESULT, population);
+
+            if (connected)
+                awaitDisconnect(socket, receiver);
+
+            return population;
+        }
+    }
+
+    private void receiveMigrants(DataInputStream input, SEESolution template) {
+        try {
+            while (true) {
+                Message message = readMessage(input);
+
+                if (message.type != MIGRANTS)
+                    throw new IOException("Expected migrants, received message " + message.type);
+
+                for (SEESolution migrant : decodeSolutions(message.payload, template)) {
+                    algorithm.addImmigrant(migrant);
+                    immigrantsReceived.incrementAndGet();
+                }
+            }
+        } catch (IOException e) {
+            // The coordinator disconnected, the island carries on alone
+            connected = false;
+        }
+    }
+
+    /**
+     * Waits for the coordinator to disconnect once it has the result. Closing the socket while migrants sent to the
+     * island are unread resets the connection, which can lose the result before the coordinator reads it.
+     */
+    private static void awaitDisconnect(Socket socket, Thread receiver) {
+        try {
+            socket.shutdownOutput();
+            receiver.join();
+        } catch (IOException e) {
+            // The coordinator already disconnected
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void send(DataOutputStream output, byte type, List<SEESolution> solutions) {
+        if (!connected)
+            return;
+
+        try {
+            writeMessage(output, type, encodeSolutions(solutions));
+        } catch (IOException e) {
+            connected = false;
+        }
+    }
+
+    /**
+     * @return The number of migrants the island has received from other islands.
+     */
+    public int getImmigrantsReceived() {
+        return immigrantsReceived.get();
+    }
+
+    /**
+     * Runs an island in its own process. The island estimates one feature of an ARFF data set from the others, using
+     * every project of the data set for training.
+     * <p>
+     * Arguments: the host and port of the coordinator, the path of the data set, the index of the feature to estimate
+     * and the size of the population.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 5) {
+            System.err.println("Usage: IslandWorker <coordinator host> <coordinator port> <data set> " +
+                    "<index of feature to estimate> <population size>");
+            System.exit(1);
+        }
+
+        DataSet dataSet = DataSetReader.open(new File(args[2]));
+
+        int outputFeature = Integer.parseInt(args[3]);
+        List<Feature> outputFeatures = dataSet.getFeatures().subList(outputFeature, outputFeature + 1);
+
+        List<ErrorMetric> errorMetrics = Arrays.asList(
+                new LogarithmicStandardDeviationError(),
+                new MeanMagnitudeRelativeError(),
+                new PRED25Error());
+
+        SEEProblem problem = new SEEProblem(new TrainingData(dataSet, outputFeatures).getAll(), errorMetrics);
+        RHaDMOEA algorithm = new RHaDMOEA(problem, Integer.parseInt(args[4]),
+                new MLPCrossOver(0.2, 300), new GaussianMutation(0.2));
+
+        new IslandWorker(algorithm, problem).run(args[0], Integer.parseInt(args[1]));
+    }
+}
@@ -1,8 +1,8 @@
 package evolve_nn;
 
+import neural_network.INeuralNetwork;
 import org.uma.jmetal.operator.CrossoverOperator;
-import org.uma.jmetal.util.pseudorandom.JMetalRandom;
-import utils.GaussianRandom;
+import utils.RandomStream;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -19,7 +19,7 @@ import java.util.List;
 public class MLPCrossOver implements CrossoverOperator<SEESolution> {
 
     private final int annealTime;
-    private final JMetalRandom random;
+    private RandomStream random;
     private double crossoverProbability;
     private int generation = 0;
 
@@ -29,9 +29,19 @@ public class MLPCrossOver implements CrossoverOperator<SEESolution> {
      *                             existing solutions rather than exploring new parts of the solution space.
      */
     public MLPCrossOver(double crossoverProbability, int annealTime) {
+        this(crossoverProbability, annealTime, RandomStream.forThread().split());
+    }
+
+    /**
+     * @param crossoverProbability The likelihood to modify a weight in the network.
+     * @param annealTime           The number of generations after which the operator will begin to start exploiting
+     *                             existing solutions rather than exploring new parts of the solution space.
+     * @param random               The stream to draw random numbers from. Owned by the operator from then on.
+     */
+    public MLPCrossOver(double crossoverProbability, int annealTime, RandomStream random) {
         this.crossoverProbability = crossoverProbability;
         this.annealTime = annealTime;
-        this.random = JMetalRandom.getInstance();
+        this.random = random;
 
         if (crossoverProbability < 0 || crossoverProbability > 1)
             throw new IllegalArgumentException("The crossover probability must be between 0 and 1. " + crossoverProbability);
@@ -44,28 +54,57 @@ public class MLPCrossOver implements CrossoverOperator<SEESolution> {
             throw new IllegalArgumentException("The population must have three solutions");
         // endregion
 
-        SEESolution
-                parentOne = parentSolutions.get(0),
-                parentTwo = parentSolutions.get(1),
-                parentThr = parentSolutions.get(2);
+        SEESolution child = createChild(parentSolutions.get(0), parentSolutions.get(1), parentSolutions.get(2));
+
+        ArrayList<SEESolution> result = new ArrayList<>();
+        result.add(child);
+
+        return result;
+    }
 
+    /**
+     * Produces one child from three parents. Equivalent to {@link #execute(List)} without building lists.
+     *
+     * @param parentOne The parent the child is copied from, including its thresholds.
+     * @param parentTwo The parent whose difference from the third parent is added to the child.
+     * @param parentThr The third parent.
+     * @return The child.
+     */
+    public SEESolution createChild(SEESolution parentOne, SEESolution parentTwo, SEESolution parentThr) {
         SEESolution child = (SEESolution) parentOne.copy();
 
+        // Copying a network resets its thresholds, so the child takes the thresholds of the first parent as it does its
+        // weights. Otherwise every threshold that is not crossed over would return to its initial value.
+        INeuralNetwork parentNetwork = parentOne.getNeuralNetwork(), childNetwork = child.getNeuralNetwork();
+        for (int i = 0; i < parentNetwork.getNumberOfThresholds(); i++)
+            childNetwork.setThreshold(i, parentNetwork.getThreshold(i));
+
         double slope = slope(annealTime, generation);
 
         int numberOfVariables = parentOne.getNumberOfVariables();
         for (int i = 0; i < numberOfVariables; i++) {
-            if (random.nextDouble(0, 1) > crossoverProbability)
+            if (random.nextDouble() > crossoverProbability)
                 continue;
 
             Double value = parentOne.getVariableValue(i) + slope * (parentTwo.getVariableValue(i) - parentThr.getVariableValue(i));
             child.setVariableValue(i, value);
         }
 
-        ArrayList<SEESolution> result = new ArrayList<>();
-        result.add(child);
+        return child;
+    }
 
-        return result;
+    /**
+     * Creates an operator with the same settings and generation which draws random numbers from another stream. Used
+     * to give each thread producing offspring its own operator.
+     *
+     * @param random The stream the new operator draws random numbers from.
+     * @return The new operator.
+     */
+    public MLPCrossOver copy(RandomStream random) {
+        MLPCrossOver copy = new MLPCrossOver(crossoverProbability, annealTime, random);
+        copy.generation = generation;
+
+        return copy;
     }
 
     /**
@@ -75,8 +114,34 @@ public class MLPCrossOver implements CrossoverOperator<SEESolution> {
         generation++;
     }
 
+    public int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Sets the number of generations the operator has seen, for example to continue a run from a checkpoint.
+     *
+     * @param generation The number of generations.
+     */
+    public void setGeneration(int generation) {
+        this.generation = generation;
+    }
+
+    public RandomStream getRandomStream() {
+        return random;
+    }
+
+    /**
+     * Sets the stream the operator draws random numbers from, for example to make a run reproducible.
+     *
+     * @param random The stream to draw random numbers from. Owned by the operator from then on.
+     */
+    public void setRandomStream(RandomStream random) {
+        this.random = random;
+    }
+
     private double slope(int annealTime, int generation) {
         double standardDeviation = 2 - (1 / (1 + Math.exp(annealTime - generation)));
-        return GaussianRandom.getInstance().nextDouble(0, standardDeviation);
+        return random.nextGaussian(0, standardDeviation);
     }
 }
@@ -0,0 +1,110 @@
+package evolve_nn;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The binary protocol spoken between an {@link IslandCoordinator} and its {@link IslandWorker}s.
+ * <p>
+ * Every message is a one byte type, the length of its payload as an int and then the payload. Solutions are sent as a
+ * count followed by the genome of each solution, see {@link SEESolution#writeGenome(java.io.DataOutput)}, so the
+ * coordinator can pass migrants on without reading them.
+ * <ul>
+ * <li>HELLO, worker to coordinator: the version of the protocol.</li>
+ * <li>ASSIGN, coordinator to worker: the island, seed, number of generations, migration interval and number of
+ * migrants.</li>
+ * <li>MIGRANTS, either way: solutions leaving or joining an island.</li>
+ * <li>RESULT, worker to coordinator: the final population of the island. The coordinator then disconnects, and the
+ * worker once it has read the migrants still on their way to it.</li>
+ * </ul>
+ */
+final class MigrationProtocol {
+
+    static final int VERSION = 2;
+
+    static final byte HELLO = 1, ASSIGN = 2, MIGRANTS = 3, RESULT = 4;
+
+    // Far larger than any population of networks, guards against reading a length from a corrupted stream
+    private static final int MAX_PAYLOAD_LENGTH = 1 << 30;
+
+    private MigrationProtocol() {
+    }
+
+    static void writeMessage(DataOutputStream output, byte type, byte[] payload) throws IOException {
+        output.writeByte(type);
+        output.writeInt(payload.length);
+        output.write(payload);
+        output.flush();
+    }
+
+    /**
+     * @throws java.io.EOFException If the other side disconnected.
+     */
+    static Message readMessage(DataInputStream input) throws IOException {
+        byte type = input.readByte();
+        int length = input.readInt();
+
+        if (length < 0 || length > MAX_PAYLOAD_LENGTH)
+            throw new IOException("Invalid payload length " + length);
+
+        byte[] payload = new byte[length];
+        input.readFully(payload);
+
+        return new Message(type, payload);
+    }
+
+    static byte[] encodeSolutions(List<SEESolution> solutions) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+
+        output.writeInt(solutions.size());
+
+        for (SEESolution solution : solutions)
+            solution.writeGenome(output);
+
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @param template A solution with a network of the same shape as the solutions sent, copied to hold each of them.
+     */
+    static List<SEESolution> decodeSolutions(byte[] payload, SEESolution template) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(payload));
+
+        int count = input.readInt();
+        List<SEESolution> solutions = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            SEESolution solution = (SEESolution) template.copy();
+            solution.readGenome(input);
+            solutions.add(solution);
+        }
+
+        return solutions;
+    }
+
+    static int countSolutions(byte[] payload) throws IOException {
+        return new DataInputStream(new ByteArrayInputStream(payload)).readInt();
+    }
+
+    static final class Message {
+
+        final byte type;
+        final byte[] payload;
+
+        Message(byte type, byte[] payload) {
+            this.type = type;
+            this.payload = payload;
+        }
+
+        DataInputStream read() {
+            return new DataInputStream(new ByteArrayInputStream(payload));
+        }
+    }
+}
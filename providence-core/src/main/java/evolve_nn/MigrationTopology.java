@@ -0,0 +1,56 @@
+package evolve_nn;
+
+import utils.RandomStream;
+
+/**
+ * The islands each island of an {@link IslandModel} sends its migrants to.
+ */
+public enum MigrationTopology {
+
+    /**
+     * Each island sends migrants to the next island, the last island sending to the first.
+     */
+    RING {
+        @Override
+        int[] getDestinations(int island, int numberOfIslands, RandomStream random) {
+            return new int[]{(island + 1) % numberOfIslands};
+        }
+    },
+
+    /**
+     * Each island sends migrants to every other island.
+     */
+    FULLY_CONNECTED {
+        @Override
+        int[] getDestinations(int island, int numberOfIslands, RandomStream random) {
+            int[] destinations = new int[numberOfIslands - 1];
+
+            for (int i = 0, j = 0; i < numberOfIslands; i++) {
+                if (i != island)
+                    destinations[j++] = i;
+            }
+
+            return destinations;
+        }
+    },
+
+    /**
+     * Each island sends migrants to another island chosen at random each time migrants are exchanged.
+     */
+    RANDOM {
+        @Override
+        int[] getDestinations(int island, int numberOfIslands, RandomStream random) {
+            int destination = random.nextInt(0, numberOfIslands - 2);
+
+            return new int[]{destination < island ? destination : destination + 1};
+        }
+    };
+
+    /**
+     * @param island          The island sending migrants.
+     * @param numberOfIslands The number of islands, at least 2.
+     * @param random          The stream to draw random choices from.
+     * @return The islands to send the migrants to.
+     */
+    abstract int[] getDestinations(int island, int numberOfIslands, RandomStream random);
+}
@@ -0,0 +1,103 @@
+package evolve_nn;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Evaluates a population on several threads by splitting it into chunks of neighbouring solutions and passing each
+ * chunk to another evaluator. Waits for every chunk before returning.
+ * <p>
+ * Each solution is evaluated exactly as it would be on a single thread, so the objectives assigned are identical to
+ * the evaluator being called directly on the whole population, whatever the number of threads. The evaluator provided
+ * must support being called from several threads at once, with each call given a different chunk.
+ * {@link SequentialPopulationEvaluator} and {@link FusedPopulationEvaluator} both do.
+ */
+public class ParallelPopulationEvaluator implements IPopulationEvaluator {
+
+    private final IPopulationEvaluator evaluator;
+    private final ExecutorService executor;
+    private final int chunkSize;
+
+    /**
+     * Evaluates populations on a fork-join pool with the provided number of threads. The threads of the pool do not
+     * prevent the application from exiting.
+     *
+     * @param evaluator The evaluator to pass each chunk to.
+     * @param threads   The number of threads to evaluate solutions on.
+     * @param chunkSize The number of solutions in each chunk.
+     */
+    public ParallelPopulationEvaluator(IPopulationEvaluator evaluator, int threads, int chunkSize) {
+        this(evaluator, new ForkJoinPool(threads), chunkSize);
+    }
+
+    /**
+     * @param evaluator The evaluator to pass each chunk to.
+     * @param executor  The executor to evaluate the chunks on, for example a fork-join pool or a fixed thread pool.
+     *                  It is not shut down by the evaluator.
+     * @param chunkSize The number of solutions in each chunk.
+     */
+    public ParallelPopulationEvaluator(IPopulationEvaluator evaluator, ExecutorService executor, int chunkSize) {
+        // region Argument checks
+        if (chunkSize < 1)
+            throw new IllegalArgumentException("There must be at least one solution in each chunk");
+        // endregion
+
+        this.evaluator = evaluator;
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void evaluate(List<SEESolution> population) {
+        List<Future<?>> chunks = new ArrayList<>();
+
+        for (int start = 0; start < population.size(); start += chunkSize) {
+            List<SEESolution> chunk = population.subList(start, Math.min(start + chunkSize, population.size()));
+            chunks.add(executor.submit(() -> evaluator.evaluate(chunk)));
+        }
+
+        try {
+            for (Future<?> chunk : chunks)
+                chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while evaluating the population", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+
+            throw new IllegalStateException("The population could not be evaluated", e.getCause());
+        }
+    }
+
+    @Override
+    public boolean isApproximate() {
+        return evaluator.isApproximate();
+    }
+
+    @Override
+    public void nextGeneration() {
+        evaluator.nextGeneration();
+    }
+
+    @Override
+    public void writeState(DataOutput output) throws IOException {
+        evaluator.writeState(output);
+    }
+
+    @Override
+    public void readState(DataInput input) throws IOException {
+        evaluator.readState(input);
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+}
@@ -1,8 +1,8 @@
 package evolve_nn;
 
-import org.uma.jmetal.util.solutionattribute.impl.DominanceRanking;
 import utils.PopulationUtils;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -33,9 +33,32 @@ public class PopulationInformation<S extends SEESolution> {
         return PopulationUtils.solutionsToPoints(getPopulation());
     }
 
+    /**
+     * @return The solutions of the population no other solution dominates, in population order. The solutions are not
+     * changed, so the population can be examined on another thread while the algorithm ranks it.
+     */
     public List<S> getNonDominatedPopulation() {
-        if (nonDominatedPopulation == null)
-            nonDominatedPopulation = new DominanceRanking<S>().computeRanking(getPopulation()).getSubfront(0);
+        if (nonDominatedPopulation == null) {
+            List<S> nonDominated = new ArrayList<>();
+
+            if (!population.isEmpty()) {
+                int numberOfObjectives = population.get(0).getNumberOfObjectives();
+                double[] objectives = new double[population.size() * numberOfObjectives];
+
+                for (int i = 0; i < population.size(); i++)
+                    for (int j = 0; j < numberOfObjectives; j++)
+                        objectives[i * numberOfObjectives + j] = population.get(i).getObjective(j);
+
+                int[] ranks = FastDominanceRanking.computeRanks(objectives, numberOfObjectives);
+
+                for (int i = 0; i < ranks.length; i++) {
+                    if (ranks[i] == 0)
+                        nonDominated.add(population.get(i));
+                }
+            }
+
+            nonDominatedPopulation = Collections.unmodifiableList(nonDominated);
+        }
 
         return nonDominatedPopulation;
     }
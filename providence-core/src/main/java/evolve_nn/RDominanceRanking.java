@@ -1,20 +1,23 @@
 package evolve_nn;
 
-import org.uma.jmetal.util.comparator.DominanceComparator;
 import org.uma.jmetal.util.solutionattribute.Ranking;
-import org.uma.jmetal.util.solutionattribute.impl.DominanceRanking;
 import org.uma.jmetal.util.solutionattribute.impl.GenericSolutionAttribute;
 import utils.Distance;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
 
 /**
  * Provides a means for incorporating preference into an evolutionary algorithm using the r-Dominance ranking algorithm.
  * The distances of all solutions to an aspiration point are calculated using the Euclidean distance. The solutions are
  * then ranked according to the r-Dominance relation. Under r-Dominance a solution X dominates a solution Y if solution X
  * pareto dominates Y or is incomparable but the difference of the distance from X to the aspiration point and Y to
- * the aspiration point is greater than the non r-Dominance threshold.
+ * the aspiration point is greater than the non r-Dominance threshold. The distance of each solution to the aspiration
+ * point is stored in the solution, see {@link SEESolution#getRDistance()}.
  * <p>
  * Algorithm from 'The r-Dominance: A New Dominance Relation for Interactive Evolutionary Multicriteria Decision
  * Making'. Lamjed Ben Said, Slim Bechikh and Khaled Ghedira. IEEE Transactions on Evolutionary Computation, Vol. 14
@@ -25,6 +28,9 @@ import java.util.List;
 public class RDominanceRanking
         extends GenericSolutionAttribute<SEESolution, Integer> implements Ranking<SEESolution> {
 
+    // The smallest population whose dominance matrix is filled on several threads
+    private static final int PARALLEL_THRESHOLD = 256;
+
     private List<List<SEESolution>> rankedSubpopulations;
 
     private Double[] aspirationPoint;
@@ -49,33 +55,67 @@ public class RDominanceRanking
     @Override
     public Ranking<SEESolution> computeRanking(List<SEESolution> population) {
         if (aspirationPoint == null) {
-            Ranking<SEESolution> ranking = new DominanceRanking<>();
+            Ranking<SEESolution> ranking = new FastDominanceRanking<>();
             ranking.computeRanking(population);
 
             return ranking;
         }
 
+        int size = population.size();
+        int numberOfObjectives = size == 0 ? 0 : population.get(0).getNumberOfObjectives();
+
+        // Each solution's objectives and distance to the aspiration point, found once
+        double[] objectives = new double[size * numberOfObjectives];
+        double[] distances = new double[size];
+
+        double[] aspiration = new double[aspirationPoint.length], solutionObjectives = new double[numberOfObjectives];
+
+        for (int i = 0; i < aspiration.length; i++)
+            aspiration[i] = aspirationPoint[i];
+
         // First find maximum and minimum distances amongst whole population
         double maxDist = 0, minDist = 0;
 
-        for (SEESolution solution : population) {
-            double dist = Distance.getEuclideanDistance(solution.getObjectives(), aspirationPoint);
+        for (int i = 0; i < size; i++) {
+            SEESolution solution = population.get(i);
+
+            for (int j = 0; j < numberOfObjectives; j++) {
+                solutionObjectives[j] = solution.getObjective(j);
+                objectives[i * numberOfObjectives + j] = solutionObjectives[j];
+            }
+
+            double dist = Distance.getEuclideanDistance(solutionObjectives, aspiration);
+            distances[i] = dist;
+            solution.setRDistance(dist);
 
             if (maxDist < dist) maxDist = dist;
             if (minDist > dist) minDist = dist;
         }
 
-        // Keep track of how many population dominate each solution
-        int[] dominateCounter = new int[population.size()];
+        // Determine who dominates who. Row i of the matrix has bit j set if solution j r-dominates solution i
+        int words = (size + 63) >>> 6;
+        long[] dominatedBy = new long[size * words];
+
+        double distanceRange = maxDist - minDist;
 
-        // Determine who dominates who
-        for (int i = 0; i < population.size(); i++) {
-            for (SEESolution solution : population) {
-                boolean xRDominatesY = xRDominatesY(solution, population.get(i), maxDist, minDist);
+        IntStream rows = IntStream.range(0, size);
 
-                if (xRDominatesY)
-                    dominateCounter[i]++;
+        if (size >= PARALLEL_THRESHOLD)
+            rows = rows.parallel();
+
+        rows.forEach(y -> {
+            for (int x = 0; x < size; x++) {
+                if (xRDominatesY(objectives, numberOfObjectives, distances, distanceRange, x, y))
+                    dominatedBy[y * words + (x >>> 6)] |= 1L << x;
             }
+        });
+
+        // Keep track of how many population dominate each solution
+        int[] dominateCounter = new int[size];
+
+        for (int i = 0; i < size; i++) {
+            for (int w = 0; w < words; w++)
+                dominateCounter[i] += Long.bitCount(dominatedBy[i * words + w]);
         }
 
         buildFronts(dominateCounter, population);
@@ -83,54 +123,65 @@ public class RDominanceRanking
         return this;
     }
 
+    /**
+     * Groups the solutions by the number of solutions that r-dominate them. The first front holds the solutions no
+     * solution dominates, even if there are none, and each following front the solutions with the next lowest count.
+     * The solutions in each front are in the order they appear in the population. The rank of each solution is stored
+     * in the solution, see {@link SEESolution#getRDominanceRank()}.
+     */
     private void buildFronts(int[] dominateCounter, List<SEESolution> solutions) {
-        int start = 0;
-
-        while (start < dominateCounter.length) {
-            ArrayList<SEESolution> subpopulation = new ArrayList<>();
-
-            // Find distance to next level
-            double nextLevelDistance = Double.MAX_VALUE;
-
-            for (int j = start; j < dominateCounter.length; j++) {
-                if (dominateCounter[j] > 0 && dominateCounter[j] < nextLevelDistance) {
-                    nextLevelDistance = dominateCounter[j];
-                }
+        if (dominateCounter.length == 0)
+            return;
+
+        int[] levels = dominateCounter.clone();
+        Arrays.sort(levels);
+
+        // The front of each distinct count, the count of 0 always having the first front
+        Map<Integer, List<SEESolution>> fronts = new HashMap<>();
+        rankedSubpopulations.add(new ArrayList<>());
+        fronts.put(0, rankedSubpopulations.get(0));
+
+        for (int level : levels) {
+            if (!fronts.containsKey(level)) {
+                List<SEESolution> front = new ArrayList<>();
+                rankedSubpopulations.add(front);
+                fronts.put(level, front);
             }
+        }
 
-            boolean zerosSoFar = true;
-            for (int j = start; j < dominateCounter.length; j++) {
-                if (dominateCounter[j] == 0) {
-                    subpopulation.add(solutions.get(j));
-                } else if (dominateCounter[j] > 0) {
-                    zerosSoFar = false;
-                }
-
-                if (zerosSoFar)
-                    start++;
-
-                dominateCounter[j] -= nextLevelDistance;
-            }
+        for (int i = 0; i < dominateCounter.length; i++)
+            fronts.get(dominateCounter[i]).add(solutions.get(i));
 
-            rankedSubpopulations.add(subpopulation);
+        for (int i = 0; i < rankedSubpopulations.size(); i++) {
+            for (SEESolution solution : rankedSubpopulations.get(i))
+                solution.setRDominanceRank(i);
         }
     }
 
-    private boolean xRDominatesY(SEESolution x, SEESolution y, double maxDist, double minDist) {
+    /**
+     * Tests whether solution x r-dominates solution y, see the class description.
+     */
+    private boolean xRDominatesY(double[] objectives, int numberOfObjectives, double[] distances, double distanceRange,
+                                 int x, int y) {
+        boolean xBetter = false, yBetter = false;
+
+        for (int i = 0; i < numberOfObjectives; i++) {
+            double xValue = objectives[x * numberOfObjectives + i], yValue = objectives[y * numberOfObjectives + i];
 
-        DominanceComparator<SEESolution> dominanceComparator = new DominanceComparator<>();
-        int paretoDominance = dominanceComparator.compare(x, y);
+            if (xValue < yValue)
+                xBetter = true;
 
-        if(paretoDominance == 1)
+            if (xValue > yValue)
+                yBetter = true;
+        }
+
+        if (yBetter && !xBetter)
             return false;
 
-        if(paretoDominance == -1)
+        if (xBetter && !yBetter)
             return true;
 
-        double distXG = Distance.getEuclideanDistance(x.getObjectives(), aspirationPoint);
-        double distYG = Distance.getEuclideanDistance(y.getObjectives(), aspirationPoint);
-
-        double distXYG = (distXG - distYG) / (maxDist - minDist);
+        double distXYG = (distances[x] - distances[y]) / distanceRange;
 
         return distXYG < -nonRDominanceThreshold;
     }
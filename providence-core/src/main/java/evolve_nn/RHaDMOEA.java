@@ -1,12 +1,21 @@
 package evolve_nn;
 
-import org.uma.jmetal.util.pseudorandom.JMetalRandom;
+import neural_network.Precision;
 import org.uma.jmetal.util.solutionattribute.Ranking;
+import utils.RandomStream;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  * An implementation of a preference based variant of the Harmonic Distance MultiObjective Evolutionary Algorithm.
@@ -22,9 +31,25 @@ public class RHaDMOEA extends AbstractEvolutionaryAlgorithm<SEESolution> {
     private final GaussianMutation mutationOperator;
     private final MLPCrossOver crossoverOperator;
 
+    // The number of children produced by each reproduction task, fixed so the children do not depend on the executor
+    private static final int CHILDREN_PER_TASK = 16;
+
+    // Solutions sent from other populations, joining the next replacement
+    private final Queue<SEESolution> immigrants = new ConcurrentLinkedQueue<>();
+
+    private IPopulationEvaluator populationEvaluator;
+    private RandomStream random;
+    private ExecutorService reproductionExecutor;
+    private SurrogateScreen surrogateScreen;
+
     private Double[] aspirationPoint;
     private Double nonRDominanceThreshold;
 
+    // Whether the parents were estimated in an earlier generation by an approximate evaluator
+    private boolean parentsOutdated;
+
+    private long evaluations;
+
     /**
      * @param problem           The problem to solve.
      * @param populationSize    The size of the population.
@@ -52,11 +77,17 @@ public class RHaDMOEA extends AbstractEvolutionaryAlgorithm<SEESolution> {
         this.mutationOperator = mutationOperator;
         this.populationSize = populationSize;
         this.nonRDominanceThreshold = nonRDominanceThreshold;
+
+        this.populationEvaluator = new SequentialPopulationEvaluator(problem);
+        this.random = RandomStream.forThread().split();
     }
 
     @Override
     protected void nextGeneration() {
         crossoverOperator.incrementGeneration();
+
+        populationEvaluator.nextGeneration();
+        parentsOutdated = populationEvaluator.isApproximate();
     }
 
     @Override
@@ -71,9 +102,44 @@ public class RHaDMOEA extends AbstractEvolutionaryAlgorithm<SEESolution> {
         return population;
     }
 
+    /**
+     * Evaluates the solutions of the population that are dirty, see {@link SEESolution#isDirty()}. The objectives of
+     * the other solutions are already up to date.
+     */
     @Override
     protected List<SEESolution> evaluatePopulation(List<SEESolution> population) {
-        population.forEach(problem::evaluate);
+        List<SEESolution> dirty = new ArrayList<>();
+
+        for (SEESolution solution : population) {
+            if (solution.isDirty())
+                dirty.add(solution);
+        }
+
+        if (!dirty.isEmpty())
+            evaluate(dirty);
+
+        dirty.forEach(SEESolution::markEvaluated);
+
+        if (surrogateScreen != null && !dirty.isEmpty())
+            surrogateScreen.record(dirty);
+
+        return population;
+    }
+
+    /**
+     * Re-evaluates the population on the whole training set in double precision if the problem approximates the
+     * fitness of solutions using single precision, or the population evaluator approximates it, see
+     * {@link IPopulationEvaluator#isApproximate()}.
+     */
+    @Override
+    protected List<SEESolution> finalisePopulation(List<SEESolution> population) {
+        if (problem.getPrecision() != Precision.DOUBLE || populationEvaluator.isApproximate()) {
+            population.forEach(problem::evaluateExactly);
+
+            // Approximated again if the run continues, so the population is compared with its offspring fairly
+            population.forEach(SEESolution::markDirty);
+        }
+
         return population;
     }
 
@@ -82,12 +148,60 @@ public class RHaDMOEA extends AbstractEvolutionaryAlgorithm<SEESolution> {
         return population;
     }
 
+    /**
+     * Produces the offspring in tasks of a fixed number of children. Every task owns copies of the operators and a
+     * stream split from the algorithm's stream, so the tasks can run on any number of threads and still produce the
+     * same children. If a surrogate screen is set only the children it chooses are returned.
+     */
     @Override
     protected List<SEESolution> reproduction(List<SEESolution> population) {
-        List<SEESolution> offspringPopulation = new ArrayList<>();
-        JMetalRandom random = JMetalRandom.getInstance();
+        SEESolution[] offspringPopulation = new SEESolution[populationSize];
+        List<Runnable> tasks = new ArrayList<>();
 
-        for (int i = 0; i < populationSize; i++) {
+        for (int start = 0; start < populationSize; start += CHILDREN_PER_TASK) {
+            int taskStart = start, taskEnd = Math.min(start + CHILDREN_PER_TASK, populationSize);
+
+            RandomStream taskRandom = random.split();
+            MLPCrossOver taskCrossover = crossoverOperator.copy(taskRandom.split());
+            GaussianMutation taskMutation = mutationOperator.copy(taskRandom.split());
+
+            tasks.add(() -> reproduce(population, offspringPopulation, taskStart, taskEnd,
+                    taskRandom, taskCrossover, taskMutation));
+        }
+
+        if (reproductionExecutor == null) {
+            tasks.forEach(Runnable::run);
+        } else {
+            List<Future<?>> futures = new ArrayList<>();
+
+            for (Runnable task : tasks)
+                futures.add(reproductionExecutor.submit(task));
+
+            try {
+                for (Future<?> future : futures)
+                    future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while producing offspring", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException)
+                    throw (RuntimeException) e.getCause();
+
+                throw new IllegalStateException("The offspring could not be produced", e.getCause());
+            }
+        }
+
+        List<SEESolution> offspring = Arrays.asList(offspringPopulation);
+
+        return surrogateScreen == null ? offspring : surrogateScreen.screen(offspring, population);
+    }
+
+    /**
+     * Produces the children in a range of the offspring population.
+     */
+    static void reproduce(List<SEESolution> population, SEESolution[] offspringPopulation, int start, int end,
+                                  RandomStream random, MLPCrossOver crossover, GaussianMutation mutation) {
+        for (int i = start; i < end; i++) {
 
             int parentOneId, parentTwoId, parentThrId;
 
@@ -101,20 +215,13 @@ public class RHaDMOEA extends AbstractEvolutionaryAlgorithm<SEESolution> {
                 parentThrId = random.nextInt(0, population.size() - 1);
             } while (parentThrId == parentTwoId || parentThrId == parentOneId);
 
-            List<SEESolution> parentSolutions = new ArrayList<>();
+            SEESolution child = crossover.createChild(
+                    population.get(parentOneId),
+                    population.get(parentTwoId),
+                    population.get(parentThrId));
 
-            parentSolutions.add(population.get(parentOneId));
-            parentSolutions.add(population.get(parentTwoId));
-            parentSolutions.add(population.get(parentThrId));
-
-            List<SEESolution> children = crossoverOperator.execute(parentSolutions);
-
-            offspringPopulation.addAll(children.stream()
-                    .map(mutationOperator::execute)
-                    .collect(Collectors.toList()));
+            offspringPopulation[i] = mutation.execute(child);
         }
-
-        return offspringPopulation;
     }
 
     @Override
@@ -124,6 +231,28 @@ public class RHaDMOEA extends AbstractEvolutionaryAlgorithm<SEESolution> {
         jointPopulation.addAll(parentPopulation);
         jointPopulation.addAll(offspringPopulation);
 
+        List<SEESolution> arrived = new ArrayList<>();
+        SEESolution immigrant;
+
+        while ((immigrant = immigrants.poll()) != null)
+            arrived.add(immigrant);
+
+        jointPopulation.addAll(arrived);
+
+        // Estimates made in another generation or population are not comparable with those of the offspring
+        if (populationEvaluator.isApproximate()) {
+            List<SEESolution> outdated = new ArrayList<>(arrived);
+
+            if (parentsOutdated)
+                outdated.addAll(parentPopulation);
+
+            if (!outdated.isEmpty())
+                evaluate(outdated);
+
+            outdated.forEach(SEESolution::markEvaluated);
+            parentsOutdated = false;
+        }
+
         List<SEESolution> population = new ArrayList<>();
 
         // r-Dominance
@@ -148,6 +277,14 @@ public class RHaDMOEA extends AbstractEvolutionaryAlgorithm<SEESolution> {
         return population;
     }
 
+    /**
+     * Evaluates solutions with the population evaluator, counting each of them as an evaluation.
+     */
+    private void evaluate(List<SEESolution> solutions) {
+        evaluations += solutions.size();
+        populationEvaluator.evaluate(solutions);
+    }
+
     /**
      * Adds all fronts into the population that can fit completely in, in order of rank.
      *
@@ -172,6 +309,31 @@ public class RHaDMOEA extends AbstractEvolutionaryAlgorithm<SEESolution> {
         return new ArrayList<>();
     }
 
+    public int getPopulationSize() {
+        return populationSize;
+    }
+
+    /**
+     * @return The number of solutions passed to the population evaluator, including the parents and immigrants
+     * evaluated again during replacement.
+     */
+    @Override
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    MLPCrossOver getCrossoverOperator() {
+        return crossoverOperator;
+    }
+
+    GaussianMutation getMutationOperator() {
+        return mutationOperator;
+    }
+
+    public Double[] getAspirationPoint() {
+        return aspirationPoint;
+    }
+
     /**
      * Sets the aspiration point to push the population towards. If null, no preference calculations will be performed.
      *
@@ -180,4 +342,132 @@ public class RHaDMOEA extends AbstractEvolutionaryAlgorithm<SEESolution> {
     public void setAspirationPoint(Double[] aspirationPoint) {
         this.aspirationPoint = aspirationPoint;
     }
+
+    /**
+     * Writes the aspiration point, the generation of the cross over operator and the state of every random stream.
+     */
+    @Override
+    protected void writeState(DataOutput output) throws IOException {
+        output.writeInt(aspirationPoint == null ? -1 : aspirationPoint.length);
+
+        if (aspirationPoint != null) {
+            for (Double value : aspirationPoint)
+                output.writeDouble(value);
+        }
+
+        output.writeInt(crossoverOperator.getGeneration());
+
+        writeStream(output, crossoverOperator.getRandomStream());
+        writeStream(output, mutationOperator.getRandomStream());
+        writeStream(output, random);
+
+        RandomStream problemRandom = problem.getRandomStream();
+        output.writeBoolean(problemRandom != null);
+
+        if (problemRandom != null)
+            writeStream(output, problemRandom);
+
+        populationEvaluator.writeState(output);
+        output.writeBoolean(parentsOutdated);
+
+        output.writeBoolean(surrogateScreen != null);
+
+        if (surrogateScreen != null)
+            surrogateScreen.writeState(output);
+    }
+
+    @Override
+    protected void readState(DataInput input) throws IOException {
+        int aspirationLength = input.readInt();
+
+        if (aspirationLength < 0) {
+            aspirationPoint = null;
+        } else {
+            aspirationPoint = new Double[aspirationLength];
+
+            for (int i = 0; i < aspirationLength; i++)
+                aspirationPoint[i] = input.readDouble();
+        }
+
+        crossoverOperator.setGeneration(input.readInt());
+
+        crossoverOperator.setRandomStream(readStream(input));
+        mutationOperator.setRandomStream(readStream(input));
+        random = readStream(input);
+
+        problem.setRandomStream(input.readBoolean() ? readStream(input) : null);
+
+        populationEvaluator.readState(input);
+        parentsOutdated = input.readBoolean();
+
+        if (input.readBoolean()) {
+            if (surrogateScreen == null)
+                throw new IOException("The checkpoint holds the archive of a surrogate screen, but no screen is set");
+
+            surrogateScreen.readState(input);
+        }
+    }
+
+    private static void writeStream(DataOutput output, RandomStream stream) throws IOException {
+        output.writeLong(stream.getSeed());
+        output.writeLong(stream.getGamma());
+    }
+
+    private static RandomStream readStream(DataInput input) throws IOException {
+        return new RandomStream(input.readLong(), input.readLong());
+    }
+
+    /**
+     * Adds a solution from another population to the offspring of the next replacement. The solution must already be
+     * evaluated. Can be called from any thread, including while the algorithm is running.
+     *
+     * @param immigrant The solution to add.
+     */
+    public void addImmigrant(SEESolution immigrant) {
+        immigrants.add(immigrant);
+    }
+
+    /**
+     * Makes the run reproducible. Splits one stream seeded with the provided seed between the problem, the operators
+     * and the selection of parents, so two runs with the same seed and settings find the same solutions.
+     *
+     * @param seed The seed of the run.
+     */
+    public void setSeed(long seed) {
+        RandomStream root = new RandomStream(seed);
+
+        problem.setRandomStream(root.split());
+        crossoverOperator.setRandomStream(root.split());
+        mutationOperator.setRandomStream(root.split());
+        random = root.split();
+    }
+
+    /**
+     * Sets the executor offspring are produced on. The offspring produced do not depend on the executor.
+     *
+     * @param reproductionExecutor The executor to produce offspring on, or null to produce them on the thread running
+     *                             the algorithm. It is not shut down by the algorithm.
+     */
+    public void setReproductionExecutor(ExecutorService reproductionExecutor) {
+        this.reproductionExecutor = reproductionExecutor;
+    }
+
+    /**
+     * Sets the screen that chooses which children to evaluate, so fewer children are evaluated each generation. The
+     * screen learns from every solution the algorithm evaluates.
+     *
+     * @param surrogateScreen The screen, or null to evaluate every child.
+     */
+    public void setSurrogateScreen(SurrogateScreen surrogateScreen) {
+        this.surrogateScreen = surrogateScreen;
+    }
+
+    /**
+     * Sets the strategy used to evaluate each population. Defaults to evaluating one solution at a time.
+     *
+     * @param populationEvaluator The strategy used to evaluate each population.
+     */
+    public void setPopulationEvaluator(IPopulationEvaluator populationEvaluator) {
+        this.populationEvaluator = populationEvaluator;
+    }
 }
@@ -0,0 +1,247 @@
+package evolve_nn;
+
+import neural_network.InputMatrix;
+import utils.RandomStream;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Evaluates a population on part of the training set, so large training sets can be searched quickly. Each generation
+ * uses the next window of rows of a shuffled order of the training set, so every row is used over the course of a run.
+ * Every evaluation within a generation uses the same window, so the objectives of the parents, evaluated again by
+ * {@link RHaDMOEA} once the window moves, are comparable with those of their offspring.
+ * <p>
+ * The window is evaluated in batches, racing the solutions against each other. After each batch every solution is
+ * given objectives from the rows it has been evaluated on so far, and the solutions clearly dominated by another
+ * solution are dropped. A solution is clearly dominated if the other solution is better in every objective by more
+ * than the margin, relative to the solution's own objective. Only the solutions left are evaluated on the next batch,
+ * the solutions dropped keep the objectives of the rows they were evaluated on.
+ * <p>
+ * The objectives assigned are estimates, see {@link #isApproximate()}, so {@link RHaDMOEA} evaluates the population it
+ * reports on the whole training set. The shuffled order and the position of the window are part of a checkpoint. The
+ * evaluator must not be shared between threads.
+ */
+public class RacingPopulationEvaluator implements IPopulationEvaluator {
+
+    private final SEEProblem problem;
+    private final int batchSize, windowSize;
+    private final double margin;
+
+    // The order rows are visited in, and the start of the window of the current generation in that order
+    private final int[] rowOrder;
+    private int windowStart;
+
+    private long rowsEvaluated, solutionsDropped;
+
+    /**
+     * @param problem    The problem to evaluate solutions against.
+     * @param batchSize  The number of rows evaluated between each race.
+     * @param windowSize The most rows each solution is evaluated on per evaluation.
+     * @param margin     How much better another solution must be in every objective for a solution to be dropped,
+     *                   relative to the solution's objectives.
+     */
+    public RacingPopulationEvaluator(SEEProblem problem, int batchSize, int windowSize, double margin) {
+        this(problem, batchSize, windowSize, margin, RandomStream.forThread().split());
+    }
+
+    /**
+     * @param problem    The problem to evaluate solutions against.
+     * @param batchSize  The number of rows evaluated between each race.
+     * @param windowSize The most rows each solution is evaluated on per evaluation.
+     * @param margin     How much better another solution must be in every objective for a solution to be dropped,
+     *                   relative to the solution's objectives.
+     * @param random     The stream to shuffle the rows of the training set with.
+     */
+    public RacingPopulationEvaluator(SEEProblem problem, int batchSize, int windowSize, double margin, RandomStream random) {
+        // region Argument checks
+        if (batchSize < 1)
+            throw new IllegalArgumentException("There must be at least one row in each batch");
+
+        if (windowSize < batchSize)
+            throw new IllegalArgumentException("The window must hold at least one batch");
+
+        if (margin < 0)
+            throw new IllegalArgumentException("The margin must not be negative");
+        // endregion
+
+        this.problem = problem;
+        this.batchSize = batchSize;
+        this.windowSize = windowSize;
+        this.margin = margin;
+
+        rowOrder = new int[problem.getTrainingInputs().getRows()];
+
+        for (int i = 0; i < rowOrder.length; i++)
+            rowOrder[i] = i;
+
+        // Fisher-Yates
+        for (int i = rowOrder.length - 1; i > 0; i--) {
+            int j = random.nextInt(0, i);
+
+            int swap = rowOrder[i];
+            rowOrder[i] = rowOrder[j];
+            rowOrder[j] = swap;
+        }
+    }
+
+    @Override
+    public void evaluate(List<SEESolution> population) {
+        if (population.isEmpty())
+            return;
+
+        int[] window = currentWindow();
+
+        List<SEESolution> racing = new ArrayList<>(population);
+        double[][] outputs = new double[population.size()][window.length];
+
+        int evaluated = 0;
+
+        while (evaluated < window.length) {
+            int[] batch = Arrays.copyOfRange(window, evaluated, Math.min(evaluated + batchSize, window.length));
+            InputMatrix batchInputs = selectRows(batch);
+
+            for (int i = 0; i < racing.size(); i++) {
+                double[] batchOutputs = new double[batch.length];
+                racing.get(i).getNeuralNetwork().executeBatch(batchInputs, batchOutputs);
+
+                System.arraycopy(batchOutputs, 0, outputs[i], evaluated, batch.length);
+            }
+
+            rowsEvaluated += (long) racing.size() * batch.length;
+            evaluated += batch.length;
+
+            int[] rows = Arrays.copyOf(window, evaluated);
+
+            for (int i = 0; i < racing.size(); i++)
+                problem.assignObjectives(racing.get(i), Arrays.copyOf(outputs[i], evaluated), rows);
+
+            if (evaluated < window.length)
+                race(racing, outputs);
+        }
+    }
+
+    /**
+     * @return The indexes of the rows the current generation is evaluated on.
+     */
+    private int[] currentWindow() {
+        int[] window = new int[Math.min(windowSize, rowOrder.length)];
+
+        for (int i = 0; i < window.length; i++)
+            window[i] = rowOrder[(windowStart + i) % rowOrder.length];
+
+        return window;
+    }
+
+    /**
+     * Moves the window on to the rows following the current window.
+     */
+    @Override
+    public void nextGeneration() {
+        windowStart = (windowStart + Math.min(windowSize, rowOrder.length)) % rowOrder.length;
+    }
+
+    @Override
+    public void writeState(DataOutput output) throws IOException {
+        output.writeInt(rowOrder.length);
+
+        for (int row : rowOrder)
+            output.writeInt(row);
+
+        output.writeInt(windowStart);
+        output.writeLong(rowsEvaluated);
+        output.writeLong(solutionsDropped);
+    }
+
+    @Override
+    public void readState(DataInput input) throws IOException {
+        int rows = input.readInt();
+
+        if (rows != rowOrder.length)
+            throw new IOException("The checkpoint was written for a training set of " + rows + " rows rather than "
+                    + rowOrder.length);
+
+        for (int i = 0; i < rows; i++)
+            rowOrder[i] = input.readInt();
+
+        windowStart = input.readInt();
+        rowsEvaluated = input.readLong();
+        solutionsDropped = input.readLong();
+    }
+
+    private InputMatrix selectRows(int[] rows) {
+        InputMatrix trainingInputs = problem.getTrainingInputs();
+        double[][] selected = new double[rows.length][trainingInputs.getColumns()];
+
+        for (int i = 0; i < rows.length; i++)
+            for (int j = 0; j < selected[i].length; j++)
+                selected[i][j] = trainingInputs.get(rows[i], j);
+
+        return InputMatrix.fromRows(selected, InputMatrix.Layout.COLUMN_MAJOR);
+    }
+
+    /**
+     * Drops the solutions clearly dominated by another racing solution, along with their outputs, keeping the order
+     * of the rest.
+     */
+    private void race(List<SEESolution> racing, double[][] outputs) {
+        boolean[] dropped = new boolean[racing.size()];
+
+        for (int i = 0; i < racing.size(); i++) {
+            for (int j = 0; j < racing.size() && !dropped[i]; j++)
+                dropped[i] = i != j && isClearlyDominated(racing.get(i), racing.get(j));
+        }
+
+        int kept = 0;
+
+        for (int i = 0; i < racing.size(); i++) {
+            if (dropped[i]) {
+                solutionsDropped++;
+                continue;
+            }
+
+            racing.set(kept, racing.get(i));
+            outputs[kept] = outputs[i];
+            kept++;
+        }
+
+        racing.subList(kept, racing.size()).clear();
+    }
+
+    private boolean isClearlyDominated(SEESolution solution, SEESolution other) {
+        for (int i = 0; i < solution.getNumberOfObjectives(); i++) {
+            double objective = solution.getObjective(i);
+
+            if (!(other.getObjective(i) + margin * Math.abs(objective) < objective))
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * @return True, the objectives are estimated from part of the training set.
+     */
+    @Override
+    public boolean isApproximate() {
+        return true;
+    }
+
+    /**
+     * @return The total number of rows every solution has been evaluated on.
+     */
+    public long getRowsEvaluated() {
+        return rowsEvaluated;
+    }
+
+    /**
+     * @return The number of solutions dropped from a race before reaching the end of the window.
+     */
+    public long getSolutionsDropped() {
+        return solutionsDropped;
+    }
+}
@@ -4,7 +4,15 @@ import dataset.InputOutput;
 import error_metrics.ErrorMetric;
 import neural_network.FeedForwardPerceptron;
 import neural_network.INeuralNetwork;
+import neural_network.IWeightInitialiser;
+import neural_network.InputMatrix;
+import neural_network.LinearStepFunc;
+import neural_network.NetworkCompiler;
+import neural_network.Precision;
+import neural_network.RandomWeightInit;
+import neural_network.StepFunctionType;
 import org.uma.jmetal.problem.impl.AbstractGenericProblem;
+import utils.RandomStream;
 
 import java.util.List;
 
@@ -12,6 +20,9 @@ import java.util.List;
  * Represents the software effort estimation problem to solve. Assigns a fitness to solutions according to how well they
  * estimate values from a training set.
  * <p>
+ * Solutions can be evaluated from any number of threads at once, see {@link ParallelPopulationEvaluator}. The problem
+ * must not be configured or asked to create solutions while solutions are being evaluated.
+ * <p>
  * Created by Joseph Billingsley on 05/11/2015.
  */
 public class SEEProblem extends AbstractGenericProblem<SEESolution> {
@@ -21,15 +32,41 @@ public class SEEProblem extends AbstractGenericProblem<SEESolution> {
     private static final int NUMBER_OF_OUTPUTS = 1;
 
     private final List<ErrorMetric> errorMetrics;
-    private final InputOutput[] trainingSet;
+    private final StepFunctionType hiddenStepFunction;
+    private final InputMatrix trainingInputs;
+    private final Double[] actuals;
+
+    private boolean compileNetworks;
+    private Precision precision = Precision.DOUBLE;
+    private RandomStream random;
 
     /**
      * @param trainingSet  The training set to evaluate the performance of the solutions with.
      * @param errorMetrics The metrics to use when calculating how good an estimate is.
      */
     public SEEProblem(InputOutput[] trainingSet, List<ErrorMetric> errorMetrics) {
-        this.trainingSet = trainingSet;
+        this(trainingSet, errorMetrics, StepFunctionType.LOGISTIC);
+    }
+
+    /**
+     * @param trainingSet        The training set to evaluate the performance of the solutions with.
+     * @param errorMetrics       The metrics to use when calculating how good an estimate is.
+     * @param hiddenStepFunction The step function used by the hidden layers of the networks.
+     */
+    public SEEProblem(InputOutput[] trainingSet, List<ErrorMetric> errorMetrics, StepFunctionType hiddenStepFunction) {
         this.errorMetrics = errorMetrics;
+        this.hiddenStepFunction = hiddenStepFunction;
+
+        double[][] inputRows = new double[trainingSet.length][];
+        actuals = new Double[trainingSet.length];
+
+        for (int i = 0; i < trainingSet.length; i++) {
+            inputRows[i] = trainingSet[i].getInputValues();
+            actuals[i] = trainingSet[i].getOutputs()[0];
+        }
+
+        // Column-major so neighbouring rows sit next to each other for the batched pass through the networks
+        trainingInputs = InputMatrix.fromRows(inputRows, InputMatrix.Layout.COLUMN_MAJOR);
 
         setNumberOfObjectives(errorMetrics.size());
     }
@@ -38,16 +75,80 @@ public class SEEProblem extends AbstractGenericProblem<SEESolution> {
     public void evaluate(SEESolution solution) {
         INeuralNetwork network = solution.getNeuralNetwork();
 
-        Double[] actuals = new Double[trainingSet.length];
-        Double[] estimates = new Double[trainingSet.length];
+        double[] outputs = new double[trainingInputs.getRows() * NUMBER_OF_OUTPUTS];
+        network.executeBatch(trainingInputs, outputs);
 
-        for (int i = 0; i < trainingSet.length; i++) {
-            InputOutput inputOutput = trainingSet[i];
+        assignObjectives(solution, outputs);
+    }
+
+    /**
+     * Evaluates a solution in double precision, whatever precision its network is set to use. Used to make the
+     * objectives of solutions exact before they are reported.
+     *
+     * @param solution The solution to evaluate.
+     */
+    public void evaluateExactly(SEESolution solution) {
+        INeuralNetwork network = solution.getNeuralNetwork();
 
-            actuals[i] = inputOutput.getOutputs()[0];
-            estimates[i] = network.executeNetwork(inputOutput.getInputs())[0];
+        if (!(network instanceof FeedForwardPerceptron)) {
+            evaluate(solution);
+            return;
         }
 
+        double[] outputs = new double[trainingInputs.getRows() * NUMBER_OF_OUTPUTS];
+        ((FeedForwardPerceptron) network).executeBatch(trainingInputs, outputs, Precision.DOUBLE);
+
+        assignObjectives(solution, outputs);
+    }
+
+    /**
+     * Assigns objectives to a solution from the outputs its network produced for the training set. Allows the outputs
+     * to be calculated elsewhere, for example for a whole population at once.
+     *
+     * @param solution The solution to assign objectives to.
+     * @param outputs  The outputs of the solution's network for each row of {@link #getTrainingInputs()}, the outputs
+     *                 of each row next to each other.
+     */
+    public void assignObjectives(SEESolution solution, double[] outputs) {
+        // region Argument checks
+        if (outputs.length != trainingInputs.getRows() * NUMBER_OF_OUTPUTS)
+            throw new IllegalArgumentException("There must be one set of outputs for each row of the training set");
+        // endregion
+
+        Double[] estimates = new Double[trainingInputs.getRows()];
+
+        for (int i = 0; i < estimates.length; i++)
+            estimates[i] = outputs[i * NUMBER_OF_OUTPUTS];
+
+        assignObjectives(solution, actuals, estimates);
+    }
+
+    /**
+     * Assigns objectives to a solution from the outputs its network produced for some of the rows of the training set,
+     * so the objectives are estimates of those over the whole training set.
+     *
+     * @param solution The solution to assign objectives to.
+     * @param outputs  The outputs of the solution's network for each of the rows, the outputs of each row next to each
+     *                 other.
+     * @param rows     The indexes of the rows of {@link #getTrainingInputs()} the outputs were produced for.
+     */
+    public void assignObjectives(SEESolution solution, double[] outputs, int[] rows) {
+        // region Argument checks
+        if (outputs.length != rows.length * NUMBER_OF_OUTPUTS)
+            throw new IllegalArgumentException("There must be one set of outputs for each row");
+        // endregion
+
+        Double[] rowActuals = new Double[rows.length], estimates = new Double[rows.length];
+
+        for (int i = 0; i < rows.length; i++) {
+            rowActuals[i] = actuals[rows[i]];
+            estimates[i] = outputs[i * NUMBER_OF_OUTPUTS];
+        }
+
+        assignObjectives(solution, rowActuals, estimates);
+    }
+
+    private void assignObjectives(SEESolution solution, Double[] actuals, Double[] estimates) {
         for (int i = 0; i < errorMetrics.size(); i++) {
             ErrorMetric errorMetric = errorMetrics.get(i);
             double error = errorMetric.error(actuals, estimates);
@@ -62,13 +163,86 @@ public class SEEProblem extends AbstractGenericProblem<SEESolution> {
 
     @Override
     public SEESolution createSolution() {
-        return new SEESolution(errorMetrics.size(),
-                new FeedForwardPerceptron(
-                        trainingSet[0].getInputs().length,
-                        NUMBER_OF_HIDDEN_NODES,
-                        NUMBER_OF_OUTPUTS,
-                        NUMBER_OF_HIDDEN_LAYERS,
-                        1.0)
-        );
+        FeedForwardPerceptron network = createNetwork(new RandomWeightInit(random));
+        network.setPrecision(precision);
+
+        if (compileNetworks)
+            network.setCompiledEvaluator(NetworkCompiler.compile(network));
+
+        return new SEESolution(errorMetrics.size(), network);
+    }
+
+    private FeedForwardPerceptron createNetwork(IWeightInitialiser weightInitialiser) {
+        return new FeedForwardPerceptron(
+                trainingInputs.getColumns(),
+                NUMBER_OF_HIDDEN_NODES,
+                NUMBER_OF_OUTPUTS,
+                NUMBER_OF_HIDDEN_LAYERS,
+                1.0,
+                weightInitialiser,
+                hiddenStepFunction.create(),
+                new LinearStepFunc());
+    }
+
+    /**
+     * Sets whether the networks of new solutions execute single rows with an evaluator generated for their shape, see
+     * {@link NetworkCompiler}. The evaluator is kept by every copy of the network. Off by default.
+     * <p>
+     * Only single row inference uses the evaluator, such as the predictions of a {@link neural_network.Predictor}
+     * or {@link ensemble.ParetoEnsemble}. Solutions are evaluated during the search in batches, which the evaluator
+     * does not cover.
+     *
+     * @param compileNetworks True to generate an evaluator for the networks, false otherwise.
+     * @throws IllegalArgumentException If the networks of this problem are too large to benefit from being compiled.
+     */
+    public void setCompileNetworks(boolean compileNetworks) {
+        // region Argument checks
+        if (compileNetworks) {
+            // The weights do not affect the evaluator, so the random stream of the problem is left untouched
+            NetworkCompiler.compile(createNetwork(new RandomWeightInit(new RandomStream(0))));
+        }
+        // endregion
+
+        this.compileNetworks = compileNetworks;
+    }
+
+    public Precision getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Sets the precision the networks of new solutions use when evaluated against the training set. Single precision
+     * is faster but the objectives it produces are approximate, see {@link #evaluateExactly(SEESolution)}. Defaults to
+     * {@link Precision#DOUBLE}.
+     *
+     * @param precision The precision of the arithmetic.
+     */
+    public void setPrecision(Precision precision) {
+        this.precision = precision;
+    }
+
+    /**
+     * @return The stream the initial weights of new solutions are drawn from, or null if the stream of the creating
+     * thread is used.
+     */
+    public RandomStream getRandomStream() {
+        return random;
+    }
+
+    /**
+     * Sets the stream the initial weights of new solutions are drawn from, for example to make a run reproducible. By
+     * default the stream of the thread creating the solution is used.
+     *
+     * @param random The stream to draw initial weights from, or null to use the stream of the creating thread.
+     */
+    public void setRandomStream(RandomStream random) {
+        this.random = random;
+    }
+
+    /**
+     * @return The inputs of the training set, one row per sample.
+     */
+    public InputMatrix getTrainingInputs() {
+        return trainingInputs;
     }
 }
@@ -3,6 +3,11 @@ package evolve_nn;
 import neural_network.INeuralNetwork;
 import org.uma.jmetal.solution.Solution;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -14,9 +19,20 @@ import java.util.Map;
 public class SEESolution implements Solution<Double> {
 
     private final INeuralNetwork network;
-    private final Double[] objectives;
+    private final double[] objectives;
     private final Map<Object, Object> attributes;
 
+    // The attributes set while ranking and sorting populations, kept out of the map so they are not boxed and looked
+    // up on every comparison. NaN or -1 when not set
+    private int rank = -1, rDominanceRank = -1;
+    private double crowdingDistance = Double.NaN, rDistance = Double.NaN;
+
+    // The solution this solution was copied from. Weak so a chain of ancestors is not kept alive
+    private WeakReference<SEESolution> origin;
+
+    // Whether the variables have changed since the objectives were last assigned by an evaluation
+    private boolean dirty = true;
+
     /**
      * @param numberOfObjectives The number of objectives/error metrics to evaluate the solution with.
      * @param network            The neural network to initialise the solution with.
@@ -24,8 +40,10 @@ public class SEESolution implements Solution<Double> {
     public SEESolution(int numberOfObjectives, INeuralNetwork network) {
         this.network = network;
 
-        objectives = new Double[numberOfObjectives];
+        objectives = new double[numberOfObjectives];
         attributes = new HashMap<>();
+
+        Arrays.fill(objectives, Double.NaN);
     }
 
     // region Getters and Setters
@@ -43,14 +61,22 @@ public class SEESolution implements Solution<Double> {
         return objectives[index];
     }
 
+    /**
+     * @return A copy of the objectives of the solution. Objectives that have not been set are NaN.
+     */
     public Double[] getObjectives() {
-        return objectives;
+        Double[] boxed = new Double[objectives.length];
+
+        for (int i = 0; i < objectives.length; i++)
+            boxed[i] = objectives[i];
+
+        return boxed;
     }
 
     @Override
     public Double getVariableValue(int index) {
 
-        int weightLengths = network.getWeights().length;
+        int weightLengths = network.getNumberOfWeights();
 
         if (index < weightLengths)
             return network.getWeight(index);
@@ -61,13 +87,15 @@ public class SEESolution implements Solution<Double> {
     @Override
     public void setVariableValue(int index, Double value) {
 
-        int weightLengths = network.getWeights().length;
+        int weightLengths = network.getNumberOfWeights();
 
         if (index < weightLengths) {
             network.setWeight(index, value);
         } else {
             network.setThreshold(index - weightLengths, value);
         }
+
+        dirty = true;
     }
 
     @Override
@@ -77,7 +105,7 @@ public class SEESolution implements Solution<Double> {
 
     @Override
     public int getNumberOfVariables() {
-        return network.getWeights().length + network.getThresholds().length - 1;
+        return network.getNumberOfWeights() + network.getNumberOfThresholds() - 1;
     }
 
     @Override
@@ -87,18 +115,201 @@ public class SEESolution implements Solution<Double> {
 
     @Override
     public Solution<Double> copy() {
-        return new SEESolution(
+        SEESolution copy = new SEESolution(
                 getNumberOfObjectives(),
                 network.copy());
+
+        copy.origin = new WeakReference<>(this);
+
+        return copy;
+    }
+
+    /**
+     * @return True if the solution has not been evaluated since it was created or one of its variables was changed,
+     * false if its objectives are up to date. Changes made to the network directly, rather than through
+     * {@link #setVariableValue(int, Double)}, are not tracked and must be followed by {@link #markDirty()}.
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Marks the objectives of the solution as out of date, so it is evaluated again.
+     */
+    public void markDirty() {
+        dirty = true;
+    }
+
+    /**
+     * Marks the objectives of the solution as up to date. Called once the solution has been evaluated.
+     */
+    public void markEvaluated() {
+        dirty = false;
+    }
+
+    /**
+     * @return The solution this solution was copied from, or null if it was not copied or the original no longer
+     * exists.
+     */
+    public SEESolution getOrigin() {
+        return origin == null ? null : origin.get();
+    }
+
+    /**
+     * @return The genome of the solution, the weights of its network followed by its thresholds. Later changes to the
+     * solution are not seen by the array.
+     */
+    public double[] getGenome() {
+        int numberOfWeights = network.getNumberOfWeights();
+        double[] genome = new double[numberOfWeights + network.getNumberOfThresholds()];
+
+        for (int i = 0; i < numberOfWeights; i++)
+            genome[i] = network.getWeight(i);
+
+        for (int i = numberOfWeights; i < genome.length; i++)
+            genome[i] = network.getThreshold(i - numberOfWeights);
+
+        return genome;
+    }
+
+    /**
+     * Writes the genome of the solution, the weights and thresholds of its network, along with its objectives and
+     * whether they are up to date. Together with {@link #readGenome(DataInput)} lets solutions be sent between
+     * processes. The shape of the network and its step functions are not written, the solution read into must already
+     * have them.
+     *
+     * @param output The output to write to.
+     * @throws IOException If the output could not be written to.
+     */
+    public void writeGenome(DataOutput output) throws IOException {
+        int numberOfWeights = network.getNumberOfWeights(), numberOfThresholds = network.getNumberOfThresholds();
+
+        output.writeInt(numberOfWeights);
+        output.writeInt(numberOfThresholds);
+        output.writeInt(objectives.length);
+
+        for (int i = 0; i < numberOfWeights; i++)
+            output.writeDouble(network.getWeight(i));
+
+        for (int i = 0; i < numberOfThresholds; i++)
+            output.writeDouble(network.getThreshold(i));
+
+        for (double objective : objectives)
+            output.writeDouble(objective);
+
+        output.writeBoolean(dirty);
+    }
+
+    /**
+     * Replaces the genome and objectives of the solution with those written by {@link #writeGenome(DataOutput)}.
+     * Objectives that were not set when written are read as NaN. The solution is dirty if the written solution was, or
+     * if an objective was not set.
+     *
+     * @param input The input to read from.
+     * @throws IOException If the input could not be read, or holds a genome for a network of another shape.
+     */
+    public void readGenome(DataInput input) throws IOException {
+        int numberOfWeights = input.readInt(), numberOfThresholds = input.readInt(), numberOfObjectives = input.readInt();
+
+        if (numberOfWeights != network.getNumberOfWeights() || numberOfThresholds != network.getNumberOfThresholds())
+            throw new IOException("The genome is for a network of a different shape");
+
+        if (numberOfObjectives != objectives.length)
+            throw new IOException("The genome has " + numberOfObjectives + " objectives rather than " + objectives.length);
+
+        for (int i = 0; i < numberOfWeights; i++)
+            network.setWeight(i, input.readDouble());
+
+        for (int i = 0; i < numberOfThresholds; i++)
+            network.setThreshold(i, input.readDouble());
+
+        boolean evaluated = true;
+
+        for (int i = 0; i < numberOfObjectives; i++) {
+            objectives[i] = input.readDouble();
+            evaluated &= !Double.isNaN(objectives[i]);
+        }
+
+        dirty = input.readBoolean() || !evaluated;
+    }
+
+    /**
+     * @return The front the solution was placed in by the most recent {@link FastDominanceRanking} of a population
+     * holding it, or -1 if it has not been ranked.
+     */
+    public int getRank() {
+        return rank;
+    }
+
+    public void setRank(int rank) {
+        this.rank = rank;
+    }
+
+    /**
+     * @return The front the solution was placed in by the most recent {@link RDominanceRanking} of a population
+     * holding it, or -1 if it has not been ranked. Kept apart from {@link #getRank()} so ranking a population by
+     * dominance alone does not change the preference ranks of its solutions.
+     */
+    public int getRDominanceRank() {
+        return rDominanceRank;
+    }
+
+    public void setRDominanceRank(int rDominanceRank) {
+        this.rDominanceRank = rDominanceRank;
     }
 
+    /**
+     * @return The crowding distance most recently assigned by a {@link HarmonicCrowdingDistance}, or NaN if none has
+     * been assigned.
+     */
+    public double getCrowdingDistance() {
+        return crowdingDistance;
+    }
+
+    public void setCrowdingDistance(double crowdingDistance) {
+        this.crowdingDistance = crowdingDistance;
+    }
+
+    /**
+     * @return The distance to the aspiration point most recently found by a {@link RDominanceRanking}, or NaN if none
+     * has been found.
+     */
+    public double getRDistance() {
+        return rDistance;
+    }
+
+    public void setRDistance(double rDistance) {
+        this.rDistance = rDistance;
+    }
+
+    /**
+     * Sets an attribute of the solution. The rank and crowding distance attributes of the classes in this package are
+     * stored in their own fields, see {@link #getRank()}, {@link #getRDominanceRank()} and
+     * {@link #getCrowdingDistance()}.
+     */
     @Override
     public void setAttribute(Object id, Object value) {
-        attributes.put(id, value);
+        if (id == FastDominanceRanking.class)
+            rank = value == null ? -1 : (Integer) value;
+        else if (id == RDominanceRanking.class)
+            rDominanceRank = value == null ? -1 : (Integer) value;
+        else if (id == HarmonicCrowdingDistance.class)
+            crowdingDistance = value == null ? Double.NaN : (Double) value;
+        else
+            attributes.put(id, value);
     }
 
     @Override
     public Object getAttribute(Object id) {
+        if (id == FastDominanceRanking.class)
+            return rank < 0 ? null : rank;
+
+        if (id == RDominanceRanking.class)
+            return rDominanceRank < 0 ? null : rDominanceRank;
+
+        if (id == HarmonicCrowdingDistance.class)
+            return Double.isNaN(crowdingDistance) ? null : crowdingDistance;
+
         return attributes.get(id);
     }
 
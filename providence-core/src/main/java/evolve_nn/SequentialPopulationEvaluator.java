@@ -0,0 +1,23 @@
+package evolve_nn;
+
+import java.util.List;
+
+/**
+ * Evaluates a population one solution at a time using {@link SEEProblem#evaluate(SEESolution)}.
+ */
+public class SequentialPopulationEvaluator implements IPopulationEvaluator {
+
+    private final SEEProblem problem;
+
+    /**
+     * @param problem The problem to evaluate solutions against.
+     */
+    public SequentialPopulationEvaluator(SEEProblem problem) {
+        this.problem = problem;
+    }
+
+    @Override
+    public void evaluate(List<SEESolution> population) {
+        population.forEach(problem::evaluate);
+    }
+}
@@ -0,0 +1,249 @@
+package evolve_nn;
+
+import javafx.application.Platform;
+import utils.RandomStream;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Runs a {@link RHaDMOEA} asynchronously, one child at a time, rather than a generation at a time as
+ * {@link AlgorithmRunner} does. Several workers each repeatedly choose parents from the current population, produce and
+ * evaluate a child, then insert the child into the population. No worker waits for the others to finish their
+ * evaluations, so slow solutions do not leave threads idle.
+ * <p>
+ * Inserting a child replaces the worst solution of the population. Without an aspiration point the population is kept
+ * ranked by an {@link IncrementalDominanceRanking}, and the solution of the last front with the lowest
+ * {@link HarmonicCrowdingDistance} is replaced. With an aspiration point the algorithm's own replacement is used, as
+ * r-dominance depends on the whole population.
+ * <p>
+ * A generation is counted every time as many children as the size of the population have been inserted, at which point
+ * listeners receive a snapshot of the population. The order children are inserted in depends on how the threads are
+ * scheduled, so runs are not reproducible. The algorithm's population evaluator must support being called from several
+ * threads at once.
+ */
+public class SteadyStateRunner {
+
+    private final RHaDMOEA algorithm;
+    private final ExecutorService executor;
+    private final int numberOfWorkers;
+    private final RandomStream random = RandomStream.forThread().split();
+
+    private final List<IUpdateListener<SEESolution>> updateListeners = new ArrayList<>();
+
+    // Guarded by this runner
+    private List<SEESolution> population;
+    private IncrementalDominanceRanking<SEESolution> ranking;
+    private boolean evaluated;
+    private int recentGeneration, childrenStarted, childrenInserted, childrenTarget;
+    private RuntimeException failure;
+
+    /**
+     * Runs the workers on a fork-join pool with one thread per worker.
+     *
+     * @param algorithm       The algorithm to run.
+     * @param numberOfWorkers The number of children produced and evaluated at once.
+     */
+    public SteadyStateRunner(RHaDMOEA algorithm, int numberOfWorkers) {
+        this(algorithm, new ForkJoinPool(numberOfWorkers), numberOfWorkers);
+    }
+
+    /**
+     * @param algorithm       The algorithm to run.
+     * @param executor        The executor to run the workers on. It is not shut down by the runner.
+     * @param numberOfWorkers The number of children produced and evaluated at once.
+     */
+    public SteadyStateRunner(RHaDMOEA algorithm, ExecutorService executor, int numberOfWorkers) {
+        // region Argument checks
+        if (numberOfWorkers < 1)
+            throw new IllegalArgumentException("There must be at least one worker");
+        // endregion
+
+        this.algorithm = algorithm;
+        this.executor = executor;
+        this.numberOfWorkers = numberOfWorkers;
+
+        restart();
+    }
+
+    public synchronized void restart() {
+        recentGeneration = 0;
+        population = algorithm.createInitialPopulation();
+        ranking = null;
+        evaluated = false;
+    }
+
+    /**
+     * Runs the algorithm until as many children as the provided number of generations of the population have been
+     * inserted.
+     *
+     * @param generations The number of generations to run for.
+     * @return The population once every child has been inserted.
+     */
+    public PopulationInformation<SEESolution> runFor(int generations) {
+        synchronized (this) {
+            if (!evaluated) {
+                population = new ArrayList<>(algorithm.evaluatePopulation(population));
+                evaluated = true;
+            }
+
+            childrenStarted = 0;
+            childrenInserted = 0;
+            childrenTarget = generations * algorithm.getPopulationSize();
+            failure = null;
+        }
+
+        List<Future<?>> workers = new ArrayList<>();
+
+        for (int i = 0; i < numberOfWorkers; i++) {
+            RandomStream workerRandom;
+
+            synchronized (this) {
+                workerRandom = random.split();
+            }
+
+            workers.add(executor.submit(() -> work(workerRandom)));
+        }
+
+        try {
+            for (Future<?> worker : workers)
+                worker.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running the algorithm", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A worker failed", e.getCause());
+        }
+
+        synchronized (this) {
+            if (failure != null)
+                throw failure;
+
+            population = new ArrayList<>(algorithm.finalisePopulation(population));
+
+            // Finalising may change the objectives the ranking was built from
+            ranking = null;
+
+            return new PopulationInformation<>(generations, new ArrayList<>(population));
+        }
+    }
+
+    /**
+     * Produces, evaluates and inserts children until enough have been started.
+     */
+    private void work(RandomStream random) {
+        int operatorGeneration = -1;
+        MLPCrossOver crossover = null;
+        GaussianMutation mutation = null;
+
+        while (true) {
+            List<SEESolution> parents;
+
+            synchronized (this) {
+                if (childrenStarted >= childrenTarget || failure != null)
+                    return;
+
+                childrenStarted++;
+                parents = new ArrayList<>(population);
+
+                // The cross over operator anneals over the generations so the copies are replaced every generation
+                if (operatorGeneration != recentGeneration) {
+                    operatorGeneration = recentGeneration;
+                    crossover = algorithm.getCrossoverOperator().copy(random.split());
+                    mutation = algorithm.getMutationOperator().copy(random.split());
+                }
+            }
+
+            try {
+                SEESolution[] child = new SEESolution[1];
+                RHaDMOEA.reproduce(parents, child, 0, 1, random, crossover, mutation);
+
+                algorithm.evaluatePopulation(Collections.singletonList(child[0]));
+
+                insert(child[0]);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    failure = e;
+                }
+
+                return;
+            }
+        }
+    }
+
+    private synchronized void insert(SEESolution child) {
+        if (algorithm.getAspirationPoint() == null) {
+            if (ranking == null) {
+                ranking = new IncrementalDominanceRanking<>();
+                ranking.computeRanking(population);
+            }
+
+            ranking.add(child);
+            population.add(child);
+
+            SEESolution worst = findMostCrowded(ranking.getSubfront(ranking.getNumberOfSubfronts() - 1));
+
+            ranking.remove(worst);
+            population.remove(worst);
+        } else {
+            population = new ArrayList<>(algorithm.replacement(population, Collections.singletonList(child)));
+            ranking = null;
+        }
+
+        childrenInserted++;
+
+        if (childrenInserted % algorithm.getPopulationSize() == 0) {
+            recentGeneration++;
+            algorithm.nextGeneration();
+
+            informListeners(new PopulationInformation<>(recentGeneration, new ArrayList<>(population)));
+        }
+    }
+
+    /**
+     * @return The solution of the front whose nearest neighbours in the population are closest.
+     */
+    private SEESolution findMostCrowded(List<SEESolution> front) {
+        if (front.size() == 1)
+            return front.get(0);
+
+        HarmonicCrowdingDistance crowdingDistance = new HarmonicCrowdingDistance(2);
+        crowdingDistance.setSearchPopulation(population);
+        crowdingDistance.computeDensityEstimator(front);
+
+        return Collections.max(front, new CrowdingDistanceComparator<>(crowdingDistance));
+    }
+
+    private void informListeners(PopulationInformation<SEESolution> populationInformation) {
+        if (updateListeners.isEmpty())
+            return;
+
+        // Children are inserted on the workers' threads, never the JavaFX thread
+        Platform.runLater(() -> {
+            for (IUpdateListener<SEESolution> listener : updateListeners)
+                listener.onUpdate(populationInformation);
+        });
+    }
+
+    /**
+     * Adds a consumer that will be called each generation. The listener will receive an object containing an
+     * unmodifiable copy of the population.
+     *
+     * @param listener The consumer to call.
+     */
+    public synchronized void addUpdateListener(IUpdateListener<SEESolution> listener) {
+        updateListeners.add(listener);
+    }
+
+    /**
+     * @return The number of children inserted into the population during the most recent run.
+     */
+    public synchronized int getChildrenInserted() {
+        return childrenInserted;
+    }
+}
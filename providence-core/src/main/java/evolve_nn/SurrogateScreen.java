@@ -0,0 +1,337 @@
+package evolve_nn;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Predicts the objectives of children before they are evaluated, so only the most promising children are evaluated and
+ * the rest are discarded. Worthwhile when evaluating a network is expensive, such as on large training sets.
+ * <p>
+ * The prediction of a child is the mean of the objectives of the nearest genomes in an archive of recently evaluated
+ * solutions, each weighted by the inverse of its distance to the child. Every solution evaluated is added to the
+ * archive, replacing the oldest once the archive is full, so the model follows the population as it moves. A child is
+ * more promising the fewer of its parents dominate its predicted objectives.
+ * <p>
+ * The accuracy of the predictions is measured by how often the predictions of two evaluated children are in the same
+ * order as their evaluated objectives, for each objective. Screening does not start until the archive holds enough
+ * genomes to predict from. The archive is part of a checkpoint of the algorithm the screen is set on.
+ */
+public class SurrogateScreen {
+
+    private final int numberOfNeighbours;
+    private final double evaluatedFraction;
+
+    // The genomes and objectives of the archive, a ring with the oldest solution at the next position
+    private final double[][] archiveGenomes, archiveObjectives;
+    private int archiveSize, archiveNext;
+
+    // The predicted objectives of the children screened in and not yet evaluated
+    private final Map<SEESolution, double[]> predictions = new IdentityHashMap<>();
+
+    private long candidates, evaluationsSaved, concordantPairs, comparedPairs;
+
+    /**
+     * @param numberOfNeighbours The number of archived genomes each prediction is made from.
+     * @param evaluatedFraction  The fraction of the children to evaluate, between 0 exclusive and 1.
+     * @param archiveCapacity    The most evaluated genomes to remember. At least the number of neighbours.
+     */
+    public SurrogateScreen(int numberOfNeighbours, double evaluatedFraction, int archiveCapacity) {
+        // region Argument checks
+        if (numberOfNeighbours < 1)
+            throw new IllegalArgumentException("Predictions must be made from at least one neighbour");
+
+        if (!(evaluatedFraction > 0 && evaluatedFraction <= 1))
+            throw new IllegalArgumentException("The fraction of children evaluated must be greater than 0 and at most 1");
+
+        if (archiveCapacity < numberOfNeighbours)
+            throw new IllegalArgumentException("The archive must be able to hold at least as many genomes as neighbours");
+        // endregion
+
+        this.numberOfNeighbours = numberOfNeighbours;
+        this.evaluatedFraction = evaluatedFraction;
+
+        archiveGenomes = new double[archiveCapacity][];
+        archiveObjectives = new double[archiveCapacity][];
+    }
+
+    /**
+     * Chooses the children to evaluate. Children that are not dirty are kept without being counted, as evaluating them
+     * costs nothing.
+     *
+     * @param offspring The children, not yet evaluated.
+     * @param parents   The evaluated population the children were produced from.
+     * @return The children to evaluate, in the order they were produced.
+     */
+    public synchronized List<SEESolution> screen(List<SEESolution> offspring, List<SEESolution> parents) {
+        predictions.clear();
+
+        List<SEESolution> dirty = new ArrayList<>();
+
+        for (SEESolution child : offspring) {
+            if (child.isDirty())
+                dirty.add(child);
+        }
+
+        candidates += dirty.size();
+
+        if (archiveSize < numberOfNeighbours || dirty.isEmpty())
+            return offspring;
+
+        int kept = (int) Math.ceil(evaluatedFraction * dirty.size());
+
+        double[][] predicted = new double[dirty.size()][];
+        int[] dominatingParents = new int[dirty.size()];
+        Integer[] order = new Integer[dirty.size()];
+
+        for (int i = 0; i < dirty.size(); i++) {
+            predicted[i] = predict(dirty.get(i).getGenome());
+            dominatingParents[i] = countDominating(parents, predicted[i]);
+            order[i] = i;
+        }
+
+        // Stable, so children equally promising are kept in the order they were produced
+        Arrays.sort(order, (a, b) -> Integer.compare(dominatingParents[a], dominatingParents[b]));
+
+        for (int i = 0; i < kept; i++)
+            predictions.put(dirty.get(order[i]), predicted[order[i]]);
+
+        evaluationsSaved += dirty.size() - kept;
+
+        List<SEESolution> screened = new ArrayList<>(offspring.size() - dirty.size() + kept);
+
+        for (SEESolution child : offspring) {
+            if (!child.isDirty() || predictions.containsKey(child))
+                screened.add(child);
+        }
+
+        return screened;
+    }
+
+    /**
+     * Adds newly evaluated solutions to the archive, and measures the predictions made for any of them.
+     *
+     * @param evaluated The solutions, each with its objectives just assigned by an evaluation.
+     */
+    public synchronized void record(List<SEESolution> evaluated) {
+        List<double[]> predicted = new ArrayList<>(), actual = new ArrayList<>();
+
+        for (SEESolution solution : evaluated) {
+            double[] objectives = new double[solution.getNumberOfObjectives()];
+
+            for (int i = 0; i < objectives.length; i++)
+                objectives[i] = solution.getObjective(i);
+
+            double[] prediction = predictions.remove(solution);
+
+            if (prediction != null) {
+                predicted.add(prediction);
+                actual.add(objectives);
+            }
+
+            archiveGenomes[archiveNext] = solution.getGenome();
+            archiveObjectives[archiveNext] = objectives;
+
+            archiveNext = (archiveNext + 1) % archiveGenomes.length;
+            archiveSize = Math.min(archiveSize + 1, archiveGenomes.length);
+        }
+
+        for (int i = 0; i < predicted.size(); i++) {
+            for (int j = i + 1; j < predicted.size(); j++) {
+                for (int objective = 0; objective < predicted.get(i).length; objective++) {
+                    double predictedDifference = predicted.get(i)[objective] - predicted.get(j)[objective];
+                    double actualDifference = actual.get(i)[objective] - actual.get(j)[objective];
+
+                    if (Math.signum(predictedDifference) == Math.signum(actualDifference))
+                        concordantPairs++;
+
+                    comparedPairs++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the archive and the measurements of the screen, so a run can be continued from a checkpoint.
+     *
+     * @param output The output to write to.
+     * @throws IOException If the output could not be written to.
+     */
+    public synchronized void writeState(DataOutput output) throws IOException {
+        output.writeInt(archiveGenomes.length);
+        output.writeInt(archiveSize);
+        output.writeInt(archiveNext);
+
+        for (int i = 0; i < archiveSize; i++) {
+            writeArray(output, archiveGenomes[i]);
+            writeArray(output, archiveObjectives[i]);
+        }
+
+        output.writeLong(candidates);
+        output.writeLong(evaluationsSaved);
+        output.writeLong(concordantPairs);
+        output.writeLong(comparedPairs);
+    }
+
+    /**
+     * Restores the archive and measurements written by {@link #writeState(DataOutput)}.
+     *
+     * @param input The input to read from.
+     * @throws IOException If the input could not be read, or was written by a screen with an archive of another
+     *                     capacity.
+     */
+    public synchronized void readState(DataInput input) throws IOException {
+        int capacity = input.readInt();
+
+        if (capacity != archiveGenomes.length)
+            throw new IOException("The checkpoint holds an archive of " + capacity + " genomes rather than "
+                    + archiveGenomes.length);
+
+        archiveSize = input.readInt();
+        archiveNext = input.readInt();
+
+        for (int i = 0; i < archiveSize; i++) {
+            archiveGenomes[i] = readArray(input);
+            archiveObjectives[i] = readArray(input);
+        }
+
+        Arrays.fill(archiveGenomes, archiveSize, capacity, null);
+        Arrays.fill(archiveObjectives, archiveSize, capacity, null);
+        predictions.clear();
+
+        candidates = input.readLong();
+        evaluationsSaved = input.readLong();
+        concordantPairs = input.readLong();
+        comparedPairs = input.readLong();
+    }
+
+    private static void writeArray(DataOutput output, double[] values) throws IOException {
+        output.writeInt(values.length);
+
+        for (double value : values)
+            output.writeDouble(value);
+    }
+
+    private static double[] readArray(DataInput input) throws IOException {
+        double[] values = new double[input.readInt()];
+
+        for (int i = 0; i < values.length; i++)
+            values[i] = input.readDouble();
+
+        return values;
+    }
+
+    /**
+     * @return The objectives of the genome, predicted from its nearest neighbours in the archive.
+     */
+    private double[] predict(double[] genome) {
+        int[] nearest = new int[numberOfNeighbours];
+        double[] nearestDistances = new double[numberOfNeighbours];
+        Arrays.fill(nearestDistances, Double.POSITIVE_INFINITY);
+
+        for (int i = 0; i < archiveSize; i++) {
+            double distance = squaredDistance(genome, archiveGenomes[i]);
+
+            // Insertion sort
+            int position = numberOfNeighbours;
+
+            while (position > 0 && distance < nearestDistances[position - 1])
+                position--;
+
+            if (position == numberOfNeighbours)
+                continue;
+
+            System.arraycopy(nearest, position, nearest, position + 1, numberOfNeighbours - position - 1);
+            System.arraycopy(nearestDistances, position, nearestDistances, position + 1, numberOfNeighbours - position - 1);
+
+            nearest[position] = i;
+            nearestDistances[position] = distance;
+        }
+
+        // A genome already in the archive is predicted to be as good as it was
+        if (nearestDistances[0] == 0)
+            return archiveObjectives[nearest[0]].clone();
+
+        double[] prediction = new double[archiveObjectives[nearest[0]].length];
+        double totalWeight = 0;
+
+        for (int i = 0; i < numberOfNeighbours; i++) {
+            double weight = 1 / Math.sqrt(nearestDistances[i]);
+            totalWeight += weight;
+
+            for (int j = 0; j < prediction.length; j++)
+                prediction[j] += weight * archiveObjectives[nearest[i]][j];
+        }
+
+        for (int j = 0; j < prediction.length; j++)
+            prediction[j] /= totalWeight;
+
+        return prediction;
+    }
+
+    private static double squaredDistance(double[] x, double[] y) {
+        double distance = 0;
+
+        for (int i = 0; i < x.length; i++) {
+            double difference = x[i] - y[i];
+            distance += difference * difference;
+        }
+
+        return distance;
+    }
+
+    private static int countDominating(List<SEESolution> parents, double[] objectives) {
+        int dominating = 0;
+
+        for (SEESolution parent : parents) {
+            boolean better = false, worse = false;
+
+            for (int i = 0; i < objectives.length && !worse; i++) {
+                if (parent.getObjective(i) < objectives[i])
+                    better = true;
+                else if (parent.getObjective(i) > objectives[i])
+                    worse = true;
+            }
+
+            if (better && !worse)
+                dominating++;
+        }
+
+        return dominating;
+    }
+
+    /**
+     * @return The number of dirty children passed to the screen.
+     */
+    public synchronized long getCandidates() {
+        return candidates;
+    }
+
+    /**
+     * @return The number of children discarded without being evaluated.
+     */
+    public synchronized long getEvaluationsSaved() {
+        return evaluationsSaved;
+    }
+
+    /**
+     * @return The fraction of the children passed to the screen that were discarded without being evaluated, or 0 if
+     * no children have been passed to it.
+     */
+    public synchronized double getFractionSaved() {
+        return candidates == 0 ? 0 : (double) evaluationsSaved / candidates;
+    }
+
+    /**
+     * @return The fraction of pairs of evaluated children, for each objective, whose predictions were in the same order
+     * as their evaluated objectives, or NaN if no predictions have been measured.
+     */
+    public synchronized double getAccuracy() {
+        return comparedPairs == 0 ? Double.NaN : (double) concordantPairs / comparedPairs;
+    }
+}
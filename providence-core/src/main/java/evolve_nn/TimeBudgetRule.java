@@ -0,0 +1,27 @@
+package evolve_nn;
+
+/**
+ * Stops a run once it has run for a length of time. The generation running when the time runs out is finished first.
+ */
+public class TimeBudgetRule implements IStoppingRule {
+
+    private final long budgetMillis;
+
+    /**
+     * @param budgetMillis The most milliseconds a run may start generations for.
+     */
+    public TimeBudgetRule(long budgetMillis) {
+        // region Argument checks
+        if (budgetMillis < 0)
+            throw new IllegalArgumentException("The time budget cannot be negative");
+        // endregion
+
+        this.budgetMillis = budgetMillis;
+    }
+
+    @Override
+    public boolean isMet(PopulationInformation<? extends SEESolution> populationInformation, long evaluations,
+                         long elapsedMillis) {
+        return elapsedMillis >= budgetMillis;
+    }
+}
@@ -0,0 +1,70 @@
+package neural_network;
+
+/**
+ * Passes blocks of rows from an {@link InputMatrix} through a feed forward network. The kernel only knows the shape of
+ * the network, the weights and thresholds are provided on each call so one kernel can be used to execute any number of
+ * networks of the same shape, for example networks packed next to each other in a single array.
+ * <p>
+ * Every node sums its inputs in the same order as {@link FeedForwardPerceptron#executeNetwork(double[], double[])} so
+ * the values produced are identical to executing each row separately, whichever {@link InferenceBackend} created the
+ * kernel.
+ * <p>
+ * A kernel holds the values of the block being executed so it must not be shared between threads.
+ */
+abstract class BatchKernel {
+
+    // The number of rows passed through the network together
+    static final int BLOCK_SIZE = 64;
+
+    final int[] layerSizes, weightOffsets, thresholdOffsets;
+    final IStepFunction internalStepFunc, outputStepFunc;
+
+    final int widestLayer;
+
+    /**
+     * @param layerSizes       The number of nodes in each layer, starting with the input layer.
+     * @param weightOffsets    The index of the first weight leading into each layer.
+     * @param thresholdOffsets The index of the first threshold of each layer.
+     * @param internalStepFunc The step function of the hidden layers.
+     * @param outputStepFunc   The step function of the output layer.
+     */
+    BatchKernel(int[] layerSizes, int[] weightOffsets, int[] thresholdOffsets,
+                IStepFunction internalStepFunc, IStepFunction outputStepFunc) {
+        this.layerSizes = layerSizes;
+        this.weightOffsets = weightOffsets;
+        this.thresholdOffsets = thresholdOffsets;
+        this.internalStepFunc = internalStepFunc;
+        this.outputStepFunc = outputStepFunc;
+
+        int widest = 0;
+
+        for (int i = 1; i < layerSizes.length; i++)
+            widest = Math.max(widest, layerSizes[i]);
+
+        widestLayer = widest;
+    }
+
+    /**
+     * Executes a network on a block of rows of the input matrix.
+     *
+     * @param weights       The array holding the weights of the network.
+     * @param weightBase    The index of the first weight of the network.
+     * @param thresholds    The array holding the thresholds of the network.
+     * @param thresholdBase The index of the first threshold of the network.
+     * @param inputs        The input matrix.
+     * @param start         The first row of the block.
+     * @param blockRows     The number of rows in the block, at most {@link #BLOCK_SIZE}.
+     * @return The values of the output layer, the outputs of each row next to each other. The array is reused by the
+     * next call.
+     */
+    abstract double[] executeBlock(double[] weights, int weightBase, double[] thresholds, int thresholdBase,
+                                   InputMatrix inputs, int start, int blockRows);
+
+    int getOutputLayerIndex() {
+        return layerSizes.length - 1;
+    }
+
+    IStepFunction getStepFunction(int layer) {
+        return layer != getOutputLayerIndex() ? internalStepFunc : outputStepFunc;
+    }
+}
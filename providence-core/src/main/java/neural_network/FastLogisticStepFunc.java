@@ -0,0 +1,24 @@
+package neural_network;
+
+/**
+ * Implementation of the logistic step function using {@link Math#exp(double)}, which is faster than the power of e
+ * used by {@link LogisticStepFunc}. Differs from {@link LogisticStepFunc} in the last bit for some inputs, so a run
+ * using it does not reproduce the outputs of the exact logistic function.
+ */
+public class FastLogisticStepFunc implements IStepFunction {
+
+    /**
+     * @param input The cumulative excitement from all connected nodes.
+     * @return An excitement value between 0 and 1.
+     */
+    @Override
+    public double response(double input) {
+        return 1 / (1 + Math.exp(-input));
+    }
+
+    @Override
+    public void response(double[] inputs, double[] outputs, int start, int length) {
+        for (int i = start; i < start + length; i++)
+            outputs[i] = 1 / (1 + Math.exp(-inputs[i]));
+    }
+}
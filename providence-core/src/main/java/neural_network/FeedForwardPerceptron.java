@@ -1,7 +1,5 @@
 package neural_network;
 
-import org.jetbrains.annotations.NotNull;
-
 import java.util.Arrays;
 
 /**
@@ -10,25 +8,47 @@ import java.util.Arrays;
  * A variable number of inputs and outputs can be provided. The network supports one or more hidden layers
  * with the same number of nodes in each hidden layer.
  * <p>
- * A logistic function is used for the step function when calculating output values.
+ * A logistic function is used for the step function when calculating output values unless other step functions are
+ * provided. Copies of the network use the same step functions.
+ * <p>
+ * Any number of threads can execute the network at once as long as none of them changes its weights or thresholds.
+ * {@link #createPredictor()} provides a snapshot that cannot be changed.
  * <p>
  * Initial weights are generated using the provided weight initialiser or {@link RandomWeightInit} if one is not
- * provided.
+ * provided. Copies share the weights of the original until either network changes a weight, so copying does not
+ * generate or copy any weights.
  * <p>
  * Created by Joseph Billingsley on 26/10/2015.
  */
 public class FeedForwardPerceptron implements INeuralNetwork {
 
+    // The values of every node while a row is executed. Held per thread so any number of threads can execute networks
+    // at once, shared by every network so none allocates when executed
+    private static final ThreadLocal<double[]> NODE_VALUES = ThreadLocal.withInitial(() -> new double[0]);
+
     private final int
             numberOfInputNodes,
             numberOfNodesInHiddenLayer,
             numberOfOutputNodes,
             numberOfHiddenLayers;
 
-    private final Double[] weights;
-    private final Double[] thresholds;
+    // Start of each layer in the flat weight, threshold and value arrays. Indexed by layer, the input layer has none.
+    private final int[] layerSizes, weightOffsets, thresholdOffsets, valueOffsets;
+
+    // Shared with copies of the network until either side changes a weight, see ensureWeightsAreOwned
+    private double[] weights;
+    private boolean weightsShared;
+
+    private final double[] thresholds;
     private final IStepFunction internalStepFunc, outputStepFunc;
-    private Double[][] values;
+
+    // The weights followed by the thresholds, narrowed to single precision. Built by the first single precision batch
+    // and dropped whenever a weight or threshold changes, see singleParameters
+    private volatile float[] singleParameters;
+
+    private InferenceBackend inferenceBackend = InferenceBackend.getDefault();
+    private NetworkEvaluator compiledEvaluator;
+    private Precision precision = Precision.DOUBLE;
 
     public FeedForwardPerceptron(int numberOfInputs, int numberOfNodesInHiddenLayer, int numberOfOutputs,
                                  int numberOfHiddenLayers, Double defaultThreshold) {
@@ -92,76 +112,354 @@ public class FeedForwardPerceptron implements INeuralNetwork {
         this.internalStepFunc = internalStepFunc;
         this.outputStepFunc = outputStepFunc;
 
-        int numberOfWeights = 0;
-
         int numberOfLayers = getNumberOfLayers();
 
-        values = new Double[numberOfLayers][];
+        layerSizes = new int[numberOfLayers];
+        weightOffsets = new int[numberOfLayers];
+        thresholdOffsets = new int[numberOfLayers];
+        valueOffsets = new int[numberOfLayers];
+
+        layerSizes[0] = countNodesInLayer(0);
 
-        int totalNodes = 0;
+        int numberOfWeights = 0, totalNodes = 0;
 
         for (int i = 1; i < numberOfLayers; i++) {
-            int nodesInLayer = countNodesInLayer(i);
-            values[i] = new Double[nodesInLayer];
-            totalNodes += nodesInLayer;
+            layerSizes[i] = countNodesInLayer(i);
+
+            weightOffsets[i] = numberOfWeights;
+            thresholdOffsets[i] = totalNodes;
+            valueOffsets[i] = totalNodes;
+
+            numberOfWeights += countWeightsInLayer(i - 1);
+            totalNodes += layerSizes[i];
         }
 
-        thresholds = new Double[totalNodes];
+        thresholds = new double[totalNodes];
         Arrays.fill(thresholds, defaultThreshold);
 
-        for (int i = 0; i < numberOfLayers - 1; i++)
-            numberOfWeights += countWeightsInLayer(i);
+        Double[] initialWeights = weightInitialiser.init(numberOfWeights, -5, 5);
 
-        weights = weightInitialiser.init(numberOfWeights, -5, 5);
+        weights = new double[initialWeights.length];
+
+        for (int i = 0; i < initialWeights.length; i++)
+            weights[i] = initialWeights[i];
+    }
+
+    /**
+     * Constructs a copy of a network which shares its weights and layout. Thresholds are reset to 1.
+     *
+     * @param original The network to copy.
+     */
+    private FeedForwardPerceptron(FeedForwardPerceptron original) {
+        numberOfInputNodes = original.numberOfInputNodes;
+        numberOfNodesInHiddenLayer = original.numberOfNodesInHiddenLayer;
+        numberOfOutputNodes = original.numberOfOutputNodes;
+        numberOfHiddenLayers = original.numberOfHiddenLayers;
+
+        internalStepFunc = original.internalStepFunc;
+        outputStepFunc = original.outputStepFunc;
+
+        // Never changed once constructed so can be shared
+        layerSizes = original.layerSizes;
+        weightOffsets = original.weightOffsets;
+        thresholdOffsets = original.thresholdOffsets;
+        valueOffsets = original.valueOffsets;
+
+        thresholds = new double[original.thresholds.length];
+        Arrays.fill(thresholds, 1.0);
+
+        weights = original.weights;
+        weightsShared = true;
+        original.weightsShared = true;
+
+        inferenceBackend = original.inferenceBackend;
+        compiledEvaluator = original.compiledEvaluator;
+        precision = original.precision;
     }
 
     @Override
     public INeuralNetwork copy() {
+        return new FeedForwardPerceptron(this);
+    }
 
-        FeedForwardPerceptron copy =
-                new FeedForwardPerceptron(
-                        numberOfInputNodes,
-                        numberOfNodesInHiddenLayer,
-                        numberOfOutputNodes,
-                        numberOfHiddenLayers,
-                        1.0);
+    public Double[] executeNetwork(Double[] inputs) {
 
-        for (int i = 0; i < getWeights().length; i++) {
-            copy.setWeight(i, getWeight(i));
-        }
+        // region Argument checks
+        if (inputs.length != numberOfInputNodes)
+            throw new IllegalArgumentException("The number of inputs provided does not match the number of inputs the network was initialised with.");
+        // endregion
+
+        double[] primitiveInputs = new double[inputs.length];
+
+        for (int i = 0; i < inputs.length; i++)
+            primitiveInputs[i] = inputs[i];
+
+        double[] outputs = new double[numberOfOutputNodes];
+        executeNetwork(primitiveInputs, outputs);
 
-        return copy;
+        Double[] boxedOutputs = new Double[outputs.length];
+
+        for (int i = 0; i < outputs.length; i++)
+            boxedOutputs[i] = outputs[i];
+
+        return boxedOutputs;
     }
 
-    public Double[] executeNetwork(Double[] inputs) {
+    /**
+     * Executes the network without allocating. Produces exactly the same values as {@link #executeNetwork(Double[])}.
+     *
+     * @param inputs  The values of the input nodes.
+     * @param outputs The array to write the values of the output nodes into.
+     */
+    @Override
+    public void executeNetwork(double[] inputs, double[] outputs) {
 
         // region Argument checks
         if (inputs.length != numberOfInputNodes)
             throw new IllegalArgumentException("The number of inputs provided does not match the number of inputs the network was initialised with.");
+
+        if (outputs.length < numberOfOutputNodes)
+            throw new IllegalArgumentException("The output array is smaller than the number of outputs of the network.");
         // endregion
 
-        values[0] = inputs;
+        if (compiledEvaluator != null) {
+            compiledEvaluator.evaluate(weights, thresholds, inputs, outputs);
+            return;
+        }
 
         int outputLayerIndex = getOutputLayerIndex();
 
-        int sumNodes = 0;
+        double[] values = NODE_VALUES.get();
 
-        for (int i = 1; i <= outputLayerIndex; i++) {
+        if (values.length < thresholds.length) {
+            values = new double[thresholds.length];
+            NODE_VALUES.set(values);
+        }
+
+        double[] previous = inputs;
+        int previousOffset = 0;
 
-            int nodesInLayer = countNodesInLayer(i);
+        for (int i = 1; i <= outputLayerIndex; i++) {
 
             IStepFunction stepFunction =
                     i != outputLayerIndex ? internalStepFunc : outputStepFunc;
 
-            for (int j = 0; j < nodesInLayer; j++) {
-                Double[] weights = getWeightsToNode(i, j);
-                values[i][j] = calculateNodeValue(values[i - 1], weights, thresholds[sumNodes + j], stepFunction);
+            calculateLayerValues(i, previous, previousOffset, stepFunction, values);
+
+            previous = values;
+            previousOffset = valueOffsets[i];
+        }
+
+        System.arraycopy(values, valueOffsets[outputLayerIndex], outputs, 0, numberOfOutputNodes);
+    }
+
+    /**
+     * Executes the network on every row of the input matrix. The rows are processed in blocks so the values of each
+     * layer stay in cache. Produces exactly the same values as executing the network on each row separately.
+     *
+     * @param inputs  The input matrix, one row per sample.
+     * @param outputs The array to write the outputs into, one row of outputs per sample.
+     * @see BatchKernel
+     */
+    @Override
+    public void executeBatch(InputMatrix inputs, double[] outputs) {
+        executeBatch(inputs, outputs, precision);
+    }
+
+    /**
+     * Executes the network on every row of the input matrix with the provided precision, whatever precision the
+     * network is set to use.
+     *
+     * @param inputs    The input matrix, one row per sample.
+     * @param outputs   The array to write the outputs into, one row of outputs per sample.
+     * @param precision The precision of the arithmetic.
+     */
+    public void executeBatch(InputMatrix inputs, double[] outputs, Precision precision) {
+
+        // region Argument checks
+        if (inputs.getColumns() != numberOfInputNodes)
+            throw new IllegalArgumentException("The number of inputs provided does not match the number of inputs the network was initialised with.");
+
+        if (outputs.length < inputs.getRows() * numberOfOutputNodes)
+            throw new IllegalArgumentException("The output array is smaller than the number of outputs of the batch.");
+        // endregion
+
+        int rows = inputs.getRows();
+
+        if (precision == Precision.SINGLE) {
+            float[] parameters = singleParameters();
+
+            SingleBatchKernel kernel = createSingleBatchKernel();
+
+            for (int start = 0; start < rows; start += BatchKernel.BLOCK_SIZE) {
+                int blockRows = Math.min(BatchKernel.BLOCK_SIZE, rows - start);
+
+                double[] blockOutputs = kernel.executeBlock(parameters, 0, parameters, weights.length, inputs, start, blockRows);
+
+                System.arraycopy(blockOutputs, 0, outputs, start * numberOfOutputNodes, blockRows * numberOfOutputNodes);
             }
 
-            sumNodes += nodesInLayer;
+            return;
+        }
+
+        BatchKernel kernel = createBatchKernel();
+
+        for (int start = 0; start < rows; start += BatchKernel.BLOCK_SIZE) {
+            int blockRows = Math.min(BatchKernel.BLOCK_SIZE, rows - start);
+
+            double[] blockOutputs = kernel.executeBlock(weights, 0, thresholds, 0, inputs, start, blockRows);
+
+            System.arraycopy(blockOutputs, 0, outputs, start * numberOfOutputNodes, blockRows * numberOfOutputNodes);
+        }
+    }
+
+    /**
+     * @return The weights followed by the thresholds narrowed to single precision, narrowed again only after a weight
+     * or threshold has changed.
+     */
+    private float[] singleParameters() {
+        float[] parameters = singleParameters;
+
+        // Threads building the parameters at once each build the same values, so whichever is kept does not matter
+        if (parameters == null) {
+            parameters = new float[weights.length + thresholds.length];
+            copySingleParametersTo(parameters, 0, parameters, weights.length);
+
+            singleParameters = parameters;
         }
 
-        return values[outputLayerIndex].clone();
+        return parameters;
+    }
+
+    /**
+     * @return A kernel that can execute batches on any network with the same shape as this network.
+     */
+    BatchKernel createBatchKernel() {
+        return inferenceBackend.createKernel(layerSizes, weightOffsets, thresholdOffsets, internalStepFunc, outputStepFunc);
+    }
+
+    /**
+     * Sets an evaluator generated for the shape of this network to use when executing the network on a single row,
+     * see {@link NetworkCompiler}. The values produced are the same whether or not an evaluator is set.
+     *
+     * @param compiledEvaluator The evaluator to use, or null to use the general purpose implementation.
+     */
+    public void setCompiledEvaluator(NetworkEvaluator compiledEvaluator) {
+        this.compiledEvaluator = compiledEvaluator;
+    }
+
+    public IStepFunction getInternalStepFunction() {
+        return internalStepFunc;
+    }
+
+    public IStepFunction getOutputStepFunction() {
+        return outputStepFunc;
+    }
+
+    /**
+     * Takes a snapshot of the network that can be shared between any number of threads. Later changes to the network
+     * are not seen by the snapshot.
+     *
+     * @return A predictor with the same weights, thresholds and step functions as the network.
+     */
+    @Override
+    public Predictor createPredictor() {
+        FeedForwardPerceptron snapshot =
+                new FeedForwardPerceptron(
+                        numberOfInputNodes,
+                        numberOfNodesInHiddenLayer,
+                        numberOfOutputNodes,
+                        numberOfHiddenLayers,
+                        1.0,
+                        (weightCount, parameters) -> box(weights),
+                        internalStepFunc,
+                        outputStepFunc);
+
+        System.arraycopy(thresholds, 0, snapshot.thresholds, 0, thresholds.length);
+        snapshot.compiledEvaluator = compiledEvaluator;
+
+        return new Predictor(snapshot);
+    }
+
+    public Precision getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Sets the precision used when executing batches of rows. Executing a single row always uses double precision.
+     * Defaults to {@link Precision#DOUBLE}.
+     *
+     * @param precision The precision of the arithmetic.
+     */
+    public void setPrecision(Precision precision) {
+        this.precision = precision;
+    }
+
+    public InferenceBackend getInferenceBackend() {
+        return inferenceBackend;
+    }
+
+    /**
+     * Sets how batches of rows are passed through the network. Every backend produces the same values. Defaults to
+     * {@link InferenceBackend#getDefault()}.
+     *
+     * @param inferenceBackend The backend to execute batches with.
+     */
+    public void setInferenceBackend(InferenceBackend inferenceBackend) {
+        this.inferenceBackend = inferenceBackend;
+    }
+
+    /**
+     * @return A kernel that can execute batches in single precision on any network with the same shape as this network.
+     */
+    SingleBatchKernel createSingleBatchKernel() {
+        return new SingleBatchKernel(layerSizes, weightOffsets, thresholdOffsets, internalStepFunc, outputStepFunc);
+    }
+
+    /**
+     * Checks whether another network has the same layers, step functions and precision as this network, in which case
+     * the weights and thresholds of both networks are laid out in the same way and batches are executed in the same way.
+     *
+     * @param other The network to compare against.
+     * @return True if the networks have the same shape, false otherwise.
+     */
+    public boolean hasSameShape(FeedForwardPerceptron other) {
+        return numberOfInputNodes == other.numberOfInputNodes
+                && numberOfNodesInHiddenLayer == other.numberOfNodesInHiddenLayer
+                && numberOfOutputNodes == other.numberOfOutputNodes
+                && numberOfHiddenLayers == other.numberOfHiddenLayers
+                && internalStepFunc.getClass() == other.internalStepFunc.getClass()
+                && outputStepFunc.getClass() == other.outputStepFunc.getClass()
+                && precision == other.precision;
+    }
+
+    /**
+     * Copies the weights and thresholds of the network into the provided arrays.
+     *
+     * @param weightTarget    The array to copy the weights into.
+     * @param weightStart     The index to copy the first weight to.
+     * @param thresholdTarget The array to copy the thresholds into.
+     * @param thresholdStart  The index to copy the first threshold to.
+     */
+    public void copyParametersTo(double[] weightTarget, int weightStart, double[] thresholdTarget, int thresholdStart) {
+        System.arraycopy(weights, 0, weightTarget, weightStart, weights.length);
+        System.arraycopy(thresholds, 0, thresholdTarget, thresholdStart, thresholds.length);
+    }
+
+    /**
+     * Copies the weights and thresholds of the network into the provided arrays, narrowed to single precision.
+     *
+     * @param weightTarget    The array to copy the weights into.
+     * @param weightStart     The index to copy the first weight to.
+     * @param thresholdTarget The array to copy the thresholds into.
+     * @param thresholdStart  The index to copy the first threshold to.
+     */
+    public void copySingleParametersTo(float[] weightTarget, int weightStart, float[] thresholdTarget, int thresholdStart) {
+        for (int i = 0; i < weights.length; i++)
+            weightTarget[weightStart + i] = (float) weights[i];
+
+        for (int i = 0; i < thresholds.length; i++)
+            thresholdTarget[thresholdStart + i] = (float) thresholds[i];
     }
 
     public int getOutputLayerIndex() {
@@ -174,43 +472,86 @@ public class FeedForwardPerceptron implements INeuralNetwork {
     }
 
     public void setWeight(int index, Double value) {
+        ensureWeightsAreOwned();
         weights[index] = value;
+        singleParameters = null;
     }
 
+    /**
+     * Takes a private copy of the weights if they are shared with another network, so changing them does not change
+     * the other network.
+     */
+    private void ensureWeightsAreOwned() {
+        if (!weightsShared)
+            return;
+
+        weights = weights.clone();
+        weightsShared = false;
+    }
+
+    /**
+     * @return A copy of the weights of the network.
+     */
     @Override
     public Double[] getWeights() {
-        return weights;
+        return box(weights);
+    }
+
+    @Override
+    public int getNumberOfWeights() {
+        return weights.length;
     }
 
+    /**
+     * @return A copy of the thresholds of the network.
+     */
     public Double[] getThresholds() {
-        return thresholds;
+        return box(thresholds);
+    }
+
+    @Override
+    public int getNumberOfThresholds() {
+        return thresholds.length;
     }
 
     public void setThreshold(int index, Double value) {
         thresholds[index] = value;
+        singleParameters = null;
     }
 
     public Double getThreshold(int index) {
         return thresholds[index];
     }
 
-    @NotNull
-    private Double calculateNodeValue(Double[] inputs, Double[] weights, Double threshold, IStepFunction stepFunction) {
+    /**
+     * Calculates the values of every node on a layer from the values of the previous layer.
+     *
+     * @param layer          The layer to calculate the values of. Must not be the input layer.
+     * @param previous       The array containing the values of the previous layer.
+     * @param previousOffset The index the values of the previous layer start at.
+     * @param stepFunction   The step function to apply to the excitement of each node.
+     * @param values         The array holding the values of every node.
+     */
+    private void calculateLayerValues(int layer, double[] previous, int previousOffset, IStepFunction stepFunction,
+                                      double[] values) {
+        int nodesInLayer = layerSizes[layer];
+        int weightsPerNode = layerSizes[layer - 1];
 
-        // region Argument checks
-        if (inputs.length != weights.length)
-            throw new IllegalArgumentException("The number of inputs does not match the number of weights");
-        // endregion
+        int weightIndex = weightOffsets[layer];
+        int thresholdIndex = thresholdOffsets[layer];
+        int valueIndex = valueOffsets[layer];
 
-        double total = 0;
+        for (int j = 0; j < nodesInLayer; j++) {
+            double total = 0;
 
-        for (int i = 0; i < inputs.length; i++) {
-            total += inputs[i] * weights[i];
-        }
+            for (int i = 0; i < weightsPerNode; i++) {
+                total += previous[previousOffset + i] * weights[weightIndex++];
+            }
 
-        total -= threshold;
+            total -= thresholds[thresholdIndex + j];
 
-        return stepFunction.response(total);
+            values[valueIndex + j] = stepFunction.response(total);
+        }
     }
 
     public int countNodesInLayer(int index) {
@@ -256,23 +597,22 @@ public class FeedForwardPerceptron implements INeuralNetwork {
             throw new IndexOutOfBoundsException();
         // endregion
 
-        int weightsPerNode = countWeightsInLayer(layer - 1) / countNodesInLayer(layer);
-        int start = getLayerStartIndex(layer) + weightsPerNode * index;
+        int weightsPerNode = layerSizes[layer - 1];
+        int start = weightOffsets[layer] + weightsPerNode * index;
 
-        return Arrays.copyOfRange(weights, start, start + weightsPerNode);
+        return box(Arrays.copyOfRange(weights, start, start + weightsPerNode));
     }
 
-    private int getLayerStartIndex(int layer) {
-        int layerStart = 0;
+    private static Double[] box(double[] values) {
+        Double[] boxed = new Double[values.length];
 
-        for (int i = 2; i <= layer; i++) {
-            layerStart += countWeightsInLayer(i - 2);
-        }
+        for (int i = 0; i < values.length; i++)
+            boxed[i] = values[i];
 
-        return layerStart;
+        return boxed;
     }
 
-    private int getNumberOfLayers() {
+    public int getNumberOfLayers() {
         return getOutputLayerIndex() + 1;
     }
 }
@@ -0,0 +1,23 @@
+package neural_network;
+
+/**
+ * Piecewise linear approximation of the logistic function. Rises linearly from 0 at an input of -2.5 to 1 at an
+ * input of 2.5. Much cheaper than the logistic function but noticeably less smooth.
+ */
+public class HardSigmoidStepFunc implements IStepFunction {
+
+    /**
+     * @param input The cumulative excitement from all connected nodes.
+     * @return An excitement value between 0 and 1.
+     */
+    @Override
+    public double response(double input) {
+        return Math.max(0, Math.min(1, 0.2 * input + 0.5));
+    }
+
+    @Override
+    public void response(double[] inputs, double[] outputs, int start, int length) {
+        for (int i = start; i < start + length; i++)
+            outputs[i] = Math.max(0, Math.min(1, 0.2 * inputs[i] + 0.5));
+    }
+}
@@ -10,17 +10,43 @@ public interface INeuralNetwork {
 
     Double[] executeNetwork(Double[] inputs);
 
+    /**
+     * Executes the network without boxing or allocating any intermediate values.
+     *
+     * @param inputs  The values of the input nodes.
+     * @param outputs The array to write the values of the output nodes into.
+     */
+    void executeNetwork(double[] inputs, double[] outputs);
+
+    /**
+     * Executes the network on every row of the input matrix in one call.
+     *
+     * @param inputs  The input matrix, one row per sample and one column per input node.
+     * @param outputs The array to write the outputs into. The outputs of each row are written next to each other, so
+     *                for a network with a single output this is the vector of estimates.
+     */
+    void executeBatch(InputMatrix inputs, double[] outputs);
+
     Double getWeight(int index);
 
     void setWeight(int index, Double value);
 
     Double[] getWeights();
 
+    int getNumberOfWeights();
+
     Double[] getThresholds();
 
+    int getNumberOfThresholds();
+
     Double getThreshold(int index);
 
     void setThreshold(int index, Double value);
 
+    /**
+     * @return A snapshot of the network that any number of threads can use at once.
+     */
+    Predictor createPredictor();
+
     INeuralNetwork copy();
 }
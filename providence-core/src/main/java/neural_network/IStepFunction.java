@@ -13,4 +13,29 @@ public interface IStepFunction {
      */
     double response(double input);
 
+    /**
+     * Transforms every input excitement value into an output. The input and output arrays may be the same array.
+     *
+     * @param inputs  The cumulative excitement of each node.
+     * @param outputs The array to write the new excitement levels into.
+     */
+    default void response(double[] inputs, double[] outputs) {
+        response(inputs, outputs, 0, inputs.length);
+    }
+
+    /**
+     * Transforms a range of input excitement values into outputs, written to the same range of the output array. The
+     * input and output arrays may be the same array. Implementations override this with a simple loop the JIT compiler
+     * can turn into SIMD instructions where the function allows it.
+     *
+     * @param inputs  The cumulative excitement of each node.
+     * @param outputs The array to write the new excitement levels into.
+     * @param start   The index of the first value to transform.
+     * @param length  The number of values to transform.
+     */
+    default void response(double[] inputs, double[] outputs, int start, int length) {
+        for (int i = start; i < start + length; i++)
+            outputs[i] = response(inputs[i]);
+    }
+
 }
@@ -0,0 +1,44 @@
+package neural_network;
+
+/**
+ * The ways a network can be executed on a batch of rows. Every backend produces exactly the same values; they differ
+ * only in how the work is laid out for the processor.
+ */
+public enum InferenceBackend {
+
+    /**
+     * Calculates each node for a few rows at a time with ordinary scalar arithmetic. Works well on any JVM, so can be
+     * chosen with {@link FeedForwardPerceptron#setInferenceBackend(InferenceBackend)} on a JVM that does not perform
+     * automatic vectorisation.
+     */
+    SCALAR {
+        @Override
+        BatchKernel createKernel(int[] layerSizes, int[] weightOffsets, int[] thresholdOffsets,
+                                 IStepFunction internalStepFunc, IStepFunction outputStepFunc) {
+            return new ScalarBatchKernel(layerSizes, weightOffsets, thresholdOffsets, internalStepFunc, outputStepFunc);
+        }
+    },
+
+    /**
+     * Applies each weight to a whole run of rows at once using loops the JIT compiler turns into SIMD instructions.
+     * Only faster when the JVM performs automatic vectorisation, as HotSpot does. The default.
+     */
+    VECTORISED {
+        @Override
+        BatchKernel createKernel(int[] layerSizes, int[] weightOffsets, int[] thresholdOffsets,
+                                 IStepFunction internalStepFunc, IStepFunction outputStepFunc) {
+            return new LaneBatchKernel(layerSizes, weightOffsets, thresholdOffsets, internalStepFunc, outputStepFunc);
+        }
+    };
+
+    abstract BatchKernel createKernel(int[] layerSizes, int[] weightOffsets, int[] thresholdOffsets,
+                                      IStepFunction internalStepFunc, IStepFunction outputStepFunc);
+
+    /**
+     * @return The backend networks use unless told otherwise, always {@link #VECTORISED}. The JVM gives no reliable way
+     * to tell whether it vectorises loops, so no attempt is made to choose a backend for it.
+     */
+    public static InferenceBackend getDefault() {
+        return VECTORISED;
+    }
+}
@@ -0,0 +1,144 @@
+package neural_network;
+
+/**
+ * A matrix of primitive input values for a neural network with one row per sample and one column per input node. The
+ * values are held in a single flat array in either row-major or column-major order so that a whole data set can be
+ * passed through a network in one call.
+ */
+public class InputMatrix {
+
+    /**
+     * The order the values of the matrix are stored in.
+     */
+    public enum Layout {
+        /**
+         * The values of each row are stored next to each other.
+         */
+        ROW_MAJOR,
+        /**
+         * The values of each column are stored next to each other.
+         */
+        COLUMN_MAJOR
+    }
+
+    private final double[] values;
+    private final int rows, columns;
+    private final Layout layout;
+
+    // Built the first time single precision values are requested. Volatile so threads sharing the matrix only see the
+    // array once it is filled, at worst two threads build it at once
+    private volatile float[] singleValues;
+
+    /**
+     * @param values  The values of the matrix in the order given by the layout. The array is used directly, not copied.
+     * @param rows    The number of rows (samples) in the matrix.
+     * @param columns The number of columns (inputs) in the matrix.
+     * @param layout  The order the values are stored in.
+     */
+    public InputMatrix(double[] values, int rows, int columns, Layout layout) {
+        // region Argument checks
+        if (rows < 0 || columns < 0)
+            throw new IllegalArgumentException("The matrix cannot have a negative number of rows or columns");
+
+        if (values.length != rows * columns)
+            throw new IllegalArgumentException(
+                    "The number of values does not match the size of the matrix: " + values.length + " values, "
+                            + rows + " rows, " + columns + " columns");
+        // endregion
+
+        this.values = values;
+        this.rows = rows;
+        this.columns = columns;
+        this.layout = layout;
+    }
+
+    /**
+     * Builds a matrix by copying the provided rows. Every row must have the same length.
+     *
+     * @param rows   The rows of the matrix.
+     * @param layout The order the values should be stored in.
+     * @return A matrix containing the values of the rows.
+     */
+    public static InputMatrix fromRows(double[][] rows, Layout layout) {
+        int numberOfRows = rows.length;
+        int numberOfColumns = numberOfRows == 0 ? 0 : rows[0].length;
+
+        double[] values = new double[numberOfRows * numberOfColumns];
+
+        for (int i = 0; i < numberOfRows; i++) {
+            // region Argument checks
+            if (rows[i].length != numberOfColumns)
+                throw new IllegalArgumentException("Every row must have the same number of columns");
+            // endregion
+
+            for (int j = 0; j < numberOfColumns; j++) {
+                if (layout == Layout.ROW_MAJOR)
+                    values[i * numberOfColumns + j] = rows[i][j];
+                else
+                    values[j * numberOfRows + i] = rows[i][j];
+            }
+        }
+
+        return new InputMatrix(values, numberOfRows, numberOfColumns, layout);
+    }
+
+    /**
+     * @param row    The row of the value.
+     * @param column The column of the value.
+     * @return The value at the provided row and column.
+     */
+    public double get(int row, int column) {
+        return values[row * getRowStride() + column * getColumnStride()];
+    }
+
+    /**
+     * @return The distance in the values array between the same column of two neighbouring rows.
+     */
+    public int getRowStride() {
+        return layout == Layout.ROW_MAJOR ? columns : 1;
+    }
+
+    /**
+     * @return The distance in the values array between neighbouring columns of the same row.
+     */
+    public int getColumnStride() {
+        return layout == Layout.ROW_MAJOR ? 1 : rows;
+    }
+
+    /**
+     * @return The values of the matrix narrowed to single precision, in the same order as {@link #getValues()}. Built
+     * once, so changes made to the values afterwards are not seen.
+     */
+    public float[] getSingleValues() {
+        float[] narrowed = singleValues;
+
+        if (narrowed == null) {
+            narrowed = new float[values.length];
+
+            for (int i = 0; i < values.length; i++)
+                narrowed[i] = (float) values[i];
+
+            singleValues = narrowed;
+        }
+
+        return narrowed;
+    }
+
+    // region Getters
+    public double[] getValues() {
+        return values;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public Layout getLayout() {
+        return layout;
+    }
+    // endregion
+}
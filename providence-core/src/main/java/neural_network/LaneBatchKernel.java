@@ -0,0 +1,116 @@
+package neural_network;
+
+/**
+ * A batch kernel that stores the values of each layer node by node, so the values of one node for every row of the
+ * block sit next to each other. Each weight is then applied to a contiguous run of rows with a simple loop that the
+ * JIT compiler turns into SIMD instructions. The sum of each row is still built up one input at a time, in the same
+ * order as the scalar kernel, so the values produced are identical.
+ * <p>
+ * Column-major input matrices are read in place; the rows of row-major matrices are copied into column order first.
+ */
+final class LaneBatchKernel extends BatchKernel {
+
+    private final double[] inputBlock, outputBlock;
+    private double[] current, next;
+
+    LaneBatchKernel(int[] layerSizes, int[] weightOffsets, int[] thresholdOffsets,
+                    IStepFunction internalStepFunc, IStepFunction outputStepFunc) {
+        super(layerSizes, weightOffsets, thresholdOffsets, internalStepFunc, outputStepFunc);
+
+        inputBlock = new double[BLOCK_SIZE * layerSizes[0]];
+        outputBlock = new double[BLOCK_SIZE * layerSizes[getOutputLayerIndex()]];
+
+        current = new double[BLOCK_SIZE * widestLayer];
+        next = new double[BLOCK_SIZE * widestLayer];
+    }
+
+    @Override
+    double[] executeBlock(double[] weights, int weightBase, double[] thresholds, int thresholdBase,
+                          InputMatrix inputs, int start, int blockRows) {
+        double[] source;
+        int sourceOffset, sourceStride;
+
+        if (inputs.getLayout() == InputMatrix.Layout.COLUMN_MAJOR) {
+            source = inputs.getValues();
+            sourceOffset = start;
+            sourceStride = inputs.getColumnStride();
+        } else {
+            transposeBlock(inputs, start, blockRows);
+
+            source = inputBlock;
+            sourceOffset = 0;
+            sourceStride = BLOCK_SIZE;
+        }
+
+        calculateBlockValues(1, weights, weightBase, thresholds, thresholdBase,
+                source, sourceOffset, sourceStride, blockRows, getStepFunction(1), current);
+
+        for (int i = 2; i <= getOutputLayerIndex(); i++) {
+            calculateBlockValues(i, weights, weightBase, thresholds, thresholdBase,
+                    current, 0, BLOCK_SIZE, blockRows, getStepFunction(i), next);
+
+            double[] swap = current;
+            current = next;
+            next = swap;
+        }
+
+        // Return the outputs row by row like every other kernel
+        int numberOfOutputs = layerSizes[getOutputLayerIndex()];
+
+        for (int j = 0; j < numberOfOutputs; j++)
+            for (int row = 0; row < blockRows; row++)
+                outputBlock[row * numberOfOutputs + j] = current[j * BLOCK_SIZE + row];
+
+        return outputBlock;
+    }
+
+    /**
+     * Copies a block of rows from a row-major matrix into the input block, column by column.
+     */
+    private void transposeBlock(InputMatrix inputs, int start, int blockRows) {
+        double[] values = inputs.getValues();
+        int columns = inputs.getColumns();
+
+        for (int row = 0; row < blockRows; row++) {
+            int index = (start + row) * columns;
+
+            for (int i = 0; i < columns; i++)
+                inputBlock[i * BLOCK_SIZE + row] = values[index + i];
+        }
+    }
+
+    /**
+     * Calculates the values of every node on a layer for a block of rows. The values of each node of the previous
+     * layer must be next to each other, starting every sourceStride values. The values of each node are written to
+     * the target {@link #BLOCK_SIZE} values apart.
+     */
+    private void calculateBlockValues(int layer, double[] weights, int weightBase, double[] thresholds, int thresholdBase,
+                                      double[] source, int sourceOffset, int sourceStride,
+                                      int blockRows, IStepFunction stepFunction, double[] target) {
+        int nodesInLayer = layerSizes[layer];
+        int weightsPerNode = layerSizes[layer - 1];
+
+        for (int j = 0; j < nodesInLayer; j++) {
+            int weightStart = weightBase + weightOffsets[layer] + j * weightsPerNode;
+            double threshold = thresholds[thresholdBase + thresholdOffsets[layer] + j];
+
+            int targetStart = j * BLOCK_SIZE;
+
+            for (int row = 0; row < blockRows; row++)
+                target[targetStart + row] = 0;
+
+            for (int i = 0; i < weightsPerNode; i++) {
+                double weight = weights[weightStart + i];
+                int sourceStart = sourceOffset + i * sourceStride;
+
+                for (int row = 0; row < blockRows; row++)
+                    target[targetStart + row] += source[sourceStart + row] * weight;
+            }
+
+            for (int row = 0; row < blockRows; row++)
+                target[targetStart + row] -= threshold;
+
+            stepFunction.response(target, target, targetStart, blockRows);
+        }
+    }
+}
@@ -16,4 +16,10 @@ public class LinearStepFunc implements IStepFunction {
         return input;
     }
 
+    @Override
+    public void response(double[] inputs, double[] outputs, int start, int length) {
+        for (int i = start; i < start + length; i++)
+            outputs[i] = inputs[i];
+    }
+
 }
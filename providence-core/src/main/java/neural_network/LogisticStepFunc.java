@@ -15,4 +15,11 @@ public class LogisticStepFunc implements IStepFunction {
     public double response(double input) {
         return 1 / (1 + Math.pow(Math.E, -1 * input));
     }
+
+    @Override
+    public void response(double[] inputs, double[] outputs, int start, int length) {
+        for (int i = start; i < start + length; i++)
+            outputs[i] = 1 / (1 + Math.pow(Math.E, -1 * inputs[i]));
+    }
+
 }
@@ -0,0 +1,465 @@
+package neural_network;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates a {@link NetworkEvaluator} specialised for the shape of a feed forward network. The generated class
+ * calculates every node in one straight-line method with every loop unrolled and every array index a constant, so
+ * nothing about the shape of the network is checked while it runs. Each generated class calls its step functions from
+ * its own call sites, which only ever see one implementation, and the identity of {@link LinearStepFunc} is left out
+ * altogether.
+ * <p>
+ * Every node sums its inputs in the same order as {@link FeedForwardPerceptron#executeNetwork(double[], double[])} so
+ * the values produced are identical. One class is generated for each shape and reused for every later network of that
+ * shape for the life of the JVM. The step functions of the network are shared with the evaluator so they must not
+ * hold state.
+ */
+public final class NetworkCompiler {
+
+    // The JIT compiler will not compile methods larger than this, so larger networks gain nothing from being compiled
+    private static final int MAXIMUM_METHOD_SIZE = 8000;
+
+    private static final String EVALUATOR = "neural_network/NetworkEvaluator";
+    private static final String STEP_FUNCTION = "neural_network/IStepFunction";
+    private static final String STEP_FUNCTION_TYPE = "L" + STEP_FUNCTION + ";";
+
+    // region Opcodes
+    private static final int ALOAD_0 = 0x2a, ALOAD_1 = 0x2b, ALOAD_2 = 0x2c, ALOAD_3 = 0x2d, ALOAD = 0x19;
+    private static final int ICONST_0 = 0x03, BIPUSH = 0x10, SIPUSH = 0x11, LDC_W = 0x13;
+    private static final int DCONST_0 = 0x0e, DLOAD = 0x18, DSTORE = 0x39, WIDE = 0xc4;
+    private static final int DALOAD = 0x31, DASTORE = 0x52;
+    private static final int DADD = 0x63, DSUB = 0x67, DMUL = 0x6b;
+    private static final int GETFIELD = 0xb4, PUTFIELD = 0xb5;
+    private static final int INVOKESPECIAL = 0xb7, INVOKEINTERFACE = 0xb9;
+    private static final int RETURN = 0xb1;
+    // endregion
+
+    private static final Map<String, Constructor<?>> COMPILED = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    /**
+     * Builds an evaluator for the shape and step functions of the provided network.
+     *
+     * @param network The network to build an evaluator for.
+     * @return An evaluator that can execute any network with the same shape as the provided network.
+     * @throws IllegalArgumentException If the network is too large to benefit from being compiled.
+     */
+    public static NetworkEvaluator compile(FeedForwardPerceptron network) {
+        int[] layerSizes = new int[network.getNumberOfLayers()];
+
+        for (int i = 0; i < layerSizes.length; i++)
+            layerSizes[i] = network.countNodesInLayer(i);
+
+        IStepFunction internalStepFunc = network.getInternalStepFunction();
+        IStepFunction outputStepFunc = network.getOutputStepFunction();
+
+        String key = shapeKey(layerSizes, internalStepFunc, outputStepFunc);
+
+        Constructor<?> constructor = COMPILED.computeIfAbsent(key,
+                k -> define(layerSizes, internalStepFunc instanceof LinearStepFunc, outputStepFunc instanceof LinearStepFunc));
+
+        try {
+            return (NetworkEvaluator) constructor.newInstance(internalStepFunc, outputStepFunc);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create the compiled evaluator", e);
+        }
+    }
+
+    private static String shapeKey(int[] layerSizes, IStepFunction internalStepFunc, IStepFunction outputStepFunc) {
+        StringBuilder key = new StringBuilder();
+
+        for (int layerSize : layerSizes)
+            key.append(layerSize).append(',');
+
+        return key.append(internalStepFunc.getClass().getName())
+                .append(',')
+                .append(outputStepFunc.getClass().getName())
+                .toString();
+    }
+
+    private static Constructor<?> define(int[] layerSizes, boolean internalIsLinear, boolean outputIsLinear) {
+        String className = "neural_network/CompiledNetwork" + NEXT_ID.getAndIncrement();
+        byte[] bytes = new ClassBuilder(className, layerSizes, internalIsLinear, outputIsLinear).build();
+
+        Class<?> compiledClass = new EvaluatorLoader(NetworkCompiler.class.getClassLoader())
+                .define(className.replace('/', '.'), bytes);
+
+        try {
+            return compiledClass.getConstructor(IStepFunction.class, IStepFunction.class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("The compiled evaluator has no constructor", e);
+        }
+    }
+
+    /**
+     * Loads each generated class, as {@link ClassLoader#defineClass(String, byte[], int, int)} is only available to
+     * subclasses. The classes are never unloaded, the constructor of each is kept for the life of the JVM so that later
+     * networks of the same shape reuse it. Only a handful of shapes are used in a run, so few classes accumulate.
+     */
+    private static final class EvaluatorLoader extends ClassLoader {
+
+        EvaluatorLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        Class<?> define(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+
+    /**
+     * Writes the class file of an evaluator. The class file version predates stack map frames, and the generated
+     * methods have no branches, so the class can be verified without them.
+     */
+    private static final class ClassBuilder {
+
+        private static final int CLASS_FILE_VERSION = 49;
+
+        private static final int ACC_PUBLIC = 0x0001, ACC_PRIVATE = 0x0002, ACC_FINAL = 0x0010, ACC_SUPER = 0x0020;
+
+        // The arguments of the evaluate method, the values of the hidden nodes are held in the locals after them
+        private static final int WEIGHTS = 1, THRESHOLDS = 2, INPUTS = 3, OUTPUTS = 4, FIRST_NODE = 5;
+
+        private final String className;
+        private final int[] layerSizes;
+        private final boolean internalIsLinear, outputIsLinear;
+
+        private final List<byte[]> constants = new ArrayList<>();
+        private final Map<String, Integer> constantIndexes = new HashMap<>();
+
+        ClassBuilder(String className, int[] layerSizes, boolean internalIsLinear, boolean outputIsLinear) {
+            this.className = className;
+            this.layerSizes = layerSizes;
+            this.internalIsLinear = internalIsLinear;
+            this.outputIsLinear = outputIsLinear;
+        }
+
+        byte[] build() {
+            int thisClass = classConstant(className);
+            int superClass = classConstant("java/lang/Object");
+            int evaluatorInterface = classConstant(EVALUATOR);
+
+            int internalField = fieldConstant("internalStepFunc");
+            int outputField = fieldConstant("outputStepFunc");
+
+            byte[] constructor = buildConstructor(internalField, outputField);
+            byte[] evaluate = buildEvaluate(internalField, outputField);
+
+            int code = utf8("Code");
+            int constructorName = utf8("<init>");
+            int constructorDescriptor = utf8("(" + STEP_FUNCTION_TYPE + STEP_FUNCTION_TYPE + ")V");
+            int evaluateName = utf8("evaluate");
+            int evaluateDescriptor = utf8("([D[D[D[D)V");
+            int internalName = utf8("internalStepFunc");
+            int outputName = utf8("outputStepFunc");
+            int fieldDescriptor = utf8(STEP_FUNCTION_TYPE);
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                out.writeInt(0xCAFEBABE);
+                out.writeShort(0);
+                out.writeShort(CLASS_FILE_VERSION);
+
+                out.writeShort(constants.size() + 1);
+                for (byte[] constant : constants)
+                    out.write(constant);
+
+                out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+                out.writeShort(thisClass);
+                out.writeShort(superClass);
+
+                out.writeShort(1);
+                out.writeShort(evaluatorInterface);
+
+                out.writeShort(2);
+                writeMember(out, ACC_PRIVATE | ACC_FINAL, internalName, fieldDescriptor);
+                out.writeShort(0);
+                writeMember(out, ACC_PRIVATE | ACC_FINAL, outputName, fieldDescriptor);
+                out.writeShort(0);
+
+                out.writeShort(2);
+                writeMember(out, ACC_PUBLIC, constructorName, constructorDescriptor);
+                writeCode(out, code, 2, 3, constructor);
+                writeMember(out, ACC_PUBLIC, evaluateName, evaluateDescriptor);
+                writeCode(out, code, 10, FIRST_NODE + 2 * countHiddenNodes(), evaluate);
+
+                out.writeShort(0);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not write the compiled evaluator", e);
+            }
+
+            return bytes.toByteArray();
+        }
+
+        private byte[] buildConstructor(int internalField, int outputField) {
+            CodeBuffer code = new CodeBuffer();
+
+            code.op(ALOAD_0);
+            code.op(INVOKESPECIAL);
+            code.u2(methodConstant("java/lang/Object", "<init>", "()V", false));
+
+            code.op(ALOAD_0);
+            code.op(ALOAD_1);
+            code.op(PUTFIELD);
+            code.u2(internalField);
+
+            code.op(ALOAD_0);
+            code.op(ALOAD_2);
+            code.op(PUTFIELD);
+            code.u2(outputField);
+
+            code.op(RETURN);
+
+            return code.toByteArray();
+        }
+
+        private byte[] buildEvaluate(int internalField, int outputField) {
+            CodeBuffer code = new CodeBuffer();
+            int response = methodConstant(STEP_FUNCTION, "response", "(D)D", true);
+
+            int outputLayerIndex = layerSizes.length - 1;
+            int weightIndex = 0, thresholdIndex = 0;
+
+            // The local holding the value of the first node of the previous layer, -1 for the input layer
+            int previousLocal = -1;
+            int nextLocal = FIRST_NODE;
+
+            for (int layer = 1; layer <= outputLayerIndex; layer++) {
+                boolean isOutputLayer = layer == outputLayerIndex;
+                boolean isLinear = isOutputLayer ? outputIsLinear : internalIsLinear;
+                int field = isOutputLayer ? outputField : internalField;
+
+                for (int j = 0; j < layerSizes[layer]; j++) {
+                    if (isOutputLayer) {
+                        code.op(ALOAD);
+                        code.u1(OUTPUTS);
+                        code.pushInt(j, this);
+                    }
+
+                    if (!isLinear) {
+                        code.op(ALOAD_0);
+                        code.op(GETFIELD);
+                        code.u2(field);
+                    }
+
+                    // total = 0; total += previous[i] * weight[i] ...
+                    code.op(DCONST_0);
+
+                    for (int i = 0; i < layerSizes[layer - 1]; i++) {
+                        if (previousLocal < 0) {
+                            code.op(ALOAD_3);
+                            code.pushInt(i, this);
+                            code.op(DALOAD);
+                        } else {
+                            code.localDouble(DLOAD, previousLocal + 2 * i);
+                        }
+
+                        code.op(ALOAD_1);
+                        code.pushInt(weightIndex++, this);
+                        code.op(DALOAD);
+
+                        code.op(DMUL);
+                        code.op(DADD);
+                    }
+
+                    // total - threshold
+                    code.op(ALOAD_2);
+                    code.pushInt(thresholdIndex++, this);
+                    code.op(DALOAD);
+                    code.op(DSUB);
+
+                    if (!isLinear) {
+                        code.op(INVOKEINTERFACE);
+                        code.u2(response);
+                        code.u1(3);
+                        code.u1(0);
+                    }
+
+                    if (isOutputLayer)
+                        code.op(DASTORE);
+                    else
+                        code.localDouble(DSTORE, nextLocal + 2 * j);
+                }
+
+                if (!isOutputLayer) {
+                    previousLocal = nextLocal;
+                    nextLocal += 2 * layerSizes[layer];
+                }
+            }
+
+            code.op(RETURN);
+
+            if (code.size() > MAXIMUM_METHOD_SIZE)
+                throw new IllegalArgumentException(
+                        "The network is too large to be compiled: " + code.size() + " bytes of code");
+
+            return code.toByteArray();
+        }
+
+        private int countHiddenNodes() {
+            int hiddenNodes = 0;
+
+            for (int i = 1; i < layerSizes.length - 1; i++)
+                hiddenNodes += layerSizes[i];
+
+            return hiddenNodes;
+        }
+
+        private static void writeMember(DataOutputStream out, int access, int name, int descriptor) throws IOException {
+            out.writeShort(access);
+            out.writeShort(name);
+            out.writeShort(descriptor);
+        }
+
+        private static void writeCode(DataOutputStream out, int codeName, int maxStack, int maxLocals, byte[] code)
+                throws IOException {
+            out.writeShort(1);
+            out.writeShort(codeName);
+            out.writeInt(12 + code.length);
+            out.writeShort(maxStack);
+            out.writeShort(maxLocals);
+            out.writeInt(code.length);
+            out.write(code);
+            out.writeShort(0);
+            out.writeShort(0);
+        }
+
+        // region Constant pool
+        private int utf8(String value) {
+            return constant("Utf8:" + value, out -> {
+                out.writeByte(1);
+                out.writeUTF(value);
+            });
+        }
+
+        private int classConstant(String name) {
+            int nameIndex = utf8(name);
+
+            return constant("Class:" + name, out -> {
+                out.writeByte(7);
+                out.writeShort(nameIndex);
+            });
+        }
+
+        int integerConstant(int value) {
+            return constant("Integer:" + value, out -> {
+                out.writeByte(3);
+                out.writeInt(value);
+            });
+        }
+
+        private int nameAndType(String name, String descriptor) {
+            int nameIndex = utf8(name);
+            int descriptorIndex = utf8(descriptor);
+
+            return constant("NameAndType:" + name + ":" + descriptor, out -> {
+                out.writeByte(12);
+                out.writeShort(nameIndex);
+                out.writeShort(descriptorIndex);
+            });
+        }
+
+        private int fieldConstant(String name) {
+            int owner = classConstant(className);
+            int nameAndType = nameAndType(name, STEP_FUNCTION_TYPE);
+
+            return constant("Field:" + name, out -> {
+                out.writeByte(9);
+                out.writeShort(owner);
+                out.writeShort(nameAndType);
+            });
+        }
+
+        private int methodConstant(String ownerName, String name, String descriptor, boolean isInterface) {
+            int owner = classConstant(ownerName);
+            int nameAndType = nameAndType(name, descriptor);
+
+            return constant("Method:" + ownerName + "." + name + descriptor, out -> {
+                out.writeByte(isInterface ? 11 : 10);
+                out.writeShort(owner);
+                out.writeShort(nameAndType);
+            });
+        }
+
+        private int constant(String key, ConstantWriter writer) {
+            Integer index = constantIndexes.get(key);
+
+            if (index != null)
+                return index;
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                writer.write(out);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not write a constant", e);
+            }
+
+            constants.add(bytes.toByteArray());
+            index = constants.size();
+            constantIndexes.put(key, index);
+
+            return index;
+        }
+
+        private interface ConstantWriter {
+            void write(DataOutputStream out) throws IOException;
+        }
+        // endregion
+    }
+
+    /**
+     * Collects the bytes of a method.
+     */
+    private static final class CodeBuffer extends ByteArrayOutputStream {
+
+        void op(int opcode) {
+            write(opcode);
+        }
+
+        void u1(int value) {
+            write(value);
+        }
+
+        void u2(int value) {
+            write(value >>> 8);
+            write(value);
+        }
+
+        void pushInt(int value, ClassBuilder builder) {
+            if (value <= 5) {
+                op(ICONST_0 + value);
+            } else if (value <= Byte.MAX_VALUE) {
+                op(BIPUSH);
+                u1(value);
+            } else if (value <= Short.MAX_VALUE) {
+                op(SIPUSH);
+                u2(value);
+            } else {
+                op(LDC_W);
+                u2(builder.integerConstant(value));
+            }
+        }
+
+        void localDouble(int opcode, int local) {
+            if (local <= 0xff) {
+                op(opcode);
+                u1(local);
+            } else {
+                op(WIDE);
+                op(opcode);
+                u2(local);
+            }
+        }
+    }
+}
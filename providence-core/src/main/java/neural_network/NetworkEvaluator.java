@@ -0,0 +1,18 @@
+package neural_network;
+
+/**
+ * Executes networks of one particular shape, reading the weights and thresholds of the network from flat arrays laid
+ * out in the same way as {@link FeedForwardPerceptron}. Implementations are generated at runtime by
+ * {@link NetworkCompiler}.
+ */
+public interface NetworkEvaluator {
+
+    /**
+     * @param weights    The weights of the network.
+     * @param thresholds The thresholds of the network.
+     * @param inputs     The values of the input nodes.
+     * @param outputs    The array to write the values of the output nodes into.
+     */
+    void evaluate(double[] weights, double[] thresholds, double[] inputs, double[] outputs);
+
+}
@@ -0,0 +1,117 @@
+package neural_network;
+
+import java.util.List;
+
+/**
+ * A group of feed forward networks with the same shape whose weights and thresholds are packed next to each other in
+ * one contiguous array. Executing the group passes each block of input rows through every network before moving on
+ * to the next block, so the rows are loaded once and reused by all of the networks while they are still in cache.
+ * <p>
+ * The values produced are identical to executing each network separately with
+ * {@link FeedForwardPerceptron#executeBatch(InputMatrix, double[])}, in the precision the networks are set to use.
+ */
+public class PackedNetworks {
+
+    private final FeedForwardPerceptron template;
+
+    private final int numberOfNetworks, weightsPerNetwork, thresholdsPerNetwork, numberOfOutputs;
+    private final double[] weights, thresholds;
+
+    // Narrowed copies of the weights and thresholds, only used when the networks execute batches in single precision
+    private final float[] singleWeights, singleThresholds;
+
+    /**
+     * Packs the weights and thresholds of the provided networks. Later changes to the networks are not seen by the
+     * packed networks.
+     *
+     * @param networks The networks to pack. Every network must have the same shape.
+     */
+    public PackedNetworks(List<FeedForwardPerceptron> networks) {
+        // region Argument checks
+        if (networks.isEmpty())
+            throw new IllegalArgumentException("There must be at least one network to pack");
+        // endregion
+
+        template = networks.get(0);
+
+        numberOfNetworks = networks.size();
+        weightsPerNetwork = template.getNumberOfWeights();
+        thresholdsPerNetwork = template.getNumberOfThresholds();
+        numberOfOutputs = template.countNodesInLayer(template.getOutputLayerIndex());
+
+        boolean isSingle = template.getPrecision() == Precision.SINGLE;
+
+        weights = new double[isSingle ? 0 : numberOfNetworks * weightsPerNetwork];
+        thresholds = new double[isSingle ? 0 : numberOfNetworks * thresholdsPerNetwork];
+
+        singleWeights = new float[isSingle ? numberOfNetworks * weightsPerNetwork : 0];
+        singleThresholds = new float[isSingle ? numberOfNetworks * thresholdsPerNetwork : 0];
+
+        for (int i = 0; i < numberOfNetworks; i++) {
+            FeedForwardPerceptron network = networks.get(i);
+
+            // region Argument checks
+            if (!template.hasSameShape(network))
+                throw new IllegalArgumentException("Every network must have the same shape. Network " + i + " differs");
+            // endregion
+
+            if (isSingle)
+                network.copySingleParametersTo(singleWeights, i * weightsPerNetwork, singleThresholds, i * thresholdsPerNetwork);
+            else
+                network.copyParametersTo(weights, i * weightsPerNetwork, thresholds, i * thresholdsPerNetwork);
+        }
+    }
+
+    /**
+     * Executes every network on every row of the input matrix.
+     *
+     * @param inputs The input matrix, one row per sample.
+     * @return The outputs of each network, indexed by network. The outputs of each row are next to each other.
+     */
+    public double[][] executeBatch(InputMatrix inputs) {
+        // region Argument checks
+        if (inputs.getColumns() != template.countNodesInLayer(0))
+            throw new IllegalArgumentException("The number of inputs provided does not match the number of inputs of the networks.");
+        // endregion
+
+        int rows = inputs.getRows();
+
+        double[][] outputs = new double[numberOfNetworks][rows * numberOfOutputs];
+
+        if (template.getPrecision() == Precision.SINGLE) {
+            SingleBatchKernel kernel = template.createSingleBatchKernel();
+
+            for (int start = 0; start < rows; start += BatchKernel.BLOCK_SIZE) {
+                int blockRows = Math.min(BatchKernel.BLOCK_SIZE, rows - start);
+
+                for (int i = 0; i < numberOfNetworks; i++) {
+                    double[] blockOutputs = kernel.executeBlock(singleWeights, i * weightsPerNetwork,
+                            singleThresholds, i * thresholdsPerNetwork, inputs, start, blockRows);
+
+                    System.arraycopy(blockOutputs, 0, outputs[i], start * numberOfOutputs, blockRows * numberOfOutputs);
+                }
+            }
+
+            return outputs;
+        }
+
+        BatchKernel kernel = template.createBatchKernel();
+
+        for (int start = 0; start < rows; start += BatchKernel.BLOCK_SIZE) {
+            int blockRows = Math.min(BatchKernel.BLOCK_SIZE, rows - start);
+
+            for (int i = 0; i < numberOfNetworks; i++) {
+                double[] blockOutputs = kernel.executeBlock(
+                        weights, i * weightsPerNetwork, thresholds, i * thresholdsPerNetwork, inputs, start, blockRows);
+
+                System.arraycopy(blockOutputs, 0, outputs[i], start * numberOfOutputs, blockRows * numberOfOutputs);
+            }
+        }
+
+        return outputs;
+    }
+
+    public int getNumberOfNetworks() {
+        return numberOfNetworks;
+    }
+}
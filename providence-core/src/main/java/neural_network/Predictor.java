@@ -0,0 +1,52 @@
+package neural_network;
+
+/**
+ * An immutable snapshot of a neural network for producing estimates. Any number of threads can use a predictor at
+ * once without locking, and producing an estimate does not allocate.
+ * <p>
+ * Predictors are created with {@link INeuralNetwork#createPredictor()}.
+ */
+public final class Predictor {
+
+    // Never exposed, so never changed after the predictor is created
+    private final FeedForwardPerceptron network;
+    private final int numberOfInputs, numberOfOutputs;
+
+    private final ThreadLocal<double[]> outputs;
+
+    Predictor(FeedForwardPerceptron network) {
+        this.network = network;
+
+        numberOfInputs = network.countNodesInLayer(0);
+        numberOfOutputs = network.countNodesInLayer(network.getOutputLayerIndex());
+
+        outputs = ThreadLocal.withInitial(() -> new double[numberOfOutputs]);
+    }
+
+    /**
+     * @param inputs  The values of the input nodes.
+     * @param outputs The array to write the values of the output nodes into.
+     */
+    public void predict(double[] inputs, double[] outputs) {
+        network.executeNetwork(inputs, outputs);
+    }
+
+    /**
+     * @param inputs The values of the input nodes.
+     * @return The value of the first output node.
+     */
+    public double predict(double[] inputs) {
+        double[] threadOutputs = outputs.get();
+        network.executeNetwork(inputs, threadOutputs);
+
+        return threadOutputs[0];
+    }
+
+    public int getNumberOfInputs() {
+        return numberOfInputs;
+    }
+
+    public int getNumberOfOutputs() {
+        return numberOfOutputs;
+    }
+}
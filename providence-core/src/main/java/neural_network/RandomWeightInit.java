@@ -1,6 +1,6 @@
 package neural_network;
 
-import utils.BoundedRandom;
+import utils.RandomStream;
 
 /**
  * Provides functionality for initialising the weights for a neural network randomly within some bounds.
@@ -9,6 +9,22 @@ import utils.BoundedRandom;
  */
 public class RandomWeightInit implements IWeightInitialiser {
 
+    private final RandomStream random;
+
+    /**
+     * Draws weights from the {@link RandomStream} of the thread initialising the weights.
+     */
+    public RandomWeightInit() {
+        this(null);
+    }
+
+    /**
+     * @param random The stream to draw weights from, or null to use the stream of the thread initialising the weights.
+     */
+    public RandomWeightInit(RandomStream random) {
+        this.random = random;
+    }
+
     /**
      * Initialises an array of weights for a neural network. Produces random values for the weights between the provided
      * bounds.
@@ -23,10 +39,12 @@ public class RandomWeightInit implements IWeightInitialiser {
         int lowerBound = (int) parameters[0];
         int upperBound = (int) parameters[1];
 
+        RandomStream stream = random != null ? random : RandomStream.forThread();
+
         Double[] weights = new Double[weightCount];
 
         for (int i = 0; i < weights.length; i++) {
-            weights[i] = BoundedRandom.nextDouble(lowerBound, upperBound);
+            weights[i] = stream.nextDouble(lowerBound, upperBound);
         }
 
         return weights;
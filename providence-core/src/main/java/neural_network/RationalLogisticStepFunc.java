@@ -0,0 +1,38 @@
+package neural_network;
+
+/**
+ * Approximation of the logistic function that uses only multiplication, addition and one division. The logistic
+ * function is rewritten as 0.5 + 0.5 * tanh(x / 2) and tanh is replaced by its [7/6] Pade approximant, clamped where
+ * the approximant reaches 1. Differs from {@link LogisticStepFunc} by at most 5e-5.
+ */
+public class RationalLogisticStepFunc implements IStepFunction {
+
+    // The point at which the approximation of tanh reaches 1
+    private static final double CLAMP = 4.97;
+
+    /**
+     * @param input The cumulative excitement from all connected nodes.
+     * @return An excitement value between 0 and 1.
+     */
+    @Override
+    public double response(double input) {
+        double x = Math.max(-CLAMP, Math.min(CLAMP, 0.5 * input));
+        double x2 = x * x;
+
+        double tanh = x * (135135 + x2 * (17325 + x2 * (378 + x2)))
+                / (135135 + x2 * (62370 + x2 * (3150 + 28 * x2)));
+
+        return 0.5 + 0.5 * tanh;
+    }
+
+    @Override
+    public void response(double[] inputs, double[] outputs, int start, int length) {
+        for (int i = start; i < start + length; i++) {
+            double x = Math.max(-CLAMP, Math.min(CLAMP, 0.5 * inputs[i]));
+            double x2 = x * x;
+
+            outputs[i] = 0.5 + 0.5 * x * (135135 + x2 * (17325 + x2 * (378 + x2)))
+                    / (135135 + x2 * (62370 + x2 * (3150 + 28 * x2)));
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package neural_network;
+
+/**
+ * Implementation of a rectified linear step function. Passes positive excitement values through unchanged and
+ * replaces negative values with zero.
+ */
+public class ReLUStepFunc implements IStepFunction {
+
+    /**
+     * @param input The cumulative excitement from all connected nodes.
+     * @return The excitement value if it is positive, zero otherwise.
+     */
+    @Override
+    public double response(double input) {
+        return Math.max(0, input);
+    }
+
+    @Override
+    public void response(double[] inputs, double[] outputs, int start, int length) {
+        for (int i = start; i < start + length; i++)
+            outputs[i] = Math.max(0, inputs[i]);
+    }
+}
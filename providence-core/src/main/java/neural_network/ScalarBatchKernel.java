@@ -0,0 +1,89 @@
+package neural_network;
+
+/**
+ * A batch kernel that calculates every node for four rows at a time, so each weight is loaded once per four rows. The
+ * values of each layer are stored row by row.
+ */
+final class ScalarBatchKernel extends BatchKernel {
+
+    private double[] current, next;
+
+    ScalarBatchKernel(int[] layerSizes, int[] weightOffsets, int[] thresholdOffsets,
+                      IStepFunction internalStepFunc, IStepFunction outputStepFunc) {
+        super(layerSizes, weightOffsets, thresholdOffsets, internalStepFunc, outputStepFunc);
+
+        current = new double[BLOCK_SIZE * widestLayer];
+        next = new double[BLOCK_SIZE * widestLayer];
+    }
+
+    @Override
+    double[] executeBlock(double[] weights, int weightBase, double[] thresholds, int thresholdBase,
+                          InputMatrix inputs, int start, int blockRows) {
+        calculateBlockValues(1, weights, weightBase, thresholds, thresholdBase,
+                inputs.getValues(), start * inputs.getRowStride(), inputs.getRowStride(), inputs.getColumnStride(),
+                blockRows, getStepFunction(1), current);
+
+        for (int i = 2; i <= getOutputLayerIndex(); i++) {
+            calculateBlockValues(i, weights, weightBase, thresholds, thresholdBase,
+                    current, 0, layerSizes[i - 1], 1, blockRows, getStepFunction(i), next);
+
+            double[] swap = current;
+            current = next;
+            next = swap;
+        }
+
+        return current;
+    }
+
+    /**
+     * Calculates the values of every node on a layer for a block of rows. The values of the previous layer are read
+     * using the provided strides so both row-major and column-major matrices can be read without copying. The values
+     * are written to the target row by row.
+     */
+    private void calculateBlockValues(int layer, double[] weights, int weightBase, double[] thresholds, int thresholdBase,
+                                      double[] source, int sourceOffset, int rowStride, int columnStride,
+                                      int blockRows, IStepFunction stepFunction, double[] target) {
+        int nodesInLayer = layerSizes[layer];
+        int weightsPerNode = layerSizes[layer - 1];
+
+        for (int j = 0; j < nodesInLayer; j++) {
+            int weightStart = weightBase + weightOffsets[layer] + j * weightsPerNode;
+            double threshold = thresholds[thresholdBase + thresholdOffsets[layer] + j];
+
+            int row = 0;
+
+            for (; row + 3 < blockRows; row += 4) {
+                double totalOne = 0, totalTwo = 0, totalThr = 0, totalFor = 0;
+                int index = sourceOffset + row * rowStride;
+
+                for (int i = 0; i < weightsPerNode; i++) {
+                    double weight = weights[weightStart + i];
+
+                    totalOne += source[index] * weight;
+                    totalTwo += source[index + rowStride] * weight;
+                    totalThr += source[index + 2 * rowStride] * weight;
+                    totalFor += source[index + 3 * rowStride] * weight;
+
+                    index += columnStride;
+                }
+
+                target[row * nodesInLayer + j] = stepFunction.response(totalOne - threshold);
+                target[(row + 1) * nodesInLayer + j] = stepFunction.response(totalTwo - threshold);
+                target[(row + 2) * nodesInLayer + j] = stepFunction.response(totalThr - threshold);
+                target[(row + 3) * nodesInLayer + j] = stepFunction.response(totalFor - threshold);
+            }
+
+            for (; row < blockRows; row++) {
+                double total = 0;
+                int index = sourceOffset + row * rowStride;
+
+                for (int i = 0; i < weightsPerNode; i++) {
+                    total += source[index] * weights[weightStart + i];
+                    index += columnStride;
+                }
+
+                target[row * nodesInLayer + j] = stepFunction.response(total - threshold);
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package neural_network;
+
+/**
+ * Passes blocks of rows from an {@link InputMatrix} through a feed forward network using single precision arithmetic.
+ * The inputs are read from {@link InputMatrix#getSingleValues()} and the weights and thresholds from single precision
+ * copies, so half as much memory is read as by the double precision kernels. The values of each layer are stored node
+ * by node, so each weight is applied to a contiguous run of rows with a loop the JIT compiler turns into SIMD
+ * instructions.
+ * <p>
+ * Step functions work in double precision, so the excitement of each node is widened before the step function is
+ * applied and the result narrowed again.
+ * <p>
+ * A kernel holds the values of the block being executed so it must not be shared between threads.
+ */
+final class SingleBatchKernel {
+
+    private final int[] layerSizes, weightOffsets, thresholdOffsets;
+    private final IStepFunction internalStepFunc, outputStepFunc;
+
+    private final float[] inputBlock;
+    private final double[] excitement, outputBlock;
+    private float[] current, next;
+
+    /**
+     * @param layerSizes       The number of nodes in each layer, starting with the input layer.
+     * @param weightOffsets    The index of the first weight leading into each layer.
+     * @param thresholdOffsets The index of the first threshold of each layer.
+     * @param internalStepFunc The step function of the hidden layers.
+     * @param outputStepFunc   The step function of the output layer.
+     */
+    SingleBatchKernel(int[] layerSizes, int[] weightOffsets, int[] thresholdOffsets,
+                      IStepFunction internalStepFunc, IStepFunction outputStepFunc) {
+        this.layerSizes = layerSizes;
+        this.weightOffsets = weightOffsets;
+        this.thresholdOffsets = thresholdOffsets;
+        this.internalStepFunc = internalStepFunc;
+        this.outputStepFunc = outputStepFunc;
+
+        int widestLayer = 0;
+
+        for (int i = 1; i < layerSizes.length; i++)
+            widestLayer = Math.max(widestLayer, layerSizes[i]);
+
+        inputBlock = new float[BatchKernel.BLOCK_SIZE * layerSizes[0]];
+        excitement = new double[BatchKernel.BLOCK_SIZE];
+        outputBlock = new double[BatchKernel.BLOCK_SIZE * layerSizes[layerSizes.length - 1]];
+
+        current = new float[BatchKernel.BLOCK_SIZE * widestLayer];
+        next = new float[BatchKernel.BLOCK_SIZE * widestLayer];
+    }
+
+    /**
+     * Executes a network on a block of rows of the input matrix.
+     *
+     * @param weights       The array holding the weights of the network.
+     * @param weightBase    The index of the first weight of the network.
+     * @param thresholds    The array holding the thresholds of the network.
+     * @param thresholdBase The index of the first threshold of the network.
+     * @param inputs        The input matrix.
+     * @param start         The first row of the block.
+     * @param blockRows     The number of rows in the block, at most {@link BatchKernel#BLOCK_SIZE}.
+     * @return The values of the output layer, the outputs of each row next to each other. The array is reused by the
+     * next call.
+     */
+    double[] executeBlock(float[] weights, int weightBase, float[] thresholds, int thresholdBase,
+                          InputMatrix inputs, int start, int blockRows) {
+        int outputLayerIndex = layerSizes.length - 1;
+
+        float[] source;
+        int sourceOffset, sourceStride;
+
+        if (inputs.getLayout() == InputMatrix.Layout.COLUMN_MAJOR) {
+            source = inputs.getSingleValues();
+            sourceOffset = start;
+            sourceStride = inputs.getColumnStride();
+        } else {
+            transposeBlock(inputs, start, blockRows);
+
+            source = inputBlock;
+            sourceOffset = 0;
+            sourceStride = BatchKernel.BLOCK_SIZE;
+        }
+
+        for (int i = 1; i <= outputLayerIndex; i++) {
+            IStepFunction stepFunction = i != outputLayerIndex ? internalStepFunc : outputStepFunc;
+
+            calculateBlockValues(i, weights, weightBase, thresholds, thresholdBase,
+                    source, sourceOffset, sourceStride, blockRows, stepFunction, next);
+
+            float[] swap = current;
+            current = next;
+            next = swap;
+
+            source = current;
+            sourceOffset = 0;
+            sourceStride = BatchKernel.BLOCK_SIZE;
+        }
+
+        // Return the outputs row by row like every other kernel
+        int numberOfOutputs = layerSizes[outputLayerIndex];
+
+        for (int j = 0; j < numberOfOutputs; j++)
+            for (int row = 0; row < blockRows; row++)
+                outputBlock[row * numberOfOutputs + j] = current[j * BatchKernel.BLOCK_SIZE + row];
+
+        return outputBlock;
+    }
+
+    /**
+     * Copies a block of rows from a row-major matrix into the input block, column by column.
+     */
+    private void transposeBlock(InputMatrix inputs, int start, int blockRows) {
+        float[] values = inputs.getSingleValues();
+        int columns = inputs.getColumns();
+
+        for (int row = 0; row < blockRows; row++) {
+            int index = (start + row) * columns;
+
+            for (int i = 0; i < columns; i++)
+                inputBlock[i * BatchKernel.BLOCK_SIZE + row] = values[index + i];
+        }
+    }
+
+    /**
+     * Calculates the values of every node on a layer for a block of rows. The values of each node of the previous
+     * layer must be next to each other, starting every sourceStride values. The values of each node are written to
+     * the target {@link BatchKernel#BLOCK_SIZE} values apart.
+     */
+    private void calculateBlockValues(int layer, float[] weights, int weightBase, float[] thresholds, int thresholdBase,
+                                      float[] source, int sourceOffset, int sourceStride,
+                                      int blockRows, IStepFunction stepFunction, float[] target) {
+        int nodesInLayer = layerSizes[layer];
+        int weightsPerNode = layerSizes[layer - 1];
+
+        for (int j = 0; j < nodesInLayer; j++) {
+            int weightStart = weightBase + weightOffsets[layer] + j * weightsPerNode;
+            float threshold = thresholds[thresholdBase + thresholdOffsets[layer] + j];
+
+            int targetStart = j * BatchKernel.BLOCK_SIZE;
+
+            for (int row = 0; row < blockRows; row++)
+                target[targetStart + row] = 0;
+
+            for (int i = 0; i < weightsPerNode; i++) {
+                float weight = weights[weightStart + i];
+                int sourceStart = sourceOffset + i * sourceStride;
+
+                for (int row = 0; row < blockRows; row++)
+                    target[targetStart + row] += source[sourceStart + row] * weight;
+            }
+
+            for (int row = 0; row < blockRows; row++)
+                excitement[row] = target[targetStart + row] - threshold;
+
+            stepFunction.response(excitement, excitement, 0, blockRows);
+
+            for (int row = 0; row < blockRows; row++)
+                target[targetStart + row] = (float) excitement[row];
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package neural_network;
+
+/**
+ * The step functions that can be selected for the hidden layers of a network. The approximations of the logistic
+ * function trade a small loss of accuracy for faster evaluation.
+ */
+public enum StepFunctionType {
+
+    LOGISTIC("Logistic"),
+    FAST_LOGISTIC("Logistic (fast exponential)"),
+    RATIONAL_LOGISTIC("Logistic (rational approximation)"),
+    TABLE_LOGISTIC("Logistic (lookup table)"),
+    HARD_SIGMOID("Hard sigmoid"),
+    TANH("Hyperbolic tangent"),
+    RELU("Rectified linear");
+
+    private final String name;
+
+    StepFunctionType(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return A new instance of the step function.
+     */
+    public IStepFunction create() {
+        switch (this) {
+            case FAST_LOGISTIC:
+                return new FastLogisticStepFunc();
+            case RATIONAL_LOGISTIC:
+                return new RationalLogisticStepFunc();
+            case TABLE_LOGISTIC:
+                return new TableLogisticStepFunc();
+            case HARD_SIGMOID:
+                return new HardSigmoidStepFunc();
+            case TANH:
+                return new TanhStepFunc();
+            case RELU:
+                return new ReLUStepFunc();
+            default:
+                return new LogisticStepFunc();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
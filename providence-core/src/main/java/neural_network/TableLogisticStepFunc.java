@@ -0,0 +1,45 @@
+package neural_network;
+
+/**
+ * Approximation of the logistic function that looks up precomputed values and linearly interpolates between them.
+ * Inputs beyond the ends of the table take the value at that end. Differs from {@link LogisticStepFunc} by at most
+ * 1e-6.
+ */
+public class TableLogisticStepFunc implements IStepFunction {
+
+    private static final double MINIMUM = -16, MAXIMUM = 16;
+    private static final int INTERVALS = 4096;
+    private static final double SCALE = INTERVALS / (MAXIMUM - MINIMUM);
+
+    // Shared by every instance, the table never changes once built
+    private static final double[] TABLE = new double[INTERVALS + 1];
+
+    static {
+        for (int i = 0; i <= INTERVALS; i++)
+            TABLE[i] = 1 / (1 + Math.exp(-(MINIMUM + i / SCALE)));
+    }
+
+    /**
+     * @param input The cumulative excitement from all connected nodes.
+     * @return An excitement value between 0 and 1.
+     */
+    @Override
+    public double response(double input) {
+        double position = (Math.max(MINIMUM, Math.min(MAXIMUM, input)) - MINIMUM) * SCALE;
+        int index = Math.min((int) position, INTERVALS - 1);
+
+        double lower = TABLE[index];
+        return lower + (position - index) * (TABLE[index + 1] - lower);
+    }
+
+    @Override
+    public void response(double[] inputs, double[] outputs, int start, int length) {
+        for (int i = start; i < start + length; i++) {
+            double position = (Math.max(MINIMUM, Math.min(MAXIMUM, inputs[i])) - MINIMUM) * SCALE;
+            int index = Math.min((int) position, INTERVALS - 1);
+
+            double lower = TABLE[index];
+            outputs[i] = lower + (position - index) * (TABLE[index + 1] - lower);
+        }
+    }
+}
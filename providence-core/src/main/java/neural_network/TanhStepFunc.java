@@ -0,0 +1,23 @@
+package neural_network;
+
+/**
+ * Implementation of a hyperbolic tangent step function. Has the same shape as the logistic function but is centred on
+ * zero.
+ */
+public class TanhStepFunc implements IStepFunction {
+
+    /**
+     * @param input The cumulative excitement from all connected nodes.
+     * @return An excitement value between -1 and 1.
+     */
+    @Override
+    public double response(double input) {
+        return Math.tanh(input);
+    }
+
+    @Override
+    public void response(double[] inputs, double[] outputs, int start, int length) {
+        for (int i = start; i < start + length; i++)
+            outputs[i] = Math.tanh(inputs[i]);
+    }
+}
@@ -2,12 +2,18 @@ package search_parameters;
 
 import dataset.Feature;
 import error_metrics.ErrorMetric;
+import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import neural_network.Precision;
+import neural_network.StepFunctionType;
 
 /**
  * Model for the data required to configure a search.
@@ -21,6 +27,10 @@ public class SearchParameters {
     private final IntegerProperty populationSize;
     private final DoubleProperty probabilityOfCrossover, probabilityOfMutation;
     private final IntegerProperty annealTime;
+    private final ObjectProperty<StepFunctionType> hiddenStepFunction;
+    private final ObjectProperty<Precision> precision;
+    private final BooleanProperty compileNetworks;
+    private final IntegerProperty evaluationThreads, evaluationChunkSize;
 
     private ObservableList<Feature> inputColumns;
     private ObservableList<Feature> outputColumns;
@@ -42,6 +52,11 @@ public class SearchParameters {
         this.probabilityOfCrossover = new SimpleDoubleProperty(probabilityOfCrossover);
         this.probabilityOfMutation = new SimpleDoubleProperty(probabilityOfMutation);
         this.annealTime = new SimpleIntegerProperty(annealTime);
+        this.hiddenStepFunction = new SimpleObjectProperty<>(StepFunctionType.LOGISTIC);
+        this.precision = new SimpleObjectProperty<>(Precision.DOUBLE);
+        this.compileNetworks = new SimpleBooleanProperty(false);
+        this.evaluationThreads = new SimpleIntegerProperty(1);
+        this.evaluationChunkSize = new SimpleIntegerProperty(10);
     }
 
     // region Getters and Setters
@@ -88,6 +103,65 @@ public class SearchParameters {
     public ObservableList<ErrorMetric> getErrorMetrics() {
         return errorMetrics;
     }
+
+    /**
+     * @return The step function used by the hidden layers of the networks. The approximations of the logistic function
+     * trade a small loss of accuracy for faster evolution.
+     */
+    public StepFunctionType getHiddenStepFunction() {
+        return hiddenStepFunction.get();
+    }
+
+    public ObjectProperty<StepFunctionType> hiddenStepFunctionProperty() {
+        return hiddenStepFunction;
+    }
+
+    /**
+     * @return The precision used to evaluate solutions during the search. The final population is always evaluated in
+     * double precision.
+     */
+    public Precision getPrecision() {
+        return precision.get();
+    }
+
+    public ObjectProperty<Precision> precisionProperty() {
+        return precision;
+    }
+
+    /**
+     * @return True if the networks found execute single rows, such as the estimates of an ensemble, with an evaluator
+     * generated for their shape. Ignored for networks too large to benefit from it.
+     */
+    public boolean isCompileNetworks() {
+        return compileNetworks.get();
+    }
+
+    public BooleanProperty compileNetworksProperty() {
+        return compileNetworks;
+    }
+
+    /**
+     * @return The number of threads solutions are produced and evaluated on. The solutions found do not depend on the
+     * number of threads.
+     */
+    public int getEvaluationThreads() {
+        return evaluationThreads.get();
+    }
+
+    public IntegerProperty evaluationThreadsProperty() {
+        return evaluationThreads;
+    }
+
+    /**
+     * @return The number of solutions each thread evaluates at a time when evaluating on more than one thread.
+     */
+    public int getEvaluationChunkSize() {
+        return evaluationChunkSize.get();
+    }
+
+    public IntegerProperty evaluationChunkSizeProperty() {
+        return evaluationChunkSize;
+    }
     // endregion
 
     /**
@@ -100,6 +174,11 @@ public class SearchParameters {
         searchParametersCopy.inputColumnsProperty().setAll(inputColumnsProperty());
         searchParametersCopy.outputColumnsProperty().setAll(outputColumnsProperty());
         searchParametersCopy.getErrorMetrics().setAll(getErrorMetrics());
+        searchParametersCopy.hiddenStepFunctionProperty().set(getHiddenStepFunction());
+        searchParametersCopy.precisionProperty().set(getPrecision());
+        searchParametersCopy.compileNetworksProperty().set(isCompileNetworks());
+        searchParametersCopy.evaluationThreadsProperty().set(getEvaluationThreads());
+        searchParametersCopy.evaluationChunkSizeProperty().set(getEvaluationChunkSize());
 
         return searchParametersCopy;
     }
@@ -1,16 +1,13 @@
 package utils;
 
-import java.util.Random;
-
 /**
- * Helper class for finding random numbers in a range.
+ * Helper class for finding random numbers in a range. Draws from the {@link RandomStream} of the calling thread so
+ * threads do not contend for a shared generator.
  * <p>
  * Created by Joseph Billingsley on 05/01/2016.
  */
 public class BoundedRandom {
 
-    private static Random rand = new Random();
-
     /**
      * Generates a random number in the provided range inclusive of the upper and lower bound.
      *
@@ -19,10 +16,10 @@ public class BoundedRandom {
      * @return A number in the range of the lower and upper bound inclusive.
      */
     public static double nextDouble(double lowerBound, double upperBound) {
-        return lowerBound + (upperBound - lowerBound) * rand.nextDouble();
+        return RandomStream.forThread().nextDouble(lowerBound, upperBound);
     }
 
     public static int nextInt(int lowerBound, int upperBound) {
-        return lowerBound + rand.nextInt(upperBound - lowerBound + 1);
+        return RandomStream.forThread().nextInt(lowerBound, upperBound);
     }
 }
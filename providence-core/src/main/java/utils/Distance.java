@@ -37,4 +37,29 @@ public class Distance {
         return Math.sqrt(distance);
     }
 
+    /**
+     * Calculates the straight line Euclidean distance between two points held in primitive arrays. Both points must
+     * have the same number of dimensions.
+     *
+     * @param x A point in 1 or more dimensional space.
+     * @param y A point in 1 or more dimensional space.
+     * @return The Euclidean distance between the two points.
+     */
+    public static double getEuclideanDistance(double[] x, double[] y) {
+
+        // region Argument checks
+        if (x.length != y.length)
+            throw new IllegalArgumentException(
+                    "The points being compared must have the same number of dimensions: X:" + x.length + ", Y:" + y.length);
+        // endregion
+
+        double distance = 0;
+
+        for (int i = 0; i < x.length; i++) {
+            double diff = x[i] - y[i];
+            distance += diff * diff;
+        }
+
+        return Math.sqrt(distance);
+    }
 }
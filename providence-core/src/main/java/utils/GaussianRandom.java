@@ -1,9 +1,8 @@
 package utils;
 
-import java.util.Random;
-
 /**
- * a random number generator with a Gaussian probability distribution.
+ * a random number generator with a Gaussian probability distribution. Draws from the {@link RandomStream} of the
+ * calling thread, see {@link RandomStream#nextGaussian(double, double)}.
  * <p>
  * Created by Joseph Billingsley on 06/11/2015.
  * Derived from the JMetal implementation in ExtendedPseudoRandomGenerator.java
@@ -34,22 +33,7 @@ public class GaussianRandom {
      * @return A random number between 0 and 1.
      */
     public double nextDouble(double mean, double standardDeviation) {
-
-        Random random = new Random();
-
-        double x1, x2, w, y1;
-
-        do {
-            x1 = 2.0 * random.nextDouble() - 1.0;
-            x2 = 2.0 * random.nextDouble() - 1.0;
-            w = x1 * x1 + x2 * x2;
-        } while (w >= 1.0);
-
-        w = Math.sqrt((-2.0 * Math.log(w)) / w);
-        y1 = x1 * w;
-        y1 = y1 * standardDeviation + mean;
-
-        return y1;
+        return RandomStream.forThread().nextGaussian(mean, standardDeviation);
     }
 
 }
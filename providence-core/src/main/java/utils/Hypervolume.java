@@ -0,0 +1,153 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Calculates the hypervolume of a set of points, the volume of the region dominated by the points and bounded by a
+ * reference point. All objectives are minimised, so a larger hypervolume is a better set of points.
+ * <p>
+ * Two objectives are calculated exactly by sweeping along the first objective. More objectives are calculated exactly
+ * with the WFG algorithm, which is fast enough for the fronts of the populations used here with up to five objectives.
+ * <p>
+ * Algorithm from 'A Fast Way of Calculating Exact Hypervolumes'. Lyndon While, Lucas Bradstreet and Luigi Barone. IEEE
+ * Transactions on Evolutionary Computation, Vol. 16 February 2012.
+ */
+public class Hypervolume {
+
+    /**
+     * @param points         The points, each with the same number of dimensions as the reference point. Points that
+     *                       are not better than the reference point in every dimension add nothing.
+     * @param referencePoint The point bounding the volume.
+     * @return The hypervolume of the points.
+     */
+    public static double calculate(List<double[]> points, double[] referencePoint) {
+        List<double[]> inside = new ArrayList<>();
+
+        for (double[] point : points) {
+            // region Argument checks
+            if (point.length != referencePoint.length)
+                throw new IllegalArgumentException(
+                        "The points must have the same number of dimensions as the reference point");
+            // endregion
+
+            if (isBetterEverywhere(point, referencePoint))
+                inside.add(point);
+        }
+
+        return wfg(nonDominated(inside), referencePoint);
+    }
+
+    private static double wfg(List<double[]> front, double[] referencePoint) {
+        if (front.isEmpty())
+            return 0;
+
+        if (referencePoint.length <= 2)
+            return sweep(front, referencePoint);
+
+        // Worst first in the last objective, so the limit sets of the points left to add are small
+        int last = referencePoint.length - 1;
+        front.sort(Comparator.comparingDouble((double[] point) -> point[last]).reversed());
+
+        double volume = 0;
+
+        for (int i = 0; i < front.size(); i++)
+            volume += exclusiveVolume(front, i, referencePoint);
+
+        return volume;
+    }
+
+    /**
+     * @return The volume dominated by a point of the front and by no point after it.
+     */
+    private static double exclusiveVolume(List<double[]> front, int index, double[] referencePoint) {
+        double[] point = front.get(index);
+
+        // The parts of the later points' volumes that overlap the point's volume
+        List<double[]> limitSet = new ArrayList<>(front.size() - index - 1);
+
+        for (int j = index + 1; j < front.size(); j++) {
+            double[] other = front.get(j), limited = new double[point.length];
+
+            for (int k = 0; k < point.length; k++)
+                limited[k] = Math.max(point[k], other[k]);
+
+            limitSet.add(limited);
+        }
+
+        return inclusiveVolume(point, referencePoint) - wfg(nonDominated(limitSet), referencePoint);
+    }
+
+    private static double inclusiveVolume(double[] point, double[] referencePoint) {
+        double volume = 1;
+
+        for (int i = 0; i < point.length; i++)
+            volume *= referencePoint[i] - point[i];
+
+        return volume;
+    }
+
+    private static double sweep(List<double[]> front, double[] referencePoint) {
+        if (referencePoint.length == 1)
+            return referencePoint[0] - front.stream().mapToDouble(point -> point[0]).min().getAsDouble();
+
+        front.sort(Comparator.comparingDouble((double[] point) -> point[0]).thenComparingDouble(point -> point[1]));
+
+        double volume = 0, lowestSecond = referencePoint[1];
+
+        for (double[] point : front) {
+            if (point[1] < lowestSecond) {
+                volume += (referencePoint[0] - point[0]) * (lowestSecond - point[1]);
+                lowestSecond = point[1];
+            }
+        }
+
+        return volume;
+    }
+
+    /**
+     * @return The points no other point is at least as good as in every dimension, keeping one of any equal points.
+     */
+    private static List<double[]> nonDominated(List<double[]> points) {
+        List<double[]> front = new ArrayList<>();
+
+        for (int i = 0; i < points.size(); i++) {
+            boolean dominated = false;
+
+            for (int j = 0; j < points.size() && !dominated; j++) {
+                if (i == j)
+                    continue;
+
+                double[] point = points.get(i), other = points.get(j);
+
+                // Of equal points only the first is kept
+                dominated = weaklyDominates(other, point) && (j < i || !Arrays.equals(point, other));
+            }
+
+            if (!dominated)
+                front.add(points.get(i));
+        }
+
+        return front;
+    }
+
+    private static boolean weaklyDominates(double[] x, double[] y) {
+        for (int i = 0; i < x.length; i++) {
+            if (x[i] > y[i])
+                return false;
+        }
+
+        return true;
+    }
+
+    private static boolean isBetterEverywhere(double[] point, double[] referencePoint) {
+        for (int i = 0; i < point.length; i++) {
+            if (point[i] >= referencePoint[i])
+                return false;
+        }
+
+        return true;
+    }
+}
@@ -58,4 +58,37 @@ public class KNearest {
 
         return kNearestSolutions.subList(0, k);
     }
+
+    /**
+     * Finds the k-nearest solutions in euclidean space based on the objective values of each solution, searching a
+     * tree built over the neighbouring solutions rather than measuring the distance to every one.
+     *
+     * @param solution              The solution to find the nearest neighbours for.
+     * @param neighbouringSolutions The tree built over the set of neighbouring solutions.
+     * @param k                     The number of nearest neighbours to look for.
+     * @return The k-nearest neighbouring solutions.
+     */
+    @NotNull
+    public static List<SEESolution> find(SEESolution solution, KdTree neighbouringSolutions, int k) {
+
+        int size = Math.min(k, neighbouringSolutions.size());
+
+        int[] indexes = new int[size];
+        double[] squaredDistances = new double[size];
+
+        double[] point = new double[solution.getNumberOfObjectives()];
+
+        for (int i = 0; i < point.length; i++)
+            point[i] = solution.getObjective(i);
+
+        int found = neighbouringSolutions.findNearest(
+                point, size, neighbouringSolutions.indexOf(solution), indexes, squaredDistances);
+
+        List<SEESolution> kNearestSolutions = new ArrayList<>(found);
+
+        for (int i = 0; i < found; i++)
+            kNearestSolutions.add(neighbouringSolutions.getSolution(indexes[i]));
+
+        return kNearestSolutions;
+    }
 }
@@ -0,0 +1,313 @@
+package utils;
+
+import evolve_nn.SEESolution;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A k-d tree over the objectives of a population, used to find the nearest solutions to a solution without measuring
+ * the distance to every solution in the population. Built once for a population and then queried any number of times.
+ * The tree is not changed by queries so it can be queried from several threads at once.
+ * <p>
+ * Each node splits its solutions at the median of the dimension in which they are most spread out. The tree is stored
+ * implicitly in an array of solution indexes, the node of a range of the array being the middle of the range.
+ * <p>
+ * Neighbours at the same distance are found in the order they appear in the population, as
+ * {@link KNearest#find(SEESolution, List, int)} finds them.
+ */
+public class KdTree {
+
+    private final List<SEESolution> population;
+    private final Map<SEESolution, Integer> positions;
+    private final int dimensions;
+
+    // The objectives of each solution, the objectives of each solution next to each other
+    private final double[] points;
+
+    // The indexes of the solutions arranged as a tree, and the dimension each node splits in
+    private final int[] tree, splitDimensions;
+
+    /**
+     * @param population The solutions to build the tree over. Every solution must have the same number of objectives.
+     *                   Later changes to their objectives are not seen by the tree.
+     */
+    public KdTree(List<SEESolution> population) {
+        this.population = population;
+        this.dimensions = population.isEmpty() ? 0 : population.get(0).getNumberOfObjectives();
+
+        points = new double[population.size() * dimensions];
+        positions = new IdentityHashMap<>();
+
+        for (int i = 0; i < population.size(); i++) {
+            SEESolution solution = population.get(i);
+            positions.putIfAbsent(solution, i);
+
+            // region Argument checks
+            if (solution.getNumberOfObjectives() != dimensions)
+                throw new IllegalArgumentException("Every solution must have the same number of objectives");
+            // endregion
+
+            for (int j = 0; j < dimensions; j++)
+                points[i * dimensions + j] = solution.getObjective(j);
+        }
+
+        tree = new int[population.size()];
+        splitDimensions = new int[population.size()];
+
+        for (int i = 0; i < tree.length; i++)
+            tree[i] = i;
+
+        build(0, tree.length);
+    }
+
+    private void build(int low, int high) {
+        if (high - low <= 1)
+            return;
+
+        int dimension = widestDimension(low, high);
+        int middle = (low + high) >>> 1;
+
+        select(low, high - 1, middle, dimension);
+        splitDimensions[middle] = dimension;
+
+        build(low, middle);
+        build(middle + 1, high);
+    }
+
+    private int widestDimension(int low, int high) {
+        int widest = 0;
+        double widestSpread = -1;
+
+        for (int d = 0; d < dimensions; d++) {
+            double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+
+            for (int i = low; i < high; i++) {
+                double value = points[tree[i] * dimensions + d];
+
+                if (value < min) min = value;
+                if (value > max) max = value;
+            }
+
+            if (max - min > widestSpread) {
+                widestSpread = max - min;
+                widest = d;
+            }
+        }
+
+        return widest;
+    }
+
+    /**
+     * Rearranges a range of the tree so the solution at the target position has the value it would have if the range
+     * was sorted by the dimension, with no greater values before it and no lesser values after it.
+     */
+    private void select(int low, int high, int target, int dimension) {
+        while (low < high) {
+            double pivot = points[tree[(low + high) >>> 1] * dimensions + dimension];
+            int left = low, right = high;
+
+            while (left <= right) {
+                while (points[tree[left] * dimensions + dimension] < pivot) left++;
+                while (points[tree[right] * dimensions + dimension] > pivot) right--;
+
+                if (left <= right) {
+                    int swap = tree[left];
+                    tree[left] = tree[right];
+                    tree[right] = swap;
+
+                    left++;
+                    right--;
+                }
+            }
+
+            if (target <= right)
+                high = right;
+            else if (target >= left)
+                low = left;
+            else
+                return;
+        }
+    }
+
+    /**
+     * Finds the nearest solutions to a point, nearest first.
+     *
+     * @param point            The point to find the nearest solutions to.
+     * @param k                The number of solutions to find.
+     * @param excluded         The index of a solution to leave out of the results, or -1 to leave none out.
+     * @param indexes          The array to write the population index of each solution found into. At least k long.
+     * @param squaredDistances The array to write the squared distance to each solution found into. At least k long.
+     * @return The number of solutions found, k unless the population has fewer solutions.
+     */
+    public int findNearest(double[] point, int k, int excluded, int[] indexes, double[] squaredDistances) {
+        // region Argument checks
+        if (point.length != dimensions)
+            throw new IllegalArgumentException("The point must have the same number of dimensions as the solutions");
+
+        if (indexes.length < k || squaredDistances.length < k)
+            throw new IllegalArgumentException("There must be space for " + k + " solutions");
+        // endregion
+
+        Heap heap = new Heap(k, indexes, squaredDistances);
+        search(0, tree.length, point, excluded, heap);
+
+        return heap.sortAscending();
+    }
+
+    private void search(int low, int high, double[] point, int excluded, Heap heap) {
+        if (low >= high)
+            return;
+
+        int middle = (low + high) >>> 1;
+        int index = tree[middle];
+
+        if (index != excluded)
+            heap.offer(index, squaredDistance(point, index));
+
+        if (high - low == 1)
+            return;
+
+        int dimension = splitDimensions[middle];
+        double difference = point[dimension] - points[index * dimensions + dimension];
+
+        if (difference < 0) {
+            search(low, middle, point, excluded, heap);
+
+            // Equal distances are searched too, a solution earlier in the population wins a tie
+            if (!heap.isFull() || difference * difference <= heap.worstDistance())
+                search(middle + 1, high, point, excluded, heap);
+        } else {
+            search(middle + 1, high, point, excluded, heap);
+
+            if (!heap.isFull() || difference * difference <= heap.worstDistance())
+                search(low, middle, point, excluded, heap);
+        }
+    }
+
+    private double squaredDistance(double[] point, int index) {
+        int start = index * dimensions;
+        double distance = 0;
+
+        for (int i = 0; i < dimensions; i++) {
+            double diff = point[i] - points[start + i];
+            distance += diff * diff;
+        }
+
+        return distance;
+    }
+
+    /**
+     * @return The position of the solution in the population the tree was built over, or -1 if it is not in the
+     * population.
+     */
+    public int indexOf(SEESolution solution) {
+        Integer position = positions.get(solution);
+        return position == null ? -1 : position;
+    }
+
+    public SEESolution getSolution(int index) {
+        return population.get(index);
+    }
+
+    public int size() {
+        return population.size();
+    }
+
+    /**
+     * A max heap of a fixed number of solutions, ordered by distance and then by index so the solution furthest away,
+     * or latest in the population, is on top.
+     */
+    private static class Heap {
+
+        private final int capacity;
+        private final int[] indexes;
+        private final double[] distances;
+        private int size;
+
+        Heap(int capacity, int[] indexes, double[] distances) {
+            this.capacity = capacity;
+            this.indexes = indexes;
+            this.distances = distances;
+        }
+
+        boolean isFull() {
+            return size == capacity;
+        }
+
+        double worstDistance() {
+            return distances[0];
+        }
+
+        void offer(int index, double distance) {
+            if (size < capacity) {
+                indexes[size] = index;
+                distances[size] = distance;
+                siftUp(size++);
+            } else if (capacity > 0 && isWorse(indexes[0], distances[0], index, distance)) {
+                indexes[0] = index;
+                distances[0] = distance;
+                siftDown(0, size);
+            }
+        }
+
+        /**
+         * Sorts the contents of the heap nearest first.
+         *
+         * @return The number of solutions in the heap.
+         */
+        int sortAscending() {
+            for (int end = size - 1; end > 0; end--) {
+                swap(0, end);
+                siftDown(0, end);
+            }
+
+            return size;
+        }
+
+        private void siftUp(int position) {
+            while (position > 0) {
+                int parent = (position - 1) / 2;
+
+                if (!isWorse(indexes[position], distances[position], indexes[parent], distances[parent]))
+                    return;
+
+                swap(position, parent);
+                position = parent;
+            }
+        }
+
+        private void siftDown(int position, int end) {
+            while (true) {
+                int child = 2 * position + 1;
+
+                if (child >= end)
+                    return;
+
+                if (child + 1 < end && isWorse(indexes[child + 1], distances[child + 1], indexes[child], distances[child]))
+                    child++;
+
+                if (!isWorse(indexes[child], distances[child], indexes[position], distances[position]))
+                    return;
+
+                swap(position, child);
+                position = child;
+            }
+        }
+
+        private static boolean isWorse(int index, double distance, int otherIndex, double otherDistance) {
+            return distance > otherDistance || (distance == otherDistance && index > otherIndex);
+        }
+
+        private void swap(int i, int j) {
+            int index = indexes[i];
+            indexes[i] = indexes[j];
+            indexes[j] = index;
+
+            double distance = distances[i];
+            distances[i] = distances[j];
+            distances[j] = distance;
+        }
+    }
+}
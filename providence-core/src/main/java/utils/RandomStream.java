@@ -0,0 +1,232 @@
+package utils;
+
+/**
+ * A seeded stream of pseudo random numbers which can be split into independent streams, so every thread or task can
+ * own a stream rather than contend for a shared generator. Uses the SplitMix64 algorithm of
+ * {@link java.util.SplittableRandom}, with normally distributed values drawn using the Ziggurat method of Marsaglia and
+ * Tsang.
+ * <p>
+ * A stream is fully described by its seed and gamma, so it can be saved and later restored with
+ * {@link #RandomStream(long, long)}. Two streams created from the same seed produce the same values, as do the streams
+ * split from them in the same order.
+ * <p>
+ * A stream must not be shared between threads, {@link #forThread()} provides a stream owned by the calling thread.
+ */
+public class RandomStream {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+    // Split to provide the stream of each thread
+    private static final RandomStream DEFAULT_ROOT = new RandomStream(mix64(System.nanoTime()) ^ mix64(System.currentTimeMillis()));
+    private static final ThreadLocal<RandomStream> THREAD_STREAM = ThreadLocal.withInitial(RandomStream::splitDefaultRoot);
+
+    // region Ziggurat tables
+    private static final int ZIGGURAT_LAYERS = 128;
+    private static final double ZIGGURAT_R = 3.442619855899;
+    private static final double ZIGGURAT_AREA = 9.91256303526217e-3;
+
+    private static final long[] KN = new long[ZIGGURAT_LAYERS];
+    private static final double[] WN = new double[ZIGGURAT_LAYERS], FN = new double[ZIGGURAT_LAYERS];
+
+    static {
+        double m1 = 2147483648.0;
+        double dn = ZIGGURAT_R, tn = dn;
+        double q = ZIGGURAT_AREA / Math.exp(-.5 * dn * dn);
+
+        KN[0] = (long) ((dn / q) * m1);
+        KN[1] = 0;
+
+        WN[0] = q / m1;
+        WN[ZIGGURAT_LAYERS - 1] = dn / m1;
+
+        FN[0] = 1;
+        FN[ZIGGURAT_LAYERS - 1] = Math.exp(-.5 * dn * dn);
+
+        for (int i = ZIGGURAT_LAYERS - 2; i >= 1; i--) {
+            dn = Math.sqrt(-2 * Math.log(ZIGGURAT_AREA / dn + Math.exp(-.5 * dn * dn)));
+            KN[i + 1] = (long) ((dn / tn) * m1);
+            tn = dn;
+            FN[i] = Math.exp(-.5 * dn * dn);
+            WN[i] = dn / m1;
+        }
+    }
+    // endregion
+
+    private long seed;
+    private final long gamma;
+
+    /**
+     * @param seed The seed of the stream.
+     */
+    public RandomStream(long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    /**
+     * Restores a stream from its state, see {@link #getSeed()} and {@link #getGamma()}.
+     *
+     * @param seed  The seed of the stream.
+     * @param gamma The amount the seed is advanced by on each step. Must be odd.
+     */
+    public RandomStream(long seed, long gamma) {
+        // region Argument checks
+        if ((gamma & 1) == 0)
+            throw new IllegalArgumentException("The gamma of a stream must be odd");
+        // endregion
+
+        this.seed = seed;
+        this.gamma = gamma;
+    }
+
+    /**
+     * @return The stream owned by the calling thread. Each thread's stream is split from a stream seeded when the
+     * class is loaded.
+     */
+    public static RandomStream forThread() {
+        return THREAD_STREAM.get();
+    }
+
+    private static RandomStream splitDefaultRoot() {
+        synchronized (DEFAULT_ROOT) {
+            return DEFAULT_ROOT.split();
+        }
+    }
+
+    /**
+     * Creates a new stream whose values are independent of the values of this stream. Advances this stream.
+     *
+     * @return The new stream.
+     */
+    public RandomStream split() {
+        return new RandomStream(mix64(nextSeed()), mixGamma(nextSeed()));
+    }
+
+    public long nextLong() {
+        return mix64(nextSeed());
+    }
+
+    /**
+     * @return A number in the range 0 inclusive to 1 exclusive.
+     */
+    public double nextDouble() {
+        return (nextLong() >>> 11) * DOUBLE_UNIT;
+    }
+
+    /**
+     * @param lowerBound The lowest number that could be returned.
+     * @param upperBound The number returned numbers approach but never reach.
+     * @return A number in the range of the lower bound inclusive to the upper bound exclusive.
+     */
+    public double nextDouble(double lowerBound, double upperBound) {
+        return lowerBound + (upperBound - lowerBound) * nextDouble();
+    }
+
+    /**
+     * Generates a whole number in the provided range inclusive of the upper and lower bound, matching
+     * {@link BoundedRandom#nextInt(int, int)}.
+     *
+     * @param lowerBound The lowest number that could be returned.
+     * @param upperBound The highest number that could be returned.
+     * @return A number in the range of the lower and upper bound inclusive.
+     */
+    public int nextInt(int lowerBound, int upperBound) {
+        // region Argument checks
+        if (upperBound < lowerBound)
+            throw new IllegalArgumentException("The upper bound must not be lower than the lower bound");
+        // endregion
+
+        long range = (long) upperBound - lowerBound + 1;
+
+        // Rejects the top of the range of longs which would favour the lower numbers
+        long limit = Long.MAX_VALUE - Long.MAX_VALUE % range;
+        long value;
+
+        do {
+            value = nextLong() >>> 1;
+        } while (value >= limit);
+
+        return (int) (lowerBound + value % range);
+    }
+
+    /**
+     * @return A number drawn from the standard normal distribution.
+     */
+    public double nextGaussian() {
+        int hz = (int) (nextLong() >>> 32);
+        int iz = hz & (ZIGGURAT_LAYERS - 1);
+
+        // Most values fall inside the rectangle of their layer
+        if (Math.abs((long) hz) < KN[iz])
+            return hz * WN[iz];
+
+        return nextGaussianOutsideLayer(hz, iz);
+    }
+
+    /**
+     * @param mean              The mean of the distribution.
+     * @param standardDeviation The standard deviation of the distribution.
+     * @return A number drawn from the normal distribution with the provided mean and standard deviation.
+     */
+    public double nextGaussian(double mean, double standardDeviation) {
+        return mean + nextGaussian() * standardDeviation;
+    }
+
+    private double nextGaussianOutsideLayer(int hz, int iz) {
+        while (true) {
+            double x = hz * WN[iz];
+
+            // The base layer, sample from the tail
+            if (iz == 0) {
+                double y;
+
+                do {
+                    x = -Math.log(1 - nextDouble()) / ZIGGURAT_R;
+                    y = -Math.log(1 - nextDouble());
+                } while (y + y < x * x);
+
+                return hz > 0 ? ZIGGURAT_R + x : -ZIGGURAT_R - x;
+            }
+
+            // The wedge between the rectangle and the curve
+            if (FN[iz] + nextDouble() * (FN[iz - 1] - FN[iz]) < Math.exp(-.5 * x * x))
+                return x;
+
+            hz = (int) (nextLong() >>> 32);
+            iz = hz & (ZIGGURAT_LAYERS - 1);
+
+            if (Math.abs((long) hz) < KN[iz])
+                return hz * WN[iz];
+        }
+    }
+
+    // region Getters
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getGamma() {
+        return gamma;
+    }
+    // endregion
+
+    private long nextSeed() {
+        return seed += gamma;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+
+        // Gammas with too few bit transitions produce poorly mixed seeds
+        int transitions = Long.bitCount(z ^ (z >>> 1));
+        return (transitions < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+}
@@ -0,0 +1,72 @@
+package benchmarks;
+
+import neural_network.FeedForwardPerceptron;
+import neural_network.InferenceBackend;
+import neural_network.InputMatrix;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the inference backends against executing the network one row at a time, for networks the shape
+ * {@link evolve_nn.SEEProblem} creates: one hidden layer of nine nodes and a single output.
+ * <p>
+ * Run with the JMH runner, for example {@code java -cp <test classpath> org.openjdk.jmh.Main InferenceBackendBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InferenceBackendBenchmark {
+
+    @Param({"8", "16"})
+    public int numberOfInputs;
+
+    @Param({"100", "1000"})
+    public int numberOfRows;
+
+    @Param({"SCALAR", "VECTORISED"})
+    public InferenceBackend backend;
+
+    private FeedForwardPerceptron network;
+
+    private double[][] rows;
+    private InputMatrix inputs;
+    private double[] outputs;
+
+    @Setup
+    public void setUp() {
+        network = new FeedForwardPerceptron(numberOfInputs, 9, 1, 1, 1.0);
+        network.setInferenceBackend(backend);
+
+        Random random = new Random(1);
+        rows = new double[numberOfRows][numberOfInputs];
+
+        for (double[] row : rows)
+            for (int i = 0; i < row.length; i++)
+                row[i] = random.nextDouble();
+
+        inputs = InputMatrix.fromRows(rows, InputMatrix.Layout.COLUMN_MAJOR);
+        outputs = new double[numberOfRows];
+    }
+
+    @Benchmark
+    public double[] executeBatch() {
+        network.executeBatch(inputs, outputs);
+        return outputs;
+    }
+
+    @Benchmark
+    public void executeRowByRow(Blackhole blackhole) {
+        double[] rowOutputs = new double[1];
+
+        for (double[] row : rows) {
+            network.executeNetwork(row, rowOutputs);
+            blackhole.consume(rowOutputs[0]);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package benchmarks;
+
+import neural_network.FeedForwardPerceptron;
+import neural_network.NetworkCompiler;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares executing a single row with an evaluator generated by {@link NetworkCompiler} against the general purpose
+ * implementation, for networks the shape {@link evolve_nn.SEEProblem} creates.
+ * <p>
+ * Run with the JMH runner, for example {@code java -cp <test classpath> org.openjdk.jmh.Main NetworkCompilerBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NetworkCompilerBenchmark {
+
+    @Param({"8", "16"})
+    public int numberOfInputs;
+
+    private FeedForwardPerceptron interpreted, compiled;
+
+    private double[] inputs;
+    private double[] outputs = new double[1];
+
+    @Setup
+    public void setUp() {
+        interpreted = new FeedForwardPerceptron(numberOfInputs, 9, 1, 1, 1.0);
+
+        compiled = (FeedForwardPerceptron) interpreted.copy();
+        compiled.setCompiledEvaluator(NetworkCompiler.compile(compiled));
+
+        Random random = new Random(1);
+        inputs = new double[numberOfInputs];
+
+        for (int i = 0; i < inputs.length; i++)
+            inputs[i] = random.nextDouble();
+    }
+
+    @Benchmark
+    public double[] interpreted() {
+        interpreted.executeNetwork(inputs, outputs);
+        return outputs;
+    }
+
+    @Benchmark
+    public double[] compiled() {
+        compiled.executeNetwork(inputs, outputs);
+        return outputs;
+    }
+}
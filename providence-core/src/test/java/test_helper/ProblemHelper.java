@@ -0,0 +1,49 @@
+package test_helper;
+
+import dataset.InputOutput;
+import error_metrics.ErrorMetric;
+import evolve_nn.SEEProblem;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ProblemHelper {
+
+    /**
+     * Makes a training set of rows whose inputs and output are random values between 0 and 1.
+     *
+     * @param seed   The seed of the random values, so the same training set can be made again.
+     * @param rows   The number of rows.
+     * @param inputs The number of inputs of each row.
+     */
+    public static InputOutput[] makeTrainingData(long seed, int rows, int inputs) {
+        Random random = new Random(seed);
+
+        InputOutput[] trainingData = new InputOutput[rows];
+
+        for (int i = 0; i < trainingData.length; i++) {
+            double[] inputValues = new double[inputs];
+
+            for (int j = 0; j < inputValues.length; j++)
+                inputValues[j] = random.nextDouble();
+
+            InputOutput inputOutput = mock(InputOutput.class);
+            when(inputOutput.getInputValues()).thenReturn(inputValues);
+            when(inputOutput.getOutputs()).thenReturn(new Double[]{random.nextDouble()});
+
+            trainingData[i] = inputOutput;
+        }
+
+        return trainingData;
+    }
+
+    /**
+     * Makes a problem over a training set made by {@link #makeTrainingData(long, int, int)}.
+     */
+    public static SEEProblem makeProblem(long seed, int rows, int inputs, ErrorMetric... errorMetrics) {
+        return new SEEProblem(makeTrainingData(seed, rows, inputs), Arrays.asList(errorMetrics));
+    }
+}
@@ -0,0 +1,221 @@
+package unit.evolve_nn;
+
+import error_metrics.MeanMagnitudeRelativeError;
+import error_metrics.PRED25Error;
+import evolve_nn.AlgorithmRunner;
+import evolve_nn.EvaluationBudgetRule;
+import evolve_nn.GaussianMutation;
+import evolve_nn.IStoppingRule;
+import evolve_nn.MLPCrossOver;
+import evolve_nn.PopulationInformation;
+import evolve_nn.RHaDMOEA;
+import evolve_nn.RacingPopulationEvaluator;
+import evolve_nn.SEEProblem;
+import evolve_nn.SEESolution;
+import evolve_nn.SurrogateScreen;
+import evolve_nn.TimeBudgetRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import test_helper.ProblemHelper;
+import utils.RandomStream;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static test_helper.ThrowableCaptor.captureThrowable;
+
+public class AlgorithmRunnerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testResumeContinuesRun() throws IOException {
+        // Arrange
+        File checkpoint = new File(folder.getRoot(), "run.checkpoint");
+
+        RHaDMOEA uninterrupted = createAlgorithm();
+        uninterrupted.setSeed(21);
+        uninterrupted.setAspirationPoint(new Double[]{0.4, 0.6});
+
+        RHaDMOEA interrupted = createAlgorithm();
+        interrupted.setSeed(21);
+        interrupted.setAspirationPoint(new Double[]{0.4, 0.6});
+
+        // Seeded differently and without an aspiration point, everything must come from the checkpoint
+        RHaDMOEA resumed = createAlgorithm();
+        resumed.setSeed(5);
+
+        // Act
+        List<SEESolution> expected = new AlgorithmRunner<>(uninterrupted).runFor(7).getPopulation();
+
+        AlgorithmRunner<SEESolution> interruptedRunner = new AlgorithmRunner<>(interrupted);
+        interruptedRunner.enableCheckpoints(checkpoint, 4, 0);
+        interruptedRunner.runFor(6);
+        interruptedRunner.disableCheckpoints();
+
+        AlgorithmRunner<SEESolution> resumedRunner = new AlgorithmRunner<>(resumed);
+        resumedRunner.resume(checkpoint);
+        List<SEESolution> actual = resumedRunner.runFor(3).getPopulation();
+
+        // Assert
+        assertSamePopulation(expected, actual);
+    }
+
+    @Test
+    public void testResumeContinuesRacingRun() throws IOException {
+        // Arrange
+        File checkpoint = new File(folder.getRoot(), "racing.checkpoint");
+
+        RHaDMOEA uninterrupted = createRacingAlgorithm(3);
+        uninterrupted.setSeed(21);
+
+        RHaDMOEA interrupted = createRacingAlgorithm(3);
+        interrupted.setSeed(21);
+
+        // Shuffles the training set differently, the order and window must come from the checkpoint
+        RHaDMOEA resumed = createRacingAlgorithm(8);
+
+        // Act
+        List<SEESolution> expected = new AlgorithmRunner<>(uninterrupted).runFor(7).getPopulation();
+
+        AlgorithmRunner<SEESolution> interruptedRunner = new AlgorithmRunner<>(interrupted);
+        interruptedRunner.enableCheckpoints(checkpoint, 4, 0);
+        interruptedRunner.runFor(6);
+        interruptedRunner.disableCheckpoints();
+
+        AlgorithmRunner<SEESolution> resumedRunner = new AlgorithmRunner<>(resumed);
+        resumedRunner.resume(checkpoint);
+        List<SEESolution> actual = resumedRunner.runFor(3).getPopulation();
+
+        // Assert
+        assertSamePopulation(expected, actual);
+    }
+
+    @Test
+    public void testResumeContinuesScreenedRun() throws IOException {
+        // Arrange
+        File checkpoint = new File(folder.getRoot(), "screened.checkpoint");
+
+        RHaDMOEA uninterrupted = createAlgorithm();
+        uninterrupted.setSeed(21);
+        uninterrupted.setSurrogateScreen(new SurrogateScreen(3, 0.5, 40));
+
+        RHaDMOEA interrupted = createAlgorithm();
+        interrupted.setSeed(21);
+        interrupted.setSurrogateScreen(new SurrogateScreen(3, 0.5, 40));
+
+        // The archive of the screen must come from the checkpoint
+        RHaDMOEA resumed = createAlgorithm();
+        resumed.setSurrogateScreen(new SurrogateScreen(3, 0.5, 40));
+
+        // Act
+        List<SEESolution> expected = new AlgorithmRunner<>(uninterrupted).runFor(7).getPopulation();
+
+        AlgorithmRunner<SEESolution> interruptedRunner = new AlgorithmRunner<>(interrupted);
+        interruptedRunner.enableCheckpoints(checkpoint, 4, 0);
+        interruptedRunner.runFor(6);
+        interruptedRunner.disableCheckpoints();
+
+        AlgorithmRunner<SEESolution> resumedRunner = new AlgorithmRunner<>(resumed);
+        resumedRunner.resume(checkpoint);
+        List<SEESolution> actual = resumedRunner.runFor(3).getPopulation();
+
+        // Assert
+        assertSamePopulation(expected, actual);
+    }
+
+    @Test
+    public void testStoppingRules() {
+        // Arrange
+        AlgorithmRunner<SEESolution> evaluationLimited = new AlgorithmRunner<>(createAlgorithm());
+        IStoppingRule evaluationBudget = new EvaluationBudgetRule(12 + 3 * 12);
+        evaluationLimited.addStoppingRule(evaluationBudget);
+
+        AlgorithmRunner<SEESolution> timeLimited = new AlgorithmRunner<>(createAlgorithm());
+        timeLimited.addStoppingRule(new TimeBudgetRule(0));
+
+        AlgorithmRunner<SEESolution> unlimited = new AlgorithmRunner<>(createAlgorithm());
+
+        // Act
+        PopulationInformation<SEESolution> evaluationLimitedRun = evaluationLimited.runFor(AlgorithmRunner.RUN_FOREVER);
+        PopulationInformation<SEESolution> timeLimitedRun = timeLimited.runFor(10);
+        PopulationInformation<SEESolution> unlimitedRun = unlimited.runFor(2);
+
+        // Assert
+        assertEquals(3, evaluationLimitedRun.getGeneration());
+        assertSame(evaluationBudget, evaluationLimited.getMetStoppingRule());
+
+        assertEquals(1, timeLimitedRun.getGeneration());
+
+        assertEquals(2, unlimitedRun.getGeneration());
+        assertNull(unlimited.getMetStoppingRule());
+    }
+
+    @Test
+    public void testEvaluationBudgetCountsParentsEvaluatedAgain() {
+        // Arrange
+        RHaDMOEA algorithm = createRacingAlgorithm(2);
+
+        // The initial population and first offspring, then each generation the offspring and the outdated parents
+        AlgorithmRunner<SEESolution> runner = new AlgorithmRunner<>(algorithm);
+        runner.addStoppingRule(new EvaluationBudgetRule(12 + 12 + 2 * 12));
+
+        // Act
+        PopulationInformation<SEESolution> run = runner.runFor(AlgorithmRunner.RUN_FOREVER);
+
+        // Assert
+        assertEquals(2, run.getGeneration());
+        assertEquals(12 + 12 + 2 * 12, algorithm.getEvaluations());
+    }
+
+    @Test
+    public void testResumeRejectsOtherFiles() throws IOException {
+        // Arrange
+        File notCheckpoint = folder.newFile("other");
+        AlgorithmRunner<SEESolution> runner = new AlgorithmRunner<>(createAlgorithm());
+
+        // Act
+        Throwable empty = captureThrowable(() -> runner.resume(notCheckpoint));
+        Throwable noInterval = captureThrowable(() -> runner.enableCheckpoints(notCheckpoint, 0, 0));
+
+        // Assert
+        assertTrue(empty instanceof IOException);
+        assertTrue(noInterval instanceof IllegalArgumentException);
+    }
+
+    private static void assertSamePopulation(List<SEESolution> expected, List<SEESolution> actual) {
+        assertEquals(expected.size(), actual.size());
+
+        for (int i = 0; i < expected.size(); i++) {
+            for (int j = 0; j < expected.get(i).getNumberOfVariables(); j++)
+                assertEquals(expected.get(i).getVariableValue(j), actual.get(i).getVariableValue(j), 0);
+
+            for (int j = 0; j < 2; j++)
+                assertEquals(expected.get(i).getObjective(j), actual.get(i).getObjective(j), 0);
+        }
+    }
+
+    private static RHaDMOEA createAlgorithm() {
+        return new RHaDMOEA(createProblem(), 12, new MLPCrossOver(0.3, 10), new GaussianMutation(0.3));
+    }
+
+    private static RHaDMOEA createRacingAlgorithm(long shuffleSeed) {
+        SEEProblem problem = createProblem();
+
+        RHaDMOEA algorithm = new RHaDMOEA(problem, 12, new MLPCrossOver(0.3, 10), new GaussianMutation(0.3));
+        algorithm.setPopulationEvaluator(new RacingPopulationEvaluator(problem, 4, 8, 0.1, new RandomStream(shuffleSeed)));
+
+        return algorithm;
+    }
+
+    private static SEEProblem createProblem() {
+        return ProblemHelper.makeProblem(6, 30, 2, new MeanMagnitudeRelativeError(), new PRED25Error());
+    }
+}
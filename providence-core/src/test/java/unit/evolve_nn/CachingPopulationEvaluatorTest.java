@@ -0,0 +1,84 @@
+package unit.evolve_nn;
+
+import evolve_nn.CachingPopulationEvaluator;
+import evolve_nn.IPopulationEvaluator;
+import evolve_nn.SEESolution;
+import neural_network.FeedForwardPerceptron;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static test_helper.ThrowableCaptor.captureThrowable;
+
+public class CachingPopulationEvaluatorTest {
+
+    @Test
+    public void testEvaluateReusesObjectivesOfEqualGenomes() {
+        // Arrange
+        List<SEESolution> evaluated = new ArrayList<>();
+
+        // Gives each solution its first weight as an objective
+        IPopulationEvaluator counting = population -> {
+            for (SEESolution solution : population) {
+                solution.setObjective(0, solution.getVariableValue(0));
+                evaluated.add(solution);
+            }
+        };
+
+        CachingPopulationEvaluator evaluator = new CachingPopulationEvaluator(counting, 10);
+
+        SEESolution original = createSolution();
+        SEESolution equal = createSolution();
+        SEESolution different = createSolution();
+
+        for (int i = 0; i < original.getNumberOfVariables(); i++)
+            equal.setVariableValue(i, original.getVariableValue(i));
+
+        // Act
+        evaluator.evaluate(Arrays.asList(original, different));
+        evaluator.evaluate(Arrays.asList(equal));
+
+        // Assert
+        assertEquals(Arrays.asList(original, different), evaluated);
+        assertEquals(original.getObjective(0), equal.getObjective(0), 0);
+        assertEquals(1, evaluator.getHits());
+        assertEquals(2, evaluator.getMisses());
+    }
+
+    @Test
+    public void testEvaluateForgetsLeastRecentlyUsed() {
+        // Arrange
+        CachingPopulationEvaluator evaluator = new CachingPopulationEvaluator(population ->
+                population.forEach(solution -> solution.setObjective(0, 1)), 2);
+
+        SEESolution first = createSolution(), second = createSolution(), third = createSolution();
+
+        // Act
+        evaluator.evaluate(Arrays.asList(first, second));
+        evaluator.evaluate(Arrays.asList(first));
+        evaluator.evaluate(Arrays.asList(third));
+        evaluator.evaluate(Arrays.asList(first, second));
+
+        // Assert
+        assertEquals(2, evaluator.getHits());
+        assertEquals(4, evaluator.getMisses());
+    }
+
+    @Test
+    public void testConstructor() {
+        // Act
+        Throwable noCapacity = captureThrowable(() -> new CachingPopulationEvaluator(population -> {
+        }, 0));
+
+        // Assert
+        assertTrue(noCapacity instanceof IllegalArgumentException);
+    }
+
+    private static SEESolution createSolution() {
+        return new SEESolution(1, new FeedForwardPerceptron(2, 3, 1, 1, 1.0));
+    }
+}
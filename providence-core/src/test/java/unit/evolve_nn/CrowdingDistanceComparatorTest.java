@@ -1,6 +1,9 @@
 package unit.evolve_nn;
 
 import evolve_nn.CrowdingDistanceComparator;
+import evolve_nn.HarmonicCrowdingDistance;
+import evolve_nn.SEESolution;
+import neural_network.FeedForwardPerceptron;
 import org.junit.Test;
 import org.uma.jmetal.solution.Solution;
 import org.uma.jmetal.util.solutionattribute.DensityEstimator;
@@ -36,4 +39,28 @@ public class CrowdingDistanceComparatorTest {
         assertEquals(xEqY, 0);
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testCompareHarmonicCrowdingDistance() {
+        // Arrange
+        SEESolution solutionOne = new SEESolution(2, new FeedForwardPerceptron(2, 2, 1, 1, 1.0));
+        SEESolution solutionTwo = new SEESolution(2, new FeedForwardPerceptron(2, 2, 1, 1, 1.0));
+        SEESolution solutionThr = new SEESolution(2, new FeedForwardPerceptron(2, 2, 1, 1, 1.0));
+
+        solutionOne.setCrowdingDistance(1.0);
+        solutionTwo.setCrowdingDistance(2.0);
+        solutionThr.setCrowdingDistance(2.0);
+
+        CrowdingDistanceComparator<SEESolution> cdc = new CrowdingDistanceComparator<>(new HarmonicCrowdingDistance(2));
+
+        // Act
+        int xLessY = cdc.compare(solutionOne, solutionTwo);
+        int xMoreY = cdc.compare(solutionTwo, solutionOne);
+        int xEqY = cdc.compare(solutionTwo, solutionThr);
+
+        // Assert
+        assertEquals(xLessY, 1);
+        assertEquals(xMoreY, -1);
+        assertEquals(xEqY, 0);
+    }
+}
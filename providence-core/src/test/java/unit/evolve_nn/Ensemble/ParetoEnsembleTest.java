@@ -1,5 +1,6 @@
 package unit.evolve_nn.Ensemble;
 
+import ensemble.EnsemblePredictor;
 import ensemble.ParetoEnsemble;
 import evolve_nn.SEESolution;
 import neural_network.FeedForwardPerceptron;
@@ -75,5 +76,27 @@ public class ParetoEnsembleTest {
         assertEquals(1, result, 0);
     }
 
+    @Test
+    public void testCreatePredictor() throws Exception {
+        // Arrange
+        List<SEESolution> candidates = new ArrayList<>();
 
-}
\ No newline at end of file
+        for (int i = 0; i < 3; i++) {
+            SEESolution solution = new SEESolution(2, new FeedForwardPerceptron(3, 9, 1, 1, 1.0));
+            solution.setObjective(0, i);
+            solution.setObjective(1, 2 - i);
+
+            candidates.add(solution);
+        }
+
+        ParetoEnsemble paretoEnsemble = new ParetoEnsemble(candidates);
+        Double[] inputs = {0.2, 0.4, 0.6};
+
+        // Act
+        EnsemblePredictor predictor = paretoEnsemble.createPredictor();
+
+        // Assert
+        assertEquals(paretoEnsemble.getResult(inputs), predictor.getResult(inputs), 0);
+        assertEquals(paretoEnsemble.getResult(inputs), predictor.getResult(new double[]{0.2, 0.4, 0.6}), 0);
+    }
+}
@@ -0,0 +1,83 @@
+package unit.evolve_nn;
+
+import evolve_nn.FastDominanceRanking;
+import evolve_nn.SEESolution;
+import org.junit.Test;
+import org.uma.jmetal.util.solutionattribute.Ranking;
+import org.uma.jmetal.util.solutionattribute.impl.DominanceRanking;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static test_helper.ThrowableCaptor.captureThrowable;
+
+public class FastDominanceRankingTest {
+
+    @Test
+    public void testComputeRankingMatchesDominanceRanking() {
+        // Arrange
+        Random random = new Random(1);
+
+        for (int numberOfObjectives = 1; numberOfObjectives <= 4; numberOfObjectives++) {
+            List<SEESolution> population = new ArrayList<>();
+
+            for (int i = 0; i < 300; i++) {
+                SEESolution solution = new SEESolution(numberOfObjectives, null);
+
+                // Few distinct values so there are ties and duplicate points
+                for (int j = 0; j < numberOfObjectives; j++)
+                    solution.setObjective(j, (double) random.nextInt(8));
+
+                population.add(solution);
+            }
+
+            // Act
+            Ranking<SEESolution> expected = new DominanceRanking<SEESolution>().computeRanking(population);
+            Ranking<SEESolution> actual = new FastDominanceRanking<SEESolution>().computeRanking(population);
+
+            // Assert
+            assertEquals(expected.getNumberOfSubfronts(), actual.getNumberOfSubfronts());
+
+            for (int i = 0; i < expected.getNumberOfSubfronts(); i++)
+                assertEquals(new HashSet<>(expected.getSubfront(i)), new HashSet<>(actual.getSubfront(i)));
+
+            // The first front keeps the order of the population, as jMetal's does
+            assertEquals(expected.getSubfront(0), actual.getSubfront(0));
+        }
+    }
+
+    @Test
+    public void testComputeRanks() {
+        // Arrange
+        double[] objectives = {
+                1, 4,
+                2, 2,
+                4, 1,
+                2, 3,
+                3, 3,
+                0.0, 5,
+                -0.0, 6,
+                2, 2
+        };
+
+        // Act
+        int[] ranks = FastDominanceRanking.computeRanks(objectives, 2);
+        Throwable mismatched = captureThrowable(() -> FastDominanceRanking.computeRanks(new double[3], 2));
+
+        // Assert
+        assertEquals(0, ranks[0]);
+        assertEquals(0, ranks[1]);
+        assertEquals(0, ranks[2]);
+        assertEquals(1, ranks[3]);
+        assertEquals(2, ranks[4]);
+        assertEquals(0, ranks[5]);
+        assertEquals(1, ranks[6]);
+        assertEquals(0, ranks[7]);
+
+        assertTrue(mismatched instanceof IllegalArgumentException);
+    }
+}
@@ -0,0 +1,54 @@
+package unit.evolve_nn;
+
+import error_metrics.MeanMagnitudeRelativeError;
+import error_metrics.PRED25Error;
+import evolve_nn.FusedPopulationEvaluator;
+import evolve_nn.SEEProblem;
+import evolve_nn.SEESolution;
+import evolve_nn.SequentialPopulationEvaluator;
+import neural_network.INeuralNetwork;
+import org.junit.Test;
+import test_helper.ProblemHelper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+public class FusedPopulationEvaluatorTest {
+
+    @Test
+    public void testEvaluate() {
+        // Arrange
+        SEEProblem problem = ProblemHelper.makeProblem(3, 70, 3, new MeanMagnitudeRelativeError(), new PRED25Error());
+
+        List<SEESolution> fused = new ArrayList<>();
+        List<SEESolution> sequential = new ArrayList<>();
+
+        for (int i = 0; i < 10; i++) {
+            SEESolution solution = problem.createSolution();
+            fused.add(solution);
+            sequential.add((SEESolution) solution.copy());
+        }
+
+        // Networks that cannot be packed are evaluated on their own
+        INeuralNetwork unpackable = mock(INeuralNetwork.class);
+        SEESolution unpackableSolution = spy(new SEESolution(2, null));
+        when(unpackableSolution.getNeuralNetwork()).thenReturn(unpackable);
+        fused.add(unpackableSolution);
+
+        // Act
+        new FusedPopulationEvaluator(problem).evaluate(fused);
+        new SequentialPopulationEvaluator(problem).evaluate(sequential);
+
+        // Assert
+        verify(unpackable, times(1)).executeBatch(any(), any());
+
+        for (int i = 0; i < sequential.size(); i++) {
+            for (int j = 0; j < problem.getNumberOfObjectives(); j++)
+                assertEquals(sequential.get(i).getObjective(j), fused.get(i).getObjective(j), 0);
+        }
+    }
+}
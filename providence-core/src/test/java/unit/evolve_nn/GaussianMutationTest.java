@@ -3,7 +3,10 @@ package unit.evolve_nn;
 import evolve_nn.GaussianMutation;
 import evolve_nn.SEESolution;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import utils.RandomStream;
 
+import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.*;
 
 public class GaussianMutationTest {
@@ -27,5 +30,28 @@ public class GaussianMutationTest {
         verify(solutionTwo, never()).setVariableValue(anyInt(), anyDouble());
     }
 
+    @Test
+    public void testExecuteIsReproducible() {
+        // Arrange
+        SEESolution solutionOne = mock(SEESolution.class);
+        when(solutionOne.getNumberOfVariables()).thenReturn(5);
+        when(solutionOne.getVariableValue(anyInt())).thenReturn(1.0);
+
+        SEESolution solutionTwo = mock(SEESolution.class);
+        when(solutionTwo.getNumberOfVariables()).thenReturn(5);
+        when(solutionTwo.getVariableValue(anyInt())).thenReturn(1.0);
 
+        ArgumentCaptor<Double> valuesOne = ArgumentCaptor.forClass(Double.class);
+        ArgumentCaptor<Double> valuesTwo = ArgumentCaptor.forClass(Double.class);
+
+        // Act
+        new GaussianMutation(0.5, new RandomStream(21)).execute(solutionOne);
+        new GaussianMutation(0.5, new RandomStream(21)).execute(solutionTwo);
+
+        // Assert
+        verify(solutionOne, atLeast(0)).setVariableValue(anyInt(), valuesOne.capture());
+        verify(solutionTwo, atLeast(0)).setVariableValue(anyInt(), valuesTwo.capture());
+
+        assertEquals(valuesOne.getAllValues(), valuesTwo.getAllValues());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,68 @@
+package unit.evolve_nn;
+
+import evolve_nn.HypervolumeStagnationRule;
+import evolve_nn.PopulationInformation;
+import evolve_nn.SEESolution;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static test_helper.ThrowableCaptor.captureThrowable;
+import static test_helper.SolutionHelper.makeSolutions;
+
+public class HypervolumeStagnationRuleTest {
+
+    @Test
+    public void testIsMet() {
+        // Arrange
+        HypervolumeStagnationRule rule = new HypervolumeStagnationRule(2, 0.01, new double[]{4, 4});
+
+        PopulationInformation<SEESolution> start = new PopulationInformation<>(1,
+                makeSolutions(new Double[]{2.0, 2.0}));
+        PopulationInformation<SEESolution> improved = new PopulationInformation<>(2,
+                makeSolutions(new Double[]{2.0, 2.0}, new Double[]{1.0, 3.0}));
+
+        // Act
+        boolean first = rule.isMet(start, 0, 0);
+        boolean second = rule.isMet(improved, 0, 0);
+        boolean grownOverWindow = rule.isMet(improved, 0, 0);
+        double hypervolume = rule.getLastHypervolume();
+        boolean stagnant = rule.isMet(improved, 0, 0);
+
+        // Assert
+        assertFalse(first);
+        assertFalse(second);
+        assertFalse(grownOverWindow);
+        assertEquals(5, hypervolume, 0);
+        assertTrue(stagnant);
+    }
+
+    @Test
+    public void testReferencePointFromFirstGeneration() {
+        // Arrange
+        HypervolumeStagnationRule rule = new HypervolumeStagnationRule(1, 0);
+
+        PopulationInformation<SEESolution> population = new PopulationInformation<>(1,
+                makeSolutions(new Double[]{0.0, 10.0}, new Double[]{10.0, 0.0}, new Double[]{5.0, 10.0}));
+
+        // Act
+        rule.isMet(population, 0, 0);
+
+        // Assert
+        assertArrayEquals(new double[]{11, 11}, rule.getReferencePoint(), 0);
+        assertEquals(11 * 11 - 10 * 10, rule.getLastHypervolume(), 0);
+    }
+
+    @Test
+    public void testConstructor() {
+        // Act
+        Throwable noWindow = captureThrowable(() -> new HypervolumeStagnationRule(0, 0.1));
+        Throwable negativeImprovement = captureThrowable(() -> new HypervolumeStagnationRule(5, -0.1));
+
+        // Assert
+        assertTrue(noWindow instanceof IllegalArgumentException);
+        assertTrue(negativeImprovement instanceof IllegalArgumentException);
+    }
+}
@@ -0,0 +1,76 @@
+package unit.evolve_nn;
+
+import evolve_nn.FastDominanceRanking;
+import evolve_nn.IncrementalDominanceRanking;
+import evolve_nn.SEESolution;
+import org.junit.Test;
+import org.uma.jmetal.util.solutionattribute.Ranking;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static test_helper.ThrowableCaptor.captureThrowable;
+
+public class IncrementalDominanceRankingTest {
+
+    @Test
+    public void testAddAndRemoveMatchFastDominanceRanking() {
+        // Arrange
+        Random random = new Random(3);
+
+        for (int numberOfObjectives = 2; numberOfObjectives <= 4; numberOfObjectives++) {
+            IncrementalDominanceRanking<SEESolution> actual = new IncrementalDominanceRanking<>();
+            List<SEESolution> population = new ArrayList<>();
+
+            for (int step = 0; step < 400; step++) {
+                // Act
+                if (population.size() > 20 && random.nextInt(3) == 0) {
+                    SEESolution removed = population.remove(random.nextInt(population.size()));
+                    actual.remove(removed);
+                } else {
+                    SEESolution solution = new SEESolution(numberOfObjectives, null);
+
+                    // Few distinct values so there are ties and duplicate points
+                    for (int j = 0; j < numberOfObjectives; j++)
+                        solution.setObjective(j, (double) random.nextInt(6));
+
+                    population.add(solution);
+                    actual.add(solution);
+                }
+
+                // Assert
+                Ranking<SEESolution> expected = new FastDominanceRanking<SEESolution>().computeRanking(population);
+
+                assertEquals(expected.getNumberOfSubfronts(), actual.getNumberOfSubfronts());
+
+                for (int i = 0; i < expected.getNumberOfSubfronts(); i++) {
+                    assertEquals(new HashSet<>(expected.getSubfront(i)), new HashSet<>(actual.getSubfront(i)));
+
+                    for (SEESolution solution : actual.getSubfront(i))
+                        assertEquals(i, (int) actual.getAttribute(solution));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRemoveUnrankedSolution() {
+        // Arrange
+        IncrementalDominanceRanking<SEESolution> ranking = new IncrementalDominanceRanking<>();
+
+        SEESolution ranked = new SEESolution(2, null);
+        ranked.setObjective(0, 1.0);
+        ranked.setObjective(1, 1.0);
+        ranking.add(ranked);
+
+        // Act
+        Throwable unranked = captureThrowable(() -> ranking.remove(new SEESolution(2, null)));
+
+        // Assert
+        assertTrue(unranked instanceof IllegalArgumentException);
+    }
+}
@@ -0,0 +1,146 @@
+package unit.evolve_nn;
+
+import error_metrics.MeanMagnitudeRelativeError;
+import error_metrics.PRED25Error;
+import evolve_nn.IncrementalPopulationEvaluator;
+import evolve_nn.SEEProblem;
+import evolve_nn.SEESolution;
+import neural_network.FeedForwardPerceptron;
+import org.junit.Test;
+import test_helper.ProblemHelper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class IncrementalPopulationEvaluatorTest {
+
+    @Test
+    public void testEvaluate() {
+        // Arrange
+        SEEProblem problem = createProblem();
+        IncrementalPopulationEvaluator evaluator = new IncrementalPopulationEvaluator(problem);
+
+        SEESolution parent = problem.createSolution();
+        FeedForwardPerceptron network = (FeedForwardPerceptron) parent.getNeuralNetwork();
+
+        int hiddenNodes = network.countNodesInLayer(1);
+        int inputWeights = network.countNodesInLayer(0) * hiddenNodes;
+
+        evaluator.evaluate(Collections.singletonList(parent));
+
+        // Change one weight leading into the first hidden node, the threshold of the last hidden node and a weight of
+        // the output layer
+        SEESolution child = (SEESolution) parent.copy();
+        child.setVariableValue(0, 0.25);
+        child.setVariableValue(network.getNumberOfWeights() + hiddenNodes - 1, 0.5);
+        child.setVariableValue(inputWeights, -1.5);
+
+        // Act
+        evaluator.evaluate(Collections.singletonList(child));
+
+        double[] objectives = new double[problem.getNumberOfObjectives()];
+
+        for (int i = 0; i < objectives.length; i++)
+            objectives[i] = child.getObjective(i);
+
+        problem.evaluate(child);
+
+        // Assert
+        int changedNodes = hiddenNodes == 1 ? 1 : 2;
+
+        assertEquals(hiddenNodes + changedNodes, evaluator.getHiddenNodesCalculated());
+        assertEquals(hiddenNodes - changedNodes, evaluator.getHiddenNodesReused());
+
+        for (int i = 0; i < objectives.length; i++)
+            assertEquals(child.getObjective(i), objectives[i], 0);
+    }
+
+    @Test
+    public void testEvaluateWithEvolvedThresholds() {
+        // Arrange
+        SEEProblem problem = createProblem();
+        IncrementalPopulationEvaluator evaluator = new IncrementalPopulationEvaluator(problem);
+
+        SEESolution parent = problem.createSolution();
+        FeedForwardPerceptron network = (FeedForwardPerceptron) parent.getNeuralNetwork();
+
+        int numberOfWeights = network.getNumberOfWeights();
+        int hiddenNodes = network.countNodesInLayer(1);
+
+        for (int i = 0; i < network.getNumberOfThresholds(); i++)
+            parent.setVariableValue(numberOfWeights + i, 0.05 * i - 0.3);
+
+        evaluator.evaluate(Collections.singletonList(parent));
+
+        // The copy has its thresholds reset, the second child is given the thresholds of the parent back
+        SEESolution resetChild = (SEESolution) parent.copy();
+        resetChild.setVariableValue(0, 0.25);
+
+        SEESolution restoredChild = (SEESolution) parent.copy();
+        restoredChild.setVariableValue(0, 0.25);
+
+        for (int i = 0; i < network.getNumberOfThresholds(); i++)
+            restoredChild.setVariableValue(numberOfWeights + i, network.getThreshold(i));
+
+        // Act
+        evaluator.evaluate(Collections.singletonList(resetChild));
+        long resetReused = evaluator.getHiddenNodesReused();
+
+        evaluator.evaluate(Collections.singletonList(restoredChild));
+        long restoredReused = evaluator.getHiddenNodesReused() - resetReused;
+
+        // Assert
+        assertEquals(0, resetReused);
+        assertEquals(hiddenNodes - 1, restoredReused);
+
+        for (SEESolution child : Arrays.asList(resetChild, restoredChild)) {
+            double[] objectives = new double[problem.getNumberOfObjectives()];
+
+            for (int i = 0; i < objectives.length; i++)
+                objectives[i] = child.getObjective(i);
+
+            problem.evaluate(child);
+
+            for (int i = 0; i < objectives.length; i++)
+                assertEquals(child.getObjective(i), objectives[i], 0);
+        }
+    }
+
+    @Test
+    public void testEvaluateWithoutOrigin() {
+        // Arrange
+        SEEProblem problem = createProblem();
+        IncrementalPopulationEvaluator evaluator = new IncrementalPopulationEvaluator(problem);
+
+        List<SEESolution> population = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++)
+            population.add(problem.createSolution());
+
+        // Act
+        evaluator.evaluate(population);
+
+        // Assert
+        assertEquals(0, evaluator.getHiddenNodesReused());
+
+        for (SEESolution solution : population) {
+            double[] objectives = new double[problem.getNumberOfObjectives()];
+
+            for (int i = 0; i < objectives.length; i++)
+                objectives[i] = solution.getObjective(i);
+
+            problem.evaluate(solution);
+
+            for (int i = 0; i < objectives.length; i++)
+                assertEquals(solution.getObjective(i), objectives[i], 0);
+        }
+    }
+
+    private static SEEProblem createProblem() {
+        return ProblemHelper.makeProblem(5, 70, 3, new MeanMagnitudeRelativeError(), new PRED25Error());
+    }
+}
@@ -0,0 +1,270 @@
+package unit.evolve_nn;
+
+import error_metrics.MeanMagnitudeRelativeError;
+import error_metrics.PRED25Error;
+import evolve_nn.GaussianMutation;
+import evolve_nn.IslandCoordinator;
+import evolve_nn.IslandWorker;
+import evolve_nn.MLPCrossOver;
+import evolve_nn.MigrationTopology;
+import evolve_nn.RHaDMOEA;
+import evolve_nn.SEEProblem;
+import evolve_nn.SEESolution;
+import org.junit.Test;
+import test_helper.ProblemHelper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static test_helper.ThrowableCaptor.captureThrowable;
+
+public class IslandCoordinatorTest {
+
+    @Test(timeout = 60000)
+    public void testRunLoopback() throws Exception {
+        // Arrange
+        SEEProblem problem = createProblem();
+        List<IslandWorker> workers = new ArrayList<>();
+        List<FutureTask<List<SEESolution>>> islands = new ArrayList<>();
+
+        List<SEESolution> population;
+        int migrantsForwarded, failedWorkers;
+
+        // Act
+        try (IslandCoordinator coordinator = new IslandCoordinator(0, 3, MigrationTopology.RING, 20, 2, 2)) {
+            coordinator.setSeed(4);
+
+            for (int i = 0; i < 3; i++) {
+                IslandWorker worker = createWorker();
+
+                workers.add(worker);
+                islands.add(coordinator.startLoopbackWorker(worker));
+            }
+
+            population = coordinator.run(problem);
+            migrantsForwarded = coordinator.getMigrantsForwarded();
+            failedWorkers = coordinator.getNumberOfFailedWorkers();
+        }
+
+        // Assert
+        assertEquals(3 * 12, population.size());
+        assertEquals(0, failedWorkers);
+        assertTrue(migrantsForwarded > 0);
+
+        int immigrantsReceived = 0;
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(12, islands.get(i).get().size());
+            immigrantsReceived += workers.get(i).getImmigrantsReceived();
+        }
+
+        // Migrants forwarded to an island as it finishes are never received
+        assertTrue(immigrantsReceived <= migrantsForwarded);
+
+        for (SEESolution solution : population) {
+            assertFalse(Double.isNaN(solution.getObjective(0)));
+            assertFalse(Double.isNaN(solution.getObjective(1)));
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testRunSurvivesFailedWorker() throws Exception {
+        // Arrange
+        SEEProblem problem = createProblem();
+
+        List<SEESolution> population;
+        int connectedWorkers, failedWorkers;
+
+        // Act
+        try (IslandCoordinator coordinator = new IslandCoordinator(0, 3, MigrationTopology.FULLY_CONNECTED, 6, 2, 2)) {
+            coordinator.startLoopbackWorker(createWorker());
+            coordinator.startLoopbackWorker(createWorker());
+
+            // A worker that is assigned an island then dies
+            int port = coordinator.getPort();
+
+            Thread failingWorker = new Thread(() -> {
+                try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+                    DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+                    output.writeByte(1);
+                    output.writeInt(4);
+                    output.writeInt(2);
+                    output.flush();
+
+                    DataInputStream input = new DataInputStream(socket.getInputStream());
+                    input.readByte();
+                    input.readFully(new byte[input.readInt()]);
+                } catch (Exception ignored) {
+                    // The coordinator treats the worker as failed either way
+                }
+            });
+            failingWorker.start();
+
+            population = coordinator.run(problem);
+            connectedWorkers = coordinator.getNumberOfConnectedWorkers();
+            failedWorkers = coordinator.getNumberOfFailedWorkers();
+        }
+
+        // Assert
+        assertEquals(3, connectedWorkers);
+        assertEquals(1, failedWorkers);
+        assertEquals(2 * 12, population.size());
+    }
+
+    @Test(timeout = 60000)
+    public void testRunSurvivesWorkerThatStopsReading() throws Exception {
+        // Arrange
+        SEEProblem problem = createProblem();
+        List<SEESolution> result = new ArrayList<>();
+
+        for (int i = 0; i < 12; i++)
+            result.add(problem.createSolution());
+
+        List<SEESolution> population;
+        int failedWorkers, migrantsSent, migrantsForwarded;
+
+        // Act
+        try (IslandCoordinator coordinator = new IslandCoordinator(0, 2, MigrationTopology.FULLY_CONNECTED, 10, 1, 4)) {
+            int port = coordinator.getPort();
+            CountDownLatch finished = new CountDownLatch(1);
+
+            // A worker that greets the coordinator then never reads, so the migrants sent to it fill its socket
+            Thread stalledWorker = new Thread(() -> {
+                try (Socket socket = new Socket()) {
+                    socket.setReceiveBufferSize(1024);
+                    socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+
+                    writeHello(new DataOutputStream(socket.getOutputStream()));
+
+                    finished.await();
+                } catch (Exception ignored) {
+                    // The coordinator disconnects the worker
+                }
+            });
+            stalledWorker.setDaemon(true);
+            stalledWorker.start();
+
+            // A worker that sends migrants until the coordinator has disconnected the stalled worker, then its result.
+            // It is sent no migrants itself, so it can never fall behind.
+            FutureTask<Integer> sendingWorker = new FutureTask<>(() -> {
+                try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+                    DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+                    DataInputStream input = new DataInputStream(socket.getInputStream());
+
+                    writeHello(output);
+
+                    // The island assigned
+                    input.readByte();
+                    input.readFully(new byte[input.readInt()]);
+
+                    byte[] migrants = encodeSolutions(result.subList(0, 4));
+                    long deadline = System.currentTimeMillis() + 30000;
+                    int sent = 0;
+
+                    while (coordinator.getNumberOfFailedWorkers() == 0) {
+                        if (System.currentTimeMillis() > deadline)
+                            throw new AssertionError("The worker that stopped reading was never disconnected");
+
+                        writeMessage(output, 3, migrants);
+                        sent += 4;
+                    }
+
+                    writeMessage(output, 4, encodeSolutions(result));
+
+                    // The coordinator disconnects once it has the result
+                    while (input.read() >= 0)
+                        ;
+
+                    return sent;
+                }
+            });
+
+            Thread sendingThread = new Thread(sendingWorker);
+            sendingThread.setDaemon(true);
+            sendingThread.start();
+
+            population = coordinator.run(problem);
+            failedWorkers = coordinator.getNumberOfFailedWorkers();
+            migrantsForwarded = coordinator.getMigrantsForwarded();
+            migrantsSent = sendingWorker.get();
+
+            finished.countDown();
+        }
+
+        // Assert
+        assertEquals(1, failedWorkers);
+        assertTrue(migrantsForwarded > 0);
+        assertTrue(migrantsForwarded <= migrantsSent);
+        assertEquals(12, population.size());
+
+        for (int i = 0; i < result.size(); i++) {
+            for (int j = 0; j < result.get(i).getNumberOfVariables(); j++)
+                assertEquals(result.get(i).getVariableValue(j), population.get(i).getVariableValue(j));
+        }
+    }
+
+    @Test
+    public void testConstructor() {
+        // Act
+        Throwable noWorkers = captureThrowable(() -> new IslandCoordinator(0, 0, MigrationTopology.RING, 1, 1, 1));
+        Throwable noGenerations = captureThrowable(() -> new IslandCoordinator(0, 2, MigrationTopology.RING, 0, 1, 1));
+        Throwable noInterval = captureThrowable(() -> new IslandCoordinator(0, 2, MigrationTopology.RING, 1, 0, 1));
+
+        // Assert
+        assertTrue(noWorkers instanceof IllegalArgumentException);
+        assertTrue(noGenerations instanceof IllegalArgumentException);
+        assertTrue(noInterval instanceof IllegalArgumentException);
+    }
+
+    /**
+     * Each worker has a problem of its own, as it would in its own process.
+     */
+    private static IslandWorker createWorker() {
+        SEEProblem problem = createProblem();
+
+        return new IslandWorker(
+                new RHaDMOEA(problem, 12, new MLPCrossOver(0.3, 10), new GaussianMutation(0.3)), problem);
+    }
+
+    private static void writeHello(DataOutputStream output) throws IOException {
+        writeMessage(output, 1, new byte[]{0, 0, 0, 2});
+    }
+
+    /**
+     * Writes a message of the protocol spoken between the coordinator and its workers.
+     */
+    private static void writeMessage(DataOutputStream output, int type, byte[] payload) throws IOException {
+        output.writeByte(type);
+        output.writeInt(payload.length);
+        output.write(payload);
+        output.flush();
+    }
+
+    private static byte[] encodeSolutions(List<SEESolution> solutions) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+
+        output.writeInt(solutions.size());
+
+        for (SEESolution solution : solutions)
+            solution.writeGenome(output);
+
+        return bytes.toByteArray();
+    }
+
+    private static SEEProblem createProblem() {
+        return ProblemHelper.makeProblem(6, 30, 2, new MeanMagnitudeRelativeError(), new PRED25Error());
+    }
+}
@@ -0,0 +1,201 @@
+package unit.evolve_nn;
+
+import error_metrics.MeanMagnitudeRelativeError;
+import error_metrics.PRED25Error;
+import evolve_nn.GaussianMutation;
+import evolve_nn.IslandModel;
+import evolve_nn.MLPCrossOver;
+import evolve_nn.MigrationTopology;
+import evolve_nn.RHaDMOEA;
+import evolve_nn.SEEProblem;
+import evolve_nn.SEESolution;
+import org.junit.Test;
+import test_helper.ProblemHelper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static test_helper.ThrowableCaptor.captureThrowable;
+
+public class IslandModelTest {
+
+    @Test
+    public void testRunIsIndependentOfThreads() {
+        for (MigrationTopology topology : MigrationTopology.values()) {
+            // Arrange
+            ExecutorService singleThread = Executors.newSingleThreadExecutor();
+            ExecutorService threePerIsland = Executors.newFixedThreadPool(3);
+
+            TestableIslandModel sequential = createModel(topology, singleThread);
+            TestableIslandModel parallel = createModel(topology, threePerIsland);
+
+            // Act
+            List<SEESolution> expected = sequential.run(4);
+            List<SEESolution> actual = parallel.run(4);
+
+            singleThread.shutdown();
+            threePerIsland.shutdown();
+
+            // Assert
+            assertEquals(3 * 12, actual.size());
+
+            for (int i = 0; i < expected.size(); i++) {
+                for (int j = 0; j < 2; j++)
+                    assertEquals(expected.get(i).getObjective(j), actual.get(i).getObjective(j), 0);
+            }
+        }
+    }
+
+    @Test
+    public void testConstructor() {
+        // Arrange
+        List<RHaDMOEA> oneIsland = new ArrayList<>();
+        oneIsland.add(mock(RHaDMOEA.class));
+
+        List<RHaDMOEA> twoIslands = new ArrayList<>(oneIsland);
+        twoIslands.add(mock(RHaDMOEA.class));
+
+        // Act
+        Throwable tooFewIslands = captureThrowable(() -> new IslandModel(oneIsland, MigrationTopology.RING, 1, 1));
+        Throwable noInterval = captureThrowable(() -> new IslandModel(twoIslands, MigrationTopology.RING, 0, 1));
+
+        // Assert
+        assertTrue(tooFewIslands instanceof IllegalArgumentException);
+        assertTrue(noInterval instanceof IllegalArgumentException);
+    }
+
+    @Test
+    public void testMigrantsKeepEvolvedThresholds() {
+        // Arrange
+        SEEProblem problem = ProblemHelper.makeProblem(6, 30, 2, new MeanMagnitudeRelativeError(), new PRED25Error());
+
+        SEESolution evolved = problem.createSolution();
+        int numberOfWeights = evolved.getNeuralNetwork().getNumberOfWeights();
+
+        for (int i = 0; i < evolved.getNeuralNetwork().getNumberOfThresholds(); i++)
+            evolved.setVariableValue(numberOfWeights + i, 0.1 * i - 0.3);
+
+        problem.evaluate(evolved);
+        evolved.markEvaluated();
+
+        List<RHaDMOEA> islands = new ArrayList<>();
+        islands.add(new StaticIsland(problem, evolved));
+        islands.add(new StaticIsland(problem, problem.createSolution()));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        TestableIslandModel model = new TestableIslandModel(islands, MigrationTopology.RING, executor);
+
+        // Act
+        model.run(2);
+        executor.shutdown();
+
+        List<SEESolution> immigrants = ((StaticIsland) islands.get(1)).immigrants;
+        SEESolution migrant = immigrants.get(0);
+
+        double[] objectives = new double[problem.getNumberOfObjectives()];
+
+        for (int i = 0; i < objectives.length; i++)
+            objectives[i] = migrant.getObjective(i);
+
+        boolean dirty = migrant.isDirty();
+        problem.evaluate(migrant);
+
+        // Assert
+        assertEquals(1, immigrants.size());
+        assertArrayEquals(evolved.getGenome(), migrant.getGenome(), 0);
+        assertFalse(dirty);
+
+        for (int i = 0; i < objectives.length; i++)
+            assertEquals(migrant.getObjective(i), objectives[i], 0);
+    }
+
+    private static TestableIslandModel createModel(MigrationTopology topology, ExecutorService executor) {
+        SEEProblem problem = ProblemHelper.makeProblem(6, 30, 2, new MeanMagnitudeRelativeError(), new PRED25Error());
+
+        List<RHaDMOEA> islands = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++)
+            islands.add(new RHaDMOEA(problem, 12, new MLPCrossOver(0.3, 10), new GaussianMutation(0.3)));
+
+        TestableIslandModel model = new TestableIslandModel(islands, topology, executor);
+        model.setSeed(8);
+
+        return model;
+    }
+
+    private static class TestableIslandModel extends IslandModel {
+
+        TestableIslandModel(List<RHaDMOEA> islands, MigrationTopology topology, ExecutorService executor) {
+            super(islands, topology, 2, 2, executor);
+        }
+
+        /**
+         * Runs the model as {@link evolve_nn.AlgorithmRunner} does, without informing listeners.
+         */
+        List<SEESolution> run(int generations) {
+            List<SEESolution> population = evaluatePopulation(createInitialPopulation());
+
+            for (int i = 0; i < generations; i++) {
+                List<SEESolution> offspring = evaluatePopulation(reproduction(selection(population)));
+                population = replacement(population, offspring);
+                nextGeneration();
+            }
+
+            return finalisePopulation(population);
+        }
+    }
+
+    /**
+     * An island whose population never changes, recording the immigrants it receives.
+     */
+    private static class StaticIsland extends RHaDMOEA {
+
+        private final SEESolution solution;
+        private final List<SEESolution> immigrants = new ArrayList<>();
+
+        StaticIsland(SEEProblem problem, SEESolution solution) {
+            super(problem, 1, new MLPCrossOver(0.3, 10), new GaussianMutation(0.3));
+            this.solution = solution;
+        }
+
+        @Override
+        protected List<SEESolution> createInitialPopulation() {
+            List<SEESolution> population = new ArrayList<>();
+            population.add(solution);
+
+            return population;
+        }
+
+        @Override
+        protected List<SEESolution> evaluatePopulation(List<SEESolution> population) {
+            return population;
+        }
+
+        @Override
+        protected List<SEESolution> selection(List<SEESolution> population) {
+            return population;
+        }
+
+        @Override
+        protected List<SEESolution> reproduction(List<SEESolution> population) {
+            return new ArrayList<>();
+        }
+
+        @Override
+        protected List<SEESolution> replacement(List<SEESolution> parentPopulation, List<SEESolution> offspringPopulation) {
+            return parentPopulation;
+        }
+
+        @Override
+        public void addImmigrant(SEESolution immigrant) {
+            immigrants.add(immigrant);
+        }
+    }
+}
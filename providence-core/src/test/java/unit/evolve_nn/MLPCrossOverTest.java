@@ -2,10 +2,13 @@ package unit.evolve_nn;
 
 import evolve_nn.MLPCrossOver;
 import evolve_nn.SEESolution;
+import neural_network.FeedForwardPerceptron;
+import neural_network.INeuralNetwork;
 import org.junit.Test;
 
 import java.util.ArrayList;
 
+import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Mockito.*;
 
@@ -18,7 +21,10 @@ public class MLPCrossOverTest {
         SEESolution solutionTwo = mock(SEESolution.class);
         SEESolution solutionThree = mock(SEESolution.class);
 
-        when(solutionOne.copy()).thenReturn(mock(SEESolution.class));
+        SEESolution child = mock(SEESolution.class);
+        when(solutionOne.copy()).thenReturn(child);
+        when(solutionOne.getNeuralNetwork()).thenReturn(mock(INeuralNetwork.class));
+        when(child.getNeuralNetwork()).thenReturn(mock(INeuralNetwork.class));
         when(solutionOne.getNumberOfVariables()).thenReturn(5);
 
         ArrayList<SEESolution> population = new ArrayList<>();
@@ -36,4 +42,27 @@ public class MLPCrossOverTest {
         verify(solutionTwo, times(5)).getVariableValue(anyInt());
         verify(solutionThree, times(5)).getVariableValue(anyInt());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testChildKeepsThresholdsOfFirstParent() {
+        // Arrange
+        SEESolution parentOne = new SEESolution(2, new FeedForwardPerceptron(3, 4, 1, 1, 1.0));
+        SEESolution parentTwo = new SEESolution(2, new FeedForwardPerceptron(3, 4, 1, 1, 1.0));
+        SEESolution parentThree = new SEESolution(2, new FeedForwardPerceptron(3, 4, 1, 1, 1.0));
+
+        for (int i = 0; i < parentOne.getNeuralNetwork().getNumberOfThresholds(); i++)
+            parentOne.getNeuralNetwork().setThreshold(i, -0.5 - i);
+
+        MLPCrossOver mlp = new MLPCrossOver(0, 100);
+
+        // Act
+        SEESolution child = mlp.createChild(parentOne, parentTwo, parentThree);
+
+        // Assert
+        for (int i = 0; i < parentOne.getNumberOfVariables(); i++)
+            assertEquals(parentOne.getVariableValue(i), child.getVariableValue(i));
+
+        for (int i = 0; i < parentOne.getNeuralNetwork().getNumberOfThresholds(); i++)
+            assertEquals(parentOne.getNeuralNetwork().getThreshold(i), child.getNeuralNetwork().getThreshold(i));
+    }
+}
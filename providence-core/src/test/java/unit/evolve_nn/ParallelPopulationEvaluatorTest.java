@@ -0,0 +1,91 @@
+package unit.evolve_nn;
+
+import error_metrics.MeanMagnitudeRelativeError;
+import error_metrics.PRED25Error;
+import evolve_nn.IPopulationEvaluator;
+import evolve_nn.ParallelPopulationEvaluator;
+import evolve_nn.SEEProblem;
+import evolve_nn.SEESolution;
+import evolve_nn.SequentialPopulationEvaluator;
+import org.junit.Test;
+import test_helper.ProblemHelper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+import static test_helper.ThrowableCaptor.captureThrowable;
+
+public class ParallelPopulationEvaluatorTest {
+
+    @Test
+    public void testEvaluate() {
+        // Arrange
+        SEEProblem problem = ProblemHelper.makeProblem(7, 70, 3, new MeanMagnitudeRelativeError(), new PRED25Error());
+
+        List<SEESolution> parallel = new ArrayList<>();
+        List<SEESolution> sequential = new ArrayList<>();
+
+        for (int i = 0; i < 23; i++) {
+            SEESolution solution = problem.createSolution();
+            parallel.add(solution);
+            sequential.add((SEESolution) solution.copy());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // Act
+        new ParallelPopulationEvaluator(new SequentialPopulationEvaluator(problem), executor, 3).evaluate(parallel);
+        new SequentialPopulationEvaluator(problem).evaluate(sequential);
+
+        executor.shutdown();
+
+        // Assert
+        for (int i = 0; i < sequential.size(); i++) {
+            for (int j = 0; j < problem.getNumberOfObjectives(); j++)
+                assertEquals(sequential.get(i).getObjective(j), parallel.get(i).getObjective(j), 0);
+        }
+    }
+
+    @Test
+    public void testEvaluateSplitsIntoChunks() {
+        // Arrange
+        IPopulationEvaluator evaluator = mock(IPopulationEvaluator.class);
+
+        List<SEESolution> population = new ArrayList<>();
+
+        for (int i = 0; i < 10; i++)
+            population.add(new SEESolution(2, null));
+
+        // Act
+        new ParallelPopulationEvaluator(evaluator, 2, 4).evaluate(population);
+
+        // Assert
+        verify(evaluator, times(3)).evaluate(any());
+    }
+
+    @Test
+    public void testEvaluateRethrows() {
+        // Arrange
+        IPopulationEvaluator evaluator = mock(IPopulationEvaluator.class);
+        doThrow(new IllegalArgumentException()).when(evaluator).evaluate(any());
+
+        List<SEESolution> population = new ArrayList<>();
+        population.add(new SEESolution(2, null));
+
+        ParallelPopulationEvaluator parallelEvaluator = new ParallelPopulationEvaluator(evaluator, 2, 4);
+
+        // Act
+        Throwable exception = captureThrowable(() -> parallelEvaluator.evaluate(population));
+        Throwable noSolutionsPerChunk = captureThrowable(() -> new ParallelPopulationEvaluator(evaluator, 2, 0));
+
+        // Assert
+        assertTrue(exception instanceof IllegalArgumentException);
+        assertTrue(noSolutionsPerChunk instanceof IllegalArgumentException);
+    }
+}
@@ -4,10 +4,13 @@ import evolve_nn.RDominanceRanking;
 import evolve_nn.SEESolution;
 import org.junit.Before;
 import org.junit.Test;
+import org.uma.jmetal.util.comparator.DominanceComparator;
 import org.uma.jmetal.util.solutionattribute.Ranking;
+import utils.Distance;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -100,4 +103,104 @@ public class RDominanceRankingTest {
         // Assert
         assertEquals(3, ranking.getNumberOfSubfronts());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testComputeRankingMatchesPairwiseRanking() {
+        // Arrange
+        Random random = new Random(4);
+        Double[] aspirationPoint = {0.2, 0.4, 0.1};
+
+        // Large enough for the dominance matrix to be filled on several threads
+        List<SEESolution> population = new ArrayList<>();
+
+        for (int i = 0; i < 400; i++) {
+            SEESolution solution = new SEESolution(3, null);
+
+            for (int j = 0; j < 3; j++)
+                solution.setObjective(j, random.nextInt(10) / 10.0);
+
+            population.add(solution);
+        }
+
+        List<List<SEESolution>> expected = rankPairwise(population, aspirationPoint, nonRDominanceThreshold);
+
+        // Act
+        Ranking<SEESolution> ranking =
+                new RDominanceRanking(aspirationPoint, nonRDominanceThreshold).computeRanking(population);
+
+        // Assert
+        assertEquals(expected.size(), ranking.getNumberOfSubfronts());
+
+        for (int i = 0; i < expected.size(); i++)
+            assertEquals(expected.get(i), ranking.getSubfront(i));
+    }
+
+    /**
+     * The ranking as originally implemented, comparing every pair of solutions.
+     */
+    private static List<List<SEESolution>> rankPairwise(List<SEESolution> population, Double[] aspirationPoint,
+                                                       double threshold) {
+        double maxDist = 0, minDist = 0;
+
+        for (SEESolution solution : population) {
+            double dist = Distance.getEuclideanDistance(solution.getObjectives(), aspirationPoint);
+
+            if (maxDist < dist) maxDist = dist;
+            if (minDist > dist) minDist = dist;
+        }
+
+        int[] dominateCounter = new int[population.size()];
+
+        for (int i = 0; i < population.size(); i++) {
+            for (SEESolution x : population) {
+                SEESolution y = population.get(i);
+                int paretoDominance = new DominanceComparator<SEESolution>().compare(x, y);
+
+                boolean dominates;
+
+                if (paretoDominance != 0) {
+                    dominates = paretoDominance == -1;
+                } else {
+                    double distXG = Distance.getEuclideanDistance(x.getObjectives(), aspirationPoint);
+                    double distYG = Distance.getEuclideanDistance(y.getObjectives(), aspirationPoint);
+
+                    dominates = (distXG - distYG) / (maxDist - minDist) < -threshold;
+                }
+
+                if (dominates)
+                    dominateCounter[i]++;
+            }
+        }
+
+        List<List<SEESolution>> fronts = new ArrayList<>();
+        int start = 0;
+
+        while (start < dominateCounter.length) {
+            List<SEESolution> front = new ArrayList<>();
+            double nextLevelDistance = Double.MAX_VALUE;
+
+            for (int j = start; j < dominateCounter.length; j++) {
+                if (dominateCounter[j] > 0 && dominateCounter[j] < nextLevelDistance)
+                    nextLevelDistance = dominateCounter[j];
+            }
+
+            boolean zerosSoFar = true;
+
+            for (int j = start; j < dominateCounter.length; j++) {
+                if (dominateCounter[j] == 0)
+                    front.add(population.get(j));
+                else if (dominateCounter[j] > 0)
+                    zerosSoFar = false;
+
+                if (zerosSoFar)
+                    start++;
+
+                dominateCounter[j] -= nextLevelDistance;
+            }
+
+            fronts.add(front);
+        }
+
+        return fronts;
+    }
+}
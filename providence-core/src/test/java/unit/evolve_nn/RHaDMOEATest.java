@@ -0,0 +1,280 @@
+package unit.evolve_nn;
+
+import error_metrics.MeanMagnitudeRelativeError;
+import evolve_nn.CachingPopulationEvaluator;
+import evolve_nn.GaussianMutation;
+import evolve_nn.IncrementalPopulationEvaluator;
+import evolve_nn.MLPCrossOver;
+import evolve_nn.RHaDMOEA;
+import evolve_nn.RacingPopulationEvaluator;
+import evolve_nn.SEEProblem;
+import evolve_nn.SEESolution;
+import evolve_nn.SequentialPopulationEvaluator;
+import evolve_nn.SurrogateScreen;
+import org.junit.Test;
+import test_helper.ProblemHelper;
+import utils.RandomStream;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RHaDMOEATest {
+
+    @Test
+    public void testReproductionIsIndependentOfExecutor() {
+        // Arrange
+        TestableRHaDMOEA sequential = createAlgorithm(40);
+        TestableRHaDMOEA parallel = createAlgorithm(40);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        parallel.setReproductionExecutor(executor);
+
+        // Act
+        List<SEESolution> sequentialOffspring = sequential.reproduce(sequential.createPopulation());
+        List<SEESolution> parallelOffspring = parallel.reproduce(parallel.createPopulation());
+
+        executor.shutdown();
+
+        // Assert
+        assertEquals(40, sequentialOffspring.size());
+        assertEquals(40, parallelOffspring.size());
+
+        for (int i = 0; i < sequentialOffspring.size(); i++) {
+            SEESolution expected = sequentialOffspring.get(i);
+            SEESolution actual = parallelOffspring.get(i);
+
+            for (int j = 0; j < expected.getNumberOfVariables(); j++)
+                assertEquals(expected.getVariableValue(j), actual.getVariableValue(j), 0);
+        }
+    }
+
+    @Test
+    public void testReproductionWithSurrogateScreen() {
+        // Arrange
+        TestableRHaDMOEA algorithm = createAlgorithm(40);
+
+        SurrogateScreen screen = new SurrogateScreen(3, 0.25, 100);
+        algorithm.setSurrogateScreen(screen);
+
+        List<SEESolution> population = algorithm.evaluate(algorithm.createPopulation());
+
+        // Act
+        List<SEESolution> offspring = algorithm.reproduce(population);
+
+        // Assert
+        assertEquals(10, offspring.size());
+        assertEquals(30, screen.getEvaluationsSaved());
+        assertEquals(0.75, screen.getFractionSaved(), 0);
+    }
+
+    @Test
+    public void testFinalisePopulationAfterRacing() {
+        // Arrange
+        TestableRHaDMOEA algorithm = createAlgorithm(12);
+        algorithm.setPopulationEvaluator(new RacingPopulationEvaluator(algorithm.getProblem(), 4, 8, 0.1));
+
+        List<SEESolution> population = algorithm.evaluate(algorithm.createPopulation());
+
+        // Act
+        List<SEESolution> finalised = algorithm.finalise(population);
+
+        // Assert
+        for (SEESolution solution : finalised) {
+            double reported = solution.getObjective(0);
+            algorithm.getProblem().evaluate(solution);
+
+            assertTrue(solution.isDirty());
+            assertEquals(solution.getObjective(0), reported, 0);
+        }
+    }
+
+    @Test
+    public void testReplacementReEvaluatesParentsAfterRacing() {
+        // Arrange
+        TestableRHaDMOEA algorithm = createAlgorithm(12);
+        SEEProblem problem = algorithm.getProblem();
+
+        // One batch per window so no solution is dropped, and a second evaluator with the same order to check against
+        algorithm.setPopulationEvaluator(new RacingPopulationEvaluator(problem, 10, 10, 0.1, new RandomStream(3)));
+        RacingPopulationEvaluator reference = new RacingPopulationEvaluator(problem, 10, 10, 0.1, new RandomStream(3));
+
+        List<SEESolution> population = algorithm.evaluate(algorithm.createPopulation());
+        algorithm.advance();
+
+        List<SEESolution> offspring = algorithm.evaluate(algorithm.reproduce(population));
+
+        // Act
+        List<SEESolution> survivors = algorithm.replace(population, offspring);
+
+        // Assert
+        reference.nextGeneration();
+
+        for (SEESolution survivor : survivors) {
+            double reported = survivor.getObjective(0);
+            reference.evaluate(Collections.singletonList(survivor));
+
+            assertEquals(survivor.getObjective(0), reported, 0);
+        }
+    }
+
+    @Test
+    public void testIncrementalEvaluationReusesEvolvedParents() {
+        // Arrange
+        TestableRHaDMOEA algorithm = createAlgorithm(20, 0.1, 0.1);
+        SEEProblem problem = algorithm.getProblem();
+
+        IncrementalPopulationEvaluator evaluator = new IncrementalPopulationEvaluator(problem);
+        algorithm.setPopulationEvaluator(evaluator);
+
+        List<SEESolution> population = algorithm.runGenerations(algorithm.createPopulationWithEvolvedThresholds(), 5);
+
+        // Act
+        long reusedBefore = evaluator.getHiddenNodesReused();
+        long calculatedBefore = evaluator.getHiddenNodesCalculated();
+
+        population = algorithm.runGenerations(population, 1);
+
+        long reused = evaluator.getHiddenNodesReused() - reusedBefore;
+        long calculated = evaluator.getHiddenNodesCalculated() - calculatedBefore;
+
+        // Assert
+        assertTrue(reused > 0);
+        assertTrue(reused > calculated);
+
+        for (SEESolution solution : population) {
+            double reported = solution.getObjective(0);
+            problem.evaluate(solution);
+
+            assertEquals(solution.getObjective(0), reported, 0);
+        }
+    }
+
+    @Test
+    public void testCachingEvaluatorHitsDuringReproduction() {
+        // Arrange
+        TestableRHaDMOEA algorithm = createAlgorithm(20, 0.01, 0.01);
+        SEEProblem problem = algorithm.getProblem();
+
+        CachingPopulationEvaluator evaluator = new CachingPopulationEvaluator(new SequentialPopulationEvaluator(problem), 1000);
+        algorithm.setPopulationEvaluator(evaluator);
+
+        List<SEESolution> population = algorithm.evaluate(algorithm.createPopulationWithEvolvedThresholds());
+
+        // Act
+        algorithm.advance();
+        List<SEESolution> offspring = algorithm.reproduce(population);
+
+        int unchanged = 0;
+
+        for (SEESolution child : offspring) {
+            if (Arrays.equals(child.getGenome(), child.getOrigin().getGenome()))
+                unchanged++;
+        }
+
+        long hitsBefore = evaluator.getHits();
+        algorithm.evaluate(offspring);
+        long hits = evaluator.getHits() - hitsBefore;
+
+        // Assert
+        assertTrue(unchanged > 0);
+        assertTrue(hits >= unchanged);
+
+        for (SEESolution solution : population) {
+            double reported = solution.getObjective(0);
+            problem.evaluate(solution);
+
+            assertEquals(solution.getObjective(0), reported, 0);
+        }
+    }
+
+    private static TestableRHaDMOEA createAlgorithm(int populationSize) {
+        return createAlgorithm(populationSize, 0.5, 0.5);
+    }
+
+    private static TestableRHaDMOEA createAlgorithm(int populationSize, double crossoverProbability,
+                                                    double mutationProbability) {
+        SEEProblem problem = ProblemHelper.makeProblem(9, 20, 2, new MeanMagnitudeRelativeError());
+
+        TestableRHaDMOEA algorithm = new TestableRHaDMOEA(problem, populationSize, crossoverProbability, mutationProbability);
+        algorithm.setSeed(17);
+
+        return algorithm;
+    }
+
+    private static class TestableRHaDMOEA extends RHaDMOEA {
+
+        private final SEEProblem problem;
+
+        TestableRHaDMOEA(SEEProblem problem, int populationSize, double crossoverProbability, double mutationProbability) {
+            super(problem, populationSize, new MLPCrossOver(crossoverProbability, 10), new GaussianMutation(mutationProbability));
+
+            this.problem = problem;
+        }
+
+        SEEProblem getProblem() {
+            return problem;
+        }
+
+        List<SEESolution> createPopulation() {
+            return createInitialPopulation();
+        }
+
+        List<SEESolution> reproduce(List<SEESolution> population) {
+            return reproduction(population);
+        }
+
+        List<SEESolution> evaluate(List<SEESolution> population) {
+            return evaluatePopulation(population);
+        }
+
+        List<SEESolution> finalise(List<SEESolution> population) {
+            return finalisePopulation(population);
+        }
+
+        List<SEESolution> replace(List<SEESolution> population, List<SEESolution> offspring) {
+            return replacement(population, offspring);
+        }
+
+        void advance() {
+            nextGeneration();
+        }
+
+        /**
+         * Creates an initial population whose thresholds have all moved away from their initial value of 1, as they
+         * have after enough generations.
+         */
+        List<SEESolution> createPopulationWithEvolvedThresholds() {
+            RandomStream random = new RandomStream(23);
+            List<SEESolution> population = createPopulation();
+
+            for (SEESolution solution : population) {
+                int numberOfWeights = solution.getNeuralNetwork().getNumberOfWeights();
+
+                for (int i = numberOfWeights; i < solution.getNumberOfVariables(); i++)
+                    solution.setVariableValue(i, solution.getVariableValue(i) + random.nextGaussian(0, 0.1));
+            }
+
+            return population;
+        }
+
+        /**
+         * Evaluates the population and then produces the given number of generations from it.
+         */
+        List<SEESolution> runGenerations(List<SEESolution> population, int generations) {
+            population = evaluate(population);
+
+            for (int i = 0; i < generations; i++) {
+                advance();
+                population = replace(population, evaluate(reproduce(population)));
+            }
+
+            return population;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package unit.evolve_nn;
+
+import error_metrics.MeanMagnitudeRelativeError;
+import evolve_nn.RacingPopulationEvaluator;
+import evolve_nn.SEEProblem;
+import evolve_nn.SEESolution;
+import org.junit.Test;
+import test_helper.ProblemHelper;
+import utils.RandomStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static test_helper.ThrowableCaptor.captureThrowable;
+
+public class RacingPopulationEvaluatorTest {
+
+    @Test
+    public void testEvaluateWholeTrainingSet() {
+        // Arrange
+        SEEProblem problem = createProblem(30);
+        RacingPopulationEvaluator evaluator = new RacingPopulationEvaluator(problem, 30, 30, 0.1, new RandomStream(3));
+
+        List<SEESolution> population = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++)
+            population.add(problem.createSolution());
+
+        // Act
+        evaluator.evaluate(population);
+
+        // Assert
+        for (SEESolution solution : population) {
+            double raced = solution.getObjective(0);
+            problem.evaluate(solution);
+
+            assertEquals(solution.getObjective(0), raced, 1e-9);
+        }
+    }
+
+    @Test
+    public void testEvaluateDropsClearlyDominated() {
+        // Arrange
+        SEEProblem problem = createProblem(30);
+        RacingPopulationEvaluator evaluator = new RacingPopulationEvaluator(problem, 10, 20, 0.1, new RandomStream(3));
+
+        // Estimates 0 for every row, so a relative error of 1, against estimates far larger than any output
+        SEESolution good = createSolution(problem, 0);
+        SEESolution bad = createSolution(problem, 50);
+
+        // Act
+        evaluator.evaluate(Arrays.asList(bad, good));
+
+        // Assert
+        assertEquals(1, evaluator.getSolutionsDropped());
+        assertEquals(10 + 20, evaluator.getRowsEvaluated());
+        assertEquals(1, good.getObjective(0), 1e-9);
+        assertTrue(bad.getObjective(0) > 1);
+    }
+
+    @Test
+    public void testNextGenerationRotatesWindow() {
+        // Arrange
+        SEEProblem problem = createProblem(30);
+        RacingPopulationEvaluator evaluator = new RacingPopulationEvaluator(problem, 10, 10, 0.1, new RandomStream(3));
+
+        SEESolution solution = problem.createSolution();
+        List<Double> objectives = new ArrayList<>();
+
+        // Act
+        evaluator.evaluate(Arrays.asList(solution));
+        double first = solution.getObjective(0);
+
+        for (int i = 0; i < 4; i++) {
+            evaluator.evaluate(Arrays.asList(solution));
+            objectives.add(solution.getObjective(0));
+
+            evaluator.nextGeneration();
+        }
+
+        // Assert
+        assertTrue(evaluator.isApproximate());
+        assertEquals(first, objectives.get(0), 0);
+        assertTrue(objectives.get(0) != objectives.get(1).doubleValue());
+        assertEquals(objectives.get(0), objectives.get(3), 0);
+    }
+
+    @Test
+    public void testReadState() throws IOException {
+        // Arrange
+        SEEProblem problem = createProblem(30);
+        RacingPopulationEvaluator written = new RacingPopulationEvaluator(problem, 10, 10, 0.1, new RandomStream(3));
+        RacingPopulationEvaluator read = new RacingPopulationEvaluator(problem, 10, 10, 0.1, new RandomStream(4));
+        RacingPopulationEvaluator otherTrainingSet =
+                new RacingPopulationEvaluator(createProblem(20), 10, 10, 0.1, new RandomStream(3));
+
+        SEESolution solution = problem.createSolution();
+
+        written.evaluate(Arrays.asList(solution));
+        written.nextGeneration();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        written.writeState(new DataOutputStream(bytes));
+
+        // Act
+        read.readState(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        Throwable err = captureThrowable(() ->
+                otherTrainingSet.readState(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+
+        written.evaluate(Arrays.asList(solution));
+        double expected = solution.getObjective(0);
+
+        read.evaluate(Arrays.asList(solution));
+
+        // Assert
+        assertEquals(expected, solution.getObjective(0), 0);
+        assertEquals(written.getRowsEvaluated(), read.getRowsEvaluated());
+        assertTrue(err instanceof IOException);
+    }
+
+    @Test
+    public void testConstructor() {
+        // Arrange
+        SEEProblem problem = createProblem(10);
+
+        // Act
+        Throwable noBatch = captureThrowable(() -> new RacingPopulationEvaluator(problem, 0, 10, 0.1));
+        Throwable smallWindow = captureThrowable(() -> new RacingPopulationEvaluator(problem, 10, 5, 0.1));
+        Throwable negativeMargin = captureThrowable(() -> new RacingPopulationEvaluator(problem, 5, 10, -1));
+
+        // Assert
+        assertTrue(noBatch instanceof IllegalArgumentException);
+        assertTrue(smallWindow instanceof IllegalArgumentException);
+        assertTrue(negativeMargin instanceof IllegalArgumentException);
+    }
+
+    /**
+     * @return A solution with every weight and threshold set to the value provided.
+     */
+    private static SEESolution createSolution(SEEProblem problem, double value) {
+        SEESolution solution = problem.createSolution();
+
+        for (int i = 0; i < solution.getGenome().length; i++)
+            solution.setVariableValue(i, value);
+
+        return solution;
+    }
+
+    private static SEEProblem createProblem(int rows) {
+        SEEProblem problem = ProblemHelper.makeProblem(5, rows, 2, new MeanMagnitudeRelativeError());
+        problem.setRandomStream(new RandomStream(7));
+
+        return problem;
+    }
+}
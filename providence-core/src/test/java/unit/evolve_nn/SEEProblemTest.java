@@ -2,10 +2,14 @@ package unit.evolve_nn;
 
 import dataset.InputOutput;
 import error_metrics.ErrorMetric;
+import error_metrics.MeanMagnitudeRelativeError;
 import evolve_nn.SEEProblem;
 import evolve_nn.SEESolution;
+import neural_network.FeedForwardPerceptron;
 import neural_network.INeuralNetwork;
+import neural_network.Precision;
 import org.junit.Test;
+import test_helper.ProblemHelper;
 import test_helper.SolutionHelper;
 
 import java.util.ArrayList;
@@ -14,6 +18,7 @@ import java.util.List;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.*;
+import static test_helper.ThrowableCaptor.captureThrowable;
 
 public class SEEProblemTest {
 
@@ -23,6 +28,7 @@ public class SEEProblemTest {
         InputOutput[] trainingData = new InputOutput[1];
 
         InputOutput inputOutput = mock(InputOutput.class);
+        when(inputOutput.getInputValues()).thenReturn(new double[]{3.0});
         when(inputOutput.getOutputs()).thenReturn(new Double[]{1.0});
 
         trainingData[0] = inputOutput;
@@ -40,7 +46,11 @@ public class SEEProblemTest {
         minimisingEMs.add(minimisingEM);
 
         INeuralNetwork nn = mock(INeuralNetwork.class);
-        when(nn.executeNetwork(any())).thenReturn(new Double[]{2.0});
+        doAnswer(invocation -> {
+            double[] outputs = (double[]) invocation.getArguments()[1];
+            outputs[0] = 2.0;
+            return null;
+        }).when(nn).executeBatch(any(), any());
 
         SEESolution solution = spy(SolutionHelper.makeSolution(new Double[]{1.0}));
         when(solution.getNeuralNetwork()).thenReturn(nn);
@@ -59,4 +69,69 @@ public class SEEProblemTest {
         assertEquals(0, maximising, 0);
         assertEquals(4, minimising, 0);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testEvaluateExactly() throws Exception {
+        // Arrange
+        SEEProblem problem = ProblemHelper.makeProblem(2, 40, 2, new MeanMagnitudeRelativeError());
+        problem.setPrecision(Precision.SINGLE);
+
+        SEESolution solution = problem.createSolution();
+        FeedForwardPerceptron network = (FeedForwardPerceptron) solution.getNeuralNetwork();
+
+        SEESolution doublePrecision = new SEESolution(1, network.copy());
+        ((FeedForwardPerceptron) doublePrecision.getNeuralNetwork()).setPrecision(Precision.DOUBLE);
+
+        // Act
+        problem.evaluate(solution);
+        double approximate = solution.getObjective(0);
+
+        problem.evaluateExactly(solution);
+        double exact = solution.getObjective(0);
+
+        problem.evaluate(doublePrecision);
+
+        // Assert
+        assertEquals(Precision.SINGLE, network.getPrecision());
+        assertEquals(doublePrecision.getObjective(0), exact, 0);
+        assertEquals(exact, approximate, 1e-3);
+    }
+
+    @Test
+    public void testSetCompileNetworks() throws Exception {
+        // Arrange
+        SEEProblem problem = ProblemHelper.makeProblem(3, 10, 2, new MeanMagnitudeRelativeError());
+        SEESolution solution = problem.createSolution();
+
+        FeedForwardPerceptron interpreted = (FeedForwardPerceptron) solution.getNeuralNetwork();
+        double[] inputs = {0.25, 0.75};
+
+        // Act
+        problem.setCompileNetworks(true);
+        FeedForwardPerceptron compiled = (FeedForwardPerceptron) problem.createSolution().getNeuralNetwork();
+
+        for (int i = 0; i < interpreted.getNumberOfWeights(); i++)
+            compiled.setWeight(i, interpreted.getWeight(i));
+
+        double[] interpretedOutputs = new double[1], compiledOutputs = new double[1];
+        interpreted.executeNetwork(inputs, interpretedOutputs);
+        compiled.executeNetwork(inputs, compiledOutputs);
+
+        // Assert
+        assertEquals(interpretedOutputs[0], compiledOutputs[0], 0);
+    }
+
+    @Test
+    public void testSetCompileNetworksTooLarge() throws Exception {
+        // Arrange
+        SEEProblem problem = ProblemHelper.makeProblem(3, 2, 1000, new MeanMagnitudeRelativeError());
+
+        // Act
+        Throwable err = captureThrowable(() -> problem.setCompileNetworks(true));
+        Throwable createErr = captureThrowable(problem::createSolution);
+
+        // Assert
+        assertEquals(IllegalArgumentException.class, err.getClass());
+        assertEquals(null, createErr);
+    }
+}
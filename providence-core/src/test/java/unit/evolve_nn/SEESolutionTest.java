@@ -0,0 +1,156 @@
+package unit.evolve_nn;
+
+import evolve_nn.FastDominanceRanking;
+import evolve_nn.HarmonicCrowdingDistance;
+import evolve_nn.PopulationInformation;
+import evolve_nn.RDominanceRanking;
+import evolve_nn.SEESolution;
+import neural_network.FeedForwardPerceptron;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static test_helper.ThrowableCaptor.captureThrowable;
+
+public class SEESolutionTest {
+
+    @Test
+    public void testGenomeRoundTrip() throws IOException {
+        // Arrange
+        SEESolution original = new SEESolution(2, new FeedForwardPerceptron(3, 4, 1, 2, 0.5));
+        original.getNeuralNetwork().setThreshold(2, -0.25);
+        original.setObjective(0, 0.75);
+        original.setObjective(1, 12.5);
+
+        SEESolution read = new SEESolution(2, new FeedForwardPerceptron(3, 4, 1, 2, 1.0));
+
+        // Act
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        original.writeGenome(new DataOutputStream(bytes));
+        read.readGenome(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        // Assert
+        for (int i = 0; i < original.getNeuralNetwork().getNumberOfWeights(); i++)
+            assertEquals(original.getNeuralNetwork().getWeight(i), read.getNeuralNetwork().getWeight(i));
+
+        for (int i = 0; i < original.getNeuralNetwork().getNumberOfThresholds(); i++)
+            assertEquals(original.getNeuralNetwork().getThreshold(i), read.getNeuralNetwork().getThreshold(i));
+
+        assertEquals(0.75, read.getObjective(0), 0);
+        assertEquals(12.5, read.getObjective(1), 0);
+    }
+
+    @Test
+    public void testDirty() {
+        // Arrange
+        SEESolution solution = new SEESolution(1, new FeedForwardPerceptron(2, 2, 1, 1, 1.0));
+
+        // Act
+        boolean created = solution.isDirty();
+
+        solution.markEvaluated();
+        boolean evaluated = solution.isDirty();
+
+        solution.setVariableValue(0, 0.5);
+        boolean changed = solution.isDirty();
+
+        // Assert
+        assertTrue(created);
+        assertFalse(evaluated);
+        assertTrue(changed);
+    }
+
+    @Test
+    public void testAttributesOfRankingAndCrowding() {
+        // Arrange
+        SEESolution solution = new SEESolution(2, new FeedForwardPerceptron(2, 2, 1, 1, 1.0));
+
+        // Act
+        Object unranked = solution.getAttribute(FastDominanceRanking.class);
+
+        solution.setAttribute(FastDominanceRanking.class, 3);
+        solution.setAttribute(HarmonicCrowdingDistance.class, 0.5);
+        solution.setAttribute("other", "value");
+
+        // Assert
+        assertNull(unranked);
+        assertTrue(Double.isNaN(solution.getObjective(0)));
+        assertEquals(3, solution.getRank());
+        assertEquals(0.5, solution.getCrowdingDistance(), 0);
+        assertEquals(0.5, (Double) solution.getAttribute(HarmonicCrowdingDistance.class), 0);
+        assertEquals("value", solution.getAttribute("other"));
+    }
+
+    @Test
+    public void testRankingsHaveSeparateSlots() {
+        // Arrange
+        SEESolution solution = new SEESolution(2, new FeedForwardPerceptron(2, 2, 1, 1, 1.0));
+
+        // Act
+        solution.setAttribute(RDominanceRanking.class, 2);
+        solution.setAttribute(FastDominanceRanking.class, 0);
+
+        // Assert
+        assertEquals(0, solution.getRank());
+        assertEquals(2, solution.getRDominanceRank());
+        assertEquals(0, solution.getAttribute(FastDominanceRanking.class));
+        assertEquals(2, solution.getAttribute(RDominanceRanking.class));
+    }
+
+    @Test
+    public void testNonDominatedPopulationLeavesRanksUntouched() {
+        // Arrange
+        SEESolution best = solution(0.1, 0.1), dominated = solution(0.5, 0.5), other = solution(0.05, 0.9);
+        List<SEESolution> population = Arrays.asList(dominated, best, other);
+
+        for (SEESolution solution : population) {
+            solution.setRank(7);
+            solution.setRDominanceRank(7);
+        }
+
+        // Act
+        List<SEESolution> nonDominated = new PopulationInformation<>(1, population).getNonDominatedPopulation();
+
+        // Assert
+        assertEquals(Arrays.asList(best, other), nonDominated);
+
+        for (SEESolution solution : population) {
+            assertEquals(7, solution.getRank());
+            assertEquals(7, solution.getRDominanceRank());
+        }
+    }
+
+    @Test
+    public void testReadGenomeOfAnotherShape() throws IOException {
+        // Arrange
+        SEESolution original = new SEESolution(2, new FeedForwardPerceptron(3, 4, 1, 1, 1.0));
+        SEESolution read = new SEESolution(2, new FeedForwardPerceptron(3, 5, 1, 1, 1.0));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        original.writeGenome(new DataOutputStream(bytes));
+
+        // Act
+        Throwable wrongShape = captureThrowable(() ->
+                read.readGenome(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+
+        // Assert
+        assertTrue(wrongShape instanceof IOException);
+    }
+
+    private static SEESolution solution(double first, double second) {
+        SEESolution solution = new SEESolution(2, new FeedForwardPerceptron(2, 2, 1, 1, 1.0));
+        solution.setObjective(0, first);
+        solution.setObjective(1, second);
+        return solution;
+    }
+}
@@ -0,0 +1,64 @@
+package unit.evolve_nn;
+
+import error_metrics.MeanMagnitudeRelativeError;
+import error_metrics.PRED25Error;
+import evolve_nn.GaussianMutation;
+import evolve_nn.MLPCrossOver;
+import evolve_nn.PopulationInformation;
+import evolve_nn.RHaDMOEA;
+import evolve_nn.SEEProblem;
+import evolve_nn.SEESolution;
+import evolve_nn.SteadyStateRunner;
+import org.junit.Test;
+import test_helper.ProblemHelper;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static test_helper.ThrowableCaptor.captureThrowable;
+
+public class SteadyStateRunnerTest {
+
+    @Test
+    public void testRunFor() {
+        for (Double[] aspirationPoint : new Double[][]{null, {0.5, 0.5}}) {
+            // Arrange
+            RHaDMOEA algorithm = createAlgorithm();
+            algorithm.setAspirationPoint(aspirationPoint);
+
+            SteadyStateRunner runner = new SteadyStateRunner(algorithm, 4);
+
+            // Act
+            PopulationInformation<SEESolution> first = runner.runFor(3);
+            PopulationInformation<SEESolution> second = runner.runFor(2);
+
+            // Assert
+            assertEquals(12, first.getPopulation().size());
+            assertEquals(12, second.getPopulation().size());
+            assertEquals(2 * 12, runner.getChildrenInserted());
+
+            for (SEESolution solution : second.getPopulation()) {
+                assertNotNull(solution.getObjectives()[0]);
+                assertNotNull(solution.getObjectives()[1]);
+            }
+
+            assertTrue(second.getNonDominatedPopulation().size() > 0);
+        }
+    }
+
+    @Test
+    public void testConstructor() {
+        // Act
+        Throwable noWorkers = captureThrowable(() -> new SteadyStateRunner(createAlgorithm(), 0));
+
+        // Assert
+        assertTrue(noWorkers instanceof IllegalArgumentException);
+    }
+
+    private static RHaDMOEA createAlgorithm() {
+        SEEProblem problem = ProblemHelper.makeProblem(6, 30, 2, new MeanMagnitudeRelativeError(), new PRED25Error());
+
+        return new RHaDMOEA(problem, 12, new MLPCrossOver(0.3, 10), new GaussianMutation(0.3));
+    }
+}
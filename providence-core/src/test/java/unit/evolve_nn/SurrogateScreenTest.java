@@ -0,0 +1,150 @@
+package unit.evolve_nn;
+
+import evolve_nn.SEESolution;
+import evolve_nn.SurrogateScreen;
+import neural_network.FeedForwardPerceptron;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static test_helper.ThrowableCaptor.captureThrowable;
+
+public class SurrogateScreenTest {
+
+    @Test
+    public void testScreenKeepsMostPromisingChildren() {
+        // Arrange
+        SurrogateScreen screen = new SurrogateScreen(1, 0.5, 10);
+        screen.record(Arrays.asList(createSolution(0, 0, 0), createSolution(1, 10, 10)));
+
+        SEESolution nearGood = createSolution(0.1, 0, 0);
+        SEESolution nearBad = createSolution(0.9, 0, 0);
+        nearGood.markDirty();
+        nearBad.markDirty();
+
+        List<SEESolution> parents = Collections.singletonList(createSolution(0.5, 5, 5));
+
+        // Act
+        List<SEESolution> screened = screen.screen(Arrays.asList(nearBad, nearGood), parents);
+
+        // Assert
+        assertEquals(Collections.singletonList(nearGood), screened);
+        assertEquals(2, screen.getCandidates());
+        assertEquals(1, screen.getEvaluationsSaved());
+        assertEquals(0.5, screen.getFractionSaved(), 0);
+    }
+
+    @Test
+    public void testScreenWaitsForArchive() {
+        // Arrange
+        SurrogateScreen screen = new SurrogateScreen(2, 0.5, 10);
+        screen.record(Collections.singletonList(createSolution(0, 0, 0)));
+
+        List<SEESolution> offspring = Arrays.asList(createSolution(0.1, 0, 0), createSolution(0.9, 0, 0));
+        offspring.forEach(SEESolution::markDirty);
+
+        // Act
+        List<SEESolution> screened = screen.screen(offspring, offspring);
+
+        // Assert
+        assertEquals(offspring, screened);
+        assertEquals(0, screen.getEvaluationsSaved());
+    }
+
+    @Test
+    public void testRecordMeasuresAccuracy() {
+        // Arrange
+        SurrogateScreen screen = new SurrogateScreen(1, 1, 10);
+        screen.record(Arrays.asList(createSolution(0, 0, 0), createSolution(1, 10, 10)));
+
+        SEESolution nearGood = createSolution(0.1, 0, 0);
+        SEESolution nearBad = createSolution(0.9, 0, 0);
+        nearGood.markDirty();
+        nearBad.markDirty();
+
+        List<SEESolution> screened = screen.screen(Arrays.asList(nearGood, nearBad), Collections.emptyList());
+
+        // Evaluated in the predicted order in the first objective but not the second
+        nearGood.setObjective(0, 1);
+        nearGood.setObjective(1, 9);
+        nearBad.setObjective(0, 9);
+        nearBad.setObjective(1, 1);
+
+        // Act
+        screen.record(screened);
+
+        // Assert
+        assertEquals(0.5, screen.getAccuracy(), 0);
+    }
+
+    @Test
+    public void testReadState() throws IOException {
+        // Arrange
+        SurrogateScreen written = new SurrogateScreen(1, 0.5, 10);
+        written.record(Arrays.asList(createSolution(0, 0, 0), createSolution(1, 10, 10)));
+
+        SurrogateScreen read = new SurrogateScreen(1, 0.5, 10);
+        SurrogateScreen smallerArchive = new SurrogateScreen(1, 0.5, 5);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        written.writeState(new DataOutputStream(bytes));
+
+        SEESolution nearGood = createSolution(0.1, 0, 0);
+        SEESolution nearBad = createSolution(0.9, 0, 0);
+        nearGood.markDirty();
+        nearBad.markDirty();
+
+        List<SEESolution> parents = Collections.singletonList(createSolution(0.5, 5, 5));
+
+        // Act
+        read.readState(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        Throwable err = captureThrowable(() ->
+                smallerArchive.readState(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+
+        List<SEESolution> screened = read.screen(Arrays.asList(nearBad, nearGood), parents);
+
+        // Assert
+        assertEquals(Collections.singletonList(nearGood), screened);
+        assertTrue(err instanceof IOException);
+    }
+
+    @Test
+    public void testConstructor() {
+        // Act
+        Throwable noNeighbours = captureThrowable(() -> new SurrogateScreen(0, 0.5, 10));
+        Throwable noneEvaluated = captureThrowable(() -> new SurrogateScreen(3, 0, 10));
+        Throwable smallArchive = captureThrowable(() -> new SurrogateScreen(3, 0.5, 2));
+
+        // Assert
+        assertTrue(noNeighbours instanceof IllegalArgumentException);
+        assertTrue(noneEvaluated instanceof IllegalArgumentException);
+        assertTrue(smallArchive instanceof IllegalArgumentException);
+    }
+
+    /**
+     * @return An evaluated solution with every weight and threshold set to the value provided.
+     */
+    private static SEESolution createSolution(double value, double firstObjective, double secondObjective) {
+        SEESolution solution = new SEESolution(2, new FeedForwardPerceptron(2, 3, 1, 1, 1.0));
+
+        double[] genome = solution.getGenome();
+
+        for (int i = 0; i < genome.length; i++)
+            solution.setVariableValue(i, value);
+
+        solution.setObjective(0, firstObjective);
+        solution.setObjective(1, secondObjective);
+        solution.markEvaluated();
+
+        return solution;
+    }
+}
@@ -0,0 +1,35 @@
+package unit.neural_network;
+
+import neural_network.FastLogisticStepFunc;
+import neural_network.IStepFunction;
+import neural_network.LogisticStepFunc;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class FastLogisticStepFuncTest {
+
+    @Test
+    public void testResponse() {
+        // Arrange
+        IStepFunction fast = new FastLogisticStepFunc();
+        IStepFunction exact = new LogisticStepFunc();
+
+        double[] inputs = new double[241];
+
+        for (int i = 0; i < inputs.length; i++)
+            inputs[i] = -30 + i * 0.25;
+
+        // Act
+        double zero = fast.response(0);
+
+        double[] fastOutputs = new double[inputs.length];
+        fast.response(inputs, fastOutputs, 0, inputs.length);
+
+        // Assert
+        assertEquals(0.5, zero, 0);
+
+        for (int i = 0; i < inputs.length; i++)
+            assertEquals(exact.response(inputs[i]), fastOutputs[i], 1e-15);
+    }
+}
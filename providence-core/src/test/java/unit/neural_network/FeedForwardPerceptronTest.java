@@ -2,11 +2,19 @@ package unit.neural_network;
 
 import neural_network.FeedForwardPerceptron;
 import neural_network.IStepFunction;
+import neural_network.InferenceBackend;
+import neural_network.InputMatrix;
 import neural_network.IWeightInitialiser;
+import neural_network.LinearStepFunc;
+import neural_network.LogisticStepFunc;
+import neural_network.Precision;
+import neural_network.RandomWeightInit;
+import neural_network.TanhStepFunc;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.Random;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
@@ -65,6 +73,252 @@ public class FeedForwardPerceptronTest {
         assertEquals(IllegalArgumentException.class, wrongNumOfInputs.getClass());
     }
 
+    @Test
+    public void testExecuteNetworkWithPrimitives() {
+        // Arrange
+        IWeightInitialiser simpleConsistentWeights = mock(IWeightInitialiser.class);
+        when(simpleConsistentWeights.init(anyInt(), anyDouble(), anyDouble())).thenReturn(
+                new Double[]{
+                        0.5, -1.0,
+                        2.0, 0.25, -0.75, 1.5,
+                        -2.0, 3.0
+                });
+
+        FeedForwardPerceptron nn = new FeedForwardPerceptron(1, 2, 1, 2, 0.1, simpleConsistentWeights);
+
+        double[] inputs = {0.7};
+        double[] outputs = new double[1];
+
+        IStepFunction logistic = new LogisticStepFunc();
+        double hiddenOne = logistic.response(0.7 * 0.5 - 0.1);
+        double hiddenTwo = logistic.response(0.7 * -1.0 - 0.1);
+        double secondOne = logistic.response(0.0 + hiddenOne * 2.0 + hiddenTwo * 0.25 - 0.1);
+        double secondTwo = logistic.response(0.0 + hiddenOne * -0.75 + hiddenTwo * 1.5 - 0.1);
+        double expected = 0.0 + secondOne * -2.0 + secondTwo * 3.0 - 0.1;
+
+        // Act
+        Double[] boxed = nn.executeNetwork(new Double[]{0.7});
+        nn.executeNetwork(inputs, outputs);
+
+        Throwable wrongNumOfInputs = captureThrowable(
+                () -> nn.executeNetwork(new double[]{1.0, 2.0}, outputs));
+        Throwable tooFewOutputs = captureThrowable(
+                () -> nn.executeNetwork(inputs, new double[0]));
+
+        // Assert
+        assertEquals(expected, outputs[0], 0);
+        assertEquals(boxed[0], outputs[0], 0);
+
+        assertNotNull(wrongNumOfInputs);
+        assertEquals(IllegalArgumentException.class, wrongNumOfInputs.getClass());
+
+        assertNotNull(tooFewOutputs);
+        assertEquals(IllegalArgumentException.class, tooFewOutputs.getClass());
+    }
+
+    @Test
+    public void testExecuteBatch() {
+        // Arrange
+        FeedForwardPerceptron nn = new FeedForwardPerceptron(5, 9, 2, 2, 0.3);
+
+        Random random = new Random(4);
+        double[][] rows = new double[150][5];
+
+        for (double[] row : rows)
+            for (int i = 0; i < row.length; i++)
+                row[i] = random.nextGaussian();
+
+        InputMatrix rowMajor = InputMatrix.fromRows(rows, InputMatrix.Layout.ROW_MAJOR);
+        InputMatrix columnMajor = InputMatrix.fromRows(rows, InputMatrix.Layout.COLUMN_MAJOR);
+
+        double[] rowMajorOutputs = new double[rows.length * 2];
+        double[] columnMajorOutputs = new double[rows.length * 2];
+
+        // Act
+        nn.executeBatch(rowMajor, rowMajorOutputs);
+        nn.executeBatch(columnMajor, columnMajorOutputs);
+
+        Throwable wrongNumOfInputs = captureThrowable(
+                () -> nn.executeBatch(new InputMatrix(new double[4], 2, 2, InputMatrix.Layout.ROW_MAJOR), new double[4]));
+        Throwable tooFewOutputs = captureThrowable(
+                () -> nn.executeBatch(rowMajor, new double[rows.length]));
+
+        // Assert
+        double[] outputs = new double[2];
+
+        for (int i = 0; i < rows.length; i++) {
+            nn.executeNetwork(rows[i], outputs);
+
+            assertEquals(outputs[0], rowMajorOutputs[i * 2], 0);
+            assertEquals(outputs[1], rowMajorOutputs[i * 2 + 1], 0);
+            assertEquals(outputs[0], columnMajorOutputs[i * 2], 0);
+            assertEquals(outputs[1], columnMajorOutputs[i * 2 + 1], 0);
+        }
+
+        assertNotNull(wrongNumOfInputs);
+        assertEquals(IllegalArgumentException.class, wrongNumOfInputs.getClass());
+
+        assertNotNull(tooFewOutputs);
+        assertEquals(IllegalArgumentException.class, tooFewOutputs.getClass());
+    }
+
+    @Test
+    public void testExecuteBatchWithEachBackend() {
+        // Arrange
+        FeedForwardPerceptron nn = new FeedForwardPerceptron(7, 9, 3, 2, 0.3);
+
+        Random random = new Random(9);
+        double[][] rows = new double[150][7];
+
+        for (double[] row : rows)
+            for (int i = 0; i < row.length; i++)
+                row[i] = random.nextGaussian();
+
+        InputMatrix rowMajor = InputMatrix.fromRows(rows, InputMatrix.Layout.ROW_MAJOR);
+        InputMatrix columnMajor = InputMatrix.fromRows(rows, InputMatrix.Layout.COLUMN_MAJOR);
+
+        double[] expected = new double[rows.length * 3];
+
+        for (int i = 0; i < rows.length; i++) {
+            double[] outputs = new double[3];
+            nn.executeNetwork(rows[i], outputs);
+            System.arraycopy(outputs, 0, expected, i * 3, 3);
+        }
+
+        for (InferenceBackend backend : InferenceBackend.values()) {
+            double[] rowMajorOutputs = new double[rows.length * 3];
+            double[] columnMajorOutputs = new double[rows.length * 3];
+
+            // Act
+            nn.setInferenceBackend(backend);
+            nn.executeBatch(rowMajor, rowMajorOutputs);
+            nn.executeBatch(columnMajor, columnMajorOutputs);
+
+            // Assert
+            assertTrue(backend.name(), Arrays.equals(expected, rowMajorOutputs));
+            assertTrue(backend.name(), Arrays.equals(expected, columnMajorOutputs));
+            assertEquals(backend, ((FeedForwardPerceptron) nn.copy()).getInferenceBackend());
+        }
+    }
+
+    @Test
+    public void testExecuteBatchInSinglePrecision() {
+        // Arrange
+        FeedForwardPerceptron nn = new FeedForwardPerceptron(6, 9, 1, 1, 1.0);
+        nn.setPrecision(Precision.SINGLE);
+
+        Random random = new Random(8);
+        double[][] rows = new double[150][6];
+
+        for (double[] row : rows)
+            for (int i = 0; i < row.length; i++)
+                row[i] = random.nextDouble();
+
+        InputMatrix rowMajor = InputMatrix.fromRows(rows, InputMatrix.Layout.ROW_MAJOR);
+        InputMatrix columnMajor = InputMatrix.fromRows(rows, InputMatrix.Layout.COLUMN_MAJOR);
+
+        double[] rowMajorOutputs = new double[rows.length];
+        double[] columnMajorOutputs = new double[rows.length];
+        double[] exactOutputs = new double[rows.length];
+
+        // Act
+        nn.executeBatch(rowMajor, rowMajorOutputs);
+        nn.executeBatch(columnMajor, columnMajorOutputs);
+        nn.executeBatch(columnMajor, exactOutputs, Precision.DOUBLE);
+
+        // Assert
+        double[] outputs = new double[1];
+
+        for (int i = 0; i < rows.length; i++) {
+            nn.executeNetwork(rows[i], outputs);
+
+            assertEquals(outputs[0], exactOutputs[i], 0);
+            assertEquals(outputs[0], rowMajorOutputs[i], 1e-4 * Math.max(1, Math.abs(outputs[0])));
+            assertEquals(rowMajorOutputs[i], columnMajorOutputs[i], 0);
+        }
+
+        assertEquals(Precision.SINGLE, ((FeedForwardPerceptron) nn.copy()).getPrecision());
+    }
+
+    @Test
+    public void testExecuteBatchInSinglePrecisionAfterChange() {
+        // Arrange
+        FeedForwardPerceptron nn = new FeedForwardPerceptron(2, 3, 1, 1, 1.0);
+        nn.setPrecision(Precision.SINGLE);
+
+        InputMatrix inputs = InputMatrix.fromRows(new double[][]{{0.3, 0.6}, {0.9, 0.1}}, InputMatrix.Layout.COLUMN_MAJOR);
+        double[] before = new double[2], afterWeight = new double[2], afterThreshold = new double[2];
+        double[] exact = new double[2];
+
+        // Act
+        nn.executeBatch(inputs, before);
+
+        nn.setWeight(0, nn.getWeight(0) + 1);
+        nn.executeBatch(inputs, afterWeight);
+
+        nn.setThreshold(nn.getNumberOfThresholds() - 1, 3.0);
+        nn.executeBatch(inputs, afterThreshold);
+
+        nn.executeBatch(inputs, exact, Precision.DOUBLE);
+
+        // Assert
+        assertNotEquals(before[0], afterWeight[0], 0);
+        assertNotEquals(afterWeight[0], afterThreshold[0], 0);
+
+        for (int i = 0; i < exact.length; i++)
+            assertEquals(exact[i], afterThreshold[i], 1e-5);
+    }
+
+    @Test
+    public void testCopyKeepsStepFunctions() {
+        // Arrange
+        FeedForwardPerceptron nn = new FeedForwardPerceptron(3, 4, 1, 1, 1.0,
+                new RandomWeightInit(), new TanhStepFunc(), new LinearStepFunc());
+
+        double[] inputs = {0.2, -0.4, 0.9};
+        double[] expected = new double[1], actual = new double[1];
+
+        // Act
+        FeedForwardPerceptron copy = (FeedForwardPerceptron) nn.copy();
+
+        nn.executeNetwork(inputs, expected);
+        copy.executeNetwork(inputs, actual);
+
+        // Assert
+        assertTrue(nn.hasSameShape(copy));
+        assertEquals(expected[0], actual[0], 0);
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        // Arrange
+        FeedForwardPerceptron nn = new FeedForwardPerceptron(2, 3, 1, 1, 0.5);
+        Double[] originalWeights = nn.getWeights();
+
+        // Act
+        FeedForwardPerceptron copy = (FeedForwardPerceptron) nn.copy();
+        FeedForwardPerceptron secondCopy = (FeedForwardPerceptron) nn.copy();
+
+        Double[] copiedWeights = copy.getWeights();
+
+        copy.setWeight(0, 42.0);
+        nn.setWeight(1, -42.0);
+
+        // Assert
+        assertArrayEquals(originalWeights, copiedWeights);
+
+        assertEquals(42.0, copy.getWeight(0), 0);
+        assertEquals(originalWeights[1], copy.getWeight(1), 0);
+
+        assertEquals(originalWeights[0], nn.getWeight(0), 0);
+        assertEquals(-42.0, nn.getWeight(1), 0);
+
+        assertArrayEquals(originalWeights, secondCopy.getWeights());
+
+        for (Double threshold : copy.getThresholds())
+            assertEquals(1.0, threshold, 0);
+    }
+
     @Test
     public void testGetWeightsForNode() {
         // Arrange
@@ -0,0 +1,28 @@
+package unit.neural_network;
+
+import neural_network.HardSigmoidStepFunc;
+import neural_network.IStepFunction;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class HardSigmoidStepFuncTest {
+
+    @Test
+    public void testResponse() {
+        // Arrange
+        IStepFunction hardSigmoid = new HardSigmoidStepFunc();
+
+        // Act
+        double largeNegative = hardSigmoid.response(-3);
+        double zero = hardSigmoid.response(0);
+        double positive = hardSigmoid.response(1);
+        double largePositive = hardSigmoid.response(3);
+
+        // Assert
+        assertEquals(0, largeNegative, 0);
+        assertEquals(0.5, zero, 0);
+        assertEquals(0.7, positive, 1e-12);
+        assertEquals(1, largePositive, 0);
+    }
+}
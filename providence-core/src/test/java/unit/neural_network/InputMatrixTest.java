@@ -0,0 +1,56 @@
+package unit.neural_network;
+
+import neural_network.InputMatrix;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static test_helper.ThrowableCaptor.captureThrowable;
+
+public class InputMatrixTest {
+
+    @Test
+    public void testFromRows() {
+        // Arrange
+        double[][] rows = {
+                {1.0, 2.0, 3.0},
+                {4.0, 5.0, 6.0}
+        };
+
+        // Act
+        InputMatrix rowMajor = InputMatrix.fromRows(rows, InputMatrix.Layout.ROW_MAJOR);
+        InputMatrix columnMajor = InputMatrix.fromRows(rows, InputMatrix.Layout.COLUMN_MAJOR);
+
+        Throwable ragged = captureThrowable(
+                () -> InputMatrix.fromRows(new double[][]{{1.0}, {1.0, 2.0}}, InputMatrix.Layout.ROW_MAJOR));
+
+        // Assert
+        assertArrayEquals(new double[]{1.0, 2.0, 3.0, 4.0, 5.0, 6.0}, rowMajor.getValues(), 0);
+        assertArrayEquals(new double[]{1.0, 4.0, 2.0, 5.0, 3.0, 6.0}, columnMajor.getValues(), 0);
+
+        for (int i = 0; i < rows.length; i++) {
+            for (int j = 0; j < rows[i].length; j++) {
+                assertEquals(rows[i][j], rowMajor.get(i, j), 0);
+                assertEquals(rows[i][j], columnMajor.get(i, j), 0);
+            }
+        }
+
+        assertArrayEquals(new float[]{1.0f, 4.0f, 2.0f, 5.0f, 3.0f, 6.0f}, columnMajor.getSingleValues(), 0);
+
+        assertEquals(2, columnMajor.getRows());
+        assertEquals(3, columnMajor.getColumns());
+
+        assertNotNull(ragged);
+        assertEquals(IllegalArgumentException.class, ragged.getClass());
+    }
+
+    @Test
+    public void testConstructWithWrongNumberOfValues() {
+        // Act
+        Throwable tooFewValues = captureThrowable(
+                () -> new InputMatrix(new double[5], 2, 3, InputMatrix.Layout.ROW_MAJOR));
+
+        // Assert
+        assertNotNull(tooFewValues);
+        assertEquals(IllegalArgumentException.class, tooFewValues.getClass());
+    }
+}
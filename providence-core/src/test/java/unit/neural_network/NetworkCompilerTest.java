@@ -0,0 +1,83 @@
+package unit.neural_network;
+
+import neural_network.FeedForwardPerceptron;
+import neural_network.LinearStepFunc;
+import neural_network.LogisticStepFunc;
+import neural_network.NetworkCompiler;
+import neural_network.NetworkEvaluator;
+import neural_network.RandomWeightInit;
+import neural_network.TanhStepFunc;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+import static test_helper.ThrowableCaptor.captureThrowable;
+
+public class NetworkCompilerTest {
+
+    @Test
+    public void testCompile() {
+        // Arrange
+        FeedForwardPerceptron[] networks = {
+                new FeedForwardPerceptron(8, 9, 1, 1, 1.0),
+                new FeedForwardPerceptron(3, 5, 3, 3, 0.2,
+                        new RandomWeightInit(), new TanhStepFunc(), new LogisticStepFunc()),
+                new FeedForwardPerceptron(200, 2, 1, 1, 0.5,
+                        new RandomWeightInit(), new LinearStepFunc(), new LinearStepFunc())
+        };
+
+        Random random = new Random(11);
+
+        for (FeedForwardPerceptron network : networks) {
+            double[][] rows = new double[20][network.countNodesInLayer(0)];
+            double[][] expected = new double[rows.length][network.countNodesInLayer(network.getOutputLayerIndex())];
+            double[][] actual = new double[rows.length][expected[0].length];
+
+            for (int row = 0; row < rows.length; row++) {
+                for (int i = 0; i < rows[row].length; i++)
+                    rows[row][i] = random.nextGaussian();
+
+                network.executeNetwork(rows[row], expected[row]);
+            }
+
+            // Act
+            network.setCompiledEvaluator(NetworkCompiler.compile(network));
+
+            for (int row = 0; row < rows.length; row++)
+                network.executeNetwork(rows[row], actual[row]);
+
+            // Assert
+            assertTrue(Arrays.deepEquals(expected, actual));
+        }
+    }
+
+    @Test
+    public void testCompileSameShape() {
+        // Arrange
+        FeedForwardPerceptron first = new FeedForwardPerceptron(4, 9, 1, 1, 1.0);
+        FeedForwardPerceptron second = new FeedForwardPerceptron(4, 9, 1, 1, 1.0);
+
+        // Act
+        NetworkEvaluator firstEvaluator = NetworkCompiler.compile(first);
+        NetworkEvaluator secondEvaluator = NetworkCompiler.compile(second);
+
+        // Assert
+        assertNotSame(firstEvaluator, secondEvaluator);
+        assertSame(firstEvaluator.getClass(), secondEvaluator.getClass());
+    }
+
+    @Test
+    public void testCompileTooLarge() {
+        // Arrange
+        FeedForwardPerceptron network = new FeedForwardPerceptron(100, 50, 1, 1, 1.0);
+
+        // Act
+        Throwable tooLarge = captureThrowable(() -> NetworkCompiler.compile(network));
+
+        // Assert
+        assertNotNull(tooLarge);
+        assertEquals(IllegalArgumentException.class, tooLarge.getClass());
+    }
+}
@@ -0,0 +1,107 @@
+package unit.neural_network;
+
+import neural_network.FeedForwardPerceptron;
+import neural_network.InputMatrix;
+import neural_network.PackedNetworks;
+import neural_network.Precision;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+import static test_helper.ThrowableCaptor.captureThrowable;
+
+public class PackedNetworksTest {
+
+    @Test
+    public void testExecuteBatch() {
+        // Arrange
+        Random random = new Random(7);
+
+        double[][] rows = new double[150][4];
+        for (double[] row : rows)
+            for (int i = 0; i < row.length; i++)
+                row[i] = random.nextDouble();
+
+        InputMatrix inputs = InputMatrix.fromRows(rows, InputMatrix.Layout.COLUMN_MAJOR);
+
+        List<FeedForwardPerceptron> networks = new ArrayList<>();
+        for (int i = 0; i < 5; i++)
+            networks.add(new FeedForwardPerceptron(4, 9, 1, 1, 1.0));
+
+        PackedNetworks packedNetworks = new PackedNetworks(networks);
+
+        // Act
+        double[][] outputs = packedNetworks.executeBatch(inputs);
+
+        // Assert
+        assertEquals(5, packedNetworks.getNumberOfNetworks());
+
+        for (int i = 0; i < networks.size(); i++) {
+            double[] expected = new double[rows.length];
+            networks.get(i).executeBatch(inputs, expected);
+
+            assertTrue(Arrays.equals(expected, outputs[i]));
+        }
+    }
+
+    @Test
+    public void testExecuteBatchInSinglePrecision() {
+        // Arrange
+        Random random = new Random(7);
+
+        double[][] rows = new double[100][4];
+        for (double[] row : rows)
+            for (int i = 0; i < row.length; i++)
+                row[i] = random.nextDouble();
+
+        InputMatrix inputs = InputMatrix.fromRows(rows, InputMatrix.Layout.COLUMN_MAJOR);
+
+        List<FeedForwardPerceptron> networks = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            FeedForwardPerceptron network = new FeedForwardPerceptron(4, 9, 1, 1, 1.0);
+            network.setPrecision(Precision.SINGLE);
+
+            networks.add(network);
+        }
+
+        // Act
+        double[][] outputs = new PackedNetworks(networks).executeBatch(inputs);
+
+        // Assert
+        for (int i = 0; i < networks.size(); i++) {
+            double[] expected = new double[rows.length];
+            networks.get(i).executeBatch(inputs, expected);
+
+            assertTrue(Arrays.equals(expected, outputs[i]));
+        }
+    }
+
+    @Test
+    public void testPackDifferentShapes() {
+        // Arrange
+        List<FeedForwardPerceptron> networks = new ArrayList<>();
+        networks.add(new FeedForwardPerceptron(4, 9, 1, 1, 1.0));
+        networks.add(new FeedForwardPerceptron(4, 8, 1, 1, 1.0));
+
+        FeedForwardPerceptron singlePrecision = new FeedForwardPerceptron(4, 9, 1, 1, 1.0);
+        singlePrecision.setPrecision(Precision.SINGLE);
+
+        List<FeedForwardPerceptron> differentPrecisions = new ArrayList<>();
+        differentPrecisions.add(new FeedForwardPerceptron(4, 9, 1, 1, 1.0));
+        differentPrecisions.add(singlePrecision);
+
+        // Act
+        Throwable differentShapes = captureThrowable(() -> new PackedNetworks(networks));
+        Throwable noNetworks = captureThrowable(() -> new PackedNetworks(new ArrayList<>()));
+        Throwable differentPrecision = captureThrowable(() -> new PackedNetworks(differentPrecisions));
+
+        // Assert
+        assertTrue(differentShapes instanceof IllegalArgumentException);
+        assertTrue(noNetworks instanceof IllegalArgumentException);
+        assertTrue(differentPrecision instanceof IllegalArgumentException);
+    }
+}
@@ -0,0 +1,91 @@
+package unit.neural_network;
+
+import neural_network.FeedForwardPerceptron;
+import neural_network.Predictor;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+
+public class PredictorTest {
+
+    @Test
+    public void testPredict() {
+        // Arrange
+        FeedForwardPerceptron network = new FeedForwardPerceptron(3, 9, 2, 2, 0.4);
+        double[] inputs = {0.1, 0.5, -0.3};
+
+        double[] expected = new double[2];
+        network.executeNetwork(inputs, expected);
+
+        // Act
+        Predictor predictor = network.createPredictor();
+
+        // Later changes are not seen by the snapshot
+        network.setWeight(0, network.getWeight(0) + 1);
+        network.setThreshold(0, 3.0);
+
+        double[] outputs = new double[2];
+        predictor.predict(inputs, outputs);
+
+        double output = predictor.predict(inputs);
+
+        // Assert
+        assertEquals(expected[0], outputs[0], 0);
+        assertEquals(expected[1], outputs[1], 0);
+        assertEquals(expected[0], output, 0);
+        assertEquals(3, predictor.getNumberOfInputs());
+        assertEquals(2, predictor.getNumberOfOutputs());
+    }
+
+    @Test
+    public void testPredictConcurrently() throws Exception {
+        // Arrange
+        FeedForwardPerceptron network = new FeedForwardPerceptron(5, 9, 1, 1, 1.0);
+        Predictor predictor = network.createPredictor();
+
+        Random random = new Random(5);
+        double[][] rows = new double[2000][5];
+
+        for (double[] row : rows)
+            for (int i = 0; i < row.length; i++)
+                row[i] = random.nextGaussian();
+
+        double[] expected = new double[rows.length];
+
+        for (int i = 0; i < rows.length; i++)
+            expected[i] = predictor.predict(rows[i]);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // Act
+        List<Future<double[]>> results = new ArrayList<>();
+
+        for (int thread = 0; thread < 8; thread++) {
+            results.add(executor.submit(() -> {
+                double[] estimates = new double[rows.length];
+
+                for (int i = 0; i < rows.length; i++)
+                    estimates[i] = predictor.predict(rows[i]);
+
+                return estimates;
+            }));
+        }
+
+        // Assert
+        for (Future<double[]> result : results) {
+            double[] estimates = result.get();
+
+            for (int i = 0; i < rows.length; i++)
+                assertEquals(expected[i], estimates[i], 0);
+        }
+
+        executor.shutdown();
+    }
+}
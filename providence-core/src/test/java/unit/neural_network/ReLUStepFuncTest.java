@@ -0,0 +1,26 @@
+package unit.neural_network;
+
+import neural_network.IStepFunction;
+import neural_network.ReLUStepFunc;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ReLUStepFuncTest {
+
+    @Test
+    public void testResponse() {
+        // Arrange
+        IStepFunction relu = new ReLUStepFunc();
+
+        // Act
+        double negative = relu.response(-2);
+        double zero = relu.response(0);
+        double positive = relu.response(2.5);
+
+        // Assert
+        assertEquals(0, negative, 0);
+        assertEquals(0, zero, 0);
+        assertEquals(2.5, positive, 0);
+    }
+}
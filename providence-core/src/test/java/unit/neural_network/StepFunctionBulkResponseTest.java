@@ -0,0 +1,88 @@
+package unit.neural_network;
+
+import neural_network.IStepFunction;
+import neural_network.LinearStepFunc;
+import neural_network.StepFunctionType;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+
+@RunWith(Parameterized.class)
+public class StepFunctionBulkResponseTest {
+
+    private static final double[] INPUTS = {-30, -2.5, -1, 0, 0.3, 1, 7, 30};
+
+    private final IStepFunction stepFunction;
+
+    public StepFunctionBulkResponseTest(String name, IStepFunction stepFunction) {
+        this.stepFunction = stepFunction;
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> stepFunctions() {
+        List<Object[]> stepFunctions = new ArrayList<>();
+
+        for (StepFunctionType type : StepFunctionType.values())
+            stepFunctions.add(new Object[]{type.name(), type.create()});
+
+        stepFunctions.add(new Object[]{"LINEAR", new LinearStepFunc()});
+
+        return stepFunctions;
+    }
+
+    @Test
+    public void testBulkResponse() {
+        // Arrange
+        double[] outputs = new double[INPUTS.length];
+
+        // Act
+        stepFunction.response(INPUTS, outputs);
+
+        // Assert
+        assertArrayEquals(expectedResponses(), outputs, 0);
+    }
+
+    @Test
+    public void testBulkResponseInPlace() {
+        // Arrange
+        double[] values = INPUTS.clone();
+
+        // Act
+        stepFunction.response(values, values);
+
+        // Assert
+        assertArrayEquals(expectedResponses(), values, 0);
+    }
+
+    @Test
+    public void testBulkResponseOfRange() {
+        // Arrange
+        double[] outputs = new double[INPUTS.length];
+        Arrays.fill(outputs, -7);
+
+        double[] expected = expectedResponses();
+        expected[0] = expected[1] = expected[INPUTS.length - 1] = -7;
+
+        // Act
+        stepFunction.response(INPUTS, outputs, 2, INPUTS.length - 3);
+
+        // Assert
+        assertArrayEquals(expected, outputs, 0);
+    }
+
+    private double[] expectedResponses() {
+        double[] expected = new double[INPUTS.length];
+
+        for (int i = 0; i < INPUTS.length; i++)
+            expected[i] = stepFunction.response(INPUTS[i]);
+
+        return expected;
+    }
+}
@@ -0,0 +1,29 @@
+package unit.neural_network;
+
+import neural_network.IStepFunction;
+import neural_network.LogisticStepFunc;
+import neural_network.TableLogisticStepFunc;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class TableLogisticStepFuncTest {
+
+    @Test
+    public void testResponse() {
+        // Arrange
+        IStepFunction approximation = new TableLogisticStepFunc();
+        IStepFunction logistic = new LogisticStepFunc();
+
+        // Act
+        double largestDifference = 0;
+
+        for (double input = -40; input <= 40; input += 0.001)
+            largestDifference = Math.max(largestDifference,
+                    Math.abs(approximation.response(input) - logistic.response(input)));
+
+        // Assert
+        assertEquals(0, largestDifference, 1e-6);
+        assertEquals(0.5, approximation.response(0), 1e-9);
+    }
+}
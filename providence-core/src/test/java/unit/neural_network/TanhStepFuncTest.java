@@ -0,0 +1,28 @@
+package unit.neural_network;
+
+import neural_network.IStepFunction;
+import neural_network.TanhStepFunc;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class TanhStepFuncTest {
+
+    @Test
+    public void testResponse() {
+        // Arrange
+        IStepFunction tanh = new TanhStepFunc();
+
+        // Act
+        double negative = tanh.response(-1);
+        double zero = tanh.response(0);
+        double positive = tanh.response(1);
+        double largePositive = tanh.response(30);
+
+        // Assert
+        assertEquals(-0.76, negative, 0.01);
+        assertEquals(0, zero, 0);
+        assertEquals(0.76, positive, 0.01);
+        assertEquals(1, largePositive, 0.01);
+    }
+}
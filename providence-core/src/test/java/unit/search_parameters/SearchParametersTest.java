@@ -1,12 +1,14 @@
 package unit.search_parameters;
 
 import error_metrics.ErrorMetric;
+import neural_network.StepFunctionType;
 import org.junit.Test;
 import search_parameters.SearchParameters;
 import search_parameters.SearchParametersFactory;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
 public class SearchParametersTest {
@@ -15,6 +17,10 @@ public class SearchParametersTest {
     public void testCopy() throws Exception {
         // Arrange
         SearchParameters original = SearchParametersFactory.getDefault();
+        original.hiddenStepFunctionProperty().set(StepFunctionType.TABLE_LOGISTIC);
+        original.evaluationThreadsProperty().set(8);
+        original.evaluationChunkSizeProperty().set(5);
+        original.compileNetworksProperty().set(true);
 
         // Act
         SearchParameters copy = original.copy();
@@ -22,6 +28,10 @@ public class SearchParametersTest {
 
         // Assert
         assertEquals(original.getPopulationSize(), copy.getPopulationSize());
+        assertEquals(StepFunctionType.TABLE_LOGISTIC, copy.getHiddenStepFunction());
+        assertEquals(8, copy.getEvaluationThreads());
+        assertEquals(5, copy.getEvaluationChunkSize());
+        assertTrue(copy.isCompileNetworks());
         assertEquals(original.outputColumnsProperty().size(), copy.outputColumnsProperty().size());
 
         assertNotEquals(original.getErrorMetrics(), copy.getErrorMetrics());
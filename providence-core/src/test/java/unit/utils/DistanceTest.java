@@ -28,4 +28,24 @@ public class DistanceTest {
         assertNotNull(error);
         assertEquals(IllegalArgumentException.class, error.getClass());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetDistanceWithPrimitives() throws Exception {
+
+        // Arrange
+        double[] x = {1.0, 1.0, 1.0};
+        double[] y = {1.0, 2.0, 3.0};
+
+        double[] smallY = {3.0, 3.0};
+
+        // Act
+        double distance = Distance.getEuclideanDistance(x, y);
+        Throwable error = captureThrowable(() -> Distance.getEuclideanDistance(x, smallY));
+
+        // Assert
+        assertEquals(distance, 2.236, .001);
+
+        assertNotNull(error);
+        assertEquals(IllegalArgumentException.class, error.getClass());
+    }
+}
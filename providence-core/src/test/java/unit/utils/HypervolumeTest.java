@@ -0,0 +1,100 @@
+package unit.utils;
+
+import org.junit.Test;
+import utils.Hypervolume;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static test_helper.ThrowableCaptor.captureThrowable;
+
+public class HypervolumeTest {
+
+    @Test
+    public void testCalculateTwoObjectives() {
+        // Arrange
+        List<double[]> points = Arrays.asList(
+                new double[]{2, 2},
+                new double[]{1, 3},
+                new double[]{3, 1},
+                new double[]{3, 3}, // Dominated
+                new double[]{5, 0}); // Outside the reference point
+
+        // Act
+        double hypervolume = Hypervolume.calculate(points, new double[]{4, 4});
+
+        // Assert
+        assertEquals(6, hypervolume, 0);
+    }
+
+    @Test
+    public void testCalculateMatchesInclusionExclusion() {
+        // Arrange
+        Random random = new Random(2);
+
+        for (int numberOfObjectives = 2; numberOfObjectives <= 5; numberOfObjectives++) {
+            double[] referencePoint = new double[numberOfObjectives];
+            Arrays.fill(referencePoint, 1);
+
+            List<double[]> points = new ArrayList<>();
+
+            for (int i = 0; i < 9; i++) {
+                double[] point = new double[numberOfObjectives];
+
+                for (int j = 0; j < numberOfObjectives; j++)
+                    point[j] = random.nextInt(10) / 10.0;
+
+                points.add(point);
+            }
+
+            // Act
+            double hypervolume = Hypervolume.calculate(points, referencePoint);
+
+            // Assert
+            assertEquals(inclusionExclusion(points, referencePoint), hypervolume, 1e-12);
+        }
+    }
+
+    @Test
+    public void testCalculateWithWrongDimensions() {
+        // Act
+        Throwable wrongDimensions = captureThrowable(() ->
+                Hypervolume.calculate(Arrays.asList(new double[]{1, 2}), new double[]{3, 3, 3}));
+
+        // Assert
+        assertTrue(wrongDimensions instanceof IllegalArgumentException);
+    }
+
+    /**
+     * Adds the volume of every subset of the points, with alternating signs for odd and even sized subsets.
+     */
+    private static double inclusionExclusion(List<double[]> points, double[] referencePoint) {
+        double volume = 0;
+
+        for (int subset = 1; subset < 1 << points.size(); subset++) {
+            double[] corner = new double[referencePoint.length];
+            Arrays.fill(corner, Double.NEGATIVE_INFINITY);
+
+            for (int i = 0; i < points.size(); i++) {
+                if ((subset & (1 << i)) == 0)
+                    continue;
+
+                for (int j = 0; j < corner.length; j++)
+                    corner[j] = Math.max(corner[j], points.get(i)[j]);
+            }
+
+            double subsetVolume = 1;
+
+            for (int j = 0; j < corner.length; j++)
+                subsetVolume *= Math.max(0, referencePoint[j] - corner[j]);
+
+            volume += Integer.bitCount(subset) % 2 == 1 ? subsetVolume : -subsetVolume;
+        }
+
+        return volume;
+    }
+}
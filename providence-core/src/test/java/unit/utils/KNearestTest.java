@@ -3,8 +3,10 @@ package unit.utils;
 import evolve_nn.SEESolution;
 import org.junit.Test;
 import utils.KNearest;
+import utils.KdTree;
 
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
@@ -44,4 +46,36 @@ public class KNearestTest {
         assertArrayEquals(nearestSolutions.get(1).getObjectives(), two);
         assertArrayEquals(nearestSolutions.get(2).getObjectives(), thr);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testFindWithTree() {
+        // Arrange
+        Random random = new Random(2);
+
+        Double[][] points = new Double[500][];
+
+        for (int i = 0; i < points.length; i++) {
+            // Coarse values so some neighbours are the same distance away
+            points[i] = new Double[]{
+                    (double) random.nextInt(20),
+                    (double) random.nextInt(20),
+                    (double) random.nextInt(20)};
+        }
+
+        List<SEESolution> population = makeSolutions(points);
+        KdTree tree = new KdTree(population);
+
+        for (int k = 1; k <= 4; k++) {
+            for (int i = 0; i < population.size(); i += 7) {
+                SEESolution solution = population.get(i);
+
+                // Act
+                List<SEESolution> expected = KNearest.find(solution, population, k);
+                List<SEESolution> actual = KNearest.find(solution, tree, k);
+
+                // Assert
+                assertEquals(expected, actual);
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package unit.utils;
+
+import org.junit.Test;
+import utils.RandomStream;
+
+import static org.junit.Assert.*;
+import static test_helper.ThrowableCaptor.captureThrowable;
+
+public class RandomStreamTest {
+
+    @Test
+    public void testSameSeedSameValues() {
+        // Arrange
+        RandomStream one = new RandomStream(42);
+        RandomStream two = new RandomStream(42);
+
+        // Act
+        // Assert
+        for (int i = 0; i < 100; i++) {
+            assertEquals(one.nextLong(), two.nextLong());
+            assertEquals(one.nextGaussian(), two.nextGaussian(), 0);
+        }
+    }
+
+    @Test
+    public void testSplit() {
+        // Arrange
+        RandomStream one = new RandomStream(7);
+        RandomStream two = new RandomStream(7);
+
+        // Act
+        RandomStream splitOne = one.split();
+        RandomStream splitTwo = two.split();
+
+        long first = splitOne.nextLong();
+
+        // Assert
+        assertEquals(first, splitTwo.nextLong());
+        assertNotEquals(first, one.nextLong());
+    }
+
+    @Test
+    public void testRestore() {
+        // Arrange
+        RandomStream original = new RandomStream(3).split();
+        original.nextDouble();
+
+        // Act
+        RandomStream restored = new RandomStream(original.getSeed(), original.getGamma());
+        Throwable evenGamma = captureThrowable(() -> new RandomStream(1, 2));
+
+        // Assert
+        for (int i = 0; i < 10; i++)
+            assertEquals(original.nextLong(), restored.nextLong());
+
+        assertTrue(evenGamma instanceof IllegalArgumentException);
+    }
+
+    @Test
+    public void testNextInt() {
+        // Arrange
+        RandomStream random = new RandomStream(11);
+        boolean[] seen = new boolean[5];
+
+        // Act
+        for (int i = 0; i < 1000; i++) {
+            int value = random.nextInt(-2, 2);
+
+            assertTrue(value >= -2 && value <= 2);
+            seen[value + 2] = true;
+        }
+
+        Throwable crossed = captureThrowable(() -> random.nextInt(1, 0));
+
+        // Assert
+        for (boolean wasSeen : seen)
+            assertTrue(wasSeen);
+
+        assertEquals(3, random.nextInt(3, 3));
+        assertTrue(crossed instanceof IllegalArgumentException);
+    }
+
+    @Test
+    public void testNextDouble() {
+        // Arrange
+        RandomStream random = new RandomStream(5);
+
+        // Act
+        // Assert
+        for (int i = 0; i < 1000; i++) {
+            double value = random.nextDouble();
+            assertTrue(value >= 0 && value < 1);
+        }
+    }
+
+    @Test
+    public void testNextGaussian() {
+        // Arrange
+        RandomStream random = new RandomStream(13);
+        int samples = 200000;
+
+        double sum = 0, sumOfSquares = 0;
+        int beyondThree = 0;
+
+        // Act
+        for (int i = 0; i < samples; i++) {
+            double value = random.nextGaussian(2, 0.5);
+
+            sum += value;
+            sumOfSquares += value * value;
+
+            if (Math.abs(value - 2) > 1.5)
+                beyondThree++;
+        }
+
+        double mean = sum / samples;
+        double variance = sumOfSquares / samples - mean * mean;
+
+        // Assert
+        assertEquals(2, mean, 0.01);
+        assertEquals(0.25, variance, 0.01);
+
+        // Around 0.27% of values lie beyond three standard deviations
+        assertEquals(0.0027, beyondThree / (double) samples, 0.001);
+    }
+}
@@ -4,10 +4,12 @@ import custom_controls.GraphSeries;
 import custom_controls.IAxis;
 import custom_controls.ScientificScatterGraph;
 import dataset.TrainingData;
+import ensemble.EnsemblePredictor;
 import ensemble.ParetoEnsemble;
 import error_metrics.ErrorMetric;
 import evolve_nn.*;
 import javafx.fxml.FXML;
+import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
@@ -22,6 +24,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 /**
@@ -31,6 +34,9 @@ import java.util.stream.Collectors;
  */
 public class CalculateEstimateController extends Controller {
 
+    // The number of generations of genomes whose objectives are remembered
+    private static final int FITNESS_CACHE_GENERATIONS = 4;
+
     @FXML
     private Button run;
     @FXML
@@ -61,6 +67,9 @@ public class CalculateEstimateController extends Controller {
     private Double[] aspirationPoint;
     private int aspirationPointIndex = -1;
 
+    // The threads the search evaluates and reproduces on, or null if it runs on the JavaFX thread alone
+    private ForkJoinPool workers;
+
     @Override
     protected void initialise() throws Exception {
     }
@@ -75,7 +84,14 @@ public class CalculateEstimateController extends Controller {
         TrainingData trainingData = new TrainingData(model.getDataSet(), searchParameters.outputColumnsProperty());
 
         List<ErrorMetric> errorMetrics = searchParameters.getErrorMetrics();
-        SEEProblem problem = new SEEProblem(trainingData.getAll(), errorMetrics);
+        SEEProblem problem = new SEEProblem(trainingData.getAll(), errorMetrics, searchParameters.getHiddenStepFunction());
+        problem.setPrecision(searchParameters.getPrecision());
+
+        try {
+            problem.setCompileNetworks(searchParameters.isCompileNetworks());
+        } catch (IllegalArgumentException e) {
+            // The networks are too large to benefit from being compiled, so they are executed as they are
+        }
 
         RHaDMOEA algorithm =
                 new RHaDMOEA(
@@ -86,8 +102,32 @@ public class CalculateEstimateController extends Controller {
                         new GaussianMutation(searchParameters.getProbabilityOfMutation()),
                         .2);
 
+        IPopulationEvaluator evaluator = new SequentialPopulationEvaluator(problem);
+
+        if (searchParameters.getEvaluationThreads() > 1) {
+            shutDownWorkers();
+            workers = new ForkJoinPool(searchParameters.getEvaluationThreads());
+
+            evaluator = new ParallelPopulationEvaluator(
+                    evaluator,
+                    workers,
+                    searchParameters.getEvaluationChunkSize());
+            algorithm.setReproductionExecutor(workers);
+        }
+
+        // Remembers a few generations of genomes so children identical to a recent solution are not evaluated again
+        algorithm.setPopulationEvaluator(
+                new CachingPopulationEvaluator(evaluator, FITNESS_CACHE_GENERATIONS * searchParameters.getPopulationSize()));
+
         AlgorithmRunner<SEESolution> runner = new AlgorithmRunner<>(algorithm);
 
+        // The screen is finished with once another screen replaces it
+        Scene scene = getStage().getScene();
+        scene.windowProperty().addListener((observable, oldWindow, newWindow) -> {
+            if (newWindow == null)
+                shutDownWorkers();
+        });
+
         List<IAxis> axis = errorMetrics.stream().collect(Collectors.toList());
         graph.setMetrics(axis);
         graphSeries.setMetrics(axis);
@@ -207,7 +247,8 @@ public class CalculateEstimateController extends Controller {
         });
 
         buildEnsemble.setOnAction(event -> {
-            ParetoEnsemble ensemble = new ParetoEnsemble(nonDominatedSolutions);
+            // A snapshot, so estimates can be requested from any thread while the search carries on
+            EnsemblePredictor ensemble = new ParetoEnsemble(nonDominatedSolutions).createPredictor();
 
             if (model.getEnsemble() != null) {
                 Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
@@ -238,4 +279,15 @@ public class CalculateEstimateController extends Controller {
             }
         });
     }
+
+    /**
+     * Shuts down the threads the search runs on. Work already given to them is finished.
+     */
+    private void shutDownWorkers() {
+        if (workers == null)
+            return;
+
+        workers.shutdown();
+        workers = null;
+    }
 }
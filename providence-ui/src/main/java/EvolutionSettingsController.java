@@ -4,8 +4,12 @@ import custom_controls.IntegerTextField;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ComboBox;
 import javafx.util.converter.NumberStringConverter;
 import model_library.Model;
+import neural_network.Precision;
+import neural_network.StepFunctionType;
 import search_parameters.SearchParameters;
 
 /**
@@ -20,6 +24,11 @@ public class EvolutionSettingsController extends Modal {
     @FXML private DecimalTextField probabilityOfCrossover;
     @FXML private DecimalTextField probabilityOfMutation;
     @FXML private IntegerTextField annealTime;
+    @FXML private ComboBox<StepFunctionType> hiddenStepFunction;
+    @FXML private ComboBox<Precision> precision;
+    @FXML private CheckBox compileNetworks;
+    @FXML private IntegerTextField evaluationThreads;
+    @FXML private IntegerTextField evaluationChunkSize;
 
     @FXML private Button back;
     @FXML private Button next;
@@ -30,6 +39,9 @@ public class EvolutionSettingsController extends Modal {
     protected void initialise() {
         getStage().setTitle("Set the settings for the evolutionary algorithm");
 
+        hiddenStepFunction.getItems().setAll(StepFunctionType.values());
+        precision.getItems().setAll(Precision.values());
+
         next.setOnAction(event -> {
 
             String alertText = null;
@@ -42,10 +54,18 @@ public class EvolutionSettingsController extends Modal {
             if (searchParameters.getProbabilityOfMutation() > 1)
                 alertText = "The 'Probability of mutation' field cannot exceed 1";
 
+            if (searchParameters.getEvaluationThreads() < 1)
+                alertText = "The 'Evaluation threads' field must be at least 1";
+
+            if (searchParameters.getEvaluationChunkSize() < 1)
+                alertText = "The 'Solutions per chunk' field must be at least 1";
+
             if (populationSize.getText().isEmpty()
                     || probabilityOfCrossover.getText().isEmpty()
                     || probabilityOfMutation.getText().isEmpty()
-                    || annealTime.getText().isEmpty())
+                    || annealTime.getText().isEmpty()
+                    || evaluationThreads.getText().isEmpty()
+                    || evaluationChunkSize.getText().isEmpty())
                 alertText = "There can not be any empty fields";
 
             if (alertText == null) {
@@ -72,5 +92,10 @@ public class EvolutionSettingsController extends Modal {
         probabilityOfCrossover.textProperty().bindBidirectional(searchParameters.probabilityOfCrossoverProperty(), new NumberStringConverter());
         probabilityOfMutation.textProperty().bindBidirectional(searchParameters.probabilityOfMutationProperty(), new NumberStringConverter());
         annealTime.textProperty().bindBidirectional(searchParameters.annealTimeProperty(), new NumberStringConverter());
+        hiddenStepFunction.valueProperty().bindBidirectional(searchParameters.hiddenStepFunctionProperty());
+        precision.valueProperty().bindBidirectional(searchParameters.precisionProperty());
+        compileNetworks.selectedProperty().bindBidirectional(searchParameters.compileNetworksProperty());
+        evaluationThreads.textProperty().bindBidirectional(searchParameters.evaluationThreadsProperty(), new NumberStringConverter());
+        evaluationChunkSize.textProperty().bindBidirectional(searchParameters.evaluationChunkSizeProperty(), new NumberStringConverter());
     }
 }
\ No newline at end of file